@@ -1,8 +1,14 @@
 package com.example.mystore.api;
 
+import com.example.mystore.config.SessionFilter;
+import com.example.mystore.config.SessionRequired;
+import com.example.mystore.dto.api.request.CartItemOperationDTO;
 import com.example.mystore.dto.api.response.CartItemDTO;
 import com.example.mystore.services.apiServices.CartItemsService;
+import com.example.mystore.services.apiServices.OwnershipService;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.springframework.stereotype.Component;
@@ -15,16 +21,21 @@ import java.util.List;
  * Base path: /cart-items
  * Consumes: application/json
  * Produces: application/json
+ * Requires a session (X-Session-Id header, see SessionRequired); a user only reaches their own data,
+ * other users' data is answered with 403 (see OwnershipService).
  */
 @Path("/cart-items")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Component
+@SessionRequired
 public class CartItemsResource {
     private final CartItemsService cartItemsService;
+    private final OwnershipService ownershipService;
 
-    public CartItemsResource(CartItemsService cartItemsService) {
+    public CartItemsResource(CartItemsService cartItemsService, OwnershipService ownershipService) {
         this.cartItemsService = cartItemsService;
+        this.ownershipService = ownershipService;
     }
 
     /**
@@ -34,7 +45,8 @@ public class CartItemsResource {
      */
     @GET
     @Path("/user/{userId}")
-    public Response getCartItemsByUserId(@PathParam("userId") Long userId) {
+    public Response getCartItemsByUserId(@PathParam("userId") Long userId, @Context ContainerRequestContext request) {
+        ownershipService.requireUser(SessionFilter.sessionUserId(request), userId);
         List<CartItemDTO> items = cartItemsService.getItemsFromActiveCart(userId);
         return Response.ok(items).build();
     }
@@ -46,7 +58,8 @@ public class CartItemsResource {
      */
     @GET
     @Path("/cart/{cartId}")
-    public Response getCartItemsByCartId(@PathParam("cartId") Long cartId) {
+    public Response getCartItemsByCartId(@PathParam("cartId") Long cartId, @Context ContainerRequestContext request) {
+        ownershipService.requireCartOwner(SessionFilter.sessionUserId(request), cartId);
         List<CartItemDTO> items = cartItemsService.getItemsByCartId(cartId);
         return Response.ok(items).build();
     }
@@ -62,7 +75,9 @@ public class CartItemsResource {
     @Path("/{cartId}/items/{itemId}")
     public Response addItemToCart(@PathParam("cartId") Long cartId,
                                   @PathParam("itemId") String itemId,
-                                  @QueryParam("quantity") int quantity) {
+                                  @QueryParam("quantity") int quantity,
+                                  @Context ContainerRequestContext request) {
+        ownershipService.requireCartOwner(SessionFilter.sessionUserId(request), cartId);
         cartItemsService.addOrUpdateItemInCart(cartId, itemId, quantity);
         return Response.status(Response.Status.NO_CONTENT).build();
     }
@@ -80,9 +95,31 @@ public class CartItemsResource {
     @Path("/{cartId}/items/{itemId}")
     public Response removeItemFromCart(@PathParam("cartId") Long cartId,
                                        @PathParam("itemId") String itemId,
-                                       @QueryParam("quantity") int quantity) {
+                                       @QueryParam("quantity") int quantity,
+                                       @Context ContainerRequestContext request) {
+        ownershipService.requireCartOwner(SessionFilter.sessionUserId(request), cartId);
         cartItemsService.removeItemFromCart(cartId, itemId, quantity);
         return Response.noContent().build();
     }
 
-}
\ No newline at end of file
+    /**
+     * Applies several quantity changes to the cart at once, in a single transaction.
+     * Changes to the same item are summed; an item whose quantity reaches zero is removed.
+     *
+     * Example body: [{"itemId": "7290000000001", "delta": 3}, {"itemId": "7290000000002", "delta": -1}]
+     *
+     * @param cartId     The ID of the cart to update.
+     * @param operations The list of (itemId, delta) changes.
+     * @return A list of CartItemDTO representing the items in the cart after the changes.
+     */
+    @POST
+    @Path("/{cartId}/batch")
+    public Response applyCartOperations(@PathParam("cartId") Long cartId,
+                                        List<CartItemOperationDTO> operations,
+                                        @Context ContainerRequestContext request) {
+        ownershipService.requireCartOwner(SessionFilter.sessionUserId(request), cartId);
+        List<CartItemDTO> items = cartItemsService.applyOperations(cartId, operations);
+        return Response.ok(items).build();
+    }
+
+}
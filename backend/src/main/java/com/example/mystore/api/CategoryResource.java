@@ -1,25 +1,28 @@
 package com.example.mystore.api;
 
 import com.example.mystore.services.apiServices.CategoryService;
-import com.example.mystore.dto.api.response.GeneralCategoryDTO;
+import com.example.mystore.services.apiServices.CategoryService.SerializedCategories;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
-import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.*;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 
 /**
  * CategoryResource handles API requests related to retrieving available item categories.
  *
  * Base path: /categories
  * Produces: application/json
+ *
+ * The response is prepared once (see CategoryService) and sent as-is - gzip-compressed when the client
+ * accepts it. It carries an ETag (a matching If-None-Match is answered with 304) and may be reused for an hour.
  */
 @Component
 @Path("/categories")
 public class CategoryResource {
+    private static final String CACHE_CONTROL = "public, max-age=3600";
 
     private final CategoryService categoryService;
 
@@ -37,10 +40,62 @@ public class CategoryResource {
  * - GeneralCategoryDTO
  *    - List<SubCategoryDTO>
  *        - List<String> of SpecificCategory
+ *
+ * @param acceptEncoding The Accept-Encoding header of the request.
+ * @param request The request, used to evaluate If-None-Match.
+ * @return The JSON of a list of GeneralCategoryDTO, or 304 Not Modified.
  */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public List<GeneralCategoryDTO> getAllCategories() {
-        return categoryService.getAllCategories();
+    public Response getAllCategories(@HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding,
+                                     @Context Request request) {
+        SerializedCategories categories = categoryService.getSerializedCategories();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        // The compressed bytes are a different representation, so they get their own tag
+        EntityTag etag = new EntityTag(gzip ? categories.getEtag() + "-gzip" : categories.getEtag());
+
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified
+                    .tag(etag)
+                    .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        Response.ResponseBuilder response = Response.ok(gzip ? categories.getGzipJson() : categories.getJson(),
+                        MediaType.APPLICATION_JSON_TYPE.withCharset("UTF-8"))
+                .tag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.build();
+    }
+
+    // True if the Accept-Encoding header lists gzip (or *) without q=0
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().replace(" ", "");
+                if (parameter.matches("q=0(\\.0*)?")) {
+                    rejected = true;
+                }
+            }
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -2,13 +2,20 @@ package com.example.mystore.api;
 
 
 import com.example.mystore.dto.api.request.ComparisonRequestDTO;
+import com.example.mystore.dto.api.response.CartItemDTO;
 import com.example.mystore.dto.api.response.ComparisonResultDTO;
+import com.example.mystore.dto.api.response.StoreDTO;
 import com.example.mystore.services.apiServices.ItemPriceService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -22,10 +29,14 @@ import java.util.List;
 @Consumes(MediaType.APPLICATION_JSON)
 @Component
 public class ItemPriceResource {
+    private static final String NDJSON = "application/x-ndjson";
+
     private final ItemPriceService itemPriceService;
+    private final ObjectMapper objectMapper;
 
-    public ItemPriceResource(ItemPriceService itemPriceService) {
+    public ItemPriceResource(ItemPriceService itemPriceService, ObjectMapper objectMapper) {
         this.itemPriceService = itemPriceService;
+        this.objectMapper = objectMapper;
     }
 
 
@@ -58,8 +69,41 @@ public class ItemPriceResource {
         return Response.ok(comparisonResultDTOS).build();
     }
 
+    /**
+     * Streaming variant of /compare.
+     *
+     * Every store is priced concurrently and its ComparisonResultDTO is written
+     * as one JSON line (NDJSON) as soon as it is ready, so the client can render
+     * the first stores without waiting for the slowest one.
+     * Lines arrive in completion order - the client is responsible for sorting.
+     * A store that could not be priced still gets its line, with an "error" field and no items.
+     *
+     * The request is validated before the stream is opened, so an unknown user,
+     * a missing active cart or an empty store list still return 400.
+     *
+     * @param request A ComparisonRequestDTO containing the user ID, shopping cart ID, and store IDs for comparison.
+     * @return An NDJSON stream of ComparisonResultDTO, one line per store.
+     */
+    @POST
+    @Path("/compare/stream")
+    @Produces(NDJSON)
+    public Response compareStoresStream(ComparisonRequestDTO request) {
+        List<CartItemDTO> cartLines = itemPriceService.getComparisonCartLines(request);
+        List<StoreDTO> stores = itemPriceService.getComparisonStores(request);
 
-}
-
+        StreamingOutput stream = output -> itemPriceService.streamCartComparison(stores, cartLines,
+                result -> writeLine(output, result));
+        return Response.ok(stream, NDJSON).build();
+    }
 
+    private void writeLine(OutputStream output, ComparisonResultDTO result) {
+        try {
+            output.write(objectMapper.writeValueAsBytes(result));
+            output.write('\n');
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
+}
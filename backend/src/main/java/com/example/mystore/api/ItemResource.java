@@ -1,7 +1,12 @@
 package com.example.mystore.api;
 
+import com.example.mystore.config.EpochCached;
 import com.example.mystore.services.apiServices.ItemService;
+import com.example.mystore.dto.api.response.CursorPageDTO;
+import com.example.mystore.dto.api.response.FacetedItemsDTO;
 import com.example.mystore.dto.api.response.ItemDTO;
+import com.example.mystore.dto.api.response.SuggestionDTO;
+import com.example.mystore.services.cacheServices.DataEpoch;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
@@ -16,12 +21,21 @@ import java.util.List;
  *
  * Base path: /item
  * Produces: application/json
+ *
+ * Listing endpoints support two pagination modes:
+ * - page/size (default) - returns the rows of the requested page.
+ * - cursor/size - sent when the 'cursor' parameter is present (empty for the first page).
+ *   Returns a CursorPageDTO { content, nextCursor, hasNext } without a total count;
+ *   pass nextCursor back to get the following page. Latency does not depend on the page depth.
+ *
+ * Responses carry an ETag of the catalog and price epochs and may be reused for 5 minutes (see EpochCached).
  * Consumes: application/json
  */
 @Path("/item")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Component
+@EpochCached(value = {DataEpoch.CATALOG, DataEpoch.PRICES}, maxAge = 300)
 public class ItemResource {
     private final ItemService itemService;
 
@@ -34,17 +48,26 @@ public class ItemResource {
      *
      * @param category The name of the general category.
      * @param page The page number to retrieve (default is 0).
+     * @param cursor Continuation token for cursor mode (optional, see class doc).
      * @param size The number of items per page (default is 10).
+     * @param sort "id" (default) or "unitPrice" - best value first, grouped by unit basis. Page mode only, cursor mode is always by item ID.
      * @return A list of ItemDTO representing the items in the specified general category.
+     *         In cursor mode, a CursorPageDTO of ItemDTO.
      */
     @GET
     @Path("/by-general-category")
     public Response getItemsByGeneralCategory(
             @QueryParam("category") String category,
             @DefaultValue("0") @QueryParam("page") int page,
-            @DefaultValue("10") @QueryParam("size") int size) {
+            @QueryParam("cursor") String cursor,
+            @DefaultValue("10") @QueryParam("size") int size,
+            @QueryParam("sort") String sort) {
 
-        List<ItemDTO> items = itemService.getItemsByCategory("General", category, page, size);
+        if (cursor != null) {
+            CursorPageDTO<ItemDTO> items = itemService.getItemsByCategoryAfter("General", category, cursor, size);
+            return Response.ok(items).build();
+        }
+        List<ItemDTO> items = itemService.getItemsByCategory("General", category, sort, page, size);
         return Response.ok(items).build();
     }
 
@@ -53,17 +76,26 @@ public class ItemResource {
      *
      * @param category The name of the subcategory.
      * @param page The page number to retrieve (default is 0).
+     * @param cursor Continuation token for cursor mode (optional, see class doc).
      * @param size The number of items per page (default is 10).
+     * @param sort "id" (default) or "unitPrice" - best value first, grouped by unit basis. Page mode only, cursor mode is always by item ID.
      * @return A list of ItemDTO representing the items in the specified subcategory.
+     *         In cursor mode, a CursorPageDTO of ItemDTO.
      */
     @GET
     @Path("/by-sub-category")
     public Response getItemsBySubCategory(
             @QueryParam("category") String category,
             @DefaultValue("0") @QueryParam("page") int page,
-            @DefaultValue("10") @QueryParam("size") int size) {
+            @QueryParam("cursor") String cursor,
+            @DefaultValue("10") @QueryParam("size") int size,
+            @QueryParam("sort") String sort) {
 
-        List<ItemDTO> items = itemService.getItemsByCategory("Sub",category, page, size);
+        if (cursor != null) {
+            CursorPageDTO<ItemDTO> items = itemService.getItemsByCategoryAfter("Sub", category, cursor, size);
+            return Response.ok(items).build();
+        }
+        List<ItemDTO> items = itemService.getItemsByCategory("Sub", category, sort, page, size);
         return Response.ok(items).build();
     }
 
@@ -72,17 +104,26 @@ public class ItemResource {
      *
      * @param category The name of the specific category.
      * @param page The page number to retrieve (default is 0).
+     * @param cursor Continuation token for cursor mode (optional, see class doc).
      * @param size The number of items per page (default is 10).
+     * @param sort "id" (default) or "unitPrice" - best value first, grouped by unit basis. Page mode only, cursor mode is always by item ID.
      * @return A list of ItemDTO representing the items in the specified specific category.
+     *         In cursor mode, a CursorPageDTO of ItemDTO.
      */
     @GET
     @Path("/by-specific-category")
     public Response getItemsBySpecificCategory(
             @QueryParam("category") String category,
             @DefaultValue("0") @QueryParam("page") int page,
-            @DefaultValue("10") @QueryParam("size") int size) {
+            @QueryParam("cursor") String cursor,
+            @DefaultValue("10") @QueryParam("size") int size,
+            @QueryParam("sort") String sort) {
 
-        List<ItemDTO> items = itemService.getItemsByCategory("Specific", category, page, size);
+        if (cursor != null) {
+            CursorPageDTO<ItemDTO> items = itemService.getItemsByCategoryAfter("Specific", category, cursor, size);
+            return Response.ok(items).build();
+        }
+        List<ItemDTO> items = itemService.getItemsByCategory("Specific", category, sort, page, size);
         return Response.ok(items).build();
     }
 
@@ -91,18 +132,133 @@ public class ItemResource {
      * Searches for items by name or item ID.
      * Returns paginated results based on the query.
      *
+     * For a numeric query, 'match' decides how the digits are matched against item IDs:
+     * - prefix (default) / suffix - fast, served from memory.
+     * - contains - matches anywhere in the ID, noticeably slower.
+     *
      * @param query The search keyword (can be item name or item ID).
+     * @param match How a numeric query is matched: prefix, suffix or contains (default is prefix).
      * @param page The page number to retrieve (default is 0).
+     * @param cursor Continuation token for cursor mode (optional, see class doc).
      * @param size The number of items per page (default is 10).
      * @return A Page of ItemDTO matching the search query.
+     *         In cursor mode, a CursorPageDTO of ItemDTO.
      */
     @GET
     @Path("/search")
     public Response searchItem(
             @QueryParam("query") String query,
+            @DefaultValue("prefix") @QueryParam("match") String match,
             @DefaultValue("0") @QueryParam("page") int page,
+            @QueryParam("cursor") String cursor,
             @DefaultValue("10") @QueryParam("size") int size)  {
-        Page<ItemDTO> items = itemService.searchItem(query , page , size);
+        if (cursor != null) {
+            CursorPageDTO<ItemDTO> items = itemService.searchItemAfter(query, match, cursor, size);
+            return Response.ok(items).build();
+        }
+        Page<ItemDTO> items = itemService.searchItem(query , match , page , size);
+        return Response.ok(items).build();
+    }
+
+    /**
+     * Retrieves a page of a category listing filtered by manufacturer, manufacture country and weighted flag,
+     * together with the number of items for every filter value (manufacturers and countries: top 50).
+     * The counts of each filter ignore its own selection, so the other values of that filter stay visible.
+     *
+     * @param level The category level: General, Sub or Specific.
+     * @param category The name of the category.
+     * @param manufacturer Selected manufacturer (optional).
+     * @param country Selected manufacture country (optional).
+     * @param weighted true - only weighted items, false - only packaged items (optional).
+     * @param page The page number to retrieve (default is 0).
+     * @param size The number of items per page (default is 10).
+     * @return A FacetedItemsDTO with the items, their total and the filter counts.
+     */
+    @GET
+    @Path("/faceted/by-category")
+    public Response getFacetedItemsByCategory(
+            @QueryParam("level") String level,
+            @QueryParam("category") String category,
+            @QueryParam("manufacturer") String manufacturer,
+            @QueryParam("country") String country,
+            @QueryParam("weighted") Boolean weighted,
+            @DefaultValue("0") @QueryParam("page") int page,
+            @DefaultValue("10") @QueryParam("size") int size) {
+        FacetedItemsDTO items = itemService.getFacetedItemsByCategory(level, category, manufacturer, country, weighted, page, size);
+        return Response.ok(items).build();
+    }
+
+    /**
+     * Searches items by name, filtered by manufacturer, manufacture country and weighted flag,
+     * together with the number of items for every filter value (see /faceted/by-category).
+     *
+     * @param query The search keyword.
+     * @param manufacturer Selected manufacturer (optional).
+     * @param country Selected manufacture country (optional).
+     * @param weighted true - only weighted items, false - only packaged items (optional).
+     * @param page The page number to retrieve (default is 0).
+     * @param size The number of items per page (default is 10).
+     * @return A FacetedItemsDTO with the items, their total and the filter counts.
+     */
+    @GET
+    @Path("/faceted/search")
+    public Response searchFacetedItems(
+            @QueryParam("query") String query,
+            @QueryParam("manufacturer") String manufacturer,
+            @QueryParam("country") String country,
+            @QueryParam("weighted") Boolean weighted,
+            @DefaultValue("0") @QueryParam("page") int page,
+            @DefaultValue("10") @QueryParam("size") int size) {
+        FacetedItemsDTO items = itemService.searchFacetedItems(query, manufacturer, country, weighted, page, size);
+        return Response.ok(items).build();
+    }
+
+    /**
+     * Returns typeahead suggestions for a partial search input.
+     *
+     * Suggestions are item names and manufacturer names that have a word starting with the prefix
+     * (Hebrew final letters, niqqud and geresh are ignored), ranked by popularity -
+     * how many stores sell the item and how often it appears in carts.
+     * Answered from memory, without a COUNT or any other database query.
+     *
+     * @param prefix The text typed so far.
+     * @param limit The maximum number of suggestions (default is 10, at most 20).
+     * @return A list of SuggestionDTO, most popular first.
+     */
+    @GET
+    @Path("/suggest")
+    public Response suggest(
+            @QueryParam("prefix") String prefix,
+            @DefaultValue("10") @QueryParam("limit") int limit) {
+        List<SuggestionDTO> suggestions = itemService.suggest(prefix, limit);
+        return Response.ok(suggestions).build();
+    }
+
+    /**
+     * Retrieves the items carried by at least `minStores` of the given stores,
+     * optionally limited to one category. Ordered by item ID.
+     *
+     * Example: /item/available?storeIds=12&storeIds=57&minStores=2&level=Specific&category=...
+     * returns the items of the category that can be bought in both stores.
+     *
+     * @param level The category level: General, Sub or Specific (optional - all categories when omitted).
+     * @param category The name of the category (required when level is given).
+     * @param storeIds The IDs of the stores (repeat the parameter for every store).
+     * @param minStores How many of the stores must carry an item (default is 1 - any of them).
+     * @param page The page number to retrieve (default is 0).
+     * @param size The number of items per page (default is 10).
+     * @return A list of ItemDTO carried by the requested number of stores.
+     */
+    @GET
+    @Path("/available")
+    public Response getItemsCarriedByStores(
+            @QueryParam("level") String level,
+            @QueryParam("category") String category,
+            @QueryParam("storeIds") List<Long> storeIds,
+            @DefaultValue("1") @QueryParam("minStores") int minStores,
+            @DefaultValue("0") @QueryParam("page") int page,
+            @DefaultValue("10") @QueryParam("size") int size) {
+        List<ItemDTO> items = itemService.getItemsCarriedByStores(level, category, storeIds, minStores, page, size);
         return Response.ok(items).build();
     }
 
@@ -110,7 +266,9 @@ public class ItemResource {
      * Retrieves a list of alternative items from the same specific category,
      * based on a given item and store.
      *
-     * Only alternatives that are available (exist) in the specified store are returned.
+     * Only alternatives that are available (exist) in the specified store are returned,
+     * ordered from the cheapest, or with sort=unitPrice from the best value (lowest price per 100g / 100ml / unit).
+     * Results are cached per (category, store) until the next price update.
      *
      * Important:
      * - Although ItemDTO is generally used for representing products without store-specific pricing,
@@ -121,6 +279,7 @@ public class ItemResource {
      *
      * @param storeId The ID of the store to search alternatives in.
      * @param itemId The ID of the original item to find alternatives for.
+     * @param sort "price" (default) or "unitPrice".
      * @return A list of ItemDTO representing alternative items available in the specified store,
      *         each including its actual price.
      */
@@ -128,8 +287,9 @@ public class ItemResource {
     @Path("/alternatives")
     public Response getItemsBySpecificCategory(
             @QueryParam("storeId") Long storeId,
-            @QueryParam("itemId") String itemId) {
-        List<ItemDTO> items = itemService.findAlternatives(storeId , itemId);
+            @QueryParam("itemId") String itemId,
+            @QueryParam("sort") String sort) {
+        List<ItemDTO> items = itemService.findAlternatives(storeId , itemId, sort);
         return Response.ok(items).build();
     }
 
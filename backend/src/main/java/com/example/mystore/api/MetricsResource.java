@@ -0,0 +1,63 @@
+package com.example.mystore.api;
+
+import com.example.mystore.api.exceptions.AuthenticationException;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * MetricsResource exposes the application metrics (see RequestMetricsFilter, plus the JVM, Hikari
+ * and Hibernate metrics of Spring Boot) in the Prometheus text format, for scraping.
+ *
+ * The metrics name every endpoint and the pool and ORM internals, so they are not public:
+ * the scraper must send "Authorization: Bearer <metrics.scrape-token>". Without a configured token
+ * the endpoint does not exist (404).
+ *
+ * Base path: /metrics
+ * Produces: text/plain (Prometheus exposition format)
+ */
+@Component
+@Path("/metrics")
+public class MetricsResource {
+    private static final String PROMETHEUS_TEXT = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final PrometheusMeterRegistry prometheusMeterRegistry;
+    private final byte[] scrapeToken;
+
+    public MetricsResource(PrometheusMeterRegistry prometheusMeterRegistry,
+                           @Value("${metrics.scrape-token:}") String scrapeToken) {
+        this.prometheusMeterRegistry = prometheusMeterRegistry;
+        this.scrapeToken = scrapeToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the current value of all metrics.
+     *
+     * @param authorization The Authorization header, "Bearer <token>".
+     * @return The metrics in the Prometheus text format.
+     */
+    @GET
+    @Produces(PROMETHEUS_TEXT)
+    public Response scrape(@HeaderParam(HttpHeaders.AUTHORIZATION) String authorization) {
+        if (scrapeToken.length == 0) {
+            throw new NotFoundException();
+        }
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)
+                || !MessageDigest.isEqual(scrapeToken, authorization.substring(BEARER_PREFIX.length()).getBytes(StandardCharsets.UTF_8))) {
+            throw new AuthenticationException("Invalid metrics scrape token");
+        }
+        return Response.ok(prometheusMeterRegistry.scrape()).build();
+    }
+}
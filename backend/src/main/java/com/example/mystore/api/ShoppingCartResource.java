@@ -1,9 +1,15 @@
 package com.example.mystore.api;
 
+import com.example.mystore.config.SessionFilter;
+import com.example.mystore.config.SessionRequired;
 import com.example.mystore.dto.api.response.CartDto;
+import com.example.mystore.dto.api.response.CursorPageDTO;
 import com.example.mystore.dto.api.response.UserSummaryDTO;
+import com.example.mystore.services.apiServices.OwnershipService;
 import com.example.mystore.services.apiServices.ShoppingCartService;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.springframework.stereotype.Component;
@@ -16,18 +22,23 @@ import java.util.List;
  *
  * Base path: /shopping-carts
  * Produces: application/json
+ * Requires a session (X-Session-Id header, see SessionRequired); a user only reaches their own data,
+ * other users' data is answered with 403 (see OwnershipService).
  * Consumes: application/json
  */
 @Path("/shopping-carts")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Component
+@SessionRequired
 public class ShoppingCartResource {
 
     private final ShoppingCartService shoppingCartService;
+    private final OwnershipService ownershipService;
 
-    public ShoppingCartResource(ShoppingCartService shoppingCartService) {
+    public ShoppingCartResource(ShoppingCartService shoppingCartService, OwnershipService ownershipService) {
         this.shoppingCartService = shoppingCartService;
+        this.ownershipService = ownershipService;
     }
 
     /**
@@ -40,7 +51,8 @@ public class ShoppingCartResource {
      */
     @GET
     @Path("/active/{userId}")
-    public Response getActiveCartId(@PathParam("userId") Long userId) {
+    public Response getActiveCartId(@PathParam("userId") Long userId, @Context ContainerRequestContext request) {
+        ownershipService.requireUser(SessionFilter.sessionUserId(request), userId);
         Long cartId = shoppingCartService.getActiveCartForUser(userId);
         return Response.ok(cartId).build();
     }
@@ -56,7 +68,9 @@ public class ShoppingCartResource {
     @Path("/archive")
     public Response archiveCart(
             @QueryParam("cartId") Long cartId,
-            @QueryParam("cartName") String cartName) {
+            @QueryParam("cartName") String cartName,
+            @Context ContainerRequestContext request) {
+        ownershipService.requireCartOwner(SessionFilter.sessionUserId(request), cartId);
         System.out.println("🛒 cartId = " + cartId);
         System.out.println("📝 cartName = " + cartName);
         shoppingCartService.archiveCart(cartId, cartName);
@@ -72,19 +86,36 @@ public class ShoppingCartResource {
      */
     @DELETE
     @Path("/{cartId}")
-    public Response deleteShoppingCart(@PathParam("cartId") Long cartId) {
+    public Response deleteShoppingCart(@PathParam("cartId") Long cartId, @Context ContainerRequestContext request) {
+        ownershipService.requireCartOwner(SessionFilter.sessionUserId(request), cartId);
         shoppingCartService.deleteCart(cartId);
         return Response.noContent().build();
     }
 
     /**
-     * Retrieves a list of all archived shopping carts for a specific user.
+     * Retrieves the archived shopping carts of a specific user, newest first.
+     *
+     * Without the 'cursor' parameter all archived carts are returned.
+     * When 'cursor' is present (empty for the first page) one page is returned as
+     * a CursorPageDTO { content, nextCursor, hasNext }; pass nextCursor back to get the following page.
      *
      * @param userId The ID of the user.
+     * @param cursor Continuation token for cursor mode (optional).
+     * @param size The number of carts per page in cursor mode (default is 20).
      * @return A list of CartDto representing the user's archived carts.
-     */    @GET
+     *         In cursor mode, a CursorPageDTO of CartDto.
+     */
+    @GET
     @Path("/history/{userId}")
-    public Response getCartHistory(@PathParam("userId") Long userId) {
+    public Response getCartHistory(@PathParam("userId") Long userId,
+                                   @QueryParam("cursor") String cursor,
+                                   @DefaultValue("20") @QueryParam("size") int size,
+                                   @Context ContainerRequestContext request) {
+        ownershipService.requireUser(SessionFilter.sessionUserId(request), userId);
+        if (cursor != null) {
+            CursorPageDTO<CartDto> carts = shoppingCartService.getArchivedCartsPage(userId, cursor, size);
+            return Response.ok(carts).build();
+        }
         List<CartDto> carts = shoppingCartService.getArchivedCartsByUser(userId);
         return Response.ok(carts).build();
     }
@@ -98,7 +129,8 @@ public class ShoppingCartResource {
      */
     @PUT
     @Path("/{cartId}/activate")
-    public Response activateShoppingCart(@PathParam("cartId") Long cartId) {
+    public Response activateShoppingCart(@PathParam("cartId") Long cartId, @Context ContainerRequestContext request) {
+        ownershipService.requireCartOwner(SessionFilter.sessionUserId(request), cartId);
         shoppingCartService.activateCart(cartId);
         return Response.noContent().build();
     }
@@ -1,7 +1,11 @@
 package com.example.mystore.api;
 
+import com.example.mystore.config.EpochCached;
+import com.example.mystore.dto.api.response.CursorPageDTO;
+import com.example.mystore.dto.api.response.NearbyStoreDTO;
 import com.example.mystore.dto.api.response.StoreDTO;
 import com.example.mystore.services.apiServices.StoreService;
+import com.example.mystore.services.cacheServices.DataEpoch;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
@@ -14,12 +18,22 @@ import java.util.List;
  *
  * Base path: /stores
  * Produces: application/json
+ *
+ * Stores are served from memory (see StoreDirectory). City and chain filters match any part of the name,
+ * ignore Hebrew spelling variations ("ת"א", "תל-אביב") and stores without a city are never returned.
+ *
+ * All listings also support cursor pagination: when the 'cursor' parameter is present
+ * (empty for the first page) the response is a CursorPageDTO { content, nextCursor, hasNext }
+ * ordered by store ID, without a total count. Pass nextCursor back to get the following page.
+ *
+ * Responses carry an ETag of the store data epoch and may be reused for 5 minutes (see EpochCached).
  * Consumes: application/json
  */
 @Component
 @Path("/stores")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@EpochCached(value = DataEpoch.STORES, maxAge = 300)
 public class StoreResource {
 
     private final StoreService storeService;
@@ -32,13 +46,19 @@ public class StoreResource {
      * Retrieves a paginated list of all stores.
      *
      * @param page The page number to retrieve (default is 0).
+     * @param cursor Continuation token for cursor mode (optional, see class doc).
      * @param size The number of stores per page (default is 30).
      * @return A list of StoreDTO representing all stores.
      */
     @GET
     @Path("/all")
     public Response getAllStores(@QueryParam("page") @DefaultValue("0") int page,
+                                 @QueryParam("cursor") String cursor,
                                  @QueryParam("size") @DefaultValue("30") int size) {
+        if (cursor != null) {
+            CursorPageDTO<StoreDTO> stores = storeService.getStoresAfter(null, null, cursor, size);
+            return Response.ok(stores).build();
+        }
         List<StoreDTO> stores = storeService.getAllStores(page, size);
         return Response.ok(stores).build();
     }
@@ -48,6 +68,7 @@ public class StoreResource {
      *
      * @param city The name of the city to filter stores by.
      * @param page The page number to retrieve (default is 0).
+     * @param cursor Continuation token for cursor mode (optional, see class doc).
      * @param size The number of stores per page (default is 30).
      * @return A list of StoreDTO representing stores located in the specified city.
      *         Returns 400 BAD REQUEST if city is missing.
@@ -56,12 +77,17 @@ public class StoreResource {
     @Path("/by-city")
     public Response getStoresByCity(@QueryParam("city") String city,
                                     @QueryParam("page") @DefaultValue("0") int page,
+                                    @QueryParam("cursor") String cursor,
                                     @QueryParam("size") @DefaultValue("30") int size) {
         if (city == null || city.isBlank()) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Missing required query parameter: city")
                     .build();
         }
+        if (cursor != null) {
+            CursorPageDTO<StoreDTO> stores = storeService.getStoresAfter(city, null, cursor, size);
+            return Response.ok(stores).build();
+        }
 
         List<StoreDTO> stores = storeService.getStoresByCity(city, page, size);
         return Response.ok(stores).build();
@@ -73,6 +99,7 @@ public class StoreResource {
      *
      * @param chainName The name of the chain to filter stores by.
      * @param page The page number to retrieve (default is 0).
+     * @param cursor Continuation token for cursor mode (optional, see class doc).
      * @param size The number of stores per page (default is 30).
      * @return A list of StoreDTO representing stores belonging to the specified chain.
      *         Returns 400 BAD REQUEST if chainName is missing.
@@ -81,12 +108,17 @@ public class StoreResource {
     @Path("/by-chain")
     public Response getStoresByChain(@QueryParam("chainName") String chainName,
                                      @QueryParam("page") @DefaultValue("0") int page,
+                                     @QueryParam("cursor") String cursor,
                                      @QueryParam("size") @DefaultValue("30") int size) {
         if (chainName == null || chainName.isBlank()) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Missing required query parameter: chain")
                     .build();
         }
+        if (cursor != null) {
+            CursorPageDTO<StoreDTO> stores = storeService.getStoresAfter(null, chainName, cursor, size);
+            return Response.ok(stores).build();
+        }
 
         List<StoreDTO> stores = storeService.getStoresByChain(chainName, page, size);
         return Response.ok(stores).build();
@@ -98,6 +130,7 @@ public class StoreResource {
      * @param city The name of the city.
      * @param chainName The name of the chain.
      * @param page The page number to retrieve (default is 0).
+     * @param cursor Continuation token for cursor mode (optional, see class doc).
      * @param size The number of stores per page (default is 30).
      * @return A list of StoreDTO representing stores matching the specified city and chain.
      *         Returns 400 BAD REQUEST if either city or chainName is missing.
@@ -107,18 +140,45 @@ public class StoreResource {
     public Response getStoresByCityAndChain(@QueryParam("city") String city,
                                             @QueryParam("chainName") String chainName,
                                             @QueryParam("page") @DefaultValue("0") int page,
+                                            @QueryParam("cursor") String cursor,
                                             @QueryParam("size") @DefaultValue("30") int size) {
         if ((city == null || city.isBlank()) || (chainName == null || chainName.isBlank())) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("City and chain name are required.")
                     .build();
         }
+        if (cursor != null) {
+            CursorPageDTO<StoreDTO> stores = storeService.getStoresAfter(city, chainName, cursor, size);
+            return Response.ok(stores).build();
+        }
 
         List<StoreDTO> stores = storeService.getStoresByCityAndChain(city, chainName, page, size);
         return Response.ok(stores).build();
     }
 
+    /**
+     * Retrieves the stores nearest to a location, within a radius.
+     * Stores are located offline by their city, so distances are to the city center.
+     *
+     * @param lat Latitude of the location.
+     * @param lon Longitude of the location.
+     * @param radius The search radius in kilometers (default is 10, at most 100).
+     * @param limit The maximum number of stores (default is 20, at most 100).
+     * @return A list of NearbyStoreDTO, nearest first.
+     *         Returns 400 BAD REQUEST if lat or lon is missing.
+     */
+    @GET
+    @Path("/nearby")
+    public Response getNearbyStores(@QueryParam("lat") Double lat,
+                                    @QueryParam("lon") Double lon,
+                                    @QueryParam("radius") @DefaultValue("10") double radius,
+                                    @QueryParam("limit") @DefaultValue("20") int limit) {
+        if (lat == null || lon == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Missing required query parameters: lat, lon")
+                    .build();
+        }
+        List<NearbyStoreDTO> stores = storeService.findNearbyStores(lat, lon, radius, limit);
+        return Response.ok(stores).build();
+    }
 }
-
-
-
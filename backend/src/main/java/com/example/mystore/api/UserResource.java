@@ -72,7 +72,6 @@ public Response registerUser(RegisterDTO dto) {
     @POST
     @Path("/logout")
     public Response logoutUser(@QueryParam("session") String sessionNumber) {
-        System.out.println("📥 Session received: " + sessionNumber);
         userService.logoutUser(sessionNumber);
         return Response.ok(Map.of("message", "Logout successful")).build();
     }
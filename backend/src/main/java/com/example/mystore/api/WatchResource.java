@@ -0,0 +1,118 @@
+package com.example.mystore.api;
+
+import com.example.mystore.config.SessionFilter;
+import com.example.mystore.config.SessionRequired;
+import com.example.mystore.dto.api.request.PriceWatchRequestDTO;
+import com.example.mystore.dto.api.response.PriceAlertDTO;
+import com.example.mystore.dto.api.response.PriceWatchDTO;
+import com.example.mystore.services.apiServices.OwnershipService;
+import com.example.mystore.services.apiServices.PriceWatchService;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * WatchResource handles API requests related to price-drop watches and their alerts.
+ *
+ * A watch raises an alert when the daily price update lowers the price of the item,
+ * optionally only in chosen stores and only to a target price or below.
+ *
+ * Base path: /watches
+ * Produces: application/json
+ * Requires a session (X-Session-Id header, see SessionRequired); a user only reaches their own data,
+ * other users' data is answered with 403 (see OwnershipService).
+ * Consumes: application/json
+ */
+@Component
+@SessionRequired
+@Path("/watches")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class WatchResource {
+    private final PriceWatchService priceWatchService;
+    private final OwnershipService ownershipService;
+
+    public WatchResource(PriceWatchService priceWatchService, OwnershipService ownershipService) {
+        this.priceWatchService = priceWatchService;
+        this.ownershipService = ownershipService;
+    }
+
+    /**
+     * Creates a watch on an item.
+     *
+     * @param body The user, the item, and optionally a target price and store IDs.
+     * @return The created PriceWatchDTO.
+     */
+    @POST
+    public Response createWatch(PriceWatchRequestDTO body, @Context ContainerRequestContext request) {
+        if (body != null && body.getUserId() != null) {
+            ownershipService.requireUser(SessionFilter.sessionUserId(request), body.getUserId());
+        }
+        PriceWatchDTO watch = priceWatchService.createWatch(body);
+        return Response.ok(watch).build();
+    }
+
+    /**
+     * Retrieves the watches of a user, newest first.
+     *
+     * @param userId The ID of the user.
+     * @return A list of PriceWatchDTO.
+     */
+    @GET
+    @Path("/user/{userId}")
+    public Response getWatchesByUser(@PathParam("userId") Long userId, @Context ContainerRequestContext request) {
+        ownershipService.requireUser(SessionFilter.sessionUserId(request), userId);
+        List<PriceWatchDTO> watches = priceWatchService.getWatchesByUser(userId);
+        return Response.ok(watches).build();
+    }
+
+    /**
+     * Deletes a watch.
+     *
+     * @param watchId The ID of the watch.
+     * @return A 204 No Content response if the watch was deleted.
+     */
+    @DELETE
+    @Path("/{watchId}")
+    public Response deleteWatch(@PathParam("watchId") Long watchId, @Context ContainerRequestContext request) {
+        ownershipService.requireWatchOwner(SessionFilter.sessionUserId(request), watchId);
+        priceWatchService.deleteWatch(watchId);
+        return Response.noContent().build();
+    }
+
+    /**
+     * Retrieves the undelivered price-drop alerts of a user, oldest first (at most 100).
+     *
+     * @param userId The ID of the user.
+     * @return A list of PriceAlertDTO.
+     */
+    @GET
+    @Path("/alerts/user/{userId}")
+    public Response getPendingAlerts(@PathParam("userId") Long userId, @Context ContainerRequestContext request) {
+        ownershipService.requireUser(SessionFilter.sessionUserId(request), userId);
+        List<PriceAlertDTO> alerts = priceWatchService.getPendingAlerts(userId);
+        return Response.ok(alerts).build();
+    }
+
+    /**
+     * Marks the alerts of a user as delivered, up to (and including) the given alert.
+     *
+     * @param userId The ID of the user.
+     * @param upToId The alertId of the last alert the user received.
+     * @return A 204 No Content response.
+     */
+    @POST
+    @Path("/alerts/user/{userId}/delivered")
+    public Response markAlertsDelivered(@PathParam("userId") Long userId,
+                                        @QueryParam("upToId") Long upToId,
+                                        @Context ContainerRequestContext request) {
+        ownershipService.requireUser(SessionFilter.sessionUserId(request), userId);
+        priceWatchService.markAlertsDelivered(userId, upToId);
+        return Response.noContent().build();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.mystore.api.exceptions;
+
+public class AccessDeniedException extends RuntimeException {
+    public AccessDeniedException(String message) {
+        super(message);
+    }
+}
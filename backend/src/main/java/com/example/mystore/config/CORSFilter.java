@@ -13,6 +13,7 @@ import java.io.IOException;
  *
  * Allows the frontend application (possibly running on a different domain or port) to access the backend APIs.
  * This filter permits all origins and common HTTP methods.
+ * Requests are logged (sampled) by RequestMetricsFilter.
  */
 
 @Component
@@ -22,10 +23,9 @@ public class CORSFilter implements ContainerResponseFilter {
     @Override
     public void filter(ContainerRequestContext requestContext,
                        ContainerResponseContext responseContext) throws IOException {
-        System.out.println("CORSFilter activated for: " + requestContext.getUriInfo().getRequestUri());
-
         responseContext.getHeaders().add("Access-Control-Allow-Origin", "*");
-        responseContext.getHeaders().add("Access-Control-Allow-Headers", "origin, content-type, accept, authorization");
+        responseContext.getHeaders().add("Access-Control-Allow-Headers", "origin, content-type, accept, authorization, x-session-id, if-none-match");
+        responseContext.getHeaders().add("Access-Control-Expose-Headers", "etag");
         responseContext.getHeaders().add("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS, HEAD");
     }
 }
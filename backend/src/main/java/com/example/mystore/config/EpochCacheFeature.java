@@ -0,0 +1,33 @@
+package com.example.mystore.config;
+
+import com.example.mystore.services.cacheServices.DataEpochs;
+import jakarta.ws.rs.container.DynamicFeature;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.FeatureContext;
+import jakarta.ws.rs.ext.Provider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers an EpochCacheFilter for every resource method annotated with @EpochCached
+ * (directly or through its class), configured with the data sets and max-age of the annotation.
+ */
+@Component
+@Provider
+public class EpochCacheFeature implements DynamicFeature {
+    private final DataEpochs dataEpochs;
+
+    public EpochCacheFeature(DataEpochs dataEpochs) {
+        this.dataEpochs = dataEpochs;
+    }
+
+    @Override
+    public void configure(ResourceInfo resourceInfo, FeatureContext context) {
+        EpochCached cached = resourceInfo.getResourceMethod().getAnnotation(EpochCached.class);
+        if (cached == null) {
+            cached = resourceInfo.getResourceClass().getAnnotation(EpochCached.class);
+        }
+        if (cached != null) {
+            context.register(new EpochCacheFilter(dataEpochs, cached));
+        }
+    }
+}
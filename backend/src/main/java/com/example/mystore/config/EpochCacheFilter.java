@@ -0,0 +1,83 @@
+package com.example.mystore.config;
+
+import com.example.mystore.services.cacheServices.DataEpoch;
+import com.example.mystore.services.cacheServices.DataEpochs;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Conditional GET for one @EpochCached resource method. Registered per method by EpochCacheFeature.
+ *
+ * The ETag is the list of the current epochs, e.g. "catalogly0m5k00.pricesly0m5k00" (epochs in base 36).
+ * It is taken when the request arrives, so a response built while the data changes carries the older tag
+ * and is fetched again on the next request.
+ * Nothing is added while an epoch is still unknown (before the first load) or for non-200 responses.
+ */
+public class EpochCacheFilter implements ContainerRequestFilter, ContainerResponseFilter {
+    private static final String ETAG_PROPERTY = EpochCacheFilter.class.getName() + ".etag";
+
+    private final DataEpochs dataEpochs;
+    private final DataEpoch[] epochs;
+    private final String cacheControl;
+
+    public EpochCacheFilter(DataEpochs dataEpochs, EpochCached cached) {
+        this.dataEpochs = dataEpochs;
+        this.epochs = cached.value();
+        this.cacheControl = cached.maxAge() > 0
+                ? "public, max-age=" + cached.maxAge()
+                : "public, no-cache";
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        String method = requestContext.getMethod();
+        if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+            return;
+        }
+        EntityTag etag = currentTag();
+        if (etag == null) {
+            return;
+        }
+        requestContext.setProperty(ETAG_PROPERTY, etag);
+
+        Response.ResponseBuilder notModified = requestContext.getRequest().evaluatePreconditions(etag);
+        if (notModified != null) {
+            requestContext.abortWith(notModified
+                    .tag(etag)
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                    .build());
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        Object etag = requestContext.getProperty(ETAG_PROPERTY);
+        if (etag == null || responseContext.getStatus() != Response.Status.OK.getStatusCode()) {
+            return;
+        }
+        responseContext.getHeaders().putSingle(HttpHeaders.ETAG, etag);
+        responseContext.getHeaders().putSingle(HttpHeaders.CACHE_CONTROL, cacheControl);
+    }
+
+    // The strong ETag of the current epochs, null if one of them is not known yet
+    private EntityTag currentTag() {
+        StringBuilder tag = new StringBuilder();
+        for (DataEpoch epoch : epochs) {
+            long value = dataEpochs.get(epoch);
+            if (value == 0) {
+                return null;
+            }
+            if (!tag.isEmpty()) {
+                tag.append('.');
+            }
+            tag.append(epoch.name().toLowerCase()).append(Long.toString(value, 36));
+        }
+        return new EntityTag(tag.toString());
+    }
+}
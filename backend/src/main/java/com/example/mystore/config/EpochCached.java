@@ -0,0 +1,32 @@
+package com.example.mystore.config;
+
+import com.example.mystore.services.cacheServices.DataEpoch;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks GET endpoints whose response only changes when the given data sets change.
+ *
+ * Their responses carry a strong ETag built from the current epochs of the data sets (see DataEpochs)
+ * and a Cache-Control header, and a request with a matching If-None-Match is answered with 304
+ * before the resource method runs (see EpochCacheFilter).
+ * A method annotation overrides the annotation of its class.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface EpochCached {
+
+    /**
+     * The data sets the response is built from.
+     */
+    DataEpoch[] value();
+
+    /**
+     * How long (in seconds) browsers and the CDN may use the response without revalidating it.
+     * 0 - revalidate on every use (a 304 when nothing changed).
+     */
+    int maxAge() default 0;
+}
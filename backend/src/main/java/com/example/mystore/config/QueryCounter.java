@@ -0,0 +1,45 @@
+package com.example.mystore.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * QueryCounter counts the SQL statements Hibernate prepares on the current thread.
+ *
+ * It is registered as the Hibernate statement inspector and leaves the SQL unchanged.
+ * RequestMetricsFilter resets the count when a request starts and reads it when the response is ready.
+ * Statements run on other threads (e.g. the virtual threads of the store comparison) are not counted.
+ */
+@Component
+public class QueryCounter implements StatementInspector, HibernatePropertiesCustomizer {
+    private final ThreadLocal<int[]> count = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        count.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Starts counting from zero on the current thread.
+     */
+    public void reset() {
+        count.get()[0] = 0;
+    }
+
+    /**
+     * Returns the number of statements prepared on the current thread since the last reset.
+     */
+    public int get() {
+        return count.get()[0];
+    }
+}
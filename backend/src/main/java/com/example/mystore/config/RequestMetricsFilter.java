@@ -0,0 +1,209 @@
+package com.example.mystore.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.glassfish.jersey.server.ExtendedUriInfo;
+import org.glassfish.jersey.uri.UriTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RequestMetricsFilter measures every API request and records it in Micrometer (scraped through /metrics):
+ * - api.requests - latency until the response is ready, as a percentile histogram (aggregated across instances
+ *   by the scraper; no client-side percentiles), by endpoint, method, status and outcome;
+ * - api.requests.active - requests in progress, by endpoint;
+ * - api.request.size / api.response.size - body sizes in bytes, by endpoint;
+ * - api.request.queries - SQL statements per request (see QueryCounter), by endpoint.
+ * The endpoint is the matched path template, e.g. "/item/search" or "/cart-items/{cartId}/batch".
+ *
+ * Requests slower than api.slow-request-ms (default 1000) are logged as warnings with their query count.
+ * Other requests are logged to the "com.example.mystore.access" logger at a sample rate of
+ * api.access-log.sample-rate (default 0.01).
+ */
+@Component
+@Provider
+@Priority(100)  // Before the other filters, so time and queries include them
+public class RequestMetricsFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(RequestMetricsFilter.class);
+    private static final Logger accessLogger = LoggerFactory.getLogger("com.example.mystore.access");
+    private static final String START_PROPERTY = RequestMetricsFilter.class.getName() + ".start";
+    private static final String ENDPOINT_PROPERTY = RequestMetricsFilter.class.getName() + ".endpoint";
+    private static final String UNMATCHED = "UNMATCHED";
+
+    private final MeterRegistry meterRegistry;
+    private final QueryCounter queryCounter;
+    private final long slowRequestNanos;
+    private final double accessLogSampleRate;
+
+    private final Map<String, AtomicInteger> active = new ConcurrentHashMap<>();  // endpoint -> requests in progress
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry,
+                                QueryCounter queryCounter,
+                                @Value("${api.slow-request-ms:1000}") long slowRequestMillis,
+                                @Value("${api.access-log.sample-rate:0.01}") double accessLogSampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.queryCounter = queryCounter;
+        this.slowRequestNanos = TimeUnit.MILLISECONDS.toNanos(slowRequestMillis);
+        this.accessLogSampleRate = accessLogSampleRate;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        String endpoint = endpoint(requestContext);
+        requestContext.setProperty(ENDPOINT_PROPERTY, endpoint);
+        requestContext.setProperty(START_PROPERTY, System.nanoTime());
+        queryCounter.reset();
+        active(endpoint).incrementAndGet();
+
+        int length = requestContext.getLength();
+        if (length > 0) {
+            size("api.request.size", endpoint).record(length);
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        Object start = requestContext.getProperty(START_PROPERTY);
+        if (start == null) {
+            return;  // Not matched to a resource - the request filter did not run
+        }
+        requestContext.removeProperty(START_PROPERTY);
+        long nanos = System.nanoTime() - (Long) start;
+        String endpoint = (String) requestContext.getProperty(ENDPOINT_PROPERTY);
+        active(endpoint).decrementAndGet();
+
+        int status = responseContext.getStatus();
+        String method = requestContext.getMethod();
+        Timer.builder("api.requests")
+                .description("Latency of API requests until the response is ready")
+                .tags("endpoint", endpoint, "method", method, "status", String.valueOf(status), "outcome", outcome(status))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        int queries = queryCounter.get();
+        DistributionSummary.builder("api.request.queries")
+                .description("SQL statements per API request")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(queries);
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        String path = requestContext.getUriInfo().getPath();
+        if (nanos >= slowRequestNanos) {
+            logger.warn("Slow request: method={} path={} endpoint={} status={} durationMs={} queries={}",
+                    method, path, endpoint, status, millis, queries);
+        } else if (accessLogSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < accessLogSampleRate) {
+            accessLogger.info("method={} path={} endpoint={} status={} durationMs={} queries={}",
+                    method, path, endpoint, status, millis, queries);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        Object endpoint = context.getProperty(ENDPOINT_PROPERTY);
+        if (endpoint == null) {
+            context.proceed();
+            return;
+        }
+        CountingOutputStream counting = new CountingOutputStream(context.getOutputStream());
+        context.setOutputStream(counting);
+        try {
+            context.proceed();
+        } finally {
+            size("api.response.size", (String) endpoint).record(counting.count);
+        }
+    }
+
+    // The matched path template, outermost first, e.g. "/item" + "/search"
+    private static String endpoint(ContainerRequestContext requestContext) {
+        if (!(requestContext.getUriInfo() instanceof ExtendedUriInfo uriInfo)) {
+            return UNMATCHED;
+        }
+        List<UriTemplate> templates = uriInfo.getMatchedTemplates();
+        if (templates.isEmpty()) {
+            return UNMATCHED;
+        }
+        StringBuilder endpoint = new StringBuilder();
+        for (int i = templates.size() - 1; i >= 0; i--) {
+            String template = templates.get(i).getTemplate();
+            if (!template.startsWith("/")) {
+                endpoint.append('/');
+            }
+            endpoint.append(template);
+        }
+        return endpoint.toString().replace("//", "/");
+    }
+
+    private static String outcome(int status) {
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        } else if (status >= 400) {
+            return "CLIENT_ERROR";
+        } else if (status >= 300) {
+            return "REDIRECTION";
+        }
+        return "SUCCESS";
+    }
+
+    private AtomicInteger active(String endpoint) {
+        return active.computeIfAbsent(endpoint, e -> {
+            AtomicInteger count = new AtomicInteger();
+            Gauge.builder("api.requests.active", count, AtomicInteger::get)
+                    .description("API requests in progress")
+                    .tag("endpoint", e)
+                    .register(meterRegistry);
+            return count;
+        });
+    }
+
+    private DistributionSummary size(String name, String endpoint) {
+        return DistributionSummary.builder(name)
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+
+    // Passes everything through and counts the bytes
+    private static class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
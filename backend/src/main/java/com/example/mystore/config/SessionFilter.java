@@ -0,0 +1,49 @@
+package com.example.mystore.config;
+
+import com.example.mystore.services.apiServices.UserService;
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.ext.Provider;
+import org.springframework.stereotype.Component;
+
+/**
+ * SessionFilter checks the session of requests to resources marked with @SessionRequired.
+ *
+ * The session number is read from the X-Session-Id header and validated in memory,
+ * so an authenticated request costs no database round trip.
+ * A missing, unknown or expired session is answered with 401 (AuthenticationException).
+ * The ID of the session's user is stored in the request property "userId";
+ * resources read it with sessionUserId() and check ownership through OwnershipService.
+ */
+@Component
+@Provider
+@SessionRequired
+@Priority(Priorities.AUTHENTICATION)
+public class SessionFilter implements ContainerRequestFilter {
+    public static final String SESSION_HEADER = "X-Session-Id";
+    public static final String USER_ID_PROPERTY = "userId";
+
+    private final UserService userService;
+
+    public SessionFilter(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        Long userId = userService.requireSession(requestContext.getHeaderString(SESSION_HEADER));
+        requestContext.setProperty(USER_ID_PROPERTY, userId);
+    }
+
+    /**
+     * Returns the ID of the user whose session was validated for this request.
+     *
+     * @param requestContext the current request
+     * @return the user ID
+     */
+    public static Long sessionUserId(ContainerRequestContext requestContext) {
+        return (Long) requestContext.getProperty(USER_ID_PROPERTY);
+    }
+}
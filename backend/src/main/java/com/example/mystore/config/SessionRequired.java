@@ -0,0 +1,20 @@
+package com.example.mystore.config;
+
+import jakarta.ws.rs.NameBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks resources (or single resource methods) that need a logged-in user.
+ *
+ * Requests to them must send the session number received on login/register in the X-Session-Id header,
+ * see SessionFilter.
+ */
+@NameBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface SessionRequired {
+}
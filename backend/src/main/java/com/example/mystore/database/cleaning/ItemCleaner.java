@@ -9,6 +9,7 @@ import org.springframework.stereotype.Component;
  *
  * Responsibilities:
  * - Cleans unit quantities, units of measure, and manufacturing country names.
+ * - Derives the unit price basis of the item from the raw package unit (see UnitPriceCalculator).
  * - Copies basic item fields from the XML DTO to the database entity.
  * - Ensures consistent and unified formatting of item data for storage and further processing.
  */
@@ -22,6 +23,7 @@ public class ItemCleaner {
         cleanUnitQty(original , cleaned);
         cleanUnitOfMeasure(original, cleaned);
         cleanManufactureCountry(original, cleaned);
+        UnitPriceCalculator.apply(cleaned, original.getUnitQty());
     }
 
     private void cleanManufactureCountry(ItemXmlDTO original, Item cleaned) {
@@ -244,6 +246,32 @@ public class ItemCleaner {
                 break;
         }
 }
+
+    /**
+     * Recovers the raw unit quantity from a value cleaned by cleanUnitQty (the inverse of its mapping).
+     * Used for items stored before the raw value was kept for the unit price calculation.
+     *
+     * @param cleanedUnitQty the stored (cleaned) unit quantity
+     * @return the raw value, or null if it cannot be told apart - e.g. "ליטר" is both a raw "ליטר" and a raw "יחידה"
+     */
+    public static String toRawUnitQty(String cleanedUnitQty) {
+        if (cleanedUnitQty == null) {
+            return null;
+        }
+        switch (cleanedUnitQty) {
+            case "יחידה":     // "100 יח" or "יח"
+            case "מ\"ל":      // "100 מל", "מיליליטרים", "מטרים" or "מ\"ל"
+            case "ליטר":      // "יחידה" or "ליטר"
+            case "מטר":       // "ליטרים" or "מטר"
+                return null;
+            case "גרם":       // "גרמים" or "גרם" - both grams
+                return "גרם";
+            case "ק\"ג":      // "ק\"\"ג", "קילוגרמים" or "ק\"ג" - all kilograms
+                return "ק\"ג";
+            default:
+                return cleanedUnitQty;  // Not renamed by cleanUnitQty
+        }
+    }
     /* private void detectAndCleanRamiLevy(ItemXmlDTO original, Item cleaned) {
         String itemName = original.getItemName();
         String manufacturerName = original.getManufacturerName();
@@ -0,0 +1,161 @@
+package com.example.mystore.database.cleaning;
+
+import com.example.mystore.database.entities.Item;
+
+/**
+ * UnitPriceCalculator derives a comparable "price per unit" for items, based on the
+ * quantity fields normalized by ItemCleaner.
+ *
+ * Every item gets a basis (the unit the price is expressed in) and a factor, so that
+ *   unit price = shelf price * factor
+ * - Weight: per 100 גרם (grams and kilograms).
+ * - Volume: per 100 מ"ל (milliliters and liters).
+ * - Count / length: per יחידה / per מטר.
+ * Weighted items are priced per unit of measure (usually per kilogram), so their factor
+ * comes from the unit of measure rather than from the package quantity.
+ *
+ * Items whose units can't be interpreted get an empty basis and no factor - their unit price stays null.
+ *
+ * The package unit is read from the raw XML value when it is available: ItemCleaner's display mapping
+ * renames some units (e.g. "יחידה" to "ליטר", "ליטרים" to "מטר"), which must not decide the basis.
+ */
+public class UnitPriceCalculator {
+    public static final String PER_100_GRAM = "100 גרם";
+    public static final String PER_100_ML = "100 מ\"ל";
+    public static final String PER_UNIT = "יחידה";
+    public static final String PER_METER = "מטר";
+    public static final String NOT_COMPARABLE = "";
+
+    /**
+     * Sets the unit price basis and factor of the item.
+     *
+     * @param item the item (after ItemCleaner)
+     */
+    public static void apply(Item item) {
+        apply(item, null);
+    }
+
+    /**
+     * Sets the unit price basis and factor of the item, reading the package unit from the raw XML value.
+     *
+     * @param item the item (after ItemCleaner)
+     * @param rawUnitQty the unit quantity as it appeared in the price file (null to use the item's cleaned value)
+     */
+    public static void apply(Item item, String rawUnitQty) {
+        if (Boolean.TRUE.equals(item.getBIsWeighted())) {
+            applyByUnitOfMeasure(item);
+        } else {
+            applyByPackageQuantity(item, rawUnitQty == null ? item.getUnitQty() : normalizeRawUnit(rawUnitQty));
+        }
+    }
+
+    /**
+     * Calculates the unit price of a shelf price for the given item.
+     *
+     * @param item the item (its factor must already be set)
+     * @param price the shelf price
+     * @return the price per unit basis, or null if the item is not comparable
+     */
+    public static Double unitPrice(Item item, Double price) {
+        if (price == null || item.getUnitPriceFactor() == null) {
+            return null;
+        }
+        return price * item.getUnitPriceFactor();
+    }
+
+    // Regular items: the price is for the whole package of `quantity` x `unit`
+    private static void applyByPackageQuantity(Item item, String unit) {
+        Double quantity = item.getQuantity();
+        String unitQty = unit == null ? "" : unit.trim();
+        if (quantity == null || quantity <= 0) {
+            set(item, NOT_COMPARABLE, null);
+            return;
+        }
+
+        switch (unitQty) {
+            case "גרם":
+                set(item, PER_100_GRAM, 100 / quantity);
+                break;
+            case "ק\"ג":
+            case "קילוגרם":
+                set(item, PER_100_GRAM, 100 / (quantity * 1000));
+                break;
+            case "מ\"ל":
+                set(item, PER_100_ML, 100 / quantity);
+                break;
+            case "ליטר":
+                set(item, PER_100_ML, 100 / (quantity * 1000));
+                break;
+            case "יחידה":
+                set(item, PER_UNIT, 1 / quantity);
+                break;
+            case "מטר":
+                set(item, PER_METER, 1 / quantity);
+                break;
+            default:
+                set(item, NOT_COMPARABLE, null);
+                break;
+        }
+    }
+
+    // Weighted items: the price is per unit of measure
+    private static void applyByUnitOfMeasure(Item item) {
+        String unitOfMeasure = item.getUnitOfMeasure() == null ? "" : item.getUnitOfMeasure().trim();
+
+        switch (unitOfMeasure) {
+            case "ק\"ג":
+                set(item, PER_100_GRAM, 0.1);
+                break;
+            case "100 גרם":
+                set(item, PER_100_GRAM, 1.0);
+                break;
+            case "גרם":
+                set(item, PER_100_GRAM, 100.0);
+                break;
+            case "ליטר":
+                set(item, PER_100_ML, 0.1);
+                break;
+            case "100 מ\"ל":
+                set(item, PER_100_ML, 1.0);
+                break;
+            case "יחידה":
+                set(item, PER_UNIT, 1.0);
+                break;
+            default:
+                set(item, NOT_COMPARABLE, null);
+                break;
+        }
+    }
+
+    // Maps the unit names used in the price files to the names handled above (by meaning, not by ItemCleaner's mapping)
+    private static String normalizeRawUnit(String raw) {
+        switch (raw.trim()) {
+            case "יח":
+            case "יח'":
+            case "יח`":
+            case "יחידה":
+            case "יחידות":
+                return "יחידה";
+            case "גרמים":
+                return "גרם";
+            case "ק\"\"ג":
+            case "קילוגרמים":
+                return "ק\"ג";
+            case "מל":
+            case "מ'ל":
+            case "מיליליטרים":
+                return "מ\"ל";
+            case "ליטרים":
+                return "ליטר";
+            case "מטרים":
+                return "מטר";
+            default:
+                return raw.trim();
+        }
+    }
+
+    private static void set(Item item, String basis, Double factor) {
+        item.setUnitPriceBasis(basis);
+        item.setUnitPriceFactor(factor);
+    }
+}
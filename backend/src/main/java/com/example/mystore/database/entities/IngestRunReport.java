@@ -0,0 +1,248 @@
+package com.example.mystore.database.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Summary of one ingest run for one chain, written by IngestMetrics when the run ends.
+// Used to follow the duration and throughput of the nightly update over time.
+@Entity
+@Table(name = "INGEST_RUN_REPORT",
+// `idx_ingest_run_started` - lists the latest runs.
+        indexes = @Index(name = "idx_ingest_run_started", columnList = "run_started_at"))
+public class IngestRunReport {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "report_id")
+    private Long reportID;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "run_type")
+    private ProcessName runType;  // The ingest process the run belongs to (PRICE_UPDATE, INITIAL_LOAD)
+
+    @Column(name = "run_started_at")
+    private LocalDateTime runStartedAt;  // Identifies the run together with run_type
+
+    @Column(name = "run_finished_at")
+    private LocalDateTime runFinishedAt;
+
+    @Column(name = "success")
+    private Boolean success;  // false - the run ended with an error
+
+    @Column(name = "chain")
+    private String chain;  // The source the files came from (downloader directory, e.g. "shufersal")
+
+    @Column(name = "file_kind")
+    private String fileKind;  // "price" - the price files, "item" - the item seeding of the initial load
+
+    @Column(name = "files_downloaded")
+    private Long filesDownloaded;
+
+    @Column(name = "files_failed")
+    private Long filesFailed;  // Failed downloads and conversions
+
+    @Column(name = "bytes_downloaded")
+    private Long bytesDownloaded;
+
+    @Column(name = "files_parsed")
+    private Long filesParsed;
+
+    @Column(name = "rows_parsed")
+    private Long rowsParsed;
+
+    @Column(name = "parse_ms")
+    private Long parseMillis;
+
+    @Column(name = "rows_mapped")
+    private Long rowsMapped;  // Rows of items known in the ITEM table
+
+    @Column(name = "rows_unknown")
+    private Long rowsUnknown;  // Rows dropped - unknown item or no item ID
+
+    @Column(name = "rows_inserted")
+    private Long rowsInserted;
+
+    @Column(name = "rows_updated")
+    private Long rowsUpdated;
+
+    @Column(name = "rows_skipped")
+    private Long rowsSkipped;  // Existing rows that were already up to date
+
+    @Column(name = "flushes")
+    private Long flushes;
+
+    @Column(name = "flush_ms")
+    private Long flushMillis;
+
+    @Column(name = "newest_price_date")
+    private LocalDate newestPriceDate;  // The newest price date seen for the chain
+
+    public Long getReportID() {
+        return reportID;
+    }
+
+    public void setReportID(Long reportID) {
+        this.reportID = reportID;
+    }
+
+    public ProcessName getRunType() {
+        return runType;
+    }
+
+    public void setRunType(ProcessName runType) {
+        this.runType = runType;
+    }
+
+    public LocalDateTime getRunStartedAt() {
+        return runStartedAt;
+    }
+
+    public void setRunStartedAt(LocalDateTime runStartedAt) {
+        this.runStartedAt = runStartedAt;
+    }
+
+    public LocalDateTime getRunFinishedAt() {
+        return runFinishedAt;
+    }
+
+    public void setRunFinishedAt(LocalDateTime runFinishedAt) {
+        this.runFinishedAt = runFinishedAt;
+    }
+
+    public Boolean getSuccess() {
+        return success;
+    }
+
+    public void setSuccess(Boolean success) {
+        this.success = success;
+    }
+
+    public String getChain() {
+        return chain;
+    }
+
+    public void setChain(String chain) {
+        this.chain = chain;
+    }
+
+    public String getFileKind() {
+        return fileKind;
+    }
+
+    public void setFileKind(String fileKind) {
+        this.fileKind = fileKind;
+    }
+
+    public Long getFilesDownloaded() {
+        return filesDownloaded;
+    }
+
+    public void setFilesDownloaded(Long filesDownloaded) {
+        this.filesDownloaded = filesDownloaded;
+    }
+
+    public Long getFilesFailed() {
+        return filesFailed;
+    }
+
+    public void setFilesFailed(Long filesFailed) {
+        this.filesFailed = filesFailed;
+    }
+
+    public Long getBytesDownloaded() {
+        return bytesDownloaded;
+    }
+
+    public void setBytesDownloaded(Long bytesDownloaded) {
+        this.bytesDownloaded = bytesDownloaded;
+    }
+
+    public Long getFilesParsed() {
+        return filesParsed;
+    }
+
+    public void setFilesParsed(Long filesParsed) {
+        this.filesParsed = filesParsed;
+    }
+
+    public Long getRowsParsed() {
+        return rowsParsed;
+    }
+
+    public void setRowsParsed(Long rowsParsed) {
+        this.rowsParsed = rowsParsed;
+    }
+
+    public Long getParseMillis() {
+        return parseMillis;
+    }
+
+    public void setParseMillis(Long parseMillis) {
+        this.parseMillis = parseMillis;
+    }
+
+    public Long getRowsMapped() {
+        return rowsMapped;
+    }
+
+    public void setRowsMapped(Long rowsMapped) {
+        this.rowsMapped = rowsMapped;
+    }
+
+    public Long getRowsUnknown() {
+        return rowsUnknown;
+    }
+
+    public void setRowsUnknown(Long rowsUnknown) {
+        this.rowsUnknown = rowsUnknown;
+    }
+
+    public Long getRowsInserted() {
+        return rowsInserted;
+    }
+
+    public void setRowsInserted(Long rowsInserted) {
+        this.rowsInserted = rowsInserted;
+    }
+
+    public Long getRowsUpdated() {
+        return rowsUpdated;
+    }
+
+    public void setRowsUpdated(Long rowsUpdated) {
+        this.rowsUpdated = rowsUpdated;
+    }
+
+    public Long getRowsSkipped() {
+        return rowsSkipped;
+    }
+
+    public void setRowsSkipped(Long rowsSkipped) {
+        this.rowsSkipped = rowsSkipped;
+    }
+
+    public Long getFlushes() {
+        return flushes;
+    }
+
+    public void setFlushes(Long flushes) {
+        this.flushes = flushes;
+    }
+
+    public Long getFlushMillis() {
+        return flushMillis;
+    }
+
+    public void setFlushMillis(Long flushMillis) {
+        this.flushMillis = flushMillis;
+    }
+
+    public LocalDate getNewestPriceDate() {
+        return newestPriceDate;
+    }
+
+    public void setNewestPriceDate(LocalDate newestPriceDate) {
+        this.newestPriceDate = newestPriceDate;
+    }
+}
@@ -11,10 +11,16 @@ import java.util.List;
         // Indexes were added to improve query performance,
 // given that the `ITEM` table stores a relatively high volume of records.
         indexes = {
-                @Index(name = "idx_item_general_category",   columnList = "general_category"),
-                @Index(name = "idx_item_sub_category",       columnList = "sub_category"),
-                @Index(name = "idx_item_specific_category",  columnList = "specific_category"),
-                @Index(name = "idx_item_name",               columnList = "item_name")
+                // Category browsing filters by category and by minimum store coverage,
+                // so each category level is indexed together with `store_count` (also serves plain category lookups).
+                @Index(name = "idx_item_general_category_store_count",   columnList = "general_category, store_count"),
+                @Index(name = "idx_item_sub_category_store_count",       columnList = "sub_category, store_count"),
+                @Index(name = "idx_item_specific_category_store_count",  columnList = "specific_category, store_count"),
+                @Index(name = "idx_item_name",               columnList = "item_name"),
+                // "Cheapest per unit in category" listings, grouped by unit price basis (same order as the ByUnitPrice queries)
+                @Index(name = "idx_item_general_category_basis_unit_price",  columnList = "general_category, unit_price_basis DESC, lowest_unit_price"),
+                @Index(name = "idx_item_sub_category_basis_unit_price",      columnList = "sub_category, unit_price_basis DESC, lowest_unit_price"),
+                @Index(name = "idx_item_specific_category_basis_unit_price", columnList = "specific_category, unit_price_basis DESC, lowest_unit_price")
                 //Note: `item_id` is automatically indexed as it is the primary key.
         }
 )
@@ -63,6 +69,20 @@ public class Item {
     private String specificCategory;
     @Column(name = "image_url")
     private String imageUrl;
+    // Number of stores that sell the item (rows in `item_price`).
+    // Maintained by the price writers, so listings don't need a COUNT subquery per item.
+    @Column(name = "store_count")
+    private Integer storeCount;
+    // Unit in which unit prices of the item are expressed (e.g. "100 גרם"), empty if the item is not comparable.
+    // Set by UnitPriceCalculator on ingest.
+    @Column(name = "unit_price_basis")
+    private String unitPriceBasis;
+    // Multiplying a shelf price of the item by this factor gives its price per `unit_price_basis`
+    @Column(name = "unit_price_factor")
+    private Double unitPriceFactor;
+    // Lowest unit price across stores (like `lowest_price`, per `unit_price_basis`)
+    @Column(name = "lowest_unit_price")
+    private Double lowestUnitPrice;
 
 
 
@@ -185,6 +205,38 @@ public class Item {
         this.imageUrl = imageUrl;
     }
 
+    public Integer getStoreCount() {
+        return storeCount;
+    }
+
+    public void setStoreCount(Integer storeCount) {
+        this.storeCount = storeCount;
+    }
+
+    public String getUnitPriceBasis() {
+        return unitPriceBasis;
+    }
+
+    public void setUnitPriceBasis(String unitPriceBasis) {
+        this.unitPriceBasis = unitPriceBasis;
+    }
+
+    public Double getUnitPriceFactor() {
+        return unitPriceFactor;
+    }
+
+    public void setUnitPriceFactor(Double unitPriceFactor) {
+        this.unitPriceFactor = unitPriceFactor;
+    }
+
+    public Double getLowestUnitPrice() {
+        return lowestUnitPrice;
+    }
+
+    public void setLowestUnitPrice(Double lowestUnitPrice) {
+        this.lowestUnitPrice = lowestUnitPrice;
+    }
+
     public List<ItemPrice> getItemPrices() {
         return itemPrices;
     }
@@ -9,7 +9,9 @@ import java.time.LocalDate;
 @Table(name = "ITEM_PRICE",
   indexes = {
         @Index(name = "idx_item_price_item_id" , columnList = "item_id"),
-        @Index(name = "idx_item_price_store_id", columnList = "store_id")
+        @Index(name = "idx_item_price_store_id", columnList = "store_id"),
+        // Value ranking inside a store (alternatives sorted by price per unit)
+        @Index(name = "idx_item_price_store_unit_price", columnList = "store_id, unit_price")
   }
 )
 public class ItemPrice {
@@ -31,6 +33,8 @@ public class ItemPrice {
     private Double price; // Price of the product
     @Column(name = "price_date")
     private LocalDate priceDate; // Date when the price was last updated
+    @Column(name = "unit_price")
+    private Double unitPrice; // Price per the item's unit price basis (e.g. per 100 grams), null if not comparable
 
     public ItemPrice() {}
 
@@ -91,4 +95,12 @@ public class ItemPrice {
     public void setPriceDate(LocalDate priceDate) {
         this.priceDate = priceDate;
     }
+
+    public Double getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(Double unitPrice) {
+        this.unitPrice = unitPrice;
+    }
 }
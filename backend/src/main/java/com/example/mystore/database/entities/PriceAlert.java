@@ -0,0 +1,119 @@
+package com.example.mystore.database.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Outbox of price-drop alerts. A row is written when an ingest lowers the price of a watched item,
+// and is marked as delivered once the user received it.
+// The watch details are copied into the row, so alerts stay readable after the watch is deleted.
+@Entity
+@Table(name = "PRICE_ALERT_OUTBOX",
+// `idx_price_alert_user_pending` - finds the undelivered alerts of a user.
+// `idx_price_alert_pending` - counts the undelivered alerts and finds the oldest one (outbox metrics).
+        indexes = {
+                @Index(name = "idx_price_alert_user_pending", columnList = "user_id, delivered_at"),
+                @Index(name = "idx_price_alert_pending", columnList = "delivered_at, created_at")
+        })
+public class PriceAlert {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "alert_id")
+    private Long alertID;
+
+    @Column(name = "watch_id", nullable = false)
+    private Long watchID;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userID;
+
+    @Column(name = "item_id", nullable = false)
+    private String itemID;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeID;  // The store where the price dropped
+
+    @Column(name = "old_price")
+    private Double oldPrice;
+
+    @Column(name = "new_price")
+    private Double newPrice;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "delivered_at")
+    private LocalDateTime deliveredAt;  // null - not delivered yet
+
+    public Long getAlertID() {
+        return alertID;
+    }
+
+    public void setAlertID(Long alertID) {
+        this.alertID = alertID;
+    }
+
+    public Long getWatchID() {
+        return watchID;
+    }
+
+    public void setWatchID(Long watchID) {
+        this.watchID = watchID;
+    }
+
+    public Long getUserID() {
+        return userID;
+    }
+
+    public void setUserID(Long userID) {
+        this.userID = userID;
+    }
+
+    public String getItemID() {
+        return itemID;
+    }
+
+    public void setItemID(String itemID) {
+        this.itemID = itemID;
+    }
+
+    public Long getStoreID() {
+        return storeID;
+    }
+
+    public void setStoreID(Long storeID) {
+        this.storeID = storeID;
+    }
+
+    public Double getOldPrice() {
+        return oldPrice;
+    }
+
+    public void setOldPrice(Double oldPrice) {
+        this.oldPrice = oldPrice;
+    }
+
+    public Double getNewPrice() {
+        return newPrice;
+    }
+
+    public void setNewPrice(Double newPrice) {
+        this.newPrice = newPrice;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getDeliveredAt() {
+        return deliveredAt;
+    }
+
+    public void setDeliveredAt(LocalDateTime deliveredAt) {
+        this.deliveredAt = deliveredAt;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.mystore.database.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+// Represents an item watched by a user for price drops.
+// A watch can be limited to a set of stores and/or to a target price.
+@Entity
+@Table(name = "PRICE_WATCH",
+// `idx_price_watch_user` - lists the watches of a user.
+// `idx_price_watch_item` - finds the watches of an item (used when the watch index is loaded).
+        indexes = {
+                @Index(name = "idx_price_watch_user", columnList = "user_id"),
+                @Index(name = "idx_price_watch_item", columnList = "item_id")
+        })
+public class PriceWatch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "watch_id")
+    private Long watchID;
+
+    // The user who watches the item
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", referencedColumnName = "user_id", nullable = false)
+    private User user;
+
+    // The watched item
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", referencedColumnName = "item_id", nullable = false)
+    private Item item;
+
+    @Column(name = "target_price")
+    private Double targetPrice;  // Alert only when the price drops to this price or below (null - on any drop)
+
+    // The stores the watch is limited to (empty - any store)
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "PRICE_WATCH_STORE", joinColumns = @JoinColumn(name = "watch_id"))
+    @Column(name = "store_id")
+    private Set<Long> storeIds = new HashSet<>();
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public Long getWatchID() {
+        return watchID;
+    }
+
+    public void setWatchID(Long watchID) {
+        this.watchID = watchID;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Item getItem() {
+        return item;
+    }
+
+    public void setItem(Item item) {
+        this.item = item;
+    }
+
+    public Double getTargetPrice() {
+        return targetPrice;
+    }
+
+    public void setTargetPrice(Double targetPrice) {
+        this.targetPrice = targetPrice;
+    }
+
+    public Set<Long> getStoreIds() {
+        return storeIds;
+    }
+
+    public void setStoreIds(Set<Long> storeIds) {
+        this.storeIds = storeIds;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -9,8 +9,12 @@ import java.util.List;
 // Represents the shopping cart entity in the application.
 // This table stores all the shopping cart details for each user.
 @Entity
+// `idx_cart_user_status_updated` - serves the cart history of a user (archived carts, newest first) straight from the index.
 @Table(name = "SHOPPING_CART" ,
-     indexes = @Index(name = "idx_user_id" , columnList = "user_id"))
+     indexes = {
+        @Index(name = "idx_user_id" , columnList = "user_id"),
+        @Index(name = "idx_cart_user_status_updated", columnList = "user_id, status, updated_at")
+})
 public class ShoppingCart {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-generated identifier
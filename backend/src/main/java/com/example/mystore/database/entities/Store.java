@@ -45,6 +45,14 @@ public class Store {
     private String storeAddress;  // Address of the store
     @Column(name = "store_zip_code")
     private Long storeZipCode;
+    // Coordinates of the store locality (resolved offline from the bundled gazetteer), null if unknown
+    @Column(name = "latitude")
+    private Double latitude;
+    @Column(name = "longitude")
+    private Double longitude;
+    // True once the store went through geocoding, whether or not its locality was found
+    @Column(name = "geocode_attempted")
+    private Boolean geocodeAttempted;
 
     public Store() {}
 
@@ -120,6 +128,28 @@ public class Store {
     public void setStoreZipCode(long storeZipCode) {
         this.storeZipCode = storeZipCode;
     }
-}
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Boolean getGeocodeAttempted() {
+        return geocodeAttempted;
+    }
 
+    public void setGeocodeAttempted(Boolean geocodeAttempted) {
+        this.geocodeAttempted = geocodeAttempted;
+    }
+}
@@ -12,6 +12,8 @@ import java.util.List;
  *
  * Relationships:
  * - One-to-many relationship with ShoppingCart: A user can have multiple shopping carts.
+ *
+ * Login sessions are kept in USER_SESSION (see UserSession), not in this table.
  */
 @Entity
 @Table(
@@ -50,9 +52,6 @@ public class User {
     @Column(name = "status")
     private Boolean status;  // Whether the account is active or not (boolean value)
 
-    @Column(name = "session_number")
-    private String sessionNumber; // Session number for tracking the user's session
-
 
     public Long getUserID() {
         return userID;
@@ -119,12 +118,4 @@ public class User {
     public void setStatus(Boolean status) {
         this.status = status;
     }
-
-    public String getSessionNumber() {
-        return sessionNumber;
-    }
-
-    public void setSessionNumber(String sessionNumber) {
-        this.sessionNumber = sessionNumber;
-    }
 }
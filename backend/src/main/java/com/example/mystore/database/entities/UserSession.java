@@ -0,0 +1,62 @@
+package com.example.mystore.database.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// A login session of a user. Sessions are held in memory by SessionStore;
+// the table lets another node (or this one after a restart) recover a session it has not seen yet.
+@Entity
+@Table(name = "USER_SESSION",
+// `idx_user_session_user` - finds the sessions of a user.
+// `idx_user_session_expires` - purges the expired sessions.
+        indexes = {
+                @Index(name = "idx_user_session_user", columnList = "user_id"),
+                @Index(name = "idx_user_session_expires", columnList = "expires_at")
+        })
+public class UserSession {
+    @Id
+    @Column(name = "session_id", length = 36)
+    private String sessionID;  // Random UUID, sent by the client in the X-Session-Id header
+
+    @Column(name = "user_id", nullable = false)
+    private Long userID;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;  // Moved forward (sliding expiry) while the session is in use
+
+    public String getSessionID() {
+        return sessionID;
+    }
+
+    public void setSessionID(String sessionID) {
+        this.sessionID = sessionID;
+    }
+
+    public Long getUserID() {
+        return userID;
+    }
+
+    public void setUserID(Long userID) {
+        this.userID = userID;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -2,12 +2,47 @@ package com.example.mystore.database.repositories;
 
 import com.example.mystore.database.entities.CartItem;
 import com.example.mystore.database.entities.CartItemKey;
+import com.example.mystore.dto.api.response.CartItemDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, CartItemKey> {
     List<CartItem> findById_CartID(Long cartId); //find all the items in cart (by cart id)
+
+    // Finds the given items of a cart with one query (used by batch updates).
+    // The item and cart are fetched in the same query instead of one eager select per row.
+    @Query("""
+    SELECT ci FROM CartItem ci
+    JOIN FETCH ci.item
+    JOIN FETCH ci.shoppingCart
+    WHERE ci.id.cartID = :cartId AND ci.id.itemID IN :itemIds
+""")
+    List<CartItem> findById_CartIDAndId_ItemIDIn(@Param("cartId") Long cartId, @Param("itemIds") Collection<String> itemIds);
+
+    // Returns the lines of a cart as they are shown in the cart page - a single join with ITEM,
+    // with the min/max totals computed by the database. Ordered by item ID.
+    @Query("""
+    SELECT new com.example.mystore.dto.api.response.CartItemDTO(
+        i.itemID, i.itemName, i.imageUrl, ci.quantity,
+        ci.quantity * i.lowestPrice, ci.quantity * i.highestPrice,
+        i.lowestPrice, i.highestPrice)
+    FROM CartItem ci JOIN ci.item i
+    WHERE ci.id.cartID = :cartId
+    ORDER BY i.itemID
+""")
+    List<CartItemDTO> findCartItemDTOsByCartId(@Param("cartId") Long cartId);
+
+    // Returns (item_id, quantity) of every line of a cart, without loading the entities
+    @Query("SELECT ci.id.itemID, ci.quantity FROM CartItem ci WHERE ci.id.cartID = :cartId")
+    List<Object[]> findQuantitiesByCartId(@Param("cartId") Long cartId);
+
+    // Returns (item_id, number of carts containing it) for every item that was ever added to a cart
+    @Query("SELECT ci.id.itemID, COUNT(ci) FROM CartItem ci GROUP BY ci.id.itemID")
+    List<Object[]> countCartsPerItem();
 }
\ No newline at end of file
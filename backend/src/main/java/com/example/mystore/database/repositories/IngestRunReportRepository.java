@@ -0,0 +1,9 @@
+package com.example.mystore.database.repositories;
+
+import com.example.mystore.database.entities.IngestRunReport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IngestRunReportRepository extends JpaRepository<IngestRunReport, Long> {
+}
@@ -1,12 +1,60 @@
 package com.example.mystore.database.repositories;
 
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import com.example.mystore.database.entities.ItemPrice;
 import com.example.mystore.database.entities.ItemPriceKey;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface ItemPriceRepository extends JpaRepository<ItemPrice,ItemPriceKey> {
     Optional<ItemPrice> findByItemPriceKey(ItemPriceKey itemPriceKey);// Custom query method to find an `ItemPrice` by its composite key (`ItemPriceKey`).
 
+    // Returns (item_id, price) pairs for the given items in a single store - one query per store instead of one per item.
+    @Query("""
+    SELECT ip.itemPriceKey.itemID, ip.price
+    FROM ItemPrice ip
+    WHERE ip.itemPriceKey.storeID = :storeId
+    AND ip.itemPriceKey.itemID IN :itemIds
+""")
+    List<Object[]> findPricesInStore(@Param("storeId") Long storeId, @Param("itemIds") Collection<String> itemIds);
+
+    // Recalculates the unit price of every price row from its item's unit price factor (backfill of existing data)
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE item_price ip
+        SET unit_price = ip.price * i.unit_price_factor
+        FROM item i
+        WHERE i.item_id = ip.item_id
+        """, nativeQuery = true)
+    int updateAllUnitPrices();
+
+    // Recalculates the unit price of the price rows of the given items (their unit price factor changed)
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE item_price ip
+        SET unit_price = ip.price * i.unit_price_factor
+        FROM item i
+        WHERE i.item_id = ip.item_id
+        AND ip.item_id IN (:itemIds)
+        """, nativeQuery = true)
+    int updateUnitPrices(@Param("itemIds") Collection<String> itemIds);
+
+    // Streams every (store_id, item_id) pair - only the key columns, no entities - to build the availability bitmaps.
+    // Must be consumed inside a transaction.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT ip.itemPriceKey.storeID, ip.itemPriceKey.itemID FROM ItemPrice ip")
+    Stream<Object[]> streamStoreItemPairs();
 }
@@ -1,14 +1,16 @@
 package com.example.mystore.database.repositories;
 import com.example.mystore.database.entities.Item;
+import com.example.mystore.dto.api.response.ItemDTO;
 import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
-import org.yaml.snakeyaml.events.Event;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,20 +27,49 @@ public interface ItemRepository extends JpaRepository<Item,String> {
     Page<Item> findByItemNameContainingIgnoreCase(String name, Pageable pageable);
     // Finds items by their item ID (partial match) and supports pagination
     Page<Item> findByItemIDContaining(String id, Pageable pageable);
+    // Finds items whose item ID starts with the given digits (used until the in-memory ID index is built)
+    Page<Item> findByItemIDStartingWith(String prefix, Pageable pageable);
+    // Finds items whose item ID ends with the given digits (used until the in-memory ID index is built)
+    Page<Item> findByItemIDEndingWith(String suffix, Pageable pageable);
+
+    // Keyset (cursor) variants of the searches above - rows after `afterItemId` in item ID order, without a COUNT query
+    List<Item> findByItemNameContainingIgnoreCaseAndItemIDGreaterThanOrderByItemID(String name, String afterItemId, Pageable pageable);
+    List<Item> findByItemIDContainingAndItemIDGreaterThanOrderByItemID(String id, String afterItemId, Pageable pageable);
+    List<Item> findByItemIDStartingWithAndItemIDGreaterThanOrderByItemID(String prefix, String afterItemId, Pageable pageable);
+    List<Item> findByItemIDEndingWithAndItemIDGreaterThanOrderByItemID(String suffix, String afterItemId, Pageable pageable);
 
 
 // Finds items that are available in at least a specified number of stores
-// This query finds items that are available in at least `minStores` stores
-    @Query("""
-    SELECT i
-    FROM Item i
-    WHERE (
-        SELECT COUNT(DISTINCT ip.store.storeID)
-        FROM ItemPrice ip
-        WHERE ip.item = i
-    ) >= :minStores
-""")
-    List<Item> findItemsAvailableInAtLeastNStores(@Param("minStores") long minStores);
+// This query finds items that are available in at least `minStores` stores (by the maintained `store_count`)
+    @Query("SELECT i FROM Item i WHERE i.storeCount >= :minStores")
+    List<Item> findItemsAvailableInAtLeastNStores(@Param("minStores") int minStores);
+
+// Recalculates `store_count` of the given items from the `item_price` table (called by the price writers)
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE item i
+        SET store_count = (SELECT COUNT(*) FROM item_price ip WHERE ip.item_id = i.item_id)
+        WHERE i.item_id IN (:itemIds)
+        """, nativeQuery = true)
+    int updateStoreCounts(@Param("itemIds") Collection<String> itemIds);
+
+// Recalculates `store_count` of all items (after the initial load, or to backfill an existing database)
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE item i
+        SET store_count = (SELECT COUNT(*) FROM item_price ip WHERE ip.item_id = i.item_id)
+        """, nativeQuery = true)
+    int updateAllStoreCounts();
+
+    // Checks whether there are items whose `store_count` was never calculated
+    boolean existsByStoreCountIsNull();
+
+    // Checks whether there are items whose unit price basis was never calculated
+    boolean existsByUnitPriceBasisIsNull();
+    // Finds items whose unit price basis was never calculated (loaded before unit prices existed)
+    List<Item> findByUnitPriceBasisIsNull();
 
     // Finds items that have no image URL set (or the image URL is empty)
     @Query("SELECT i FROM Item i WHERE i.imageUrl IS NULL OR TRIM(i.imageUrl) = ''")
@@ -46,17 +77,19 @@ public interface ItemRepository extends JpaRepository<Item,String> {
 
 
 
-// Updates the minimum and maximum prices for each item by calculating them from the `ItemPrice` table
+// Updates the minimum and maximum prices (and the minimum unit price) for each item by calculating them from the `ItemPrice` table
     @Modifying
     @Transactional
     @Query(value = """
         UPDATE item i
         SET lowest_price = sub.min_price,
-            highest_price = sub.max_price
+            highest_price = sub.max_price,
+            lowest_unit_price = sub.min_unit_price
         FROM (
             SELECT item_id,
                    MIN(price) AS min_price,
-                   MAX(price) AS max_price
+                   MAX(price) AS max_price,
+                   MIN(unit_price) AS min_unit_price
             FROM item_price
             GROUP BY item_id
         ) sub
@@ -64,43 +97,196 @@ public interface ItemRepository extends JpaRepository<Item,String> {
         """, nativeQuery = true)
     void updateMinAndMaxPrices();
 
-// Finds items in a specific store (by store id) and by their specific category
+// Recalculates the minimum unit price of the given items (their unit price factor changed)
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE item i
+        SET lowest_unit_price = (SELECT MIN(ip.unit_price) FROM item_price ip WHERE ip.item_id = i.item_id)
+        WHERE i.item_id IN (:itemIds)
+        """, nativeQuery = true)
+    int updateLowestUnitPrices(@Param("itemIds") Collection<String> itemIds);
+
+// Finds the items of a specific category that are sold in a store (by store id), together with their price in that store.
+// A single join - ordered from the cheapest - instead of an EXISTS check per item plus a price lookup per result.
     @Query("""
-    SELECT i FROM Item i
+    SELECT new com.example.mystore.dto.api.response.ItemDTO(
+        i.itemID, i.itemName, ip.price, ip.price, i.imageUrl,
+        i.manufacturerName, i.manufactureCountry, i.unitQty, i.quantity, i.isWeighted,
+        ip.unitPrice, i.unitPriceBasis)
+    FROM ItemPrice ip JOIN ip.item i
     WHERE i.specificCategory = :category
-    AND EXISTS (
-        SELECT ip FROM ItemPrice ip
-        WHERE ip.item = i
-        AND ip.itemPriceKey.storeID = :storeId
-    )
+    AND ip.itemPriceKey.storeID = :storeId
+    ORDER BY ip.price, i.itemID
 """)
-    List<Item> findAlternativesBySpecificCategoryAndStore(@Param("category") String category, @Param("storeId") Long storeId);
+    List<ItemDTO> findAlternativesBySpecificCategoryAndStore(@Param("category") String category, @Param("storeId") Long storeId);
 
-// Finds items in a specific store (by store id) and by their sub-category
+// Same as above, by sub-category
     @Query("""
-    SELECT i FROM Item i
+    SELECT new com.example.mystore.dto.api.response.ItemDTO(
+        i.itemID, i.itemName, ip.price, ip.price, i.imageUrl,
+        i.manufacturerName, i.manufactureCountry, i.unitQty, i.quantity, i.isWeighted,
+        ip.unitPrice, i.unitPriceBasis)
+    FROM ItemPrice ip JOIN ip.item i
     WHERE i.subCategory = :category
-    AND EXISTS (
-        SELECT ip FROM ItemPrice ip
-        WHERE ip.item = i
-        AND ip.itemPriceKey.storeID = :storeId
-    )
+    AND ip.itemPriceKey.storeID = :storeId
+    ORDER BY ip.price, i.itemID
+""")
+    List<ItemDTO> findAlternativesBySubCategoryAndStore(@Param("category") String category, @Param("storeId") Long storeId);
+
+// Same as the two queries above, ordered by the best value (price per unit) first - items that are not comparable come last
+    @Query("""
+    SELECT new com.example.mystore.dto.api.response.ItemDTO(
+        i.itemID, i.itemName, ip.price, ip.price, i.imageUrl,
+        i.manufacturerName, i.manufactureCountry, i.unitQty, i.quantity, i.isWeighted,
+        ip.unitPrice, i.unitPriceBasis)
+    FROM ItemPrice ip JOIN ip.item i
+    WHERE i.specificCategory = :category
+    AND ip.itemPriceKey.storeID = :storeId
+    ORDER BY i.unitPriceBasis DESC, ip.unitPrice NULLS LAST, ip.price, i.itemID
+""")
+    List<ItemDTO> findAlternativesBySpecificCategoryAndStoreByUnitPrice(@Param("category") String category, @Param("storeId") Long storeId);
+
+    @Query("""
+    SELECT new com.example.mystore.dto.api.response.ItemDTO(
+        i.itemID, i.itemName, ip.price, ip.price, i.imageUrl,
+        i.manufacturerName, i.manufactureCountry, i.unitQty, i.quantity, i.isWeighted,
+        ip.unitPrice, i.unitPriceBasis)
+    FROM ItemPrice ip JOIN ip.item i
+    WHERE i.subCategory = :category
+    AND ip.itemPriceKey.storeID = :storeId
+    ORDER BY i.unitPriceBasis DESC, ip.unitPrice NULLS LAST, ip.price, i.itemID
+""")
+    List<ItemDTO> findAlternativesBySubCategoryAndStoreByUnitPrice(@Param("category") String category, @Param("storeId") Long storeId);
+
+
+
+// Category listings - items of a category that are sold in at least `minStores` stores.
+// Served by the (category, store_count) indexes; returned as a Slice so no COUNT query is run.
+    @Query("SELECT i FROM Item i WHERE i.generalCategory = :category AND i.storeCount >= :minStores ORDER BY i.itemID")
+    Slice<Item> findByGeneralCategoryWithMinStores(@Param("category") String category, @Param("minStores") int minStores, Pageable pageable);
+
+    @Query("SELECT i FROM Item i WHERE i.subCategory = :category AND i.storeCount >= :minStores ORDER BY i.itemID")
+    Slice<Item> findBySubCategoryWithMinStores(@Param("category") String category, @Param("minStores") int minStores, Pageable pageable);
+
+    @Query("SELECT i FROM Item i WHERE i.specificCategory = :category AND i.storeCount >= :minStores ORDER BY i.itemID")
+    Slice<Item> findBySpecificCategoryWithMinStores(@Param("category") String category, @Param("minStores") int minStores, Pageable pageable);
+
+// Category listings filtered by manufacturer, country and weighted flag (a null filter matches every item).
+// Used only while the in-memory facets are being (re)built; a missing weighted flag counts as not weighted, as in FacetIndex.
+    @Query("""
+    SELECT i FROM Item i WHERE i.generalCategory = :category AND i.storeCount >= :minStores
+    AND (:manufacturer IS NULL OR i.manufacturerName = :manufacturer)
+    AND (:country IS NULL OR i.manufactureCountry = :country)
+    AND (:weighted IS NULL OR COALESCE(i.isWeighted, false) = :weighted)
+    ORDER BY i.itemID
 """)
-    List<Item> findAlternativesBySubCategoryAndStore(@Param("category") String category, @Param("storeId") Long storeId);
+    Slice<Item> findByGeneralCategoryWithMinStoresFiltered(@Param("category") String category, @Param("minStores") int minStores,
+                                                           @Param("manufacturer") String manufacturer, @Param("country") String country,
+                                                           @Param("weighted") Boolean weighted, Pageable pageable);
+
+    @Query("""
+    SELECT i FROM Item i WHERE i.subCategory = :category AND i.storeCount >= :minStores
+    AND (:manufacturer IS NULL OR i.manufacturerName = :manufacturer)
+    AND (:country IS NULL OR i.manufactureCountry = :country)
+    AND (:weighted IS NULL OR COALESCE(i.isWeighted, false) = :weighted)
+    ORDER BY i.itemID
+""")
+    Slice<Item> findBySubCategoryWithMinStoresFiltered(@Param("category") String category, @Param("minStores") int minStores,
+                                                       @Param("manufacturer") String manufacturer, @Param("country") String country,
+                                                       @Param("weighted") Boolean weighted, Pageable pageable);
+
+    @Query("""
+    SELECT i FROM Item i WHERE i.specificCategory = :category AND i.storeCount >= :minStores
+    AND (:manufacturer IS NULL OR i.manufacturerName = :manufacturer)
+    AND (:country IS NULL OR i.manufactureCountry = :country)
+    AND (:weighted IS NULL OR COALESCE(i.isWeighted, false) = :weighted)
+    ORDER BY i.itemID
+""")
+    Slice<Item> findBySpecificCategoryWithMinStoresFiltered(@Param("category") String category, @Param("minStores") int minStores,
+                                                            @Param("manufacturer") String manufacturer, @Param("country") String country,
+                                                            @Param("weighted") Boolean weighted, Pageable pageable);
+
+// Name search with the same filters; `pattern` is a LIKE pattern whose wildcards in the user's text are escaped with '\'
+    @Query("""
+    SELECT i FROM Item i WHERE LOWER(i.itemName) LIKE LOWER(:pattern) ESCAPE '\\'
+    AND (:manufacturer IS NULL OR i.manufacturerName = :manufacturer)
+    AND (:country IS NULL OR i.manufactureCountry = :country)
+    AND (:weighted IS NULL OR COALESCE(i.isWeighted, false) = :weighted)
+    ORDER BY i.itemID
+""")
+    Page<Item> findByItemNameLikeFiltered(@Param("pattern") String pattern,
+                                          @Param("manufacturer") String manufacturer, @Param("country") String country,
+                                          @Param("weighted") Boolean weighted, Pageable pageable);
+
+// Keyset (cursor) variants of the category listings - rows after `afterItemId` in item ID order
+    @Query("SELECT i FROM Item i WHERE i.generalCategory = :category AND i.storeCount >= :minStores AND i.itemID > :afterItemId ORDER BY i.itemID")
+    List<Item> findByGeneralCategoryWithMinStoresAfter(@Param("category") String category, @Param("minStores") int minStores, @Param("afterItemId") String afterItemId, Pageable pageable);
 
+    @Query("SELECT i FROM Item i WHERE i.subCategory = :category AND i.storeCount >= :minStores AND i.itemID > :afterItemId ORDER BY i.itemID")
+    List<Item> findBySubCategoryWithMinStoresAfter(@Param("category") String category, @Param("minStores") int minStores, @Param("afterItemId") String afterItemId, Pageable pageable);
 
+    @Query("SELECT i FROM Item i WHERE i.specificCategory = :category AND i.storeCount >= :minStores AND i.itemID > :afterItemId ORDER BY i.itemID")
+    List<Item> findBySpecificCategoryWithMinStoresAfter(@Param("category") String category, @Param("minStores") int minStores, @Param("afterItemId") String afterItemId, Pageable pageable);
 
-    @Query("SELECT i FROM Item i WHERE i.generalCategory = :category AND " +
-            "(SELECT COUNT(DISTINCT ip.store.storeID) FROM ItemPrice ip WHERE ip.item.itemID = i.itemID) >= 20")
-    Page<Item> findByGeneralCategoryWithMinStores(@Param("category") String category, Pageable pageable);
+// Category listings ordered by the best value (lowest unit price) first within each unit price basis, served by the
+// (category, unit_price_basis DESC, lowest_unit_price) indexes. Bases in descending order put the not-comparable basis ("") last,
+// so prices per 100g, per 100ml and per unit are never mixed in one run.
+    @Query("SELECT i FROM Item i WHERE i.generalCategory = :category AND i.storeCount >= :minStores ORDER BY i.unitPriceBasis DESC, i.lowestUnitPrice NULLS LAST, i.itemID")
+    Slice<Item> findByGeneralCategoryWithMinStoresByUnitPrice(@Param("category") String category, @Param("minStores") int minStores, Pageable pageable);
 
-    @Query("SELECT i FROM Item i WHERE i.subCategory = :category AND " +
-            "(SELECT COUNT(DISTINCT ip.store.storeID) FROM ItemPrice ip WHERE ip.item.itemID = i.itemID) >= 20")
-    Page<Item> findBySubCategoryWithMinStores(@Param("category") String category, Pageable pageable);
+    @Query("SELECT i FROM Item i WHERE i.subCategory = :category AND i.storeCount >= :minStores ORDER BY i.unitPriceBasis DESC, i.lowestUnitPrice NULLS LAST, i.itemID")
+    Slice<Item> findBySubCategoryWithMinStoresByUnitPrice(@Param("category") String category, @Param("minStores") int minStores, Pageable pageable);
 
-    @Query("SELECT i FROM Item i WHERE i.specificCategory = :category AND " +
-            "(SELECT COUNT(DISTINCT ip.store.storeID) FROM ItemPrice ip WHERE ip.item.itemID = i.itemID) >= 20")
-    Page<Item> findBySpecificCategoryWithMinStores(@Param("category") String category, Pageable pageable);
+    @Query("SELECT i FROM Item i WHERE i.specificCategory = :category AND i.storeCount >= :minStores ORDER BY i.unitPriceBasis DESC, i.lowestUnitPrice NULLS LAST, i.itemID")
+    Slice<Item> findBySpecificCategoryWithMinStoresByUnitPrice(@Param("category") String category, @Param("minStores") int minStores, Pageable pageable);
 
+// Items carried by at least `minStores` of the given stores (used until the in-memory availability index is built)
+    @Query("""
+    SELECT i FROM Item i
+    WHERE i.itemID IN (
+        SELECT ip.itemPriceKey.itemID FROM ItemPrice ip
+        WHERE ip.itemPriceKey.storeID IN :storeIds
+        GROUP BY ip.itemPriceKey.itemID
+        HAVING COUNT(ip) >= :minStores)
+    ORDER BY i.itemID
+""")
+    Slice<Item> findCarriedByAtLeast(@Param("storeIds") Collection<Long> storeIds, @Param("minStores") long minStores, Pageable pageable);
+
+    @Query("""
+    SELECT i FROM Item i
+    WHERE i.generalCategory = :category
+    AND i.itemID IN (
+        SELECT ip.itemPriceKey.itemID FROM ItemPrice ip
+        WHERE ip.itemPriceKey.storeID IN :storeIds
+        GROUP BY ip.itemPriceKey.itemID
+        HAVING COUNT(ip) >= :minStores)
+    ORDER BY i.itemID
+""")
+    Slice<Item> findByGeneralCategoryCarriedByAtLeast(@Param("category") String category, @Param("storeIds") Collection<Long> storeIds, @Param("minStores") long minStores, Pageable pageable);
+
+    @Query("""
+    SELECT i FROM Item i
+    WHERE i.subCategory = :category
+    AND i.itemID IN (
+        SELECT ip.itemPriceKey.itemID FROM ItemPrice ip
+        WHERE ip.itemPriceKey.storeID IN :storeIds
+        GROUP BY ip.itemPriceKey.itemID
+        HAVING COUNT(ip) >= :minStores)
+    ORDER BY i.itemID
+""")
+    Slice<Item> findBySubCategoryCarriedByAtLeast(@Param("category") String category, @Param("storeIds") Collection<Long> storeIds, @Param("minStores") long minStores, Pageable pageable);
+
+    @Query("""
+    SELECT i FROM Item i
+    WHERE i.specificCategory = :category
+    AND i.itemID IN (
+        SELECT ip.itemPriceKey.itemID FROM ItemPrice ip
+        WHERE ip.itemPriceKey.storeID IN :storeIds
+        GROUP BY ip.itemPriceKey.itemID
+        HAVING COUNT(ip) >= :minStores)
+    ORDER BY i.itemID
+""")
+    Slice<Item> findBySpecificCategoryCarriedByAtLeast(@Param("category") String category, @Param("storeIds") Collection<Long> storeIds, @Param("minStores") long minStores, Pageable pageable);
 
 }
@@ -0,0 +1,29 @@
+package com.example.mystore.database.repositories;
+
+import com.example.mystore.database.entities.PriceAlert;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PriceAlertRepository extends JpaRepository<PriceAlert, Long> {
+
+    // Finds the undelivered alerts of a user, oldest first
+    @Query("SELECT a FROM PriceAlert a WHERE a.userID = :userId AND a.deliveredAt IS NULL ORDER BY a.alertID")
+    List<PriceAlert> findPending(@Param("userId") Long userId, Pageable pageable);
+
+    // Marks the undelivered alerts of a user up to (and including) an alert ID as delivered
+    @Modifying
+    @Query("UPDATE PriceAlert a SET a.deliveredAt = :deliveredAt WHERE a.userID = :userId AND a.deliveredAt IS NULL AND a.alertID <= :upToId")
+    int markDelivered(@Param("userId") Long userId, @Param("upToId") Long upToId, @Param("deliveredAt") LocalDateTime deliveredAt);
+
+    // Returns one row (number of undelivered alerts, creation time of the oldest one) - the outbox depth and lag
+    @Query("SELECT COUNT(a), MIN(a.createdAt) FROM PriceAlert a WHERE a.deliveredAt IS NULL")
+    List<Object[]> findPendingStats();
+}
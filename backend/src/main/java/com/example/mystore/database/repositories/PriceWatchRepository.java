@@ -0,0 +1,29 @@
+package com.example.mystore.database.repositories;
+
+import com.example.mystore.database.entities.PriceWatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PriceWatchRepository extends JpaRepository<PriceWatch, Long> {
+
+    // Finds all the watches of a user, newest first
+    List<PriceWatch> findByUser_UserIDOrderByWatchIDDesc(Long userId);
+
+    // Returns the ID of the user that owns a watch
+    @Query("SELECT w.user.userID FROM PriceWatch w WHERE w.watchID = :watchId")
+    Optional<Long> findOwnerId(@Param("watchId") Long watchId);
+
+    // Returns (watch_id, user_id, item_id, target_price) of every watch - used to build the in-memory watch index
+    @Query("SELECT w.watchID, w.user.userID, w.item.itemID, w.targetPrice FROM PriceWatch w")
+    List<Object[]> findAllWatchRows();
+
+    // Returns (watch_id, store_id) for every store a watch is limited to
+    @Query("SELECT w.watchID, s FROM PriceWatch w JOIN w.storeIds s")
+    List<Object[]> findAllWatchStores();
+}
@@ -2,9 +2,14 @@ package com.example.mystore.database.repositories;
 
 import com.example.mystore.database.entities.ShoppingCart;
 import com.example.mystore.database.entities.User;
+import com.example.mystore.dto.api.response.CartDto;
 import com.example.mystore.services.CartStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +21,33 @@ public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, Long
     // Finds a shopping cart for a specific user by user ID and cart status.
     Optional<ShoppingCart> findByUser_UserIDAndStatus(Long userId, CartStatus cartStatus);
 
+    // Checks whether a cart exists with the given status (primary-key lookup, no entity is loaded)
+    boolean existsByCartIDAndStatus(Long cartId, CartStatus status);
+
+    // Returns the ID of the user that owns a cart (primary-key lookup, no entity is loaded)
+    @Query("SELECT c.user.userID FROM ShoppingCart c WHERE c.cartID = :cartId")
+    Optional<Long> findOwnerId(@Param("cartId") Long cartId);
+
+    // Returns the carts of a user with the given status as CartDto rows (no entities), newest first.
+    // Served by the (user_id, status, updated_at) index; the page size comes from the Pageable.
+    @Query("""
+    SELECT new com.example.mystore.dto.api.response.CartDto(c.cartID, c.cartName, c.updatedAt)
+    FROM ShoppingCart c
+    WHERE c.user.userID = :userId AND c.status = :status
+    ORDER BY c.updatedAt DESC, c.cartID DESC
+""")
+    List<CartDto> findCartDtos(@Param("userId") Long userId, @Param("status") CartStatus status, Pageable pageable);
+
+    // Keyset variant of the query above: the carts that come after (updatedAt, cartID) in the same order
+    @Query("""
+    SELECT new com.example.mystore.dto.api.response.CartDto(c.cartID, c.cartName, c.updatedAt)
+    FROM ShoppingCart c
+    WHERE c.user.userID = :userId AND c.status = :status
+    AND (c.updatedAt < :updatedAt OR (c.updatedAt = :updatedAt AND c.cartID < :cartId))
+    ORDER BY c.updatedAt DESC, c.cartID DESC
+""")
+    List<CartDto> findCartDtosAfter(@Param("userId") Long userId, @Param("status") CartStatus status,
+                                    @Param("updatedAt") LocalDateTime updatedAt, @Param("cartId") Long cartId,
+                                    Pageable pageable);
+
 }
\ No newline at end of file
@@ -3,7 +3,10 @@ import com.example.mystore.database.entities.Store;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface StoreRepository extends JpaRepository<Store, Long> {
@@ -39,4 +42,30 @@ Page<Store> findByStoreCityContainingIgnoreCaseAndChain_ChainNameContainingIgnor
         Long excludedChainId,
         Pageable pageable
 );
+
+    // Keyset (cursor) listing - stores after `afterStoreId` in store ID order, excluding `excludedChainId` and stores without a city.
+    // City and chain name are substring filters (case-insensitive); pass an empty string to skip a filter.
+    @Query("""
+    SELECT s FROM Store s
+    WHERE s.storeID > :afterStoreId
+    AND s.chain.chainKey.chainID <> :excludedChainId
+    AND s.storeCity IS NOT NULL AND TRIM(s.storeCity) <> '' AND TRIM(s.storeCity) <> '0'
+    AND LOWER(s.storeCity) LIKE LOWER(CONCAT('%', :city, '%'))
+    AND LOWER(s.chain.chainName) LIKE LOWER(CONCAT('%', :chainName, '%'))
+    ORDER BY s.storeID
+""")
+    List<Store> findStoresAfter(@Param("afterStoreId") Long afterStoreId,
+                                @Param("city") String city,
+                                @Param("chainName") String chainName,
+                                @Param("excludedChainId") Long excludedChainId,
+                                Pageable pageable);
+
+    // All stores with their chain (one query, no lazy loading per store), excluding `excludedChainId`, in store ID order.
+    // Used to build the in-memory store directory.
+    @Query("SELECT s FROM Store s JOIN FETCH s.chain c WHERE c.chainKey.chainID <> :excludedChainId ORDER BY s.storeID")
+    List<Store> findAllWithChainExcept(@Param("excludedChainId") Long excludedChainId);
+
+    // The stores that have not gone through geocoding yet
+    @Query("SELECT s FROM Store s WHERE s.geocodeAttempted IS NULL OR s.geocodeAttempted = false")
+    List<Store> findNotGeocoded();
 }
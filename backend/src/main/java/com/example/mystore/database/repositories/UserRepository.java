@@ -12,7 +12,4 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
 // Finds a user by their email address.
     Optional<User> findByEmail(String email);
-
-// Finds a user by their session number.
-    Optional<User> findBySessionNumber(String sessionNumber);
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.mystore.database.repositories;
+
+import com.example.mystore.database.entities.UserSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserSessionRepository extends JpaRepository<UserSession, String> {
+
+    // Returns which of the given sessions still exist (were not logged out on another node)
+    @Query("SELECT s.sessionID FROM UserSession s WHERE s.sessionID IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    // Moves the expiry of a session forward
+    @Modifying
+    @Query("UPDATE UserSession s SET s.expiresAt = :expiresAt WHERE s.sessionID = :id AND s.expiresAt < :expiresAt")
+    int extend(@Param("id") String sessionId, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Deletes the sessions that expired before the given time
+    @Modifying
+    @Query("DELETE FROM UserSession s WHERE s.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -6,6 +6,7 @@ import com.example.mystore.enrichment.image.ItemNameAndImageUpdater;
 import com.example.mystore.services.ProcessTrackerService;
 import com.example.mystore.maintenance.ItemPriceUpdater;
 import com.example.mystore.services.updateServices.ItemUpdateService;
+import com.example.mystore.services.updateServices.StoreUpdateService;
 import com.example.mystore.utils.DirectoryUtils;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
@@ -35,8 +36,9 @@ public class AllSeeder {
     private final ItemCategorizer itemCategorizer;
     private final ItemNameAndImageUpdater itemNameAndImageUpdater;
     private final ItemUpdateService itemUpdateService;
+    private final StoreUpdateService storeUpdateService;
 
-    public AllSeeder(ChainSeeder chainSeeder, StoreSeeder storeSeeder, ItemSeeder itemSeeder, ItemPriceUpdater itemPriceUpdater, ProcessTrackerService processTrackerService, ItemCategorizer itemCategorizer, ItemNameAndImageUpdater itemNameAndImageUpdater, ItemUpdateService itemUpdateService) {
+    public AllSeeder(ChainSeeder chainSeeder, StoreSeeder storeSeeder, ItemSeeder itemSeeder, ItemPriceUpdater itemPriceUpdater, ProcessTrackerService processTrackerService, ItemCategorizer itemCategorizer, ItemNameAndImageUpdater itemNameAndImageUpdater, ItemUpdateService itemUpdateService, StoreUpdateService storeUpdateService) {
         this.chainSeeder = chainSeeder;
         this.storeSeeder = storeSeeder;
         this.itemSeeder = itemSeeder;
@@ -45,6 +47,7 @@ public class AllSeeder {
         this.itemCategorizer = itemCategorizer;
         this.itemNameAndImageUpdater = itemNameAndImageUpdater;
         this.itemUpdateService = itemUpdateService;
+        this.storeUpdateService = storeUpdateService;
     }
 
     public void run(String pathPriceFullFile) {
@@ -65,6 +68,7 @@ public class AllSeeder {
             logger.info("Initializing Stores...");
             storeSeeder.initializeStores();
             storeSeeder.cleanStores();
+            storeUpdateService.geocodeStores();
             processTrackerService.markProcessCompleted(ProcessName.STORE_TABLE_INIT);
             logger.info("Stores initialized successfully.");
         } else {
@@ -103,6 +107,10 @@ public class AllSeeder {
             itemUpdateService.updateItemPriceRange();
             logger.info("Item Price Ranges updated successfully.");
 
+            logger.info("Updating Item store coverage...");
+            itemUpdateService.updateAllStoreCounts();
+            logger.info("Item store coverage updated successfully.");
+
         } else {
             logger.info("ItemPrice already initialized. Skipping PRICE_UPDATE.");
         }
@@ -3,6 +3,7 @@ package com.example.mystore.database.seeding;
 import com.example.mystore.database.entities.Item;
 import com.example.mystore.dto.xml.ItemXmlDTO;
 import com.example.mystore.dto.xml.StoreXmlDTO;
+import com.example.mystore.services.IngestMetrics;
 import com.example.mystore.services.seederServices.ItemSeederService;
 import com.example.mystore.services.seederServices.StoreSeederService;
 import com.example.mystore.xml.ItemSAXHandler;
@@ -27,7 +28,8 @@ import java.util.List;
  * - Parses item and store information from XML files using SAX parsers.
  * - Validates that the store exists before importing its items.
  * - Cleans and maps raw XML data into standardized Item entities.
- * - Buffers items and flushes them in batches to improve database performance.
+ * - Buffers items and flushes them in batches to improve database performance (one chain per batch).
+ * - Records parse, mapping and flush counts per chain in IngestMetrics (item-* stages).
  * - Clears processed XML files after successful import.
  *
  * Ensures efficient and validated loading of initial item data during system setup.
@@ -40,16 +42,19 @@ public class ItemSeeder {
 
     private final ItemSeederService itemSeederService;
     private final StoreSeederService storeSeederService;
+    private final IngestMetrics ingestMetrics;
 
-    public ItemSeeder(ItemSeederService itemSeederService, StoreSeederService storeSeederService) {
+    public ItemSeeder(ItemSeederService itemSeederService, StoreSeederService storeSeederService, IngestMetrics ingestMetrics) {
         this.itemSeederService = itemSeederService;
         this.storeSeederService = storeSeederService;
+        this.ingestMetrics = ingestMetrics;
     }
 
     public void initializeItems(String directoryPath) {
         logger.info("Starting item initialization from directory: {}", directoryPath);
 
         List<Item> buffer = new ArrayList<>();// Buffer to store items before saving to the database
+        String bufferChain = null;  // The chain of the items in the buffer
 
 
         // Get the list of XML files in the provided directory
@@ -61,6 +66,7 @@ public class ItemSeeder {
         // Process each XML file
         for (File xmlFile : xmlFiles) {
             logger.info("Processing XML file: {}", xmlFile.getName());
+            String chain = IngestMetrics.chainOf(xmlFile);
             SAXParserFactory saxParserFactory = SAXParserFactory.newInstance();
             try {
                 SAXParser saxParser = saxParserFactory.newSAXParser();
@@ -80,22 +86,29 @@ public class ItemSeeder {
                 }
 
                 // Parse item data from the XML file
+                long parseStart = System.nanoTime();
                 ItemSAXHandler itemSAXHandler = new ItemSAXHandler();
                 saxParser.parse(xmlFile, itemSAXHandler);
                 List<ItemXmlDTO> itemXmlDTOList = itemSAXHandler.getDtos();
+                ingestMetrics.fileParsed(chain, IngestMetrics.STAGE_ITEM_PARSE, itemXmlDTOList.size(), System.nanoTime() - parseStart);
                 logger.info("Found {} items in file: {}", itemXmlDTOList.size(), xmlFile.getName());
 
 
                 List<Item> cleanItems = itemSeederService.createCleanItems(itemXmlDTOList);// Create clean Item entities from parsed DTOs
+                ingestMetrics.rowsMapped(chain, IngestMetrics.STAGE_ITEM_MAP, cleanItems.size(), itemXmlDTOList.size() - cleanItems.size());
 
+                // Items of another chain are flushed first, so each flush belongs to one chain
+                if (!buffer.isEmpty() && !chain.equals(bufferChain)) {
+                    flush(buffer, bufferChain);
+                }
                 buffer.addAll(cleanItems);// Add the items to the buffer
+                bufferChain = chain;
 
 
                 // When the buffer size reaches the flush threshold, save items to the database
                 if (buffer.size() >= FLUSH_THRESHOLD) {
-                    int inserted = itemSeederService.saveNewItems(buffer);
+                    int inserted = flush(buffer, bufferChain);
                     logger.info(" Flushed {} items to DB", inserted);
-                    buffer.clear();
                 }
             } catch (ParserConfigurationException | SAXException | IOException e) {
                 logger.error("Error parsing file {}: {}", xmlFile.getName(), e.getMessage(), e);
@@ -104,11 +117,20 @@ public class ItemSeeder {
         // Final flush if there are any remaining items in the buffer
         if (!buffer.isEmpty()) {
             // Final flush of any remaining items
-            int inserted = itemSeederService.saveNewItems(buffer);
+            int inserted = flush(buffer, bufferChain);
             logger.info("Final flush: {} items inserted", inserted);
-            buffer.clear();
         }
 
         logger.info("Finished initializing items.");
     }
+
+    // Saves the new items of the buffer, records the flush and clears the buffer. Returns the number of inserted items.
+    private int flush(List<Item> buffer, String chain) {
+        long start = System.nanoTime();
+        int inserted = itemSeederService.saveNewItems(buffer);
+        ingestMetrics.flushed(chain, IngestMetrics.STAGE_ITEM_FLUSH, inserted, 0,
+                Math.max(0, buffer.size() - inserted), System.nanoTime() - start);
+        buffer.clear();
+        return inserted;
+    }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import com.example.mystore.downloader.model.FileMetadata;
 import com.example.mystore.downloader.model.FileType;
 import com.example.mystore.downloader.io.GzToXmlConverter;
 import com.example.mystore.downloader.io.HttpDownloadService;
+import com.example.mystore.services.IngestMetrics;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
@@ -33,6 +34,7 @@ import java.util.Set;
  * - Downloads the fetched files, optionally using session cookies if available.
  * - Converts downloaded .gz files into .xml format for further processing.
  * - Organizes downloaded files into structured directories by downloader type.
+ * - Records the downloaded files, their size and the download time in IngestMetrics (chain = the directory name).
  * Supports automated retrieval, validation, and conversion of pricing data.
  */
 @Service
@@ -42,6 +44,7 @@ public class PriceFileDownloader {
     private final List<PriceDownloader> priceDownloaders;
     private final HttpDownloadService httpDownloadService;
     private final GzToXmlConverter gzToXmlConverter;
+    private final IngestMetrics ingestMetrics;
     private static final int WEB_DRIVER_WAIT_TIMEOUT_SECONDS = 15;
 
     private static final Logger logger = LoggerFactory.getLogger(PriceFileDownloader.class);
@@ -51,11 +54,13 @@ public class PriceFileDownloader {
     @Autowired
     public PriceFileDownloader(ChromeOptions chromeOptions, List<PriceDownloader> priceDownloaders,
                                HttpDownloadService httpDownloadService,
-                               GzToXmlConverter gzToXmlConverter) {
+                               GzToXmlConverter gzToXmlConverter,
+                               IngestMetrics ingestMetrics) {
         this.chromeOptions = chromeOptions;
         this.priceDownloaders = priceDownloaders;
         this.httpDownloadService = httpDownloadService;
         this.gzToXmlConverter = gzToXmlConverter;
+        this.ingestMetrics = ingestMetrics;
     }
 
     public void downloadAndProcessFiles(String baseDirectory ,FileType desiredFileType, int timeFrameInHours) {
@@ -66,13 +71,14 @@ public class PriceFileDownloader {
         try {
             for (PriceDownloader downloader : priceDownloaders) {
                 String filesDirectory = prepareDirectoryForDownloader(baseDirectory, downloader);
+                String chain = Paths.get(filesDirectory).getFileName().toString();
                 downloader.login(driver, wait);
                 List<FileMetadata> files = downloader.fetchAvailableFiles(driver, wait, desiredFileType, timeFrameInHours);
 
                 for (FileMetadata file : files) {
-                    downloadFile(file, filesDirectory, downloader);
+                    downloadFile(file, filesDirectory, downloader, chain);
                 }
-                convertGzFiles(filesDirectory);
+                convertGzFiles(filesDirectory, chain);
             }
         } catch (Exception e) {
             logger.error("Failed to download and process files: {}", e.getMessage(), e);
@@ -81,7 +87,7 @@ public class PriceFileDownloader {
    }
  }
 
-    private void downloadFile(FileMetadata file, String filesDirectory, PriceDownloader downloader) {
+    private void downloadFile(FileMetadata file, String filesDirectory, PriceDownloader downloader, String chain) {
         Path targetPath = Paths.get(filesDirectory, file.getFileName());
         Set<org.openqa.selenium.Cookie> cookies = null;
 
@@ -89,13 +95,27 @@ public class PriceFileDownloader {
             cookies = cookieProvider.getCookies();
         }
 
+        long start = System.nanoTime();
         try {
             httpDownloadService.downloadFile(file.getDownloadUrl(), targetPath, cookies);
-            logger.info(" Downloaded file: {}", file.getFileName());
         } catch (Exception e) {
+            ingestMetrics.fileFailed(chain, IngestMetrics.STAGE_DOWNLOAD);
             logger.error("Failed to download file: {}", file.getFileName(), e);
             throw new RuntimeException("Failed to download file: " + file.getFileName(), e);
         }
+        long elapsedNanos = System.nanoTime() - start;
+        ingestMetrics.fileDownloaded(chain, downloadedSize(targetPath), elapsedNanos);
+        logger.info(" Downloaded file: {}", file.getFileName());
+    }
+
+    // The size of a downloaded file for the metrics - 0 if it cannot be read, which is not a download failure
+    private static long downloadedSize(Path targetPath) {
+        try {
+            return Files.size(targetPath);
+        } catch (IOException e) {
+            logger.warn("Could not read the size of downloaded file {}: {}", targetPath, e.getMessage());
+            return 0;
+        }
     }
 
 //Prepares the directory where downloaded files will be stored for a specific downloader.
@@ -131,7 +151,7 @@ private String prepareDirectoryForDownloader(String baseDirectory, PriceDownload
         return filenames;
     }
 
-    private void convertGzFiles(String filesDirectory) {
+    private void convertGzFiles(String filesDirectory, String chain) {
         File folder = new File(filesDirectory);
         File[] files = folder.listFiles();
         int successCount = 0;
@@ -152,6 +172,7 @@ private String prepareDirectoryForDownloader(String baseDirectory, PriceDownload
                         successCount++;
                     } else {
                         failCount++;
+                        ingestMetrics.fileFailed(chain, IngestMetrics.STAGE_CONVERT);
                     }
 
                     boolean deleted = file.delete();
@@ -161,6 +182,7 @@ private String prepareDirectoryForDownloader(String baseDirectory, PriceDownload
                 }
             }
         }
+        ingestMetrics.filesConverted(chain, successCount);
         logger.info("✅ Conversion Summary: {} succeeded, {} failed.", successCount, failCount);
     }
 }
@@ -0,0 +1,38 @@
+package com.example.mystore.dto.api.request;
+
+/**
+ * CartItemOperationDTO is one quantity change in a batch cart update.
+ *
+ * Fields:
+ * - itemId: The ID of the item.
+ * - delta: How much to add to the item quantity (negative to remove).
+ *   When the quantity drops to zero or below, the item is removed from the cart.
+ */
+public class CartItemOperationDTO {
+    private String itemId;
+    private int delta;
+
+    public CartItemOperationDTO() {
+    }
+
+    public CartItemOperationDTO(String itemId, int delta) {
+        this.itemId = itemId;
+        this.delta = delta;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public void setDelta(int delta) {
+        this.delta = delta;
+    }
+}
@@ -9,12 +9,17 @@ import java.util.List;
  * - userId: The ID of the user performing the comparison.
  * - cartId: The ID of the shopping cart whose items are to be compared.
  * - storeIds: A list of store IDs where the cart will be priced and compared.
+ * - latitude, longitude, radiusKm (optional): Limit the comparison to stores within radiusKm of the point.
+ *   Selected stores outside the radius are skipped; with no storeIds, the nearest stores in the radius are compared.
  */
 
 public class ComparisonRequestDTO{
     private Long userId;
     private Long cartId;
     private List<Long> storeIds;
+    private Double latitude;
+    private Double longitude;
+    private Double radiusKm;
 
     public ComparisonRequestDTO(Long userId, Long cartId, List<Long> storeIds) {
         this.userId = userId;
@@ -45,4 +50,28 @@ public class ComparisonRequestDTO{
     public void setStoreIds(List<Long> storeIds) {
         this.storeIds = storeIds;
     }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Double getRadiusKm() {
+        return radiusKm;
+    }
+
+    public void setRadiusKm(Double radiusKm) {
+        this.radiusKm = radiusKm;
+    }
 }
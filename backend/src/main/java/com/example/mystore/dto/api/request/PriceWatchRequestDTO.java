@@ -0,0 +1,61 @@
+package com.example.mystore.dto.api.request;
+
+import java.util.List;
+
+/**
+ * PriceWatchRequestDTO represents the request body used to watch an item for price drops.
+ *
+ * Fields:
+ * - userId: The ID of the user.
+ * - itemId: The ID of the item to watch.
+ * - targetPrice: Alert only when the price drops to this price or below (optional - any drop).
+ * - storeIds: Alert only for drops in these stores (optional - any store).
+ */
+public class PriceWatchRequestDTO {
+    private Long userId;
+    private String itemId;
+    private Double targetPrice;
+    private List<Long> storeIds;
+
+    public PriceWatchRequestDTO() {
+    }
+
+    public PriceWatchRequestDTO(Long userId, String itemId, Double targetPrice, List<Long> storeIds) {
+        this.userId = userId;
+        this.itemId = itemId;
+        this.targetPrice = targetPrice;
+        this.storeIds = storeIds;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public Double getTargetPrice() {
+        return targetPrice;
+    }
+
+    public void setTargetPrice(Double targetPrice) {
+        this.targetPrice = targetPrice;
+    }
+
+    public List<Long> getStoreIds() {
+        return storeIds;
+    }
+
+    public void setStoreIds(List<Long> storeIds) {
+        this.storeIds = storeIds;
+    }
+}
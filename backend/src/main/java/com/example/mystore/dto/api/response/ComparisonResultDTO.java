@@ -9,12 +9,14 @@ import java.util.List;
  * - store: A StoreDTO containing information about the store.
  * - items: A list of ItemWithPriceDTO representing each item and its price in the store.
  * - cartPrice: The total price of the shopping cart in the store.
+ * - error: Why the store could not be priced (no items and no cart price then), or null on success.
  */
 
 public class ComparisonResultDTO {
     private StoreDTO store;
     private List<ItemWithPriceDTO> items;
     private Double  cartPrice;
+    private String error;
 
     public ComparisonResultDTO(StoreDTO store, List<ItemWithPriceDTO> items, Double  cartPrice) {
         this.store = store;
@@ -22,6 +24,12 @@ public class ComparisonResultDTO {
         this.cartPrice = cartPrice;
     }
 
+    // A store that could not be priced - the client shows it as unavailable
+    public ComparisonResultDTO(StoreDTO store, String error) {
+        this(store, List.of(), null);
+        this.error = error;
+    }
+
     public StoreDTO getStore() {
         return store;
     }
@@ -43,5 +51,11 @@ public class ComparisonResultDTO {
     public void setCartPrice(Double cartPrice) {
         this.cartPrice = cartPrice;
     }
+    public String getError() {
+        return error;
+    }
+    public void setError(String error) {
+        this.error = error;
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.example.mystore.dto.api.response;
+
+import java.util.List;
+
+/**
+ * CursorPageDTO is one page of a keyset (cursor) paginated listing.
+ *
+ * Unlike Spring's Page it carries no total count - only whether more rows exist -
+ * so producing it never requires a COUNT query.
+ *
+ * Fields:
+ * - content: The rows of this page.
+ * - nextCursor: The opaque token to pass as 'cursor' to get the next page (null on the last page).
+ * - hasNext: Whether another page exists.
+ *
+ * @param <T> the row type
+ */
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public CursorPageDTO(List<T> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.mystore.dto.api.response;
+
+import java.util.List;
+
+/**
+ * FacetCountsDTO holds the filter values available for an item listing, with their item counts.
+ *
+ * The counts of every filter take the other selected filters into account but not its own,
+ * so switching to another value of the same filter shows how many items it would return.
+ *
+ * Fields:
+ * - manufacturers: Manufacturer names, most items first.
+ * - countries: Manufacture countries, most items first.
+ * - weighted: Number of weighted (sold by weight) items.
+ * - notWeighted: Number of items sold by package.
+ */
+public class FacetCountsDTO {
+    private List<FacetValueDTO> manufacturers;
+    private List<FacetValueDTO> countries;
+    private int weighted;
+    private int notWeighted;
+
+    public FacetCountsDTO(List<FacetValueDTO> manufacturers, List<FacetValueDTO> countries, int weighted, int notWeighted) {
+        this.manufacturers = manufacturers;
+        this.countries = countries;
+        this.weighted = weighted;
+        this.notWeighted = notWeighted;
+    }
+
+    public List<FacetValueDTO> getManufacturers() {
+        return manufacturers;
+    }
+
+    public void setManufacturers(List<FacetValueDTO> manufacturers) {
+        this.manufacturers = manufacturers;
+    }
+
+    public List<FacetValueDTO> getCountries() {
+        return countries;
+    }
+
+    public void setCountries(List<FacetValueDTO> countries) {
+        this.countries = countries;
+    }
+
+    public int getWeighted() {
+        return weighted;
+    }
+
+    public void setWeighted(int weighted) {
+        this.weighted = weighted;
+    }
+
+    public int getNotWeighted() {
+        return notWeighted;
+    }
+
+    public void setNotWeighted(int notWeighted) {
+        this.notWeighted = notWeighted;
+    }
+}
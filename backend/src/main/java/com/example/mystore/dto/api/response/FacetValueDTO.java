@@ -0,0 +1,34 @@
+package com.example.mystore.dto.api.response;
+
+/**
+ * FacetValueDTO is one value of a listing filter, with the number of items that have it.
+ *
+ * Fields:
+ * - value: The filter value (e.g. a manufacturer name).
+ * - count: How many items of the listing have this value, given the other selected filters.
+ */
+public class FacetValueDTO {
+    private String value;
+    private int count;
+
+    public FacetValueDTO(String value, int count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+}
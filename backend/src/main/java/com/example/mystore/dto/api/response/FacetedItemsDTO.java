@@ -0,0 +1,48 @@
+package com.example.mystore.dto.api.response;
+
+import java.util.List;
+
+/**
+ * FacetedItemsDTO is one page of an item listing together with its filter counts.
+ *
+ * Fields:
+ * - items: The items of the requested page, after the selected filters.
+ * - totalElements: The number of items matching the listing and the selected filters.
+ * - facets: The filter values and their counts.
+ * While the filters are still being built after startup, facets is null (and so is totalElements for category listings).
+ */
+public class FacetedItemsDTO {
+    private List<ItemDTO> items;
+    private Integer totalElements;
+    private FacetCountsDTO facets;
+
+    public FacetedItemsDTO(List<ItemDTO> items, Integer totalElements, FacetCountsDTO facets) {
+        this.items = items;
+        this.totalElements = totalElements;
+        this.facets = facets;
+    }
+
+    public List<ItemDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ItemDTO> items) {
+        this.items = items;
+    }
+
+    public Integer getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Integer totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public FacetCountsDTO getFacets() {
+        return facets;
+    }
+
+    public void setFacets(FacetCountsDTO facets) {
+        this.facets = facets;
+    }
+}
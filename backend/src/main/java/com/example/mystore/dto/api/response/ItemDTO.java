@@ -26,6 +26,9 @@ package com.example.mystore.dto.api.response;
  * - unitQty: Description of the quantity unit
  * - quantity: The amount associated with the unit
  * - isWeighted: Whether the item is sold by weight (true) or by unit (false).
+ * - unitPrice: Price per unitPriceBasis - the lowest across stores (general listing) or the store's (alternatives).
+ *   Null if the item's units are not comparable.
+ * - unitPriceBasis: The unit the unit price refers to (e.g. "100 גרם", "100 מ\"ל", "יחידה").
  */
 public class ItemDTO {
 
@@ -39,6 +42,8 @@ public class ItemDTO {
     private String unitQty;
     private Double quantity;
     private Boolean isWeighted;
+    private Double unitPrice;
+    private String unitPriceBasis;
 
     public ItemDTO(String id, String name, Double lowestPrice, Double highestPrice, String imageUrl, String manufacturerName, String manufactureCountry, String unitQty, Double quantity, Boolean isWeighted) {
         this.id = id;
@@ -53,6 +58,28 @@ public class ItemDTO {
         this.isWeighted = isWeighted;
     }
 
+    public ItemDTO(String id, String name, Double lowestPrice, Double highestPrice, String imageUrl, String manufacturerName, String manufactureCountry, String unitQty, Double quantity, Boolean isWeighted, Double unitPrice, String unitPriceBasis) {
+        this(id, name, lowestPrice, highestPrice, imageUrl, manufacturerName, manufactureCountry, unitQty, quantity, isWeighted);
+        this.unitPrice = unitPrice;
+        this.unitPriceBasis = unitPriceBasis;
+    }
+
+    public Double getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(Double unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+
+    public String getUnitPriceBasis() {
+        return unitPriceBasis;
+    }
+
+    public void setUnitPriceBasis(String unitPriceBasis) {
+        this.unitPriceBasis = unitPriceBasis;
+    }
+
     public String getManufacturerName() {
         return manufacturerName;
     }
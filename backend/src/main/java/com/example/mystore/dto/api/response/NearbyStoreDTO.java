@@ -0,0 +1,35 @@
+package com.example.mystore.dto.api.response;
+
+/**
+ * NearbyStoreDTO is a store found by a nearest-store search, with its distance from the searched point.
+ *
+ * Fields:
+ * - store: The store details.
+ * - distanceKm: Distance in kilometers. Stores are located by their locality,
+ *   so this is the distance to the locality center (stores of one city share it).
+ */
+public class NearbyStoreDTO {
+    private StoreDTO store;
+    private double distanceKm;
+
+    public NearbyStoreDTO(StoreDTO store, double distanceKm) {
+        this.store = store;
+        this.distanceKm = distanceKm;
+    }
+
+    public StoreDTO getStore() {
+        return store;
+    }
+
+    public void setStore(StoreDTO store) {
+        this.store = store;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.mystore.dto.api.response;
+
+import java.time.LocalDateTime;
+
+/**
+ * PriceAlertDTO represents a price drop of a watched item, waiting to be delivered to the user.
+ *
+ * Fields:
+ * - alertId: Unique identifier of the alert (pass the last one back to mark alerts as delivered).
+ * - watchId: The watch that raised the alert.
+ * - itemId: The ID of the item.
+ * - storeId: The store where the price dropped.
+ * - oldPrice: The price before the drop.
+ * - newPrice: The price after the drop.
+ * - createdAt: When the drop was detected.
+ */
+public class PriceAlertDTO {
+    private Long alertId;
+    private Long watchId;
+    private String itemId;
+    private Long storeId;
+    private Double oldPrice;
+    private Double newPrice;
+    private LocalDateTime createdAt;
+
+    public PriceAlertDTO(Long alertId, Long watchId, String itemId, Long storeId, Double oldPrice, Double newPrice, LocalDateTime createdAt) {
+        this.alertId = alertId;
+        this.watchId = watchId;
+        this.itemId = itemId;
+        this.storeId = storeId;
+        this.oldPrice = oldPrice;
+        this.newPrice = newPrice;
+        this.createdAt = createdAt;
+    }
+
+    public Long getAlertId() {
+        return alertId;
+    }
+
+    public void setAlertId(Long alertId) {
+        this.alertId = alertId;
+    }
+
+    public Long getWatchId() {
+        return watchId;
+    }
+
+    public void setWatchId(Long watchId) {
+        this.watchId = watchId;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public Long getStoreId() {
+        return storeId;
+    }
+
+    public void setStoreId(Long storeId) {
+        this.storeId = storeId;
+    }
+
+    public Double getOldPrice() {
+        return oldPrice;
+    }
+
+    public void setOldPrice(Double oldPrice) {
+        this.oldPrice = oldPrice;
+    }
+
+    public Double getNewPrice() {
+        return newPrice;
+    }
+
+    public void setNewPrice(Double newPrice) {
+        this.newPrice = newPrice;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
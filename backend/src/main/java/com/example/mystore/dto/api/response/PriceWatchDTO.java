@@ -0,0 +1,81 @@
+package com.example.mystore.dto.api.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * PriceWatchDTO represents an item watched by a user for price drops.
+ *
+ * Fields:
+ * - watchId: Unique identifier of the watch.
+ * - itemId: The ID of the watched item.
+ * - itemName: Display name of the watched item.
+ * - targetPrice: The target price (null - any drop).
+ * - storeIds: The watched stores (empty - any store).
+ * - createdAt: When the watch was created.
+ */
+public class PriceWatchDTO {
+    private Long watchId;
+    private String itemId;
+    private String itemName;
+    private Double targetPrice;
+    private List<Long> storeIds;
+    private LocalDateTime createdAt;
+
+    public PriceWatchDTO(Long watchId, String itemId, String itemName, Double targetPrice, List<Long> storeIds, LocalDateTime createdAt) {
+        this.watchId = watchId;
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.targetPrice = targetPrice;
+        this.storeIds = storeIds;
+        this.createdAt = createdAt;
+    }
+
+    public Long getWatchId() {
+        return watchId;
+    }
+
+    public void setWatchId(Long watchId) {
+        this.watchId = watchId;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+
+    public Double getTargetPrice() {
+        return targetPrice;
+    }
+
+    public void setTargetPrice(Double targetPrice) {
+        this.targetPrice = targetPrice;
+    }
+
+    public List<Long> getStoreIds() {
+        return storeIds;
+    }
+
+    public void setStoreIds(List<Long> storeIds) {
+        this.storeIds = storeIds;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.mystore.dto.api.response;
+
+/**
+ * SuggestionDTO represents a single typeahead suggestion returned by /item/suggest.
+ *
+ * Fields:
+ * - text: The text to show (an item name or a manufacturer name).
+ * - type: "ITEM" or "MANUFACTURER".
+ * - itemId: The item ID for ITEM suggestions (null for MANUFACTURER).
+ * - imageUrl: The item's image URL for ITEM suggestions (null for MANUFACTURER).
+ * - score: The popularity score the suggestions are ranked by.
+ */
+public class SuggestionDTO {
+    private String text;
+    private String type;
+    private String itemId;
+    private String imageUrl;
+    private double score;
+
+    public SuggestionDTO(String text, String type, String itemId, String imageUrl, double score) {
+        this.text = text;
+        this.type = type;
+        this.itemId = itemId;
+        this.imageUrl = imageUrl;
+        this.score = score;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -5,13 +5,17 @@ import com.example.mystore.enrichment.categorization.FixCategories;
 import com.example.mystore.enrichment.image.ItemNameAndImageUpdater;
 import com.example.mystore.database.seeding.StoreSeeder;
 import com.example.mystore.enrichment.image.AddingMoreImagesUrl;
+import com.example.mystore.services.IngestMetrics;
 import com.example.mystore.services.ProcessTrackerService;
+import com.example.mystore.services.events.CatalogUpdatedEvent;
 import com.example.mystore.database.seeding.AllSeeder;
 import com.example.mystore.downloader.model.FileType;
 import com.example.mystore.downloader.engine.PriceFileDownloader;
 import com.example.mystore.services.updateServices.ItemUpdateService;
+import com.example.mystore.services.updateServices.StoreUpdateService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
@@ -23,28 +27,52 @@ public class ApplicationInitializer {
     private final ProcessTrackerService processTrackerService;
     private final PriceFileDownloader priceFileDownloader;
     private final AllSeeder allSeeder;
+    private final ItemUpdateService itemUpdateService;
+    private final StoreUpdateService storeUpdateService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IngestMetrics ingestMetrics;
 
 
     @Value("${pricesFull.files.directory}")
     private String pricesFullFilesDirectory;
 
-    public ApplicationInitializer(ProcessTrackerService processTrackerService, PriceFileDownloader priceFileDownloader, AllSeeder allSeeder) {
+    public ApplicationInitializer(ProcessTrackerService processTrackerService, PriceFileDownloader priceFileDownloader, AllSeeder allSeeder, ItemUpdateService itemUpdateService, StoreUpdateService storeUpdateService, ApplicationEventPublisher eventPublisher, IngestMetrics ingestMetrics) {
         this.processTrackerService = processTrackerService;
         this.priceFileDownloader = priceFileDownloader;
         this.allSeeder = allSeeder;
+        this.itemUpdateService = itemUpdateService;
+        this.storeUpdateService = storeUpdateService;
+        this.eventPublisher = eventPublisher;
+        this.ingestMetrics = ingestMetrics;
     }
 
     @EventListener(ApplicationReadyEvent.class)
     public void init() {
+        boolean ingestRun = false;
+        boolean success = false;
+        boolean catalogComplete = false;
         try {
 
          logger.info("!!!Application Initialization Started!!!");
 
          if (processTrackerService.isProcessCompleted(ProcessName.INITIAL_LOAD)) {
              logger.info("Initial Load has already been completed. Skipping initialization.");
+             catalogComplete = true;
+             if (itemUpdateService.backfillStoreCountsIfMissing()) {
+                 logger.info("Item store coverage was missing and has been calculated.");
+             }
+             if (itemUpdateService.backfillUnitPricesIfMissing()) {
+                 logger.info("Unit prices were missing and have been calculated.");
+             }
+             if (storeUpdateService.geocodeStoresIfMissing()) {
+                 logger.info("Store coordinates were missing and have been resolved.");
+             }
              return;
          }
 
+         ingestMetrics.startRun(ProcessName.INITIAL_LOAD);
+         ingestRun = true;
+
          if (!processTrackerService.isProcessCompleted(ProcessName.PRICEFULL_LOAD)) {
              logger.info("Downloading PriceFull files...");
              priceFileDownloader.downloadAndProcessFiles(pricesFullFilesDirectory, FileType.PRICEFULL, 24);
@@ -62,10 +90,23 @@ public class ApplicationInitializer {
 
 
           processTrackerService.markProcessCompleted(ProcessName.INITIAL_LOAD);//mark the initialized completed successfully
+          success = true;
+          catalogComplete = true;
           logger.info("!!!Application Initialization Completed Successfully.!!!");
 
         } catch (Exception e) {
             logger.warn("XXX Initialization failed: XXX" + e.getMessage());
+        } finally {
+            if (ingestRun) {
+                ingestMetrics.finishRun(success); // Write the run report of the initial load
+            }
+            if (catalogComplete) {
+                // Seeding and enrichment are done (or were done on a previous run) - build the in-memory indexes
+                eventPublisher.publishEvent(new CatalogUpdatedEvent(ProcessName.INITIAL_LOAD.name()));
+            } else {
+                // A partly seeded catalog must not become the authoritative in-memory indexes
+                logger.warn("Initial load did not complete - in-memory indexes are not built, requests are served from the database.");
+            }
         }
     }
 }
\ No newline at end of file
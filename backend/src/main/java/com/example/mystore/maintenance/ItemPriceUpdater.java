@@ -3,6 +3,7 @@ package com.example.mystore.maintenance;
 import com.example.mystore.database.entities.ItemPrice;
 import com.example.mystore.database.entities.Store;
 import com.example.mystore.dto.xml.StoreXmlDTO;
+import com.example.mystore.services.IngestMetrics;
 import com.example.mystore.services.seederServices.StoreSeederService;
 import com.example.mystore.services.updateServices.ItemPriceUpdateService;
 import com.example.mystore.xml.ItemPriceSAXHandler;
@@ -20,6 +21,7 @@ import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import java.io.File;
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +35,7 @@ import java.util.Optional;
  * 3. Mapping the parsed data into `ItemPrice` entities.
  * 4. Flushing the data to the database in batches once a certain threshold is reached (defined by `FLUSH_THRESHOLD`).
  * The `flushBuffer` method is responsible for updating existing prices and inserting new prices into the database.
+ * The buffer holds the rows of one chain at a time, so every stage can be recorded per chain in IngestMetrics.
  */
 public class ItemPriceUpdater {
     private static final int FLUSH_THRESHOLD = 1000;
@@ -41,11 +44,13 @@ public class ItemPriceUpdater {
 
     private final ItemPriceUpdateService itemPriceSeederService ;
     private final StoreSeederService storeSeederService;
+    private final IngestMetrics ingestMetrics;
 
     @Autowired
-    public ItemPriceUpdater(ItemPriceUpdateService itemPriceSeederService, StoreSeederService storeSeederService) {
+    public ItemPriceUpdater(ItemPriceUpdateService itemPriceSeederService, StoreSeederService storeSeederService, IngestMetrics ingestMetrics) {
         this.itemPriceSeederService = itemPriceSeederService;
         this.storeSeederService = storeSeederService;
+        this.ingestMetrics = ingestMetrics;
     }
 
     // Updates item prices by reading XML files from the specified directory and processing the data.
@@ -54,6 +59,7 @@ public class ItemPriceUpdater {
 
         // Buffer to store item prices before saving to the database
         List<ItemPrice> buffer = new ArrayList<>();
+        String bufferChain = null;  // The chain of the rows in the buffer
 
         // Get all XML files from the specified directory
         File[] xmlFiles = DirectoryUtils.getXmlFilesFromDirectory(directoryPath, logger);
@@ -63,6 +69,7 @@ public class ItemPriceUpdater {
         // Process each XML file
         for (File xmlFile : xmlFiles) {
             logger.info("Processing file: {}", xmlFile.getName());
+            String chain = IngestMetrics.chainOf(xmlFile);
             SAXParserFactory saxParserFactory = SAXParserFactory.newInstance();
             try {
                 SAXParser saxParser = saxParserFactory.newSAXParser();
@@ -90,9 +97,11 @@ public class ItemPriceUpdater {
                 logger.info("Store found: StoreID={} StoreNumber={}", existingStore.getStoreID(), existingStore.getStoreNumber());
 
                 // Parse item price data from the XML file
+                long parseStart = System.nanoTime();
                 ItemPriceSAXHandler itemPriceSAXHandler = new ItemPriceSAXHandler();
                 saxParser.parse(xmlFile, itemPriceSAXHandler);
                 List<ItemPriceXmlDTO> dtos = itemPriceSAXHandler.getItemPriceList();
+                ingestMetrics.fileParsed(chain, IngestMetrics.STAGE_PARSE, dtos.size(), System.nanoTime() - parseStart);
                 logger.info("Found {} item prices in file: {}", dtos.size(), xmlFile.getName());
 
                 if (dtos.isEmpty()) {
@@ -102,12 +111,20 @@ public class ItemPriceUpdater {
 
                 // Map the parsed DTOs to ItemPrice entities
                 List<ItemPrice> itemPrices = itemPriceSeederService.mapDtosToItemPrice(dtos , existingStore);
+                ingestMetrics.rowsMapped(chain, IngestMetrics.STAGE_MAP, itemPrices.size(), dtos.size() - itemPrices.size());
+                ingestMetrics.pricesDated(chain, newestPriceDate(dtos));
 
+                // Rows of another chain are flushed first, so each flush belongs to one chain
+                if (!buffer.isEmpty() && !chain.equals(bufferChain)) {
+                    flushBuffer(buffer, bufferChain);
+                    buffer.clear();
+                }
                 buffer.addAll(itemPrices);
+                bufferChain = chain;
 
                 // If buffer size reaches the flush threshold, flush data to the database
                 if (buffer.size() >= FLUSH_THRESHOLD) {
-                    flushBuffer(buffer);
+                    flushBuffer(buffer, bufferChain);
                     buffer.clear();
                 }
 
@@ -119,7 +136,7 @@ public class ItemPriceUpdater {
         }
         // Final flush for any remaining item prices in the buffer
         if (!buffer.isEmpty()) {
-            flushBuffer(buffer);
+            flushBuffer(buffer, bufferChain);
             buffer.clear();
         }
 
@@ -128,11 +145,26 @@ public class ItemPriceUpdater {
     }
 
     //This method updates existing prices and inserts new ones into the database.
-    private void flushBuffer(List<ItemPrice> buffer) {
+    private void flushBuffer(List<ItemPrice> buffer, String chain) {
         logger.info("Flushing buffer of size: {}", buffer.size());
+        long start = System.nanoTime();
         int updated = itemPriceSeederService.updateExistingPrices(buffer);
         int inserted = itemPriceSeederService.insertNewPrices(buffer);
+        int skipped = Math.max(0, buffer.size() - updated - inserted);  // Existing rows that were already up to date
+        ingestMetrics.flushed(chain, IngestMetrics.STAGE_FLUSH, inserted, updated, skipped, System.nanoTime() - start);
         logger.info("Updated {} prices, Inserted {}", updated, inserted);
     }
 
+    // The newest price date in a file, null if no row has one
+    private static LocalDate newestPriceDate(List<ItemPriceXmlDTO> dtos) {
+        LocalDate newest = null;
+        for (ItemPriceXmlDTO dto : dtos) {
+            LocalDate date = dto.getPriceDate();
+            if (date != null && (newest == null || date.isAfter(newest))) {
+                newest = date;
+            }
+        }
+        return newest;
+    }
+
 }
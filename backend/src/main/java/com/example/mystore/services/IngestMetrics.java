@@ -0,0 +1,328 @@
+package com.example.mystore.services;
+
+import com.example.mystore.database.entities.IngestRunReport;
+import com.example.mystore.database.entities.ProcessName;
+import com.example.mystore.database.repositories.IngestRunReportRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * IngestMetrics records the progress of the price ingest, tagged by chain and stage.
+ *
+ * The chain is the source directory of the files (one per downloader, e.g. "shufersal").
+ * Stages of the price files: download, convert (gz to xml), parse, map (rows to known items) and flush
+ * (writes to the database). The item seeding of the initial load uses item-parse, item-map and item-flush.
+ * Exported through Micrometer:
+ * - ingest.files - files by outcome (success / failed);
+ * - ingest.bytes - downloaded bytes;
+ * - ingest.rows - rows by result (parsed, mapped, unknown, inserted, updated, skipped);
+ * - ingest.stage.duration - time per file (download, parse) and per flush - rows/s is ingest.rows over it;
+ * - ingest.price.age - seconds since the newest ingested price date of the chain (freshness).
+ *
+ * Between startRun and finishRun the numbers of all stages are also summed per chain and file kind (price files,
+ * or the item files of the seeding), and written to INGEST_RUN_REPORT (one row per chain and kind) when the run ends.
+ */
+@Component
+public class IngestMetrics {
+    public static final String STAGE_DOWNLOAD = "download";
+    public static final String STAGE_CONVERT = "convert";
+    public static final String STAGE_PARSE = "parse";
+    public static final String STAGE_MAP = "map";
+    public static final String STAGE_FLUSH = "flush";
+    public static final String STAGE_ITEM_PARSE = "item-parse";
+    public static final String STAGE_ITEM_MAP = "item-map";
+    public static final String STAGE_ITEM_FLUSH = "item-flush";
+
+    public static final String FILES_PRICE = "price";
+    public static final String FILES_ITEM = "item";
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestMetrics.class);
+
+    private final MeterRegistry meterRegistry;
+    private final IngestRunReportRepository ingestRunReportRepository;
+
+    private final Map<String, AtomicReference<LocalDate>> newestPriceDates = new ConcurrentHashMap<>();  // chain -> gauge value
+    private volatile Run run;
+
+    public IngestMetrics(MeterRegistry meterRegistry, IngestRunReportRepository ingestRunReportRepository) {
+        this.meterRegistry = meterRegistry;
+        this.ingestRunReportRepository = ingestRunReportRepository;
+    }
+
+    // The totals of one chain in the current run
+    private static class ChainStats {
+        final LongAdder filesDownloaded = new LongAdder();
+        final LongAdder filesFailed = new LongAdder();
+        final LongAdder bytesDownloaded = new LongAdder();
+        final LongAdder filesParsed = new LongAdder();
+        final LongAdder rowsParsed = new LongAdder();
+        final LongAdder parseNanos = new LongAdder();
+        final LongAdder rowsMapped = new LongAdder();
+        final LongAdder rowsUnknown = new LongAdder();
+        final LongAdder rowsInserted = new LongAdder();
+        final LongAdder rowsUpdated = new LongAdder();
+        final LongAdder rowsSkipped = new LongAdder();
+        final LongAdder flushes = new LongAdder();
+        final LongAdder flushNanos = new LongAdder();
+        final AtomicReference<LocalDate> newestPriceDate = new AtomicReference<>();
+    }
+
+    // A report row of a run - the chain and the kind of files (FILES_PRICE / FILES_ITEM)
+    private record ReportKey(String chain, String fileKind) {
+    }
+
+    private static class Run {
+        final ProcessName type;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final Map<ReportKey, ChainStats> chains = new ConcurrentHashMap<>();
+
+        Run(ProcessName type) {
+            this.type = type;
+        }
+    }
+
+    /**
+     * Returns the chain of a downloaded file - the name of the directory it is in.
+     *
+     * @param file a downloaded file
+     * @return the chain tag
+     */
+    public static String chainOf(File file) {
+        File directory = file.getParentFile();
+        return directory != null ? directory.getName() : "unknown";
+    }
+
+    /**
+     * Starts summing a run report. A run that was not finished is dropped.
+     *
+     * @param type the ingest process
+     */
+    public void startRun(ProcessName type) {
+        if (run != null) {
+            logger.warn("Ingest run {} started at {} was not finished - dropping its report.", run.type, run.startedAt);
+        }
+        run = new Run(type);
+    }
+
+    /**
+     * Ends the current run: writes its report (one row per chain and file kind) and logs a summary.
+     *
+     * @param success false if the run ended with an error
+     */
+    public void finishRun(boolean success) {
+        Run finished = run;
+        run = null;
+        if (finished == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<IngestRunReport> reports = new ArrayList<>();
+        for (Map.Entry<ReportKey, ChainStats> entry : finished.chains.entrySet()) {
+            ChainStats stats = entry.getValue();
+            IngestRunReport report = toReport(finished, entry.getKey(), stats, now, success);
+            reports.add(report);
+            logger.info("Ingest {} [{} {}]: {} files ({} failed, {} KB), {} rows parsed ({} rows/s), {} mapped / {} unknown, "
+                            + "{} inserted / {} updated / {} skipped in {} flushes ({} ms), newest price {}.",
+                    finished.type, report.getChain(), report.getFileKind(), report.getFilesDownloaded(), report.getFilesFailed(),
+                    report.getBytesDownloaded() / 1024, report.getRowsParsed(),
+                    perSecond(report.getRowsParsed(), report.getParseMillis()),
+                    report.getRowsMapped(), report.getRowsUnknown(), report.getRowsInserted(), report.getRowsUpdated(),
+                    report.getRowsSkipped(), report.getFlushes(), report.getFlushMillis(), report.getNewestPriceDate());
+        }
+        try {
+            ingestRunReportRepository.saveAll(reports);
+        } catch (Exception e) {
+            logger.error("Failed to save the report of ingest run {} started at {}:", finished.type, finished.startedAt, e);
+        }
+        logger.info("Ingest {} finished ({}) after {} s.", finished.type, success ? "success" : "failed",
+                Duration.between(finished.startedAt, now).toSeconds());
+    }
+
+    /**
+     * Records a downloaded file.
+     */
+    public void fileDownloaded(String chain, long bytes, long nanos) {
+        files(chain, STAGE_DOWNLOAD, "success").increment();
+        meterRegistry.counter("ingest.bytes", "chain", chain, "stage", STAGE_DOWNLOAD).increment(bytes);
+        stageTimer(chain, STAGE_DOWNLOAD).record(nanos, TimeUnit.NANOSECONDS);
+        ChainStats stats = stats(chain);
+        if (stats != null) {
+            stats.filesDownloaded.increment();
+            stats.bytesDownloaded.add(bytes);
+        }
+    }
+
+    /**
+     * Records a file that failed in a stage (download or convert).
+     */
+    public void fileFailed(String chain, String stage) {
+        files(chain, stage, "failed").increment();
+        ChainStats stats = stats(chain);
+        if (stats != null) {
+            stats.filesFailed.increment();
+        }
+    }
+
+    /**
+     * Records the converted files of a chain.
+     */
+    public void filesConverted(String chain, int succeeded) {
+        files(chain, STAGE_CONVERT, "success").increment(succeeded);
+    }
+
+    /**
+     * Records a parsed file (stage parse or item-parse).
+     */
+    public void fileParsed(String chain, String stage, int rows, long nanos) {
+        files(chain, stage, "success").increment();
+        rows(chain, stage, "parsed").increment(rows);
+        stageTimer(chain, stage).record(nanos, TimeUnit.NANOSECONDS);
+        ChainStats stats = stats(chain, stage);
+        if (stats != null) {
+            stats.filesParsed.increment();
+            stats.rowsParsed.add(rows);
+            stats.parseNanos.add(nanos);
+        }
+    }
+
+    /**
+     * Records how many parsed rows were mapped and how many were dropped (stage map or item-map).
+     */
+    public void rowsMapped(String chain, String stage, int mapped, int unknown) {
+        rows(chain, stage, "mapped").increment(mapped);
+        rows(chain, stage, "unknown").increment(unknown);
+        ChainStats stats = stats(chain, stage);
+        if (stats != null) {
+            stats.rowsMapped.add(mapped);
+            stats.rowsUnknown.add(unknown);
+        }
+    }
+
+    /**
+     * Records the newest price date found in the files of a chain (the freshness of its prices).
+     */
+    public void pricesDated(String chain, LocalDate newest) {
+        if (newest == null) {
+            return;
+        }
+        newestPriceDates.computeIfAbsent(chain, c -> {
+            AtomicReference<LocalDate> date = new AtomicReference<>();
+            Gauge.builder("ingest.price.age", date, IngestMetrics::ageSeconds)
+                    .description("Seconds since the newest ingested price date")
+                    .baseUnit("seconds")
+                    .tag("chain", c)
+                    .register(meterRegistry);
+            return date;
+        }).accumulateAndGet(newest, IngestMetrics::later);
+        ChainStats stats = stats(chain);
+        if (stats != null) {
+            stats.newestPriceDate.accumulateAndGet(newest, IngestMetrics::later);
+        }
+    }
+
+    /**
+     * Records one write of buffered rows to the database (stage flush or item-flush).
+     */
+    public void flushed(String chain, String stage, int inserted, int updated, int skipped, long nanos) {
+        rows(chain, stage, "inserted").increment(inserted);
+        rows(chain, stage, "updated").increment(updated);
+        rows(chain, stage, "skipped").increment(skipped);
+        stageTimer(chain, stage).record(nanos, TimeUnit.NANOSECONDS);
+        ChainStats stats = stats(chain, stage);
+        if (stats != null) {
+            stats.rowsInserted.add(inserted);
+            stats.rowsUpdated.add(updated);
+            stats.rowsSkipped.add(skipped);
+            stats.flushes.increment();
+            stats.flushNanos.add(nanos);
+        }
+    }
+
+    // The totals of the price files of a chain in the current run, null outside a run
+    private ChainStats stats(String chain) {
+        Run current = run;
+        return current == null ? null : current.chains.computeIfAbsent(new ReportKey(chain, FILES_PRICE), k -> new ChainStats());
+    }
+
+    // As above, for the kind of files the stage belongs to (the item stages have their own report row)
+    private ChainStats stats(String chain, String stage) {
+        if (!stage.startsWith("item-")) {
+            return stats(chain);
+        }
+        Run current = run;
+        return current == null ? null : current.chains.computeIfAbsent(new ReportKey(chain, FILES_ITEM), k -> new ChainStats());
+    }
+
+    private Counter files(String chain, String stage, String outcome) {
+        return meterRegistry.counter("ingest.files", "chain", chain, "stage", stage, "outcome", outcome);
+    }
+
+    private Counter rows(String chain, String stage, String result) {
+        return meterRegistry.counter("ingest.rows", "chain", chain, "stage", stage, "result", result);
+    }
+
+    private Timer stageTimer(String chain, String stage) {
+        return Timer.builder("ingest.stage.duration")
+                .tags("chain", chain, "stage", stage)
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+    }
+
+    private static IngestRunReport toReport(Run run, ReportKey key, ChainStats stats, LocalDateTime finishedAt, boolean success) {
+        IngestRunReport report = new IngestRunReport();
+        report.setRunType(run.type);
+        report.setRunStartedAt(run.startedAt);
+        report.setRunFinishedAt(finishedAt);
+        report.setSuccess(success);
+        report.setChain(key.chain());
+        report.setFileKind(key.fileKind());
+        report.setFilesDownloaded(stats.filesDownloaded.sum());
+        report.setFilesFailed(stats.filesFailed.sum());
+        report.setBytesDownloaded(stats.bytesDownloaded.sum());
+        report.setFilesParsed(stats.filesParsed.sum());
+        report.setRowsParsed(stats.rowsParsed.sum());
+        report.setParseMillis(TimeUnit.NANOSECONDS.toMillis(stats.parseNanos.sum()));
+        report.setRowsMapped(stats.rowsMapped.sum());
+        report.setRowsUnknown(stats.rowsUnknown.sum());
+        report.setRowsInserted(stats.rowsInserted.sum());
+        report.setRowsUpdated(stats.rowsUpdated.sum());
+        report.setRowsSkipped(stats.rowsSkipped.sum());
+        report.setFlushes(stats.flushes.sum());
+        report.setFlushMillis(TimeUnit.NANOSECONDS.toMillis(stats.flushNanos.sum()));
+        report.setNewestPriceDate(stats.newestPriceDate.get());
+        return report;
+    }
+
+    private static long perSecond(long rows, long millis) {
+        return millis == 0 ? rows : rows * 1000 / millis;
+    }
+
+    private static LocalDate later(LocalDate current, LocalDate candidate) {
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
+    private static double ageSeconds(AtomicReference<LocalDate> date) {
+        LocalDate newest = date.get();
+        if (newest == null) {
+            return Double.NaN;
+        }
+        return Duration.between(newest.atStartOfDay(), LocalDateTime.now()).toSeconds();
+    }
+}
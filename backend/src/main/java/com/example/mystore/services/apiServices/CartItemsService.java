@@ -5,45 +5,75 @@ import com.example.mystore.database.entities.CartItem;
 import com.example.mystore.database.entities.Item;
 import com.example.mystore.database.entities.ShoppingCart;
 import com.example.mystore.database.repositories.CartItemRepository;
+import com.example.mystore.database.repositories.ItemRepository;
 import com.example.mystore.database.repositories.ShoppingCartRepository;
+import com.example.mystore.dto.api.request.CartItemOperationDTO;
 import com.example.mystore.dto.api.response.CartItemDTO;
-import com.example.mystore.services.CartStatus;
+import com.example.mystore.services.cacheServices.ActiveCartStore;
+import com.example.mystore.services.cacheServices.ActiveCartStore.CartView;
+import com.example.mystore.services.cacheServices.CartTotalsCache;
+import com.example.mystore.services.indexServices.CatalogIndexService;
+import com.example.mystore.services.indexServices.CatalogSnapshot;
+import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 import jakarta.persistence.EntityNotFoundException;
 
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.*;
 
+/**
+ * CartItemsService manages the items of shopping carts.
+ *
+ * Active carts are served by ActiveCartStore: reads come from memory and changes are written
+ * to the database in the background. Other carts (archived) are read and written directly.
+ */
 @Service
 public class CartItemsService {
     private final CartItemRepository cartItemsRepository;
     private final ShoppingCartRepository shoppingCartRepository;
+    private final ItemRepository itemRepository;
+    private final ActiveCartStore activeCartStore;
+    private final CatalogIndexService catalogIndexService;
+    private final CartTotalsCache cartTotalsCache;
 
-    public CartItemsService(CartItemRepository cartItemsRepository, ShoppingCartRepository shoppingCartRepository) {
+    public CartItemsService(CartItemRepository cartItemsRepository, ShoppingCartRepository shoppingCartRepository,
+                            ItemRepository itemRepository, ActiveCartStore activeCartStore,
+                            CatalogIndexService catalogIndexService, CartTotalsCache cartTotalsCache) {
         this.cartItemsRepository = cartItemsRepository;
         this.shoppingCartRepository = shoppingCartRepository;
+        this.itemRepository = itemRepository;
+        this.activeCartStore = activeCartStore;
+        this.catalogIndexService = catalogIndexService;
+        this.cartTotalsCache = cartTotalsCache;
     }
 
     public List<CartItemDTO> getItemsFromActiveCart(Long userId) {
-        Optional<ShoppingCart> optActiveCart = shoppingCartRepository.findByUser_UserIDAndStatus(userId, CartStatus.ACTIVE);
-
-        if (optActiveCart.isEmpty()) {
-            throw new EntityNotFoundException("No active cart found for user " + userId);
-        }
-
-        ShoppingCart activeCart = optActiveCart.get();
-        List<CartItem> cartItems = cartItemsRepository.findById_CartID(activeCart.getCartID());
+        return findItemsFromActiveCart(userId)
+                .orElseThrow(() -> new EntityNotFoundException("No active cart found for user " + userId));
+    }
 
-        return cartItems.stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Retrieves the items of the user's active cart from memory (loaded once per cart).
+     *
+     * @param userId the ID of the user
+     * @return the items of the active cart, or empty if the user has no active cart
+     */
+    public Optional<List<CartItemDTO>> findItemsFromActiveCart(Long userId) {
+        return activeCartStore.findByUser(userId).map(this::toDTOs);
     }
 
 
     public void addOrUpdateItemInCart(Long cartId, String itemId, int quantity) {
+        // Active cart - changed in memory, written to the database in the background
+        Optional<CartView> activeCart = activeCartStore.findByCart(cartId);
+        if (activeCart.isPresent()) {
+            if (!activeCart.get().getQuantities().containsKey(itemId)) {
+                requireItemsExist(List.of(itemId));
+            }
+            activeCartStore.apply(cartId, Map.of(itemId, quantity));
+            return;
+        }
+
         Optional<ShoppingCart> optionalShoppingCart = shoppingCartRepository.findById(cartId);
         // Check if the shopping cart exists
         if(optionalShoppingCart.isEmpty()){
@@ -72,6 +102,15 @@ public class CartItemsService {
         }
     }
     public void removeItemFromCart(Long cartId, String itemId, int quantityToRemove) {
+        Optional<CartView> activeCart = activeCartStore.findByCart(cartId);
+        if (activeCart.isPresent()) {
+            if (!activeCart.get().getQuantities().containsKey(itemId)) {
+                throw new IllegalArgumentException("Item does not exist in the cart.");
+            }
+            activeCartStore.apply(cartId, Map.of(itemId, -quantityToRemove));
+            return;
+        }
+
         Optional<ShoppingCart> optionalShoppingCart = shoppingCartRepository.findById(cartId);
         if (optionalShoppingCart.isEmpty()) {
             throw new EntityNotFoundException("Cart with ID " + cartId + " not found");
@@ -98,41 +137,170 @@ public class CartItemsService {
         }
     }
 
+    /**
+     * Applies a batch of quantity changes to a cart in a single transaction.
+     *
+     * Changes to the same item are summed first. An active cart is changed in memory as a whole
+     * (see ActiveCartStore). For other carts the affected cart items are read with one query,
+     * and the results are written back with one saveAll and one batch delete.
+     * If any operation is invalid (for example an unknown item), nothing is changed.
+     * An item whose quantity drops to zero or below is removed; a negative change for an item
+     * that is not in the cart is ignored.
+     *
+     * @param cartId the ID of the cart
+     * @param operations the quantity changes (itemId, delta)
+     * @return the items of the cart after the changes
+     */
+    @Transactional
+    public List<CartItemDTO> applyOperations(Long cartId, List<CartItemOperationDTO> operations) {
+        if (operations == null) {
+            throw new IllegalArgumentException("Missing cart operations.");
+        }
+
+        // Coalesce the changes per item, keeping the order of first appearance
+        Map<String, Integer> deltas = new LinkedHashMap<>();
+        for (CartItemOperationDTO operation : operations) {
+            if (operation == null || operation.getItemId() == null || operation.getItemId().isBlank()) {
+                throw new IllegalArgumentException("Cart operation without item ID.");
+            }
+            deltas.merge(operation.getItemId(), operation.getDelta(), Integer::sum);
+        }
+
+        Optional<CartView> activeCart = activeCartStore.findByCart(cartId);
+        if (activeCart.isPresent()) {
+            List<String> newItemIds = new ArrayList<>();
+            deltas.forEach((itemId, delta) -> {
+                if (delta > 0 && !activeCart.get().getQuantities().containsKey(itemId)) {
+                    newItemIds.add(itemId);
+                }
+            });
+            requireItemsExist(newItemIds);
+            Optional<CartView> updated = activeCartStore.apply(cartId, deltas);
+            if (updated.isPresent()) {
+                return toDTOs(updated.get());
+            }
+        }
+
+        ShoppingCart shoppingCart = shoppingCartRepository.findById(cartId)
+                .orElseThrow(() -> new EntityNotFoundException("Cart with ID " + cartId + " not found"));
+        Map<String, CartItem> existing = new HashMap<>();
+        if (!deltas.isEmpty()) {
+            for (CartItem cartItem : cartItemsRepository.findById_CartIDAndId_ItemIDIn(cartId, deltas.keySet())) {
+                existing.put(cartItem.getId().getItemID(), cartItem);
+            }
+        }
+
+        // Items added for the first time are loaded together, so the new rows can be returned without another read
+        List<String> newItemIds = new ArrayList<>();
+        deltas.forEach((itemId, delta) -> {
+            if (delta > 0 && !existing.containsKey(itemId)) {
+                newItemIds.add(itemId);
+            }
+        });
+        Map<String, Item> newItems = new HashMap<>();
+        if (!newItemIds.isEmpty()) {
+            for (Item item : itemRepository.findAllById(newItemIds)) {
+                newItems.put(item.getItemID(), item);
+            }
+        }
+
+        List<CartItem> toSave = new ArrayList<>();
+        List<CartItem> toDelete = new ArrayList<>();
+        deltas.forEach((itemId, delta) -> {
+            CartItem cartItem = existing.get(itemId);
+            if (cartItem == null) {
+                if (delta > 0) {
+                    Item item = newItems.get(itemId);
+                    if (item == null) {
+                        throw new EntityNotFoundException("Item with ID " + itemId + " not found");
+                    }
+                    CartItem newCartItem = new CartItem();
+                    newCartItem.setShoppingCart(shoppingCart);
+                    newCartItem.setItem(item);
+                    newCartItem.setId(new CartItemKey(shoppingCart.getCartID(), itemId));
+                    newCartItem.setQuantity(delta);
+                    toSave.add(newCartItem);
+                }
+            } else if (delta != 0) {
+                int newQuantity = cartItem.getQuantity() + delta;
+                if (newQuantity <= 0) {
+                    toDelete.add(cartItem);
+                } else {
+                    cartItem.setQuantity(newQuantity);
+                    toSave.add(cartItem);
+                }
+            }
+        });
+
+        cartItemsRepository.saveAll(toSave);
+        cartItemsRepository.deleteAllInBatch(toDelete);
+        cartItemsRepository.flush();
+        return getItemsByCartId(cartId);
+    }
+
     public List<CartItemDTO> getItemsByCartId(Long cartId) {
-        List<CartItem> cartItems = cartItemsRepository.findById_CartID(cartId);
-        if (cartItems.isEmpty()) {
-            return new ArrayList<>();
+        // An active cart held in memory may have changes that were not written yet
+        Optional<CartView> activeCart = activeCartStore.peek(cartId);
+        if (activeCart.isPresent()) {
+            return toDTOs(activeCart.get());
         }
-        return cartItems.stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        // One query for all the lines, instead of loading every cart item and then its item
+        return cartItemsRepository.findCartItemDTOsByCartId(cartId);
     }
 
 
-    private CartItemDTO mapToDTO(CartItem cartItem) {
-        Item item = cartItem.getItem();
-        if (item == null) {
-            throw new IllegalStateException("Item not found for cart item ID: " + cartItem.getId().getItemID());
+    // Builds the DTOs of an in-memory cart, or returns them from CartTotalsCache if the cart and prices did not change.
+    // Item details come from the catalog snapshot, items that are not in it yet (added after the last rebuild)
+    // are read with one query.
+    private List<CartItemDTO> toDTOs(CartView cart) {
+        Optional<List<CartItemDTO>> cached = cartTotalsCache.get(cart);
+        if (cached.isPresent()) {
+            return cached.get();
         }
 
-        Double totalMin = (item.getLowestPrice() != null)
-                ? cartItem.getQuantity() * item.getLowestPrice()
-                : null;
+        CatalogSnapshot snapshot = catalogIndexService.getSnapshot();
+        Map<String, Item> items = findItems(cart.getQuantities().keySet(), snapshot);
+        List<CartItemDTO> dtos = new ArrayList<>();
+        cart.getQuantities().forEach((itemId, quantity) -> {
+            Item item = items.get(itemId);
+            if (item == null) {
+                throw new IllegalStateException("Item not found for cart item ID: " + itemId);
+            }
+            dtos.add(CartTotalsCache.toLine(item, quantity));
+        });
+        if (snapshot != null) {
+            cartTotalsCache.put(cart, snapshot.getVersion(), dtos);
+        }
+        return dtos;
+    }
 
-        Double totalMax = (item.getHighestPrice() != null)
-                ? cartItem.getQuantity() * item.getHighestPrice()
-                : null;
+    // Active carts are written in the background, so unknown items must be rejected before they are added
+    private void requireItemsExist(Collection<String> itemIds) {
+        Map<String, Item> items = findItems(itemIds, catalogIndexService.getSnapshot());
+        for (String itemId : itemIds) {
+            if (!items.containsKey(itemId)) {
+                throw new EntityNotFoundException("Item with ID " + itemId + " not found");
+            }
+        }
+    }
 
-        return new CartItemDTO(
-                item.getItemID(),
-                item.getItemName(),
-                item.getImageUrl(),
-                cartItem.getQuantity(),
-                totalMin,
-                totalMax,
-                item.getLowestPrice(),
-                item.getHighestPrice()
-        );
+    private Map<String, Item> findItems(Collection<String> itemIds, CatalogSnapshot snapshot) {
+        Map<String, Item> items = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String itemId : itemIds) {
+            int ordinal = snapshot == null ? -1 : snapshot.ordinalOf(itemId);
+            if (ordinal >= 0) {
+                items.put(itemId, snapshot.itemAt(ordinal));
+            } else {
+                missing.add(itemId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Item item : itemRepository.findAllById(missing)) {
+                items.put(item.getItemID(), item);
+            }
+        }
+        return items;
     }
 
 }
\ No newline at end of file
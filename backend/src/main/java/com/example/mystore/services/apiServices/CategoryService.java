@@ -3,19 +3,111 @@ package com.example.mystore.services.apiServices;
 import com.example.mystore.dto.api.response.GeneralCategoryDTO;
 import com.example.mystore.dto.api.response.SubCategoryDTO;
 import com.example.mystore.utils.CategoryLoader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * CategoryService serves the category tree shown on every page (HoverTopCategoryBar).
+ *
+ * The tree only changes with the category CSV, so it is serialized to JSON once, kept as bytes
+ * both plain and gzip-compressed, with an ETag (hash of the JSON).
+ * The CSV is checked for changes every categories.reload-check-ms (default 60000);
+ * the bytes are only built again when it changed.
+ */
 @Service
 public class CategoryService {
+    private static final Logger logger = LoggerFactory.getLogger(CategoryService.class);
 
     private final CategoryLoader categoryLoader;
+    private final ObjectMapper objectMapper;
 
-    public CategoryService(CategoryLoader categoryLoader) {
+    private volatile SerializedCategories serialized;
+
+    public CategoryService(CategoryLoader categoryLoader, ObjectMapper objectMapper) {
         this.categoryLoader = categoryLoader;
+        this.objectMapper = objectMapper;
+        this.serialized = serialize();
+    }
+
+    /**
+     * The category tree as ready-to-send JSON bytes.
+     */
+    public static class SerializedCategories {
+        private final byte[] json;
+        private final byte[] gzipJson;
+        private final String etag;
+
+        SerializedCategories(byte[] json, byte[] gzipJson, String etag) {
+            this.json = json;
+            this.gzipJson = gzipJson;
+            this.etag = etag;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzipJson() {
+            return gzipJson;
+        }
+
+        /**
+         * Returns the hash of the JSON, the same for the plain and the compressed bytes.
+         */
+        public String getEtag() {
+            return etag;
+        }
+    }
+
+    /**
+     * Retrieves the category tree serialized to JSON (see class doc).
+     *
+     * @return the JSON bytes, plain and gzip, with their ETag
+     */
+    public SerializedCategories getSerializedCategories() {
+        return serialized;
+    }
+
+    // Builds the bytes again when the category CSV changed
+    @Scheduled(fixedDelayString = "${categories.reload-check-ms:60000}")
+    public void reloadIfChanged() {
+        if (categoryLoader.reloadIfChanged()) {
+            serialized = serialize();
+            logger.info("Category CSV changed - category tree rebuilt (ETag {}).", serialized.getEtag());
+        }
+    }
+
+    private SerializedCategories serialize() {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(getAllCategories());
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            String etag = HexFormat.of().formatHex(hash, 0, 16);
+            return new SerializedCategories(json, compressed.toByteArray(), etag);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize the category tree", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
     /**
      * Retrieves all general categories along with their subcategories and specific categories.
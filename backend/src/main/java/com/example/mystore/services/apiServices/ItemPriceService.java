@@ -3,30 +3,46 @@ package com.example.mystore.services.apiServices;
 import com.example.mystore.database.entities.*;
 import com.example.mystore.database.repositories.*;
 import com.example.mystore.dto.api.request.ComparisonRequestDTO;
+import com.example.mystore.dto.api.response.CartItemDTO;
 import com.example.mystore.dto.api.response.ComparisonResultDTO;
 import com.example.mystore.dto.api.response.ItemWithPriceDTO;
+import com.example.mystore.dto.api.response.NearbyStoreDTO;
 import com.example.mystore.dto.api.response.StoreDTO;
-import com.example.mystore.services.CartStatus;
 import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 @Service
 public class ItemPriceService {
+    private static final Logger logger = LoggerFactory.getLogger(ItemPriceService.class);
+    // Location-based comparisons: default radius, and how many stores to compare when none were selected
+    private static final double DEFAULT_COMPARISON_RADIUS_KM = 10;
+    private static final int MAX_NEARBY_COMPARISON_STORES = 10;
 
     private final ItemPriceRepository itemPriceRepository;
     private final UserRepository userRepository;
     private final StoreRepository storeRepository;
-    private final ShoppingCartRepository shoppingCartRepository;
     private final ItemService itemService;
+    private final StoreService storeService;
+    private final CartItemsService cartItemsService;
+    // Bounds the store queries of all streamed comparisons together, so they never take the whole connection pool
+    private final Semaphore comparisonQueryPermits;
 
-    public ItemPriceService(ItemPriceRepository itemPriceRepository, UserRepository userRepository, StoreRepository storeRepository, ShoppingCartRepository shoppingCartRepository, ItemService itemService) {
+    public ItemPriceService(ItemPriceRepository itemPriceRepository, UserRepository userRepository, StoreRepository storeRepository, ItemService itemService, StoreService storeService, CartItemsService cartItemsService,
+                            @Value("${comparison.max-concurrent-queries:4}") int maxConcurrentQueries) {
         this.itemPriceRepository = itemPriceRepository;
         this.userRepository = userRepository;
         this.storeRepository = storeRepository;
-        this.shoppingCartRepository = shoppingCartRepository;
         this.itemService = itemService;
+        this.storeService = storeService;
+        this.cartItemsService = cartItemsService;
+        this.comparisonQueryPermits = new Semaphore(Math.max(1, maxConcurrentQueries), true);
     }
     /**
      * Saves a single ItemPrice entity to the database.
@@ -68,76 +84,192 @@ public class ItemPriceService {
     public List<ComparisonResultDTO> compareCartAcrossStores(ComparisonRequestDTO requestDTO){
         List<ComparisonResultDTO> comparisonResults  = new ArrayList<>();
 
+        List<CartItemDTO> cartLines = getComparisonCartLines(requestDTO);
+        List<StoreDTO> stores = getComparisonStores(requestDTO);
+
+        for(StoreDTO store : stores){
+            comparisonResults.add(compareCartInStore(store, cartLines));
+        }
+
+        return comparisonResults;
+    }
+
+    /**
+     * Loads the lines of the user's active cart for a price comparison.
+     * Only the item details and quantity are filled in - prices are resolved per store.
+     *
+     * @param requestDTO the comparison request containing the userId
+     * @return the cart lines of the user's active cart
+     */
+    @Transactional
+    public List<CartItemDTO> getComparisonCartLines(ComparisonRequestDTO requestDTO) {
         Optional<User> optionalUser = userRepository.findById(requestDTO.getUserId());
         if (optionalUser.isEmpty()) {
             throw new IllegalArgumentException("User not found.");
         }
-        Optional<ShoppingCart> optionalShoppingCart = shoppingCartRepository.findByUser_UserIDAndStatus(optionalUser.get().getUserID(), CartStatus.ACTIVE);
-        if(optionalShoppingCart.isEmpty()){
-            throw new IllegalArgumentException("No active cart found for user.");
+        // Read through the active cart store, so changes that were not written yet are included
+        List<CartItemDTO> activeCartItems = cartItemsService.findItemsFromActiveCart(optionalUser.get().getUserID())
+                .orElseThrow(() -> new IllegalArgumentException("No active cart found for user."));
+
+        List<CartItemDTO> cartLines = new ArrayList<>();
+        for (CartItemDTO cartItem : activeCartItems) {
+            cartLines.add(new CartItemDTO(
+                    cartItem.getItemId(),
+                    cartItem.getItemName(),
+                    cartItem.getImageUrl(),
+                    cartItem.getQuantity(),
+                    null, null, null, null));
         }
-        List<Store> stores = storeRepository.findAllById(requestDTO.getStoreIds());
+        return cartLines;
+    }
+
+    /**
+     * Loads the stores selected for a price comparison.
+     * When the request carries a location, only stores within its radius are compared.
+     *
+     * @param requestDTO the comparison request containing the storeIds (and optionally a location)
+     * @return the selected stores as StoreDTOs
+     */
+    public List<StoreDTO> getComparisonStores(ComparisonRequestDTO requestDTO) {
+        List<Long> storeIds = requestDTO.getStoreIds() == null ? List.of() : requestDTO.getStoreIds();
+        if (requestDTO.getLatitude() != null && requestDTO.getLongitude() != null) {
+            storeIds = storesInRadius(requestDTO, storeIds);
+        }
+        List<Store> stores = storeRepository.findAllById(storeIds);
 
         if(stores.isEmpty()){
             throw new IllegalArgumentException("Price comparison is not possible.");
         }
 
-        ShoppingCart shoppingCart = optionalShoppingCart.get();
-        List<CartItem> cartItems = shoppingCart.getCartItems();
-
-        for(Store store : stores){
-            Long storeId = store.getStoreID();
-            List<ItemWithPriceDTO> itemWithPriceDTOS = new ArrayList<>();
-            double totalPrice = 0.0;
-
-            for(CartItem cartItem : cartItems){
-                Item item = cartItem.getItem();
-                ItemPriceKey itemPriceKey = new ItemPriceKey(item.getItemID(), storeId);
-                Optional<ItemPrice> optionalItemPrice = itemPriceRepository.findByItemPriceKey(itemPriceKey);
-
-
-                if(optionalItemPrice.isPresent()) {
-                    ItemPrice itemPrice = optionalItemPrice.get();
-                    // Calculate the total price based on item price and quantity
-                    double price = itemPrice.getPrice() * cartItem.getQuantity();
-                    totalPrice += price;
-                    itemWithPriceDTOS.add(new ItemWithPriceDTO(
-                            item.getItemID(),
-                            item.getItemName(),
-                            item.getImageUrl(),
-                            itemPrice.getPrice(),
-                            cartItem.getQuantity(),
-                            true));
-                } else {
-
-                    itemWithPriceDTOS.add(new ItemWithPriceDTO(
-                            item.getItemID(),
-                            item.getItemName(),
-                            item.getImageUrl(),
-                            null,
-                            cartItem.getQuantity(),
-                            false));
-                }
-            }
-
-            StoreDTO storeDTO = new StoreDTO(
+        List<StoreDTO> storeDTOS = new ArrayList<>();
+        for (Store store : stores) {
+            storeDTOS.add(new StoreDTO(
                     store.getStoreID(),
                     store.getChain().getChainName(),
                     store.getStoreName(),
                     store.getStoreNumber(),
                     store.getStoreCity(),
                     store.getStoreAddress(),
-                    null);
-
-            comparisonResults.add(new ComparisonResultDTO(storeDTO, itemWithPriceDTOS, totalPrice));
+                    null));
         }
+        return storeDTOS;
+    }
 
-        return comparisonResults;
+    // The selected stores that are within the radius, or the nearest stores in the radius if none were selected.
+    // Selected stores are checked one by one, so they are not cut off by the nearby-search limit.
+    private List<Long> storesInRadius(ComparisonRequestDTO requestDTO, List<Long> selectedStoreIds) {
+        double radiusKm = requestDTO.getRadiusKm() == null ? DEFAULT_COMPARISON_RADIUS_KM : requestDTO.getRadiusKm();
+        if (!selectedStoreIds.isEmpty()) {
+            return storeService.filterStoresInRadius(requestDTO.getLatitude(), requestDTO.getLongitude(), radiusKm, selectedStoreIds);
+        }
+        List<Long> nearbyIds = new ArrayList<>();
+        for (NearbyStoreDTO nearby : storeService.findNearbyStores(requestDTO.getLatitude(), requestDTO.getLongitude(),
+                radiusKm, MAX_NEARBY_COMPARISON_STORES)) {
+            nearbyIds.add(nearby.getStore().getStoreId());
+        }
+        return nearbyIds;
     }
 
+    /**
+     * Prices the given cart lines in a single store.
+     * All prices of the store are fetched with one query.
+     *
+     * @param store the store to price the cart in
+     * @param cartLines the cart lines (item and quantity)
+     * @return the comparison result for this store
+     */
+    public ComparisonResultDTO compareCartInStore(StoreDTO store, List<CartItemDTO> cartLines) {
+        List<String> itemIds = new ArrayList<>();
+        for (CartItemDTO cartLine : cartLines) {
+            itemIds.add(cartLine.getItemId());
+        }
+
+        Map<String, Double> pricesInStore = new HashMap<>();
+        if (!itemIds.isEmpty()) {
+            for (Object[] row : itemPriceRepository.findPricesInStore(store.getStoreId(), itemIds)) {
+                pricesInStore.put((String) row[0], (Double) row[1]);
+            }
+        }
+
+        List<ItemWithPriceDTO> itemWithPriceDTOS = new ArrayList<>();
+        double totalPrice = 0.0;
+
+        for (CartItemDTO cartLine : cartLines) {
+            Double price = pricesInStore.get(cartLine.getItemId());
 
+            if (price != null) {
+                // Calculate the total price based on item price and quantity
+                totalPrice += price * cartLine.getQuantity();
+                itemWithPriceDTOS.add(new ItemWithPriceDTO(
+                        cartLine.getItemId(),
+                        cartLine.getItemName(),
+                        cartLine.getImageUrl(),
+                        price,
+                        cartLine.getQuantity(),
+                        true));
+            } else {
+                itemWithPriceDTOS.add(new ItemWithPriceDTO(
+                        cartLine.getItemId(),
+                        cartLine.getItemName(),
+                        cartLine.getImageUrl(),
+                        null,
+                        cartLine.getQuantity(),
+                        false));
+            }
+        }
 
+        return new ComparisonResultDTO(store, itemWithPriceDTOS, totalPrice);
+    }
 
+    /**
+     * Prices the cart in all given stores concurrently (one virtual thread per store)
+     * and hands every store result to the sink as soon as it is ready.
+     * Virtual threads do not limit JDBC use, so at most comparison.max-concurrent-queries (default 4, well below
+     * the connection pool size) store queries run at once across all requests; the other stores wait for a permit.
+     * Results therefore arrive in completion order, not in the order of the stores list.
+     * A store whose query fails is still handed to the sink, as a result with an error and no prices.
+     *
+     * @param stores the stores to compare
+     * @param cartLines the cart lines (item and quantity)
+     * @param sink receives each store result, always on the calling thread
+     */
+    public void streamCartComparison(List<StoreDTO> stores, List<CartItemDTO> cartLines, Consumer<ComparisonResultDTO> sink) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<ComparisonResultDTO> completionService = new ExecutorCompletionService<>(executor);
+            Map<Future<ComparisonResultDTO>, StoreDTO> storeOf = new HashMap<>();
+            for (StoreDTO store : stores) {
+                storeOf.put(completionService.submit(() -> {
+                    comparisonQueryPermits.acquire();
+                    try {
+                        return compareCartInStore(store, cartLines);
+                    } finally {
+                        comparisonQueryPermits.release();
+                    }
+                }), store);
+            }
 
+            try {
+                for (int i = 0; i < stores.size(); i++) {
+                    Future<ComparisonResultDTO> completed = completionService.take();
+                    ComparisonResultDTO result;
+                    try {
+                        result = completed.get();
+                    } catch (ExecutionException e) {
+                        StoreDTO store = storeOf.get(completed);
+                        logger.warn("Price comparison failed for store {}: {}", store.getStoreId(), e.getCause().getMessage(), e.getCause());
+                        result = new ComparisonResultDTO(store, "Prices of this store are unavailable right now.");
+                    }
+                    sink.accept(result);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+            } catch (RuntimeException e) {
+                // The sink failed (e.g. the client disconnected) - no point in finishing the remaining stores
+                executor.shutdownNow();
+                throw e;
+            }
+        }
+    }
 
 }
\ No newline at end of file
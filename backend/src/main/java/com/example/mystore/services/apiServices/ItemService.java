@@ -1,28 +1,60 @@
 package com.example.mystore.services.apiServices;
 import com.example.mystore.database.entities.Item;
-import com.example.mystore.database.entities.ItemPrice;
-import com.example.mystore.database.entities.ItemPriceKey;
-import com.example.mystore.database.repositories.ItemPriceRepository;
 import com.example.mystore.database.repositories.ItemRepository;
+import com.example.mystore.dto.api.response.CursorPageDTO;
+import com.example.mystore.dto.api.response.FacetedItemsDTO;
 import com.example.mystore.dto.api.response.ItemDTO;
-import jakarta.transaction.Transactional;
+import com.example.mystore.dto.api.response.SuggestionDTO;
+import com.example.mystore.services.cacheServices.AlternativesCache;
+import com.example.mystore.services.cacheServices.CategoryBrowseCache;
+import com.example.mystore.services.cacheServices.DataVersionService;
+import com.example.mystore.services.indexServices.AvailabilityIndex;
+import com.example.mystore.services.indexServices.FacetIndex;
+import com.example.mystore.services.indexServices.CatalogIndexService;
+import com.example.mystore.services.indexServices.CatalogSnapshot;
+import com.example.mystore.services.indexServices.ItemIdIndex;
+import com.example.mystore.services.indexServices.ItemNameIndex;
+import com.example.mystore.services.indexServices.SuggestIndex;
+import com.example.mystore.utils.CursorCodec;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class ItemService {
+    // Category listings show only items sold in at least this many stores
+    public static final int MIN_STORES = 20;
 
     private final ItemRepository itemRepository;
-    private final ItemPriceRepository itemPriceRepository;
+    private final ItemNameIndex itemNameIndex;
+    private final ItemIdIndex itemIdIndex;
+    private final SuggestIndex suggestIndex;
+    private final CategoryBrowseCache categoryBrowseCache;
+    private final AlternativesCache alternativesCache;
+    private final DataVersionService dataVersionService;
+    private final CatalogIndexService catalogIndexService;
+    private final AvailabilityIndex availabilityIndex;
+    private final FacetIndex facetIndex;
 
-    public ItemService(ItemRepository itemRepository, ItemPriceRepository itemPriceRepository) {
+    public ItemService(ItemRepository itemRepository, ItemNameIndex itemNameIndex, ItemIdIndex itemIdIndex, SuggestIndex suggestIndex, CategoryBrowseCache categoryBrowseCache, AlternativesCache alternativesCache, DataVersionService dataVersionService, CatalogIndexService catalogIndexService, AvailabilityIndex availabilityIndex, FacetIndex facetIndex) {
         this.itemRepository = itemRepository;
-        this.itemPriceRepository = itemPriceRepository;
+        this.itemNameIndex = itemNameIndex;
+        this.itemIdIndex = itemIdIndex;
+        this.suggestIndex = suggestIndex;
+        this.categoryBrowseCache = categoryBrowseCache;
+        this.alternativesCache = alternativesCache;
+        this.dataVersionService = dataVersionService;
+        this.catalogIndexService = catalogIndexService;
+        this.availabilityIndex = availabilityIndex;
+        this.facetIndex = facetIndex;
     }
     /**
      * Returns a list of products based on the given page number, page size, and category level.
@@ -30,6 +62,7 @@ public class ItemService {
      *
      * @param level category level ("General", "Sub", "Specific")
      * @param category the name of the category
+     * @param sort "id" (default) or "unitPrice" - best value (lowest price per unit) first, grouped by unit basis
      * @param page page number (starting from 0)
      * @param size number of items per page
      * @return list of ItemDTO
@@ -40,16 +73,31 @@ public class ItemService {
 For example, if the requested page is 3 and the size is 20,
  the function will return the products that correspond to rows 60 through 79
 (page 3 represents the fourth group of 20 items, since page numbers start at 0)*/
- public List<ItemDTO> getItemsByCategory(String level, String category, int page, int size) {
-        Page<Item> itemPage;
+ public List<ItemDTO> getItemsByCategory(String level, String category, String sort, int page, int size) {
+        validatePage(page, size);
+        boolean byUnitPrice = isUnitPriceSort(sort);
+
+        // Served from the precomputed category arrays once they are built
+        Optional<List<Item>> cached = categoryBrowseCache.getPage(level, category, byUnitPrice, page, size);
+        if (cached.isPresent()) {
+            return cached.get().stream().map(this::mapToItemDTO).collect(Collectors.toList());
+        }
+
+        Slice<Item> itemPage;
         Pageable pageable = PageRequest.of(page, size);
 
         if ("General".equalsIgnoreCase(level)) {
-            itemPage = itemRepository.findByGeneralCategoryWithMinStores(category, pageable);
+            itemPage = byUnitPrice
+                    ? itemRepository.findByGeneralCategoryWithMinStoresByUnitPrice(category, MIN_STORES, pageable)
+                    : itemRepository.findByGeneralCategoryWithMinStores(category, MIN_STORES, pageable);
         } else if ("Sub".equalsIgnoreCase(level)) {
-            itemPage = itemRepository.findBySubCategoryWithMinStores(category, pageable);
+            itemPage = byUnitPrice
+                    ? itemRepository.findBySubCategoryWithMinStoresByUnitPrice(category, MIN_STORES, pageable)
+                    : itemRepository.findBySubCategoryWithMinStores(category, MIN_STORES, pageable);
         } else if ("Specific".equalsIgnoreCase(level)) {
-            itemPage = itemRepository.findBySpecificCategoryWithMinStores(category, pageable);
+            itemPage = byUnitPrice
+                    ? itemRepository.findBySpecificCategoryWithMinStoresByUnitPrice(category, MIN_STORES, pageable)
+                    : itemRepository.findBySpecificCategoryWithMinStores(category, MIN_STORES, pageable);
         } else {
             throw new IllegalArgumentException("Invalid category level: " + level);
         }
@@ -63,14 +111,17 @@ For example, if the requested page is 3 and the size is 20,
      * Searches items by either item ID or item name based on the query.
      *
      * @param query the search keyword
+     * @param match how a numeric query is matched against item IDs: "prefix", "suffix" or "contains"
      * @param page page number
      * @param size number of items per page
      * @return a page of ItemDTO matching the search query
      */
 /* This function returns a page of items based on the submitted search query.
- If the query is numeric, it returns a page of items filtered by item_id.
- Otherwise, it returns a page of items filtered by item_name.*/
-    public Page<ItemDTO> searchItem (String query, int page, int size) {
+ If the query is numeric, it returns a page of items filtered by item_id -
+ prefix and suffix lookups are answered from the in-memory ID index, "contains" is a slow table scan.
+ Otherwise, it returns a page of items filtered by item_name - answered from the in-memory
+ name index, or from the database until the index is built.*/
+    public Page<ItemDTO> searchItem (String query, String match, int page, int size) {
         if (query == null || query.trim().isEmpty()) {
             throw new IllegalArgumentException("שאילתת חיפוש ריקה");
         }
@@ -79,69 +130,383 @@ For example, if the requested page is 3 and the size is 20,
 
         if (query.matches("\\d+")) {
             // This is a number - therefore search by item id
-            resultPage = itemRepository.findByItemIDContaining(query, pageable);
+            resultPage = searchByItemId(query, match, pageable);
         } else {
             //Otherwise search by product name
-            resultPage = itemRepository.findByItemNameContainingIgnoreCase(query, pageable);
+            resultPage = itemNameIndex.search(query, pageable)
+                    .orElseGet(() -> itemRepository.findByItemNameContainingIgnoreCase(query, pageable));
         }
         return resultPage.map(this::mapToItemDTO);
     }
+
+    /**
+     * Searches items by barcode digits.
+     * Prefix and suffix are served from the in-memory index (the DB is used only until it is built),
+     * contains-anywhere must be asked for explicitly since it scans the whole ITEM table.
+     *
+     * @param digits the numeric query
+     * @param match "prefix" (default), "suffix" or "contains"
+     * @param pageable the requested page
+     * @return a page of matching items
+     */
+    private Page<Item> searchByItemId(String digits, String match, Pageable pageable) {
+        if (match == null || match.isBlank() || "prefix".equalsIgnoreCase(match)) {
+            return itemIdIndex.findByPrefix(digits, pageable)
+                    .orElseGet(() -> itemRepository.findByItemIDStartingWith(digits, pageable));
+        } else if ("suffix".equalsIgnoreCase(match)) {
+            return itemIdIndex.findBySuffix(digits, pageable)
+                    .orElseGet(() -> itemRepository.findByItemIDEndingWith(digits, pageable));
+        } else if ("contains".equalsIgnoreCase(match)) {
+            return itemRepository.findByItemIDContaining(digits, pageable);
+        } else {
+            throw new IllegalArgumentException("Invalid match type: " + match);
+        }
+    }
+    /**
+     * Keyset (cursor) variant of getItemsByCategory.
+     * Items are ordered by item ID and the cursor holds the last ID of the previous page,
+     * so every page is a single index range read - no OFFSET and no COUNT query.
+     *
+     * @param level category level ("General", "Sub", "Specific")
+     * @param category the name of the category
+     * @param cursor the token returned with the previous page (null or empty for the first page)
+     * @param size number of items per page
+     * @return the page of ItemDTO with the cursor of the next page
+     */
+    public CursorPageDTO<ItemDTO> getItemsByCategoryAfter(String level, String category, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Invalid page size: " + size);
+        }
+        // One extra row tells whether there is a next page
+        Optional<List<Item>> cached = categoryBrowseCache.getAfter(level, category, CursorCodec.decode(cursor), size + 1);
+        if (cached.isPresent()) {
+            return toCursorPage(cached.get(), size);
+        }
+
+        String afterItemId = afterKey(cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Item> items;
+
+        if ("General".equalsIgnoreCase(level)) {
+            items = itemRepository.findByGeneralCategoryWithMinStoresAfter(category, MIN_STORES, afterItemId, limit);
+        } else if ("Sub".equalsIgnoreCase(level)) {
+            items = itemRepository.findBySubCategoryWithMinStoresAfter(category, MIN_STORES, afterItemId, limit);
+        } else if ("Specific".equalsIgnoreCase(level)) {
+            items = itemRepository.findBySpecificCategoryWithMinStoresAfter(category, MIN_STORES, afterItemId, limit);
+        } else {
+            throw new IllegalArgumentException("Invalid category level: " + level);
+        }
+        return toCursorPage(items, size);
+    }
+
+    /**
+     * Keyset (cursor) variant of searchItem - same matching rules, pages continue after the cursor
+     * instead of skipping rows, and no total count is calculated.
+     *
+     * @param query the search keyword
+     * @param match how a numeric query is matched against item IDs: "prefix", "suffix" or "contains"
+     * @param cursor the token returned with the previous page (null or empty for the first page)
+     * @param size number of items per page
+     * @return the page of ItemDTO with the cursor of the next page
+     */
+    public CursorPageDTO<ItemDTO> searchItemAfter(String query, String match, String cursor, int size) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("שאילתת חיפוש ריקה");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Invalid page size: " + size);
+        }
+        String decoded = CursorCodec.decode(cursor);
+        String afterItemId = afterKey(cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Item> items;
+
+        if (query.matches("\\d+")) {
+            if (match == null || match.isBlank() || "prefix".equalsIgnoreCase(match)) {
+                items = itemIdIndex.findByPrefixAfter(query, decoded, size + 1)
+                        .orElseGet(() -> itemRepository.findByItemIDStartingWithAndItemIDGreaterThanOrderByItemID(query, afterItemId, limit));
+            } else if ("suffix".equalsIgnoreCase(match)) {
+                items = itemIdIndex.findBySuffixAfter(query, decoded, size + 1)
+                        .orElseGet(() -> itemRepository.findByItemIDEndingWithAndItemIDGreaterThanOrderByItemID(query, afterItemId, limit));
+            } else if ("contains".equalsIgnoreCase(match)) {
+                items = itemRepository.findByItemIDContainingAndItemIDGreaterThanOrderByItemID(query, afterItemId, limit);
+            } else {
+                throw new IllegalArgumentException("Invalid match type: " + match);
+            }
+        } else {
+            items = itemNameIndex.searchAfter(query, decoded, size + 1)
+                    .orElseGet(() -> itemRepository.findByItemNameContainingIgnoreCaseAndItemIDGreaterThanOrderByItemID(query, afterItemId, limit));
+        }
+        return toCursorPage(items, size);
+    }
+
+    // Decodes the cursor into the last item ID of the previous page ("" - before every ID - for the first page)
+    private String afterKey(String cursor) {
+        String decoded = CursorCodec.decode(cursor);
+        return decoded == null ? "" : decoded;
+    }
+
+    // `items` holds up to size + 1 rows - the extra row only signals that a next page exists
+    private CursorPageDTO<ItemDTO> toCursorPage(List<Item> items, int size) {
+        boolean hasNext = items.size() > size;
+        List<ItemDTO> content = new ArrayList<>();
+        for (int i = 0; i < items.size() && i < size; i++) {
+            content.add(mapToItemDTO(items.get(i)));
+        }
+        String nextCursor = hasNext ? CursorCodec.encode(content.get(content.size() - 1).getId()) : null;
+        return new CursorPageDTO<>(content, nextCursor, hasNext);
+    }
+
+    /**
+     * Returns typeahead suggestions (item and manufacturer names) for a partial input,
+     * ranked by popularity. Served entirely from memory - no database access.
+     *
+     * @param prefix the text typed so far
+     * @param limit the maximum number of suggestions
+     * @return the suggestions, most popular first (empty for blank input)
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        return suggestIndex.suggest(prefix, limit);
+    }
+
     /**
      * Finds alternative items from the same or related categories within a given store.
+     * The alternatives of a (category, store) pair are loaded with a single join query, ordered by price,
+     * and cached until the next price update.
      *
      * @param storeId the ID of the store
      * @param itemId the ID of the original item
+     * @param sort "price" (default) - cheapest first, or "unitPrice" - best value (lowest price per unit) first, grouped by unit basis
      * @return a list of alternative ItemDTOs with their prices in the given store
      */
-
-    @Transactional
-    public List<ItemDTO> findAlternatives(Long storeId, String itemId) {
+    public List<ItemDTO> findAlternatives(Long storeId, String itemId, String sort) {
+        boolean byUnitPrice = isUnitPriceSort(sort);
         //find item category
-        Item originalItem = itemRepository.findById(itemId)
+        Item originalItem = findItem(itemId)
                 .orElseThrow(() -> new IllegalArgumentException("המוצר לא נמצא"));
+        long epoch = dataVersionService.getPriceEpoch();
 
-        String category = originalItem.getSpecificCategory();
-
-        List<Item> alternatives = itemRepository.findAlternativesBySpecificCategoryAndStore(category, storeId);
+        List<ItemDTO> alternatives = findAlternativesInCategory("Specific", originalItem.getSpecificCategory(), storeId, byUnitPrice, epoch);
 
         if (alternatives.isEmpty()) {
-            category = originalItem.getSubCategory();
-            alternatives = itemRepository.findAlternativesBySubCategoryAndStore(category, storeId);
+            alternatives = findAlternativesInCategory("Sub", originalItem.getSubCategory(), storeId, byUnitPrice, epoch);
+        }
+        return alternatives;
+    }
+
+    /**
+     * Returns the items of a category sold in a store, with their store price - from the cache when possible.
+     *
+     * @param level "Specific" or "Sub"
+     * @param category the category name
+     * @param storeId the ID of the store
+     * @param byUnitPrice whether to order by unit price instead of price
+     * @param epoch the current price epoch
+     * @return the alternatives, cheapest (or best value) first
+     */
+    private List<ItemDTO> findAlternativesInCategory(String level, String category, Long storeId, boolean byUnitPrice, long epoch) {
+        if (category == null) {
+            return List.of();
+        }
+        // The sort order is part of the cache key
+        String cacheLevel = byUnitPrice ? level + ":unitPrice" : level;
+        Optional<List<ItemDTO>> cached = alternativesCache.get(cacheLevel, category, storeId, epoch);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        // The store doesn't carry anything from this category - no need to ask the database
+        if (!availabilityIndex.storeCarriesCategory(level, category, storeId).orElse(true)) {
+            return alternativesCache.put(cacheLevel, category, storeId, epoch, List.of());
         }
 
-        //map any alternative item - to his price in this store
-        return alternatives.stream()
-                .map(item -> {
-                    ItemPriceKey key = new ItemPriceKey(item.getItemID(), storeId);
-                    Double price = itemPriceRepository.findByItemPriceKey(key)
-                            .map(ItemPrice::getPrice)
-                            .orElse(null);
-                    return mapToItemDTO(item, price);
-                })
-                .collect(Collectors.toList());
+        List<ItemDTO> alternatives;
+        if ("Specific".equals(level)) {
+            alternatives = byUnitPrice
+                    ? itemRepository.findAlternativesBySpecificCategoryAndStoreByUnitPrice(category, storeId)
+                    : itemRepository.findAlternativesBySpecificCategoryAndStore(category, storeId);
+        } else {
+            alternatives = byUnitPrice
+                    ? itemRepository.findAlternativesBySubCategoryAndStoreByUnitPrice(category, storeId)
+                    : itemRepository.findAlternativesBySubCategoryAndStore(category, storeId);
+        }
+        return alternativesCache.put(cacheLevel, category, storeId, epoch, alternatives);
     }
+
     /**
-     * Maps an Item entity to an ItemDTO with a custom price.
+     * Returns the items carried by at least `minStores` of the given stores, optionally within one category.
+     * For example, the items a user can buy in all of their chosen stores (minStores = number of stores).
+     * Answered from the availability bitmaps, or from the database until they are built.
      *
-     * @param item the Item entity
-     * @param customPrice the custom price to use
-     * @return the mapped ItemDTO
+     * @param level category level ("General", "Sub", "Specific"), or null for all categories
+     * @param category the name of the category (required when level is given)
+     * @param storeIds the IDs of the stores
+     * @param minStores how many of the stores must carry an item
+     * @param page page number (starting from 0)
+     * @param size number of items per page
+     * @return list of ItemDTO, ordered by item ID
      */
-    private ItemDTO mapToItemDTO(Item item, Double customPrice) {
-        return new ItemDTO(
-                item.getItemID(),
-                item.getItemName(),
-                customPrice,
-                customPrice,
-                item.getImageUrl(),
-                item.getManufacturerName(),
-                item.getManufactureCountry(),
-                item.getUnitQty(),
-                item.getQuantity(),
-                item.getBIsWeighted()
-        );
+    public List<ItemDTO> getItemsCarriedByStores(String level, String category, Collection<Long> storeIds, int minStores, int page, int size) {
+        if (storeIds == null || storeIds.isEmpty()) {
+            throw new IllegalArgumentException("לא נבחרו סניפים");
+        }
+        if (minStores < 1) {
+            throw new IllegalArgumentException("Invalid minStores: " + minStores);
+        }
+        if (level != null && category == null) {
+            throw new IllegalArgumentException("Missing category for level: " + level);
+        }
+        validatePage(page, size);
+
+        Optional<List<Item>> indexed = availabilityIndex.findCarriedByAtLeast(level, category, storeIds, minStores, page, size);
+        if (indexed.isPresent()) {
+            return indexed.get().stream().map(this::mapToItemDTO).collect(Collectors.toList());
+        }
+
+        Slice<Item> itemPage;
+        Pageable pageable = PageRequest.of(page, size);
+        if (level == null) {
+            itemPage = itemRepository.findCarriedByAtLeast(storeIds, minStores, pageable);
+        } else if ("General".equalsIgnoreCase(level)) {
+            itemPage = itemRepository.findByGeneralCategoryCarriedByAtLeast(category, storeIds, minStores, pageable);
+        } else if ("Sub".equalsIgnoreCase(level)) {
+            itemPage = itemRepository.findBySubCategoryCarriedByAtLeast(category, storeIds, minStores, pageable);
+        } else if ("Specific".equalsIgnoreCase(level)) {
+            itemPage = itemRepository.findBySpecificCategoryCarriedByAtLeast(category, storeIds, minStores, pageable);
+        } else {
+            throw new IllegalArgumentException("Invalid category level: " + level);
+        }
+        return itemPage.stream().map(this::mapToItemDTO).collect(Collectors.toList());
     }
 
+    /**
+     * Returns a page of a category listing filtered by manufacturer, country and weighted flag,
+     * together with the item counts of every filter value.
+     * Until the in-memory facets are built (or while they are rebuilt), the listing is read from the database
+     * with the same filters, without counts.
+     *
+     * @param level category level ("General", "Sub", "Specific")
+     * @param category the name of the category
+     * @param manufacturer selected manufacturer (null or empty for any)
+     * @param country selected manufacture country (null or empty for any)
+     * @param weighted selected weighted flag (null for any)
+     * @param page page number (starting from 0)
+     * @param size number of items per page
+     * @return the items, their total and the facet counts
+     */
+    public FacetedItemsDTO getFacetedItemsByCategory(String level, String category, String manufacturer, String country,
+                                                     Boolean weighted, int page, int size) {
+        String selectedManufacturer = emptyToNull(manufacturer);
+        String selectedCountry = emptyToNull(country);
+        validatePage(page, size);
+        Optional<FacetIndex.Result> result = facetIndex.browseCategory(level, category, selectedManufacturer, selectedCountry, weighted, page, size);
+        if (result.isPresent()) {
+            return toFacetedItems(result.get());
+        }
+        if (selectedManufacturer == null && selectedCountry == null && weighted == null) {
+            List<ItemDTO> items = getItemsByCategory(level, category, null, page, size);
+            return new FacetedItemsDTO(items, null, null);
+        }
+
+        Slice<Item> itemPage;
+        Pageable pageable = PageRequest.of(page, size);
+        if ("General".equalsIgnoreCase(level)) {
+            itemPage = itemRepository.findByGeneralCategoryWithMinStoresFiltered(category, MIN_STORES, selectedManufacturer, selectedCountry, weighted, pageable);
+        } else if ("Sub".equalsIgnoreCase(level)) {
+            itemPage = itemRepository.findBySubCategoryWithMinStoresFiltered(category, MIN_STORES, selectedManufacturer, selectedCountry, weighted, pageable);
+        } else if ("Specific".equalsIgnoreCase(level)) {
+            itemPage = itemRepository.findBySpecificCategoryWithMinStoresFiltered(category, MIN_STORES, selectedManufacturer, selectedCountry, weighted, pageable);
+        } else {
+            throw new IllegalArgumentException("Invalid category level: " + level);
+        }
+        List<ItemDTO> items = itemPage.stream().map(this::mapToItemDTO).collect(Collectors.toList());
+        return new FacetedItemsDTO(items, null, null);
+    }
+
+    /**
+     * Searches items by name, filtered by manufacturer, country and weighted flag,
+     * together with the item counts of every filter value.
+     * Until the in-memory facets are built (or while they and the name index are rebuilt from different snapshots),
+     * the search is run on the database with the same filters, without counts.
+     *
+     * @param query the search keyword
+     * @param manufacturer selected manufacturer (null or empty for any)
+     * @param country selected manufacture country (null or empty for any)
+     * @param weighted selected weighted flag (null for any)
+     * @param page page number (starting from 0)
+     * @param size number of items per page
+     * @return the items, their total and the facet counts
+     */
+    public FacetedItemsDTO searchFacetedItems(String query, String manufacturer, String country,
+                                              Boolean weighted, int page, int size) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("שאילתת חיפוש ריקה");
+        }
+        String selectedManufacturer = emptyToNull(manufacturer);
+        String selectedCountry = emptyToNull(country);
+        validatePage(page, size);
+        Optional<FacetIndex.Result> result = facetIndex.search(query, selectedManufacturer, selectedCountry, weighted, page, size);
+        if (result.isPresent()) {
+            return toFacetedItems(result.get());
+        }
+        if (selectedManufacturer == null && selectedCountry == null && weighted == null) {
+            Page<ItemDTO> items = searchItem(query, null, page, size);
+            return new FacetedItemsDTO(items.getContent(), (int) items.getTotalElements(), null);
+        }
+
+        Page<ItemDTO> items = itemRepository.findByItemNameLikeFiltered(likeContains(query), selectedManufacturer, selectedCountry,
+                weighted, PageRequest.of(page, size)).map(this::mapToItemDTO);
+        return new FacetedItemsDTO(items.getContent(), (int) items.getTotalElements(), null);
+    }
+
+    private FacetedItemsDTO toFacetedItems(FacetIndex.Result result) {
+        List<ItemDTO> items = result.getItems().stream().map(this::mapToItemDTO).collect(Collectors.toList());
+        return new FacetedItemsDTO(items, result.getTotal(), result.getFacets());
+    }
+
+    // LIKE pattern matching `text` anywhere, with the LIKE wildcards in it escaped (as Containing queries do)
+    private static String likeContains(String text) {
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    // The in-memory listings index arrays with page * size, so bad values must not reach them
+    private static void validatePage(int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Invalid page: " + page);
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Invalid page size: " + size);
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    // "unitPrice" selects the best-value order; null, empty, "id" and "price" keep the default order
+    private boolean isUnitPriceSort(String sort) {
+        if (sort == null || sort.isBlank() || "id".equalsIgnoreCase(sort) || "price".equalsIgnoreCase(sort)) {
+            return false;
+        }
+        if ("unitPrice".equalsIgnoreCase(sort)) {
+            return true;
+        }
+        throw new IllegalArgumentException("Invalid sort: " + sort);
+    }
+
+    // Looks the item up in the in-memory catalog, or in the database until the catalog is loaded
+    private Optional<Item> findItem(String itemId) {
+        CatalogSnapshot snapshot = catalogIndexService.getSnapshot();
+        if (snapshot != null && itemId != null) {
+            int ordinal = snapshot.ordinalOf(itemId);
+            if (ordinal >= 0) {
+                return Optional.of(snapshot.itemAt(ordinal));
+            }
+        }
+        return itemId == null ? Optional.empty() : itemRepository.findById(itemId);
+    }
     /**
      * Maps an Item entity to an ItemDTO using the item's lowest and highest prices.
      *
@@ -159,7 +524,9 @@ For example, if the requested page is 3 and the size is 20,
                 item.getManufactureCountry(),
                 item.getUnitQty(),
                 item.getQuantity(),
-                item.getBIsWeighted()
+                item.getBIsWeighted(),
+                item.getLowestUnitPrice(),
+                item.getUnitPriceBasis()
         );
     }
 
@@ -0,0 +1,80 @@
+package com.example.mystore.services.apiServices;
+
+import com.example.mystore.api.exceptions.AccessDeniedException;
+import com.example.mystore.database.repositories.PriceWatchRepository;
+import com.example.mystore.database.repositories.ShoppingCartRepository;
+import com.example.mystore.services.cacheServices.ActiveCartStore;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * OwnershipService checks that the user of a session only reaches their own data.
+ *
+ * The session's user comes from SessionFilter; the checks compare it with the user in the path,
+ * or with the owner of the cart / watch in the path, and throw AccessDeniedException (403) when they differ.
+ * A cart or watch that does not exist passes the check, so the service behind it answers as before (not found).
+ */
+@Service
+public class OwnershipService {
+    private final ShoppingCartRepository shoppingCartRepository;
+    private final PriceWatchRepository priceWatchRepository;
+    private final ActiveCartStore activeCartStore;
+
+    public OwnershipService(ShoppingCartRepository shoppingCartRepository,
+                            PriceWatchRepository priceWatchRepository,
+                            ActiveCartStore activeCartStore) {
+        this.shoppingCartRepository = shoppingCartRepository;
+        this.priceWatchRepository = priceWatchRepository;
+        this.activeCartStore = activeCartStore;
+    }
+
+    /**
+     * Checks that a request about a user comes from that user's session.
+     *
+     * @param sessionUserId the ID of the session's user
+     * @param userId the ID of the user the request is about
+     */
+    public void requireUser(Long sessionUserId, Long userId) {
+        if (userId == null || !userId.equals(sessionUserId)) {
+            throw new AccessDeniedException("אין הרשאה לגשת לנתוני משתמש אחר");
+        }
+    }
+
+    /**
+     * Checks that a cart belongs to the session's user.
+     * Active carts held in memory are checked without a database read.
+     *
+     * @param sessionUserId the ID of the session's user
+     * @param cartId the ID of the cart
+     */
+    public void requireCartOwner(Long sessionUserId, Long cartId) {
+        if (cartId == null) {
+            return;
+        }
+        Optional<Long> ownerId = activeCartStore.peek(cartId)
+                .map(ActiveCartStore.CartView::getUserId)
+                .or(() -> shoppingCartRepository.findOwnerId(cartId));
+        requireOwner(sessionUserId, ownerId, "אין הרשאה לגשת לעגלה של משתמש אחר");
+    }
+
+    /**
+     * Checks that a price watch belongs to the session's user.
+     *
+     * @param sessionUserId the ID of the session's user
+     * @param watchId the ID of the watch
+     */
+    public void requireWatchOwner(Long sessionUserId, Long watchId) {
+        if (watchId == null) {
+            return;
+        }
+        requireOwner(sessionUserId, priceWatchRepository.findOwnerId(watchId), "אין הרשאה לגשת להתראה של משתמש אחר");
+    }
+
+    private static void requireOwner(Long sessionUserId, Optional<Long> ownerId, String message) {
+        if (ownerId.isPresent() && !Objects.equals(ownerId.get(), sessionUserId)) {
+            throw new AccessDeniedException(message);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.mystore.services.apiServices;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.ws.rs.ServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordHasher runs the BCrypt hashing of login and registration on a small dedicated pool,
+ * so a burst of logins cannot take the CPU from the item, price and cart requests.
+ *
+ * - auth.hash.threads (default: half of the cores, at least 1) - hashing threads;
+ * - auth.hash.queue-size (default 32) - requests waiting for a thread. When the queue is full the request
+ *   is rejected at once with 503 instead of piling up;
+ * - auth.hash.timeout-ms (default 5000) - the longest a request waits for its hash, 503 after that;
+ * - auth.bcrypt.strength (default 10) - the BCrypt cost of new hashes. Existing hashes keep their own cost.
+ *
+ * Exported through Micrometer:
+ * - auth.hash.queue / auth.hash.active - requests waiting for a thread / being hashed;
+ * - auth.hash.wait - time from submit until a thread picks the request up;
+ * - auth.hash.duration - BCrypt time;
+ * - auth.hash.requests - requests by result (done, rejected, timed_out).
+ */
+@Component
+public class PasswordHasher {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Counter completed;
+    private final Counter rejected;
+    private final Counter timedOut;
+
+    public PasswordHasher(@Value("${auth.bcrypt.strength:10}") int strength,
+                          @Value("${auth.hash.threads:0}") int threads,
+                          @Value("${auth.hash.queue-size:32}") int queueSize,
+                          @Value("${auth.hash.timeout-ms:5000}") long timeoutMillis,
+                          MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.passwordEncoder = new BCryptPasswordEncoder(strength);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "auth-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+
+        Gauge.builder("auth.hash.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashing requests waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing requests being hashed")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("auth.hash.wait")
+                .description("Time a password hashing request waits for a thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("auth.hash.duration")
+                .description("BCrypt hashing time")
+                .register(meterRegistry);
+        this.completed = requests(meterRegistry, "done");
+        this.rejected = requests(meterRegistry, "rejected");
+        this.timedOut = requests(meterRegistry, "timed_out");
+        logger.info("Password hashing: {} threads, queue of {}, BCrypt strength {}.", poolSize, queueSize, strength);
+    }
+
+    /**
+     * Hashes a new password.
+     *
+     * @param rawPassword the password
+     * @return the BCrypt hash
+     * @throws ServiceUnavailableException if the hashing pool is saturated
+     */
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks a password against a stored hash.
+     *
+     * @param rawPassword the password
+     * @param hash the stored BCrypt hash
+     * @return true if the password matches
+     * @throws ServiceUnavailableException if the hashing pool is saturated
+     */
+    public boolean matches(String rawPassword, String hash) {
+        return run(() -> passwordEncoder.matches(rawPassword, hash));
+    }
+
+    private <T> T run(Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                waitTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    hashTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many login requests, please try again shortly", 1L);
+        }
+
+        try {
+            T result = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            completed.increment();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new ServiceUnavailableException("Too many login requests, please try again shortly", 1L);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking the password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.hash.requests")
+                .description("Password hashing requests by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.mystore.services.apiServices;
+
+import com.example.mystore.database.entities.Item;
+import com.example.mystore.database.entities.PriceAlert;
+import com.example.mystore.database.entities.PriceWatch;
+import com.example.mystore.database.entities.User;
+import com.example.mystore.database.repositories.ItemRepository;
+import com.example.mystore.database.repositories.PriceAlertRepository;
+import com.example.mystore.database.repositories.PriceWatchRepository;
+import com.example.mystore.database.repositories.UserRepository;
+import com.example.mystore.dto.api.request.PriceWatchRequestDTO;
+import com.example.mystore.dto.api.response.PriceAlertDTO;
+import com.example.mystore.dto.api.response.PriceWatchDTO;
+import com.example.mystore.services.cacheServices.PriceWatchIndex;
+import com.example.mystore.services.cacheServices.PriceWatchIndex.Watch;
+import com.example.mystore.services.events.PriceChangesEvent;
+import com.example.mystore.services.events.PriceChangesEvent.PriceChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PriceWatchService manages price-drop watches and evaluates them during the price ingest.
+ *
+ * Every batch of changed prices (PriceChangesEvent) is matched only against the watches of the changed items
+ * (PriceWatchIndex). Matches are written to the PRICE_ALERT_OUTBOX table, from which the user's alerts are
+ * delivered.
+ * Exported through Micrometer:
+ * - price.watch.changes / price.watch.alerts - evaluated price changes and queued alerts;
+ * - price.watch.evaluation - evaluation time per batch of changes (failures tagged outcome=failed);
+ * - price.alert.outbox.depth / price.alert.outbox.lag - undelivered alerts and the age in seconds of the oldest one,
+ *   refreshed every watch.outbox.metrics-interval-ms (default 60000) rather than queried on every scrape.
+ */
+@Service
+public class PriceWatchService {
+    private static final Logger logger = LoggerFactory.getLogger(PriceWatchService.class);
+    public static final int MAX_ALERTS_PER_REQUEST = 100;
+
+    private final PriceWatchRepository priceWatchRepository;
+    private final PriceAlertRepository priceAlertRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final PriceWatchIndex priceWatchIndex;
+
+    private final Counter evaluatedChanges;
+    private final Counter queuedAlerts;
+    private final Timer evaluationTimer;
+    private final Timer failedEvaluationTimer;
+    private final AtomicLong outboxDepth = new AtomicLong();
+    private final AtomicLong outboxLagSeconds = new AtomicLong();
+
+    public PriceWatchService(PriceWatchRepository priceWatchRepository, PriceAlertRepository priceAlertRepository,
+                             UserRepository userRepository, ItemRepository itemRepository, PriceWatchIndex priceWatchIndex,
+                             MeterRegistry meterRegistry) {
+        this.priceWatchRepository = priceWatchRepository;
+        this.priceAlertRepository = priceAlertRepository;
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.priceWatchIndex = priceWatchIndex;
+
+        this.evaluatedChanges = Counter.builder("price.watch.changes")
+                .description("Price changes evaluated against the watches")
+                .register(meterRegistry);
+        this.queuedAlerts = Counter.builder("price.watch.alerts")
+                .description("Price-drop alerts written to the outbox")
+                .register(meterRegistry);
+        this.evaluationTimer = evaluationTimer(meterRegistry, "success");
+        this.failedEvaluationTimer = evaluationTimer(meterRegistry, "failed");
+        Gauge.builder("price.alert.outbox.depth", outboxDepth, AtomicLong::get)
+                .description("Undelivered price-drop alerts")
+                .register(meterRegistry);
+        Gauge.builder("price.alert.outbox.lag", outboxLagSeconds, AtomicLong::get)
+                .description("Age of the oldest undelivered price-drop alert")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates a watch on an item for a user.
+     *
+     * @param request the user, the item and the optional target price and stores
+     * @return the created watch
+     */
+    @Transactional
+    public PriceWatchDTO createWatch(PriceWatchRequestDTO request) {
+        if (request == null || request.getUserId() == null || request.getItemId() == null || request.getItemId().isBlank()) {
+            throw new IllegalArgumentException("User ID and item ID are required.");
+        }
+        if (request.getTargetPrice() != null && request.getTargetPrice() <= 0) {
+            throw new IllegalArgumentException("Invalid target price: " + request.getTargetPrice());
+        }
+        User user = userRepository.findById(request.getUserId())
+                .orElseThrow(() -> new EntityNotFoundException("User with ID " + request.getUserId() + " not found"));
+        Item item = itemRepository.findById(request.getItemId())
+                .orElseThrow(() -> new EntityNotFoundException("Item with ID " + request.getItemId() + " not found"));
+
+        PriceWatch watch = new PriceWatch();
+        watch.setUser(user);
+        watch.setItem(item);
+        watch.setTargetPrice(request.getTargetPrice());
+        if (request.getStoreIds() != null) {
+            watch.setStoreIds(new HashSet<>(request.getStoreIds()));
+        }
+        watch.setCreatedAt(LocalDateTime.now());
+        PriceWatch saved = priceWatchRepository.save(watch);
+
+        priceWatchIndex.add(new Watch(saved.getWatchID(), user.getUserID(), item.getItemID(),
+                saved.getTargetPrice(), saved.getStoreIds()));
+        return toDTO(saved);
+    }
+
+    /**
+     * Retrieves the watches of a user, newest first.
+     *
+     * @param userId the ID of the user
+     * @return the watches of the user
+     */
+    @Transactional
+    public List<PriceWatchDTO> getWatchesByUser(Long userId) {
+        List<PriceWatchDTO> watches = new ArrayList<>();
+        for (PriceWatch watch : priceWatchRepository.findByUser_UserIDOrderByWatchIDDesc(userId)) {
+            watches.add(toDTO(watch));
+        }
+        return watches;
+    }
+
+    /**
+     * Deletes a watch. Alerts it already raised are kept.
+     *
+     * @param watchId the ID of the watch
+     */
+    @Transactional
+    public void deleteWatch(Long watchId) {
+        PriceWatch watch = priceWatchRepository.findById(watchId)
+                .orElseThrow(() -> new IllegalArgumentException("No watch found."));
+        priceWatchIndex.remove(watchId, watch.getItem().getItemID());
+        priceWatchRepository.delete(watch);
+    }
+
+    /**
+     * Retrieves the undelivered alerts of a user, oldest first (at most MAX_ALERTS_PER_REQUEST).
+     *
+     * @param userId the ID of the user
+     * @return the pending alerts
+     */
+    public List<PriceAlertDTO> getPendingAlerts(Long userId) {
+        List<PriceAlertDTO> alerts = new ArrayList<>();
+        for (PriceAlert alert : priceAlertRepository.findPending(userId, PageRequest.of(0, MAX_ALERTS_PER_REQUEST))) {
+            alerts.add(new PriceAlertDTO(alert.getAlertID(), alert.getWatchID(), alert.getItemID(), alert.getStoreID(),
+                    alert.getOldPrice(), alert.getNewPrice(), alert.getCreatedAt()));
+        }
+        return alerts;
+    }
+
+    /**
+     * Marks the alerts of a user up to (and including) the given alert as delivered.
+     *
+     * @param userId the ID of the user
+     * @param upToAlertId the ID of the last alert the user received
+     */
+    @Transactional
+    public void markAlertsDelivered(Long userId, Long upToAlertId) {
+        if (upToAlertId == null) {
+            throw new IllegalArgumentException("Missing alert ID.");
+        }
+        priceAlertRepository.markDelivered(userId, upToAlertId, LocalDateTime.now());
+    }
+
+    /**
+     * Evaluates a batch of changed prices against the watches of the changed items
+     * and queues an alert for every match.
+     * Failures are logged and never stop the price ingest.
+     */
+    @EventListener
+    public void onPriceChanges(PriceChangesEvent event) {
+        long start = System.nanoTime();
+        try {
+            List<PriceAlert> alerts = new ArrayList<>();
+            LocalDateTime now = LocalDateTime.now();
+            for (PriceChange change : event.getChanges()) {
+                for (Watch watch : priceWatchIndex.findByItem(change.getItemId())) {
+                    if (watch.matches(change.getStoreId(), change.getOldPrice(), change.getNewPrice())) {
+                        alerts.add(toAlert(watch, change, now));
+                    }
+                }
+            }
+            if (!alerts.isEmpty()) {
+                priceAlertRepository.saveAll(alerts);
+            }
+            evaluatedChanges.increment(event.getChanges().size());
+            queuedAlerts.increment(alerts.size());
+            evaluationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            failedEvaluationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            logger.error("Failed to evaluate price watches for {} price changes:", event.getChanges().size(), e);
+        }
+    }
+
+    // Refreshes the outbox gauges with one aggregate query (served by idx_price_alert_pending)
+    @Scheduled(fixedDelayString = "${watch.outbox.metrics-interval-ms:60000}")
+    public void refreshOutboxMetrics() {
+        try {
+            Object[] stats = priceAlertRepository.findPendingStats().get(0);
+            LocalDateTime oldest = (LocalDateTime) stats[1];
+            outboxDepth.set(((Number) stats[0]).longValue());
+            outboxLagSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).getSeconds()));
+        } catch (Exception e) {
+            logger.warn("Failed to read the price alert outbox metrics: {}", e.getMessage());
+        }
+    }
+
+    private static Timer evaluationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("price.watch.evaluation")
+                .description("Time to evaluate one batch of price changes against the watches")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static PriceAlert toAlert(Watch watch, PriceChange change, LocalDateTime now) {
+        PriceAlert alert = new PriceAlert();
+        alert.setWatchID(watch.getWatchId());
+        alert.setUserID(watch.getUserId());
+        alert.setItemID(change.getItemId());
+        alert.setStoreID(change.getStoreId());
+        alert.setOldPrice(change.getOldPrice());
+        alert.setNewPrice(change.getNewPrice());
+        alert.setCreatedAt(now);
+        return alert;
+    }
+
+    private static PriceWatchDTO toDTO(PriceWatch watch) {
+        return new PriceWatchDTO(
+                watch.getWatchID(),
+                watch.getItem().getItemID(),
+                watch.getItem().getItemName(),
+                watch.getTargetPrice(),
+                new ArrayList<>(watch.getStoreIds()),
+                watch.getCreatedAt());
+    }
+}
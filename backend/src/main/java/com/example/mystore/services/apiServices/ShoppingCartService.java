@@ -6,11 +6,17 @@ import com.example.mystore.database.entities.User;
 import com.example.mystore.database.repositories.ShoppingCartRepository;
 import com.example.mystore.database.repositories.UserRepository;
 import com.example.mystore.dto.api.response.CartDto;
+import com.example.mystore.dto.api.response.CursorPageDTO;
 import com.example.mystore.dto.api.response.UserSummaryDTO;
 import com.example.mystore.services.CartStatus;
+import com.example.mystore.services.cacheServices.ActiveCartStore;
+import com.example.mystore.utils.CursorCodec;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -21,20 +27,28 @@ public class ShoppingCartService {
     private final ShoppingCartRepository shoppingCartRepository;
     private final UserRepository userRepository;
     private final CartItemRepository cartItemsRepository;
+    private final ActiveCartStore activeCartStore;
 
-    public ShoppingCartService(ShoppingCartRepository shoppingCartRepository, UserRepository userRepository, CartItemRepository cartItemsRepository) {
+    public ShoppingCartService(ShoppingCartRepository shoppingCartRepository, UserRepository userRepository, CartItemRepository cartItemsRepository,
+                               ActiveCartStore activeCartStore) {
         this.shoppingCartRepository = shoppingCartRepository;
         this.userRepository = userRepository;
         this.cartItemsRepository = cartItemsRepository;
+        this.activeCartStore = activeCartStore;
     }
     /**
      * Retrieves the active cart ID for a given user.
      * If no active cart exists, creates a new one.
+     * Answered from memory once the active cart was loaded (see ActiveCartStore).
      *
      * @param userId the ID of the user
      * @return the ID of the active (or newly created) cart
      */
     public Long getActiveCartForUser(Long userId){
+        Optional<ActiveCartStore.CartView> activeCart = activeCartStore.findByUser(userId);
+        if (activeCart.isPresent()) {
+            return activeCart.get().getCartId();
+        }
         Optional<User> optionalUser= userRepository.findById(userId);
         if(optionalUser.isEmpty()){
             throw new EntityNotFoundException("User with ID " + userId + " not found");
@@ -47,6 +61,7 @@ public class ShoppingCartService {
             shoppingCart.setCreatedAt(LocalDateTime.now());
             shoppingCart.setStatus(CartStatus.ACTIVE);
             ShoppingCart newCart = shoppingCartRepository.save(shoppingCart);
+            activeCartStore.registerNewCart(newCart.getCartID(), userId);
             return newCart.getCartID();
         }
         else return optional.get().getCartID();
@@ -79,6 +94,7 @@ public class ShoppingCartService {
 
         //Saving the cart in the database
         ShoppingCart newCart = shoppingCartRepository.save(shoppingCart);
+        activeCartStore.registerNewCart(newCart.getCartID(), userId);
         return newCart.getCartID();
     }
 
@@ -89,6 +105,8 @@ public class ShoppingCartService {
             throw new IllegalArgumentException("No cart found.");
         }
         ShoppingCart shoppingCart = optionalShoppingCart.get();
+        // Write the pending item changes before the cart leaves the in-memory store
+        activeCartStore.flushAndRemove(cartId);
 
         shoppingCart.setStatus(CartStatus.ARCHIVED);
         if(cartName != null && cartName != ""){
@@ -112,6 +130,9 @@ public class ShoppingCartService {
 
         // Automatically deletes all cart items due to CascadeType.REMOVE
         shoppingCartRepository.delete(shoppingCart);
+        // Dropped after the delete, so a concurrent request cannot load it again; a flush that
+        // races the delete finds the cart gone and writes nothing
+        activeCartStore.discard(cartId);
     }
 
     /**
@@ -120,17 +141,51 @@ public class ShoppingCartService {
      * @param userId the ID of the user
      * @return a list of archived CartDto objects
      */
-    //Returns all user's carts.
+    //Returns all user's archived carts, newest first.
     public List<CartDto> getArchivedCartsByUser(Long userId) {
-        List<ShoppingCart> shoppingCarts = shoppingCartRepository.findByUserUserID(userId);
-        List<CartDto> cartDtos = new ArrayList<>();
-        for(ShoppingCart shoppingCart: shoppingCarts){
-            if(shoppingCart.getStatus() == CartStatus.ARCHIVED){
-                CartDto cartDto = new CartDto(shoppingCart.getCartID() , shoppingCart.getCartName() , shoppingCart.getUpdatedAt());
-                cartDtos.add(cartDto);
+        return shoppingCartRepository.findCartDtos(userId, CartStatus.ARCHIVED, Pageable.unpaged());
+    }
+
+    /**
+     * Retrieves one page of the user's archived carts, newest first, using keyset pagination.
+     * Each page is a single index range read, regardless of how many carts the user has.
+     *
+     * @param userId the ID of the user
+     * @param cursor the token returned as nextCursor by the previous page (null or empty for the first page)
+     * @param size the number of carts per page
+     * @return a CursorPageDTO of CartDto
+     */
+    public CursorPageDTO<CartDto> getArchivedCartsPage(Long userId, String cursor, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Invalid page size: " + size);
+        }
+        String lastKey = CursorCodec.decode(cursor);
+
+        // One extra row tells whether there is a next page
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<CartDto> carts;
+        if (lastKey == null) {
+            carts = shoppingCartRepository.findCartDtos(userId, CartStatus.ARCHIVED, limit);
+        } else {
+            // The key is "<updatedAt>|<cartId>" of the last cart of the previous page
+            int separator = lastKey.lastIndexOf('|');
+            try {
+                LocalDateTime updatedAt = LocalDateTime.parse(lastKey.substring(0, separator));
+                Long cartId = Long.parseLong(lastKey.substring(separator + 1));
+                carts = shoppingCartRepository.findCartDtosAfter(userId, CartStatus.ARCHIVED, updatedAt, cartId, limit);
+            } catch (StringIndexOutOfBoundsException | DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
             }
         }
-       return cartDtos;
+
+        boolean hasNext = carts.size() > size;
+        List<CartDto> content = new ArrayList<>(carts.subList(0, Math.min(size, carts.size())));
+        String nextCursor = null;
+        if (hasNext) {
+            CartDto last = content.get(content.size() - 1);
+            nextCursor = CursorCodec.encode(last.getUpdatedAt() + "|" + last.getId());
+        }
+        return new CursorPageDTO<>(content, nextCursor, hasNext);
     }
     /**
      * Reactivates a previously archived cart by changing its status back to ACTIVE.
@@ -153,6 +208,7 @@ public class ShoppingCartService {
         if(optional.isPresent()){
             ShoppingCart shoppingCartActive = optional.get();
             shoppingCartRepository.delete(shoppingCartActive);
+            activeCartStore.discard(shoppingCartActive.getCartID());
         }
         shoppingCart.setStatus(CartStatus.ACTIVE);
         shoppingCartRepository.save(shoppingCart);
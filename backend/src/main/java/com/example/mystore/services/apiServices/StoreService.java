@@ -2,47 +2,38 @@ package com.example.mystore.services.apiServices;
 
 import com.example.mystore.database.entities.Store;
 import com.example.mystore.database.repositories.StoreRepository;
+import com.example.mystore.dto.api.response.CursorPageDTO;
+import com.example.mystore.dto.api.response.NearbyStoreDTO;
 import com.example.mystore.dto.api.response.StoreDTO;
-import com.example.mystore.services.seederServices.ChainSeederService;
-import org.springframework.beans.factory.annotation.Value;
+import com.example.mystore.services.cacheServices.StoreDirectory;
+import com.example.mystore.utils.CursorCodec;
+import jakarta.ws.rs.ServiceUnavailableException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static com.example.mystore.services.cacheServices.StoreDirectory.MEGA_CHAIN_ID;
+
 @Service
 public class StoreService {
-    @Value("${chain.image.url.shufersal}")
-    private String shufersalImage;
-
-    @Value("${chain.image.url.rami-levi}")
-    private String ramiLevyImage;
-
-    @Value("${chain.image.url.victory}")
-    private String victoryImage;
+    public static final double MAX_NEARBY_RADIUS_KM = 100;
+    public static final int MAX_NEARBY_RESULTS = 100;
 
-    // @Value("${}")
-    // private String mahshaneiImage;
-    private static final long SHUFERSAL_CHAIN_ID = 7290027600007L;
-    private static final long RAMI_LEVI_CHAIN_ID = 7290058140886L;
-    private static final long VICTORY_CHAIN_ID = 7290696200003L;
-    private static final long MEGA_CHAIN_ID = 7290055700007L;
     private final StoreRepository storeRepository;
+    private final StoreDirectory storeDirectory;
 
-    public StoreService(StoreRepository storeRepository, ChainSeederService chainService) {
+    public StoreService(StoreRepository storeRepository, StoreDirectory storeDirectory) {
         this.storeRepository = storeRepository;
+        this.storeDirectory = storeDirectory;
     }
 
-    /**
-     * Converts a Store entity to a StoreDTO including image URL based on the chain ID.
-     *
-     * @param store the Store entity
-     * @return the corresponding StoreDTO
-     */
-
     //Returns a list of storeDTO objects for display on the site
     /*public List<StoreDTO> getAllStoreDTOs() {
         List<Store> stores = storeRepository.findAll();
@@ -56,34 +47,6 @@ public class StoreService {
                 .collect(Collectors.toList());
     }*/
 
-    private StoreDTO convertToDTO(Store store) {
-        String imageUrl = resolveImageUrl(store.getChain().getChainKey().getChainID());
-        return new StoreDTO(
-                store.getStoreID(),
-                store.getChain().getChainName(),
-                store.getStoreName(),
-                store.getStoreNumber(),
-                store.getStoreCity(),
-                store.getStoreAddress(),
-                imageUrl
-        );
-    }
-    /**
-     * Resolves the image URL based on the chain ID.
-     *
-     * @param chainId the chain ID
-     * @return the image URL string, or null if not found
-     */
-    private String resolveImageUrl(Long chainId) {
-        if (chainId == null) return null;
-
-        if (chainId.equals(SHUFERSAL_CHAIN_ID)) return shufersalImage;
-        if (chainId.equals(RAMI_LEVI_CHAIN_ID)) return ramiLevyImage;
-        if (chainId.equals(VICTORY_CHAIN_ID)) return victoryImage;
-        return null;
-     }
-
-
     /**
      * Retrieves all stores excluding stores from the MEGA chain, with pagination.
      *
@@ -93,13 +56,17 @@ public class StoreService {
      */
 
     public List<StoreDTO> getAllStores(int page, int size) {
+        validatePage(page, size);
+        Optional<List<StoreDTO>> cached = storeDirectory.getPage(null, null, page, size);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
         Page<Store> storePage;
         Pageable pageable = PageRequest.of(page, size);
         storePage = storeRepository.findByChain_ChainKey_ChainIDNot(MEGA_CHAIN_ID, pageable);
         return storePage.stream()
-                .map(this::convertToDTO)
-                .filter(dto -> dto.getStoreCity() != null && !dto.getStoreCity().trim().isEmpty() &&
-                        !dto.getStoreCity().trim().equals("0"))
+                .map(storeDirectory::toDTO)
+                .filter(dto -> StoreDirectory.hasCity(dto.getStoreCity()))
                 .collect(Collectors.toList());
     }
     /**
@@ -111,12 +78,17 @@ public class StoreService {
      * @return a list of StoreDTOs matching the city
      */
     public List<StoreDTO> getStoresByCity(String city , int page, int size) {
+        validatePage(page, size);
+        Optional<List<StoreDTO>> cached = storeDirectory.getPage(city, null, page, size);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
         Page<Store> storePage;
         Pageable pageable = PageRequest.of(page, size);
         storePage = storeRepository.findByStoreCityContainingAndChain_ChainKey_ChainIDNot(city , MEGA_CHAIN_ID, pageable);
 
         return storePage.stream()
-                .map(this::convertToDTO)
+                .map(storeDirectory::toDTO)
                 .collect(Collectors.toList());
     }
     /**
@@ -128,13 +100,17 @@ public class StoreService {
      * @return a list of StoreDTOs matching the chain name
      */
     public List<StoreDTO> getStoresByChain(String chainName , int page, int size) {
+        validatePage(page, size);
+        Optional<List<StoreDTO>> cached = storeDirectory.getPage(null, chainName, page, size);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
         Pageable pageable = PageRequest.of(page, size);
         Page<Store> storePage = storeRepository.findByChain_ChainNameContainingAndChain_ChainKey_ChainIDNot(chainName, MEGA_CHAIN_ID, pageable);
 
         return storePage.stream()
-                .map(this::convertToDTO)
-                .filter(dto -> dto.getStoreCity() != null && !dto.getStoreCity().trim().isEmpty() &&
-                        !dto.getStoreCity().trim().equals("0"))
+                .map(storeDirectory::toDTO)
+                .filter(dto -> StoreDirectory.hasCity(dto.getStoreCity()))
                 .collect(Collectors.toList());
     }
     /**
@@ -148,10 +124,110 @@ public class StoreService {
      */
 
     public List<StoreDTO> getStoresByCityAndChain(String city, String chainName, int page, int size) {
+        validatePage(page, size);
+        Optional<List<StoreDTO>> cached = storeDirectory.getPage(city, chainName, page, size);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
         Pageable pageable = PageRequest.of(page, size);
         Page<Store> pageResult = storeRepository.findByStoreCityContainingIgnoreCaseAndChain_ChainNameContainingIgnoreCaseAndChain_ChainKey_ChainIDNot(
                 city, chainName, MEGA_CHAIN_ID, pageable
         );
-        return pageResult.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return pageResult.stream().map(storeDirectory::toDTO).collect(Collectors.toList());
+    }
+
+    /**
+     * Keyset (cursor) listing of stores, optionally filtered by city and/or chain name, excluding MEGA chain stores
+     * and stores without a city. Stores are ordered by store ID and the cursor holds the last ID of the previous page,
+     * so every page costs the same - no OFFSET and no COUNT query.
+     *
+     * @param city the city name filter (null or empty for all cities)
+     * @param chainName the chain name filter (null or empty for all chains)
+     * @param cursor the token returned with the previous page (null or empty for the first page)
+     * @param size the number of stores per page
+     * @return the page of StoreDTOs with the cursor of the next page
+     */
+    public CursorPageDTO<StoreDTO> getStoresAfter(String city, String chainName, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Invalid page size: " + size);
+        }
+        Long afterStoreId = CursorCodec.decodeLong(cursor);
+
+        // One extra row tells whether there is a next page
+        List<StoreDTO> stores = storeDirectory.getAfter(city, chainName, afterStoreId, size + 1)
+                .orElseGet(() -> storeRepository.findStoresAfter(
+                        afterStoreId == null ? Long.MIN_VALUE : afterStoreId,
+                        city == null ? "" : city.trim(),
+                        chainName == null ? "" : chainName.trim(),
+                        MEGA_CHAIN_ID,
+                        PageRequest.of(0, size + 1))
+                        .stream().map(storeDirectory::toDTO).collect(Collectors.toList()));
+
+        boolean hasNext = stores.size() > size;
+        List<StoreDTO> content = new ArrayList<>(stores.subList(0, Math.min(size, stores.size())));
+        String nextCursor = hasNext ? CursorCodec.encode(String.valueOf(content.get(content.size() - 1).getStoreId())) : null;
+        return new CursorPageDTO<>(content, nextCursor, hasNext);
+    }
+
+    /**
+     * Finds the stores within a radius of a point, nearest first, excluding MEGA chain stores.
+     * Stores are located by their locality (offline gazetteer), so stores of one city share a distance.
+     *
+     * @param latitude latitude of the point
+     * @param longitude longitude of the point
+     * @param radiusKm the search radius in kilometers (up to MAX_NEARBY_RADIUS_KM)
+     * @param limit the maximum number of stores (up to MAX_NEARBY_RESULTS)
+     * @return the stores with their distances
+     */
+    public List<NearbyStoreDTO> findNearbyStores(double latitude, double longitude, double radiusKm, int limit) {
+        validateArea(latitude, longitude, radiusKm);
+        if (limit < 1) {
+            throw new IllegalArgumentException("Invalid limit: " + limit);
+        }
+        return storeDirectory.findNearby(latitude, longitude, radiusKm, Math.min(limit, MAX_NEARBY_RESULTS))
+                .orElseThrow(() -> new ServiceUnavailableException("Stores are still loading, please try again shortly", 5L));
+    }
+
+    /**
+     * Keeps the given stores that are within a radius of a point, with no limit on their number.
+     * Stores without coordinates are left out.
+     *
+     * @param latitude latitude of the point
+     * @param longitude longitude of the point
+     * @param radiusKm the radius in kilometers (up to MAX_NEARBY_RADIUS_KM)
+     * @param storeIds the IDs of the stores to check
+     * @return the IDs of the stores within the radius, in the given order
+     */
+    public List<Long> filterStoresInRadius(double latitude, double longitude, double radiusKm, List<Long> storeIds) {
+        validateArea(latitude, longitude, radiusKm);
+        Map<Long, Double> distances = storeDirectory.distancesKm(latitude, longitude, storeIds)
+                .orElseThrow(() -> new ServiceUnavailableException("Stores are still loading, please try again shortly", 5L));
+        List<Long> inRadius = new ArrayList<>();
+        for (Long storeId : storeIds) {
+            Double distance = distances.get(storeId);
+            if (distance != null && distance <= radiusKm) {
+                inRadius.add(storeId);
+            }
+        }
+        return inRadius;
+    }
+
+    // The store directory slices its arrays at page * size, so bad values must not reach it
+    private static void validatePage(int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Invalid page: " + page);
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Invalid page size: " + size);
+        }
+    }
+
+    private static void validateArea(double latitude, double longitude, double radiusKm) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Invalid coordinates: " + latitude + "," + longitude);
+        }
+        if (radiusKm <= 0 || radiusKm > MAX_NEARBY_RADIUS_KM) {
+            throw new IllegalArgumentException("Invalid radius: " + radiusKm);
+        }
     }
-}
\ No newline at end of file
+}
@@ -5,23 +5,25 @@ import com.example.mystore.database.entities.User;
 import com.example.mystore.database.repositories.UserRepository;
 import com.example.mystore.dto.api.request.RegisterDTO;
 import com.example.mystore.dto.api.response.UserSummaryDTO;
+import com.example.mystore.services.cacheServices.SessionStore;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final SessionStore sessionStore;
+    private final PasswordHasher passwordHasher;  // BCrypt runs on its own bounded pool, not on the request thread
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, SessionStore sessionStore, PasswordHasher passwordHasher) {
         this.userRepository = userRepository;
+        this.sessionStore = sessionStore;
+        this.passwordHasher = passwordHasher;
     }
     /**
      * Registers a new user with the provided information.
@@ -37,19 +39,18 @@ public class UserService {
         }
         User user = new User();
         user.setEmail(dto.getEmail());
-        user.setPasswordHash(passwordEncoder.encode(dto.getPassword()));
+        user.setPasswordHash(passwordHasher.encode(dto.getPassword()));
         user.setUsername(dto.getUsername());
         user.setAdmin(false); // Default user is not an admin
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
         user.setStatus(true);  // Active account
-        /// Creating a new session for the user
-        String session = UUID.randomUUID().toString();
-        user.setSessionNumber(session);
         // Saving the user to the database
         userRepository.save(user);
+        /// Creating a new session for the user
+        String session = sessionStore.create(user.getUserID());
         // Returning user details for frontend
-        return new UserSummaryDTO(user.getUserID(), user.getUsername(), user.getEmail() ,user.getSessionNumber());
+        return new UserSummaryDTO(user.getUserID(), user.getUsername(), user.getEmail(), session);
 
     }
     /**
@@ -88,14 +89,12 @@ public class UserService {
         User user = userOptional.get();
 
         // Verify password
-        if (!passwordEncoder.matches(rawPassword, user.getPasswordHash())) {
+        if (!passwordHasher.matches(rawPassword, user.getPasswordHash())) {
             throw new AuthenticationException("פרטי התחברות שגויים");
         }
-        // Successful authentication - create new session
-        String session = UUID.randomUUID().toString();
-        user.setSessionNumber(session);
-        userRepository.save(user);
-       return new UserSummaryDTO(user.getUserID(), user.getUsername() , user.getEmail(), user.getSessionNumber());
+        // Successful authentication - create new session (the user row is not rewritten)
+        String session = sessionStore.create(user.getUserID());
+       return new UserSummaryDTO(user.getUserID(), user.getUsername() , user.getEmail(), session);
 
     }
     /**
@@ -104,17 +103,23 @@ public class UserService {
      * @param sessionNumber the current session number
      */
     public void logoutUser(String sessionNumber) {
-        Optional<User> optionalUser = userRepository.findBySessionNumber(sessionNumber);
-        if (optionalUser.isPresent()) {
-            User user = optionalUser.get();
-            user.setSessionNumber(null); // Reset the current session
-            user.setUpdatedAt(LocalDateTime.now());
-            userRepository.save(user); // Save the update
-        } else {
+        if (!sessionStore.invalidate(sessionNumber)) {
             throw new IllegalArgumentException("Session לא נמצא או כבר נותק");
         }
     }
 
+    /**
+     * Validates the session of a request, from memory (see SessionStore).
+     *
+     * @param sessionNumber the session number sent by the client
+     * @return the ID of the session's user
+     * @throws AuthenticationException if the session does not exist or expired
+     */
+    public Long requireSession(String sessionNumber) {
+        return sessionStore.validate(sessionNumber)
+                .orElseThrow(() -> new AuthenticationException("Session לא בתוקף, יש להתחבר מחדש"));
+    }
+
 
 
 }
\ No newline at end of file
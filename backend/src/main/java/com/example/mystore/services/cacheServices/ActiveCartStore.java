@@ -0,0 +1,440 @@
+package com.example.mystore.services.cacheServices;
+
+import com.example.mystore.database.entities.CartItem;
+import com.example.mystore.database.entities.CartItemKey;
+import com.example.mystore.database.entities.ShoppingCart;
+import com.example.mystore.database.repositories.CartItemRepository;
+import com.example.mystore.database.repositories.ShoppingCartRepository;
+import com.example.mystore.services.CartStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ActiveCartStore keeps the active cart of every recently seen user in memory.
+ *
+ * Reads of an active cart (its ID and its item quantities) are answered from memory once the cart was loaded.
+ * Changes are applied in memory and written to CART_ITEM in the background (write-behind):
+ * - every few seconds (cart.write-behind.interval-ms, default 2000) all changed carts are flushed,
+ *   one transaction per cart, with one read of the changed rows and batched writes;
+ * - when a cart is archived it is flushed and dropped from memory;
+ * - on shutdown all pending changes are flushed.
+ * A cart that is no longer active in the database (e.g. deleted meanwhile) is not written - it is dropped.
+ * A cart whose write fails keeps its changes and is retried on the next run. After cart.write-behind.max-failures
+ * (default 5) failed writes in a row the cart is dropped and its unwritten changes are logged.
+ * Many clicks on the same item between two flushes become a single row update.
+ *
+ * Every cart has a version that grows on each change, so callers can tell whether a cart changed.
+ * A reverse index (item -> carts holding it) tells which carts are affected when item prices change.
+ * Carts that were not used for cart.store.idle-minutes (default 30) are flushed and dropped.
+ */
+@Component
+public class ActiveCartStore {
+    private static final Logger logger = LoggerFactory.getLogger(ActiveCartStore.class);
+
+    private final ShoppingCartRepository shoppingCartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long idleMillis;
+    private final int maxFailedWrites;
+
+    private final Map<Long, ActiveCart> byUser = new ConcurrentHashMap<>();
+    private final Map<Long, ActiveCart> byCart = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> cartsByItem = new ConcurrentHashMap<>();  // itemId -> IDs of the held carts containing it
+
+    public ActiveCartStore(ShoppingCartRepository shoppingCartRepository,
+                           CartItemRepository cartItemRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${cart.store.idle-minutes:30}") long idleMinutes,
+                           @Value("${cart.write-behind.max-failures:5}") int maxFailedWrites) {
+        this.shoppingCartRepository = shoppingCartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idleMillis = idleMinutes * 60_000;
+        this.maxFailedWrites = maxFailedWrites;
+    }
+
+    // The in-memory state of one active cart. All access is synchronized on the instance.
+    private static class ActiveCart {
+        final Long cartId;
+        final Long userId;
+        final Map<String, Integer> quantities = new TreeMap<>();  // itemId -> quantity, ordered by item ID
+        final Set<String> dirty = new HashSet<>();                // Items changed since the last flush
+        long version;
+        long lastAccess = System.currentTimeMillis();
+        int failedWrites;                                         // Failed flushes in a row
+        boolean removed;                                          // Dropped from the store - must not be used
+
+        ActiveCart(Long cartId, Long userId) {
+            this.cartId = cartId;
+            this.userId = userId;
+        }
+    }
+
+    /**
+     * A read-only copy of an active cart.
+     */
+    public static class CartView {
+        private final Long cartId;
+        private final Long userId;
+        private final long version;
+        private final Map<String, Integer> quantities;
+
+        CartView(Long cartId, Long userId, long version, Map<String, Integer> quantities) {
+            this.cartId = cartId;
+            this.userId = userId;
+            this.version = version;
+            this.quantities = quantities;
+        }
+
+        public Long getCartId() {
+            return cartId;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Returns itemId -> quantity, ordered by item ID.
+         */
+        public Map<String, Integer> getQuantities() {
+            return quantities;
+        }
+    }
+
+    /**
+     * Returns the active cart of a user, loading it from the database on first use.
+     *
+     * @param userId the ID of the user
+     * @return the active cart, or empty if the user has no active cart
+     */
+    public Optional<CartView> findByUser(Long userId) {
+        ActiveCart cart = byUser.get(userId);
+        if (cart == null) {
+            Optional<ShoppingCart> shoppingCart = shoppingCartRepository.findByUser_UserIDAndStatus(userId, CartStatus.ACTIVE);
+            if (shoppingCart.isEmpty()) {
+                return Optional.empty();
+            }
+            cart = load(shoppingCart.get().getCartID(), userId);
+        }
+        return view(cart);
+    }
+
+    /**
+     * Returns a cart if it is an active cart, loading it from the database on first use.
+     *
+     * @param cartId the ID of the cart
+     * @return the cart, or empty if it does not exist or is not active
+     */
+    public Optional<CartView> findByCart(Long cartId) {
+        ActiveCart cart = byCart.get(cartId);
+        if (cart == null) {
+            Optional<ShoppingCart> shoppingCart = shoppingCartRepository.findById(cartId);
+            if (shoppingCart.isEmpty() || shoppingCart.get().getStatus() != CartStatus.ACTIVE) {
+                return Optional.empty();
+            }
+            cart = load(cartId, shoppingCart.get().getUser().getUserID());
+        }
+        return view(cart);
+    }
+
+    /**
+     * Returns a cart only if it is already in memory - never reads the database.
+     *
+     * @param cartId the ID of the cart
+     * @return the cart, or empty if it is not held by the store
+     */
+    public Optional<CartView> peek(Long cartId) {
+        ActiveCart cart = byCart.get(cartId);
+        return cart == null ? Optional.empty() : view(cart);
+    }
+
+    /**
+     * Returns the IDs of the carts held in memory that contain at least one of the given items.
+     *
+     * @param itemIds the IDs of the items
+     * @return the IDs of the carts
+     */
+    public Set<Long> findCartsContaining(Collection<String> itemIds) {
+        Set<Long> cartIds = new HashSet<>();
+        for (String itemId : itemIds) {
+            Set<Long> carts = cartsByItem.get(itemId);
+            if (carts != null) {
+                cartIds.addAll(carts);
+            }
+        }
+        return cartIds;
+    }
+
+    /**
+     * Registers a cart that was just created, so it is not read back from the database.
+     *
+     * @param cartId the ID of the new cart
+     * @param userId the ID of its owner
+     */
+    public void registerNewCart(Long cartId, Long userId) {
+        ActiveCart cart = new ActiveCart(cartId, userId);
+        if (byUser.putIfAbsent(userId, cart) == null) {
+            byCart.put(cartId, cart);
+        }
+    }
+
+    /**
+     * Changes item quantities of an active cart in memory. The changes are written to the database later.
+     * An item whose quantity drops to zero or below is removed; a negative change for an item
+     * that is not in the cart is ignored.
+     *
+     * @param cartId the ID of the cart
+     * @param deltas itemId -> quantity change
+     * @return the cart after the changes, or empty if it is not an active cart (nothing was changed)
+     */
+    public Optional<CartView> apply(Long cartId, Map<String, Integer> deltas) {
+        // A cart can be dropped between the lookup and the lock - look it up again in that case
+        for (int attempt = 0; attempt < 2; attempt++) {
+            if (findByCart(cartId).isEmpty()) {
+                return Optional.empty();
+            }
+            ActiveCart cart = byCart.get(cartId);
+            if (cart == null) {
+                continue;
+            }
+            synchronized (cart) {
+                if (cart.removed) {
+                    continue;
+                }
+                deltas.forEach((itemId, delta) -> {
+                    Integer current = cart.quantities.get(itemId);
+                    if (delta == 0 || (current == null && delta < 0)) {
+                        return;
+                    }
+                    int quantity = (current == null ? 0 : current) + delta;
+                    if (quantity > 0) {
+                        cart.quantities.put(itemId, quantity);
+                        index(cart.cartId, itemId);
+                    } else {
+                        cart.quantities.remove(itemId);
+                        unindex(cart.cartId, itemId);
+                    }
+                    cart.dirty.add(itemId);
+                });
+                cart.version++;
+                cart.lastAccess = System.currentTimeMillis();
+                return Optional.of(copy(cart));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Writes the pending changes of a cart and drops it from memory (used when the cart is archived).
+     *
+     * @param cartId the ID of the cart
+     */
+    public void flushAndRemove(Long cartId) {
+        ActiveCart cart = byCart.get(cartId);
+        if (cart != null) {
+            synchronized (cart) {
+                flush(cart);
+                remove(cart);
+            }
+        }
+    }
+
+    /**
+     * Drops a cart from memory without writing its pending changes (used when the cart is deleted,
+     * after the delete - a request that loads the cart meanwhile cannot bring it back).
+     *
+     * @param cartId the ID of the cart
+     */
+    public void discard(Long cartId) {
+        ActiveCart cart = byCart.get(cartId);
+        if (cart != null) {
+            synchronized (cart) {
+                remove(cart);
+            }
+        }
+    }
+
+    /**
+     * Writes the pending changes of all carts, and drops the carts that were not used for a while.
+     * A cart that fails to flush keeps its changes and is retried on the next run, up to
+     * cart.write-behind.max-failures times in a row - then it is dropped with its unwritten changes.
+     */
+    @Scheduled(fixedDelayString = "${cart.write-behind.interval-ms:2000}")
+    public void flushAll() {
+        long idleSince = System.currentTimeMillis() - idleMillis;
+        for (ActiveCart cart : byCart.values()) {
+            synchronized (cart) {
+                if (tryFlush(cart)) {
+                    if (cart.lastAccess < idleSince) {
+                        remove(cart);
+                    }
+                } else if (cart.failedWrites >= maxFailedWrites) {
+                    logger.error("Dropping cart {} after {} failed writes - lost changes (itemId=quantity, null = removed): {}",
+                            cart.cartId, cart.failedWrites, pendingChanges(cart));
+                    remove(cart);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        logger.info("Writing {} active carts before shutdown.", byCart.size());
+        for (ActiveCart cart : byCart.values()) {
+            synchronized (cart) {
+                if (!tryFlush(cart)) {
+                    logger.error("Cart {} could not be written before shutdown - lost changes (itemId=quantity, null = removed): {}",
+                            cart.cartId, pendingChanges(cart));
+                }
+            }
+        }
+    }
+
+    private ActiveCart load(Long cartId, Long userId) {
+        ActiveCart cart = new ActiveCart(cartId, userId);
+        for (Object[] row : cartItemRepository.findQuantitiesByCartId(cartId)) {
+            cart.quantities.put((String) row[0], (Integer) row[1]);
+            index(cartId, (String) row[0]);
+        }
+        while (true) {
+            ActiveCart existing = byUser.putIfAbsent(userId, cart);
+            if (existing == null) {
+                byCart.put(cartId, cart);
+                return cart;
+            }
+            if (existing.cartId.equals(cartId)) {
+                return existing;  // Another request loaded the same cart meanwhile - keep the first one
+            }
+            // The user has another active cart in the database now - the held one is outdated
+            synchronized (existing) {
+                flush(existing);
+                remove(existing);
+            }
+        }
+    }
+
+    private Optional<CartView> view(ActiveCart cart) {
+        synchronized (cart) {
+            if (cart.removed) {
+                return Optional.empty();
+            }
+            cart.lastAccess = System.currentTimeMillis();
+            return Optional.of(copy(cart));
+        }
+    }
+
+    // Caller holds the lock of the cart
+    private static CartView copy(ActiveCart cart) {
+        return new CartView(cart.cartId, cart.userId, cart.version, Collections.unmodifiableMap(new LinkedHashMap<>(cart.quantities)));
+    }
+
+    // Caller holds the lock of the cart
+    private void remove(ActiveCart cart) {
+        cart.removed = true;
+        byCart.remove(cart.cartId, cart);
+        byUser.remove(cart.userId, cart);
+        for (String itemId : cart.quantities.keySet()) {
+            unindex(cart.cartId, itemId);
+        }
+    }
+
+    private void index(Long cartId, String itemId) {
+        // Changed inside compute, so a concurrent unindex cannot drop the set while it is being added to
+        cartsByItem.compute(itemId, (id, carts) -> {
+            Set<Long> result = carts == null ? ConcurrentHashMap.newKeySet() : carts;
+            result.add(cartId);
+            return result;
+        });
+    }
+
+    private void unindex(Long cartId, String itemId) {
+        cartsByItem.computeIfPresent(itemId, (id, carts) -> {
+            carts.remove(cartId);
+            return carts.isEmpty() ? null : carts;
+        });
+    }
+
+    // Caller holds the lock of the cart. Returns false (and counts the failure) if the write failed.
+    private boolean tryFlush(ActiveCart cart) {
+        try {
+            flush(cart);
+            cart.failedWrites = 0;
+            return true;
+        } catch (Exception e) {
+            cart.failedWrites++;
+            logger.warn("Failed to write cart {} ({} of {} attempts).", cart.cartId, cart.failedWrites, maxFailedWrites, e);
+            return false;
+        }
+    }
+
+    // Caller holds the lock of the cart. The changes are kept if the write fails.
+    private void flush(ActiveCart cart) {
+        if (cart.removed || cart.dirty.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> changes = pendingChanges(cart);
+        Boolean written = transactionTemplate.execute(status -> write(cart.cartId, changes));
+        if (!Boolean.TRUE.equals(written)) {
+            logger.info("Cart {} is no longer active - dropping {} unwritten changes.", cart.cartId, changes.size());
+            remove(cart);
+            return;
+        }
+        cart.dirty.clear();
+    }
+
+    // Caller holds the lock of the cart
+    private static Map<String, Integer> pendingChanges(ActiveCart cart) {
+        Map<String, Integer> changes = new HashMap<>();
+        for (String itemId : cart.dirty) {
+            changes.put(itemId, cart.quantities.get(itemId));  // null - removed from the cart
+        }
+        return changes;
+    }
+
+    // Returns false without writing if the cart was deleted or is not active anymore
+    private boolean write(Long cartId, Map<String, Integer> changes) {
+        if (!shoppingCartRepository.existsByCartIDAndStatus(cartId, CartStatus.ACTIVE)) {
+            return false;
+        }
+        Map<String, CartItem> rows = new HashMap<>();
+        for (CartItem cartItem : cartItemRepository.findById_CartIDAndId_ItemIDIn(cartId, changes.keySet())) {
+            rows.put(cartItem.getId().getItemID(), cartItem);
+        }
+
+        List<CartItem> toSave = new ArrayList<>();
+        List<CartItem> toDelete = new ArrayList<>();
+        changes.forEach((itemId, quantity) -> {
+            CartItem row = rows.get(itemId);
+            if (quantity == null) {
+                if (row != null) {
+                    toDelete.add(row);
+                }
+            } else if (row == null) {
+                CartItem newRow = new CartItem();
+                newRow.setId(new CartItemKey(cartId, itemId));
+                newRow.setQuantity(quantity);
+                toSave.add(newRow);
+            } else if (!quantity.equals(row.getQuantity())) {
+                row.setQuantity(quantity);
+                toSave.add(row);
+            }
+        });
+        cartItemRepository.saveAll(toSave);
+        cartItemRepository.deleteAllInBatch(toDelete);
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.mystore.services.cacheServices;
+
+import com.example.mystore.dto.api.response.ItemDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * AlternativesCache is a bounded LRU cache of alternatives lists, keyed by (category, store).
+ *
+ * The comparison page opens the alternatives of every cart line in every store, and lines of the
+ * same category share the same list - so a small cache absorbs most of these requests.
+ * Every entry remembers the price epoch it was computed at (see DataVersionService);
+ * an entry from an older epoch is treated as a miss and replaced.
+ */
+@Component
+public class AlternativesCache {
+
+    private final Map<String, Entry> entries;
+
+    private static class Entry {
+        final long epoch;
+        final List<ItemDTO> alternatives;
+
+        Entry(long epoch, List<ItemDTO> alternatives) {
+            this.epoch = epoch;
+            this.alternatives = alternatives;
+        }
+    }
+
+    public AlternativesCache(@Value("${alternatives.cache.max-entries:2000}") int maxEntries) {
+        // Access-ordered LinkedHashMap evicting the least recently used entry
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached alternatives, if they were computed at the given epoch.
+     *
+     * @param level the category level the list was built for ("Specific" or "Sub")
+     * @param category the category name
+     * @param storeId the store ID
+     * @param epoch the current price epoch
+     * @return the cached list, or empty on a miss
+     */
+    public synchronized Optional<List<ItemDTO>> get(String level, String category, Long storeId, long epoch) {
+        Entry entry = entries.get(key(level, category, storeId));
+        if (entry == null || entry.epoch != epoch) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.alternatives);
+    }
+
+    /**
+     * Stores a list of alternatives computed at the given epoch.
+     *
+     * @param level the category level the list was built for ("Specific" or "Sub")
+     * @param category the category name
+     * @param storeId the store ID
+     * @param epoch the price epoch the list was computed at
+     * @param alternatives the alternatives (stored as an unmodifiable copy)
+     * @return the stored list
+     */
+    public synchronized List<ItemDTO> put(String level, String category, Long storeId, long epoch, List<ItemDTO> alternatives) {
+        List<ItemDTO> copy = List.copyOf(alternatives);
+        entries.put(key(level, category, storeId), new Entry(epoch, copy));
+        return copy;
+    }
+
+    private static String key(String level, String category, Long storeId) {
+        return level + '|' + category + '|' + storeId;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.mystore.services.cacheServices;
+
+import com.example.mystore.database.entities.Item;
+import com.example.mystore.dto.api.response.CartItemDTO;
+import com.example.mystore.services.cacheServices.ActiveCartStore.CartView;
+import com.example.mystore.services.events.PriceChangesEvent;
+import com.example.mystore.services.events.PriceChangesEvent.PriceChange;
+import com.example.mystore.services.indexServices.CatalogIndex;
+import com.example.mystore.services.indexServices.CatalogSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CartTotalsCache keeps the rendered lines (with min/max totals) of the active carts held by ActiveCartStore.
+ *
+ * An entry is valid for one version of the cart and one catalog snapshot, so reading an unchanged cart
+ * costs a map lookup. The items whose prices the ingest changed (PriceChangesEvent) are collected, and when
+ * the catalog is rebuilt only the carts containing them (found through the reverse index of ActiveCartStore)
+ * are recomputed. The entries of all other carts are carried over to the new snapshot as they are.
+ *
+ * The items of the previous rebuild are recomputed once more, so a change that was saved while the
+ * previous snapshot was being loaded (and is missing from it) is not lost.
+ */
+@Component
+public class CartTotalsCache implements CatalogIndex {
+    private static final Logger logger = LoggerFactory.getLogger(CartTotalsCache.class);
+
+    private final ActiveCartStore activeCartStore;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();  // cartId -> lines
+    private final Set<String> changedItems = ConcurrentHashMap.newKeySet();  // Items whose prices changed since the last rebuild
+    private Set<String> previousChangedItems = Set.of();  // The items of the last rebuild - only touched by the rebuild thread
+    private volatile CatalogSnapshot snapshot;  // The snapshot of the last rebuild
+
+    public CartTotalsCache(ActiveCartStore activeCartStore) {
+        this.activeCartStore = activeCartStore;
+    }
+
+    private static class Entry {
+        final long cartVersion;
+        final long snapshotVersion;
+        final List<CartItemDTO> lines;
+        final Double totalMin;
+        final Double totalMax;
+
+        Entry(long cartVersion, long snapshotVersion, List<CartItemDTO> lines) {
+            this.cartVersion = cartVersion;
+            this.snapshotVersion = snapshotVersion;
+            this.lines = Collections.unmodifiableList(lines);
+            this.totalMin = sum(lines, true);
+            this.totalMax = sum(lines, false);
+        }
+
+        Entry withSnapshotVersion(long version) {
+            return new Entry(cartVersion, version, lines);
+        }
+    }
+
+    /**
+     * Returns the cached lines of a cart, if they were computed for this version of the cart
+     * and for the current catalog snapshot.
+     *
+     * @param cart the cart as held by ActiveCartStore
+     * @return the lines, or empty if they must be computed
+     */
+    public Optional<List<CartItemDTO>> get(CartView cart) {
+        Entry entry = entries.get(cart.getCartId());
+        CatalogSnapshot current = snapshot;
+        if (entry == null || current == null
+                || entry.cartVersion != cart.getVersion() || entry.snapshotVersion != current.getVersion()) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.lines);
+    }
+
+    /**
+     * Stores the lines computed for a cart.
+     *
+     * @param cart the cart the lines were computed for
+     * @param snapshotVersion the version of the catalog snapshot the item prices were taken from
+     * @param lines the lines of the cart
+     */
+    public void put(CartView cart, long snapshotVersion, List<CartItemDTO> lines) {
+        entries.put(cart.getCartId(), new Entry(cart.getVersion(), snapshotVersion, lines));
+    }
+
+    /**
+     * Builds one cart line - the item with its min/max totals for the quantity.
+     *
+     * @param item the item
+     * @param quantity the quantity in the cart
+     * @return the cart line
+     */
+    public static CartItemDTO toLine(Item item, int quantity) {
+        Double totalMin = (item.getLowestPrice() != null)
+                ? quantity * item.getLowestPrice()
+                : null;
+
+        Double totalMax = (item.getHighestPrice() != null)
+                ? quantity * item.getHighestPrice()
+                : null;
+
+        return new CartItemDTO(
+                item.getItemID(),
+                item.getItemName(),
+                item.getImageUrl(),
+                quantity,
+                totalMin,
+                totalMax,
+                item.getLowestPrice(),
+                item.getHighestPrice()
+        );
+    }
+
+    /**
+     * Collects the items of a batch of changed prices, to be recomputed on the next rebuild.
+     */
+    @EventListener
+    public void onPriceChanges(PriceChangesEvent event) {
+        for (PriceChange change : event.getChanges()) {
+            changedItems.add(change.getItemId());
+        }
+    }
+
+    @Override
+    public void rebuild(CatalogSnapshot newSnapshot) {
+        CatalogSnapshot previous = snapshot;
+        Set<String> changed = drainChangedItems();
+        if (previous == null) {
+            // Nothing was cached against a snapshot yet - entries (if any) are recomputed on the next read
+            entries.clear();
+            previousChangedItems = changed;
+            snapshot = newSnapshot;
+            return;
+        }
+
+        Set<String> toReprice = new HashSet<>(changed);
+        toReprice.addAll(previousChangedItems);
+        previousChangedItems = changed;
+        Set<Long> affectedCarts = toReprice.isEmpty() ? Set.of() : activeCartStore.findCartsContaining(toReprice);
+
+        for (Long cartId : affectedCarts) {
+            Optional<CartView> cart = activeCartStore.peek(cartId);
+            if (cart.isEmpty()) {
+                entries.remove(cartId);
+            } else {
+                reprice(cart.get(), newSnapshot);
+            }
+        }
+
+        // The prices of the other carts did not change - move their entries to the new snapshot
+        for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+            if (affectedCarts.contains(entry.getKey())) {
+                continue;
+            }
+            if (activeCartStore.peek(entry.getKey()).isEmpty()) {
+                entries.remove(entry.getKey());
+            } else if (entry.getValue().snapshotVersion == previous.getVersion()) {
+                entry.setValue(entry.getValue().withSnapshotVersion(newSnapshot.getVersion()));
+            }
+        }
+        snapshot = newSnapshot;
+
+        logger.info("{} items changed price: {} active carts repriced.", changed.size(), affectedCarts.size());
+    }
+
+    // Takes the changed items collected so far; changes published meanwhile are kept for the next rebuild
+    private Set<String> drainChangedItems() {
+        Set<String> drained = new HashSet<>();
+        for (Iterator<String> it = changedItems.iterator(); it.hasNext(); ) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+
+    // Recomputes the lines of one cart with the new prices
+    private void reprice(CartView cart, CatalogSnapshot newSnapshot) {
+        List<CartItemDTO> lines = new ArrayList<>();
+        for (Map.Entry<String, Integer> line : cart.getQuantities().entrySet()) {
+            int ordinal = newSnapshot.ordinalOf(line.getKey());
+            if (ordinal < 0) {
+                // The item is not in the snapshot - leave the cart to be computed on the next read
+                entries.remove(cart.getCartId());
+                return;
+            }
+            lines.add(toLine(newSnapshot.itemAt(ordinal), line.getValue()));
+        }
+        entries.put(cart.getCartId(), new Entry(cart.getVersion(), newSnapshot.getVersion(), lines));
+    }
+
+    // Sum of the min (or max) line totals, null if no line has a price
+    private static Double sum(List<CartItemDTO> lines, boolean min) {
+        Double total = null;
+        for (CartItemDTO line : lines) {
+            Double lineTotal = min ? line.getTotalMinPrice() : line.getTotalMaxPrice();
+            if (lineTotal != null) {
+                total = (total == null ? 0 : total) + lineTotal;
+            }
+        }
+        return total;
+    }
+}
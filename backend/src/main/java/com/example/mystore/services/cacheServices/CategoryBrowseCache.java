@@ -0,0 +1,181 @@
+package com.example.mystore.services.cacheServices;
+
+import com.example.mystore.database.entities.Item;
+import com.example.mystore.services.apiServices.ItemService;
+import com.example.mystore.services.indexServices.CatalogIndex;
+import com.example.mystore.services.indexServices.CatalogSnapshot;
+import com.example.mystore.utils.CategoryLoader;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * CategoryBrowseCache holds the category listings of ItemsPage fully precomputed in memory.
+ *
+ * For every general, sub and specific category (all categories of CategoryLoader, plus any other
+ * category found on items) it keeps an immutable, pre-sorted array of the items that are sold in
+ * at least ItemService.MIN_STORES stores - the same rows and order (by item ID) as the database listing,
+ * plus a second array of the same items ordered by best value (lowest unit price first, within each unit price basis).
+ * The arrays are rebuilt in the background after every ingest (see CatalogIndexService) and swapped in
+ * with a single reference assignment, so a page is just an array slice with no database work.
+ */
+@Component
+public class CategoryBrowseCache implements CatalogIndex {
+    private static final Listing EMPTY = new Listing(new int[0], new int[0]);
+
+    private final CategoryLoader categoryLoader;
+
+    private volatile State state;
+
+    public CategoryBrowseCache(CategoryLoader categoryLoader) {
+        this.categoryLoader = categoryLoader;
+    }
+
+    // The items of one category, as snapshot ordinals
+    private static class Listing {
+        final int[] byId;          // Sorted by item ID
+        final int[] byUnitPrice;   // Grouped by unit price basis (not comparable last), sorted by lowest unit price, then item ID
+
+        Listing(int[] byId, int[] byUnitPrice) {
+            this.byId = byId;
+            this.byUnitPrice = byUnitPrice;
+        }
+    }
+
+    private static class State {
+        final CatalogSnapshot snapshot;
+        final Map<String, Listing> general;   // category -> listing
+        final Map<String, Listing> sub;
+        final Map<String, Listing> specific;
+
+        State(CatalogSnapshot snapshot, Map<String, Listing> general, Map<String, Listing> sub, Map<String, Listing> specific) {
+            this.snapshot = snapshot;
+            this.general = general;
+            this.sub = sub;
+            this.specific = specific;
+        }
+    }
+
+    @Override
+    public void rebuild(CatalogSnapshot snapshot) {
+        // Start from every known category, so empty categories are answered from memory as well
+        Map<String, List<Integer>> general = new HashMap<>();
+        Map<String, List<Integer>> sub = new HashMap<>();
+        Map<String, List<Integer>> specific = new HashMap<>();
+        categoryLoader.getCategoriesMap().forEach((generalName, subMap) -> {
+            general.putIfAbsent(generalName, new ArrayList<>());
+            subMap.forEach((subName, specificNames) -> {
+                sub.putIfAbsent(subName, new ArrayList<>());
+                for (String specificName : specificNames) {
+                    specific.putIfAbsent(specificName, new ArrayList<>());
+                }
+            });
+        });
+
+        // Ordinals are visited in item ID order, so every list comes out sorted
+        for (int ordinal = 0; ordinal < snapshot.size(); ordinal++) {
+            Item item = snapshot.itemAt(ordinal);
+            if (item.getStoreCount() == null || item.getStoreCount() < ItemService.MIN_STORES) {
+                continue;
+            }
+            add(general, item.getGeneralCategory(), ordinal);
+            add(sub, item.getSubCategory(), ordinal);
+            add(specific, item.getSpecificCategory(), ordinal);
+        }
+
+        state = new State(snapshot, freeze(snapshot, general), freeze(snapshot, sub), freeze(snapshot, specific));
+    }
+
+    /**
+     * Returns one page of a category listing (offset paging).
+     *
+     * @param level category level ("General", "Sub", "Specific")
+     * @param category the name of the category
+     * @param byUnitPrice whether to order by lowest unit price instead of item ID
+     * @param page page number (starting from 0)
+     * @param size number of items per page
+     * @return the items of the page, or empty if the cache is not built yet
+     */
+    public Optional<List<Item>> getPage(String level, String category, boolean byUnitPrice, int page, int size) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        Listing listing = categoryLevel(current, level).getOrDefault(category, EMPTY);
+        int[] ordinals = byUnitPrice ? listing.byUnitPrice : listing.byId;
+        long from = (long) page * size;
+        return Optional.of(slice(current, ordinals, from, size));
+    }
+
+    /**
+     * Returns up to `limit` items of a category listing whose ID is greater than `afterItemId` (keyset paging).
+     *
+     * @param level category level ("General", "Sub", "Specific")
+     * @param category the name of the category
+     * @param afterItemId the last item ID of the previous page (null for the first page)
+     * @param limit the maximum number of items to return
+     * @return the items, or empty if the cache is not built yet
+     */
+    public Optional<List<Item>> getAfter(String level, String category, String afterItemId, int limit) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        int[] ordinals = categoryLevel(current, level).getOrDefault(category, EMPTY).byId;
+
+        int low = 0;
+        int high = ordinals.length;
+        while (afterItemId != null && low < high) {
+            int mid = (low + high) >>> 1;
+            if (current.snapshot.idAt(ordinals[mid]).compareTo(afterItemId) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return Optional.of(slice(current, ordinals, low, limit));
+    }
+
+    private Map<String, Listing> categoryLevel(State current, String level) {
+        if ("General".equalsIgnoreCase(level)) {
+            return current.general;
+        } else if ("Sub".equalsIgnoreCase(level)) {
+            return current.sub;
+        } else if ("Specific".equalsIgnoreCase(level)) {
+            return current.specific;
+        }
+        throw new IllegalArgumentException("Invalid category level: " + level);
+    }
+
+    private static List<Item> slice(State current, int[] ordinals, long from, int limit) {
+        List<Item> items = new ArrayList<>();
+        for (long i = from; i < ordinals.length && items.size() < limit; i++) {
+            items.add(current.snapshot.itemAt(ordinals[(int) i]));
+        }
+        return items;
+    }
+
+    private static void add(Map<String, List<Integer>> byCategory, String category, int ordinal) {
+        if (category != null) {
+            byCategory.computeIfAbsent(category, c -> new ArrayList<>()).add(ordinal);
+        }
+    }
+
+    private static Map<String, Listing> freeze(CatalogSnapshot snapshot, Map<String, List<Integer>> byCategory) {
+        // Same order as the database: basis descending (nulls first, as PostgreSQL sorts DESC), then unit price
+        Comparator<Integer> byUnitPrice = Comparator.comparing(
+                (Integer ordinal) -> snapshot.itemAt(ordinal).getUnitPriceBasis(),
+                Comparator.nullsFirst(Comparator.<String>reverseOrder()))
+                .thenComparing(ordinal -> snapshot.itemAt(ordinal).getLowestUnitPrice(),
+                        Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(ordinal -> ordinal);
+
+        Map<String, Listing> frozen = new HashMap<>(byCategory.size() * 2);
+        byCategory.forEach((category, ordinals) -> {
+            int[] byId = ordinals.stream().mapToInt(Integer::intValue).toArray();
+            int[] sortedByUnitPrice = ordinals.stream().sorted(byUnitPrice).mapToInt(Integer::intValue).toArray();
+            frozen.put(category, new Listing(byId, sortedByUnitPrice));
+        });
+        return Collections.unmodifiableMap(frozen);
+    }
+}
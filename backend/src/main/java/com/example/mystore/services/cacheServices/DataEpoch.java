@@ -0,0 +1,11 @@
+package com.example.mystore.services.cacheServices;
+
+/**
+ * The data sets whose version (epoch) decides whether a cached API response is still current.
+ * See DataEpochs.
+ */
+public enum DataEpoch {
+    CATALOG,     // Items: names, categories, store counts and price ranges
+    PRICES,      // Prices of items in stores
+    STORES       // Stores and chains
+}
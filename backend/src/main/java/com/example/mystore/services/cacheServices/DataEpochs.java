@@ -0,0 +1,87 @@
+package com.example.mystore.services.cacheServices;
+
+import com.example.mystore.database.entities.ProcessName;
+import com.example.mystore.database.entities.ProcessTracker;
+import com.example.mystore.database.repositories.ProcessTrackerRepository;
+import com.example.mystore.services.indexServices.CatalogIndex;
+import com.example.mystore.services.indexServices.CatalogSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * DataEpochs holds the current epoch of every DataEpoch, used to build the ETags of cacheable responses.
+ *
+ * The epochs of the ingested data are the completion times of the processes that write it (PROCESS_TRACKER),
+ * so all nodes reading the same database agree on them:
+ * - CATALOG - table seeding, item table init and the daily price update (price ranges and store counts);
+ * - PRICES - table seeding, the PriceFull load and the daily price update;
+ * - STORES - store table init.
+ * INITIAL_LOAD is part of all three, since startup may enrich the tables (e.g. store coordinates).
+ *
+ * The epochs are reloaded as the last catalog index of every rebuild, so a new ETag is only handed out
+ * once the in-memory indexes serve the new data. Before the first load all epochs are 0 (unknown).
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class DataEpochs implements CatalogIndex {
+    private static final Logger logger = LoggerFactory.getLogger(DataEpochs.class);
+
+    private static final Map<DataEpoch, List<ProcessName>> SOURCES = Map.of(
+            DataEpoch.CATALOG, List.of(ProcessName.TABLE_SEEDING, ProcessName.ITEM_TABLE_INIT,
+                    ProcessName.PRICE_UPDATE, ProcessName.INITIAL_LOAD),
+            DataEpoch.PRICES, List.of(ProcessName.TABLE_SEEDING, ProcessName.PRICEFULL_LOAD,
+                    ProcessName.PRICE_UPDATE, ProcessName.INITIAL_LOAD),
+            DataEpoch.STORES, List.of(ProcessName.STORE_TABLE_INIT, ProcessName.INITIAL_LOAD));
+
+    private final ProcessTrackerRepository processTrackerRepository;
+
+    private volatile Map<DataEpoch, Long> epochs;
+
+    public DataEpochs(ProcessTrackerRepository processTrackerRepository) {
+        this.processTrackerRepository = processTrackerRepository;
+
+        Map<DataEpoch, Long> initial = new EnumMap<>(DataEpoch.class);
+        for (DataEpoch epoch : DataEpoch.values()) {
+            initial.put(epoch, 0L);
+        }
+        this.epochs = initial;
+    }
+
+    /**
+     * Returns the current epoch of a data set.
+     *
+     * @param epoch the data set
+     * @return the epoch, 0 if it is not known yet
+     */
+    public long get(DataEpoch epoch) {
+        return epochs.get(epoch);
+    }
+
+    @Override
+    public void rebuild(CatalogSnapshot snapshot) {
+        Map<ProcessName, Long> completedAt = new EnumMap<>(ProcessName.class);
+        for (ProcessTracker tracker : processTrackerRepository.findAll()) {
+            if (tracker.getUpdatedAt() != null) {
+                completedAt.put(tracker.getProcessName(),
+                        tracker.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+        }
+
+        Map<DataEpoch, Long> newEpochs = new EnumMap<>(DataEpoch.class);
+        for (Map.Entry<DataEpoch, List<ProcessName>> source : SOURCES.entrySet()) {
+            long epoch = 0;
+            for (ProcessName processName : source.getValue()) {
+                epoch = Math.max(epoch, completedAt.getOrDefault(processName, 0L));
+            }
+            newEpochs.put(source.getKey(), epoch);
+        }
+        epochs = newEpochs;
+        logger.info("Data epochs: {}", newEpochs);
+    }
+}
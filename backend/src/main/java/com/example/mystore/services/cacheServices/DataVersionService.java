@@ -0,0 +1,32 @@
+package com.example.mystore.services.cacheServices;
+
+import com.example.mystore.services.events.CatalogUpdatedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataVersionService keeps the data epochs used to invalidate caches.
+ *
+ * The price epoch changes every time prices (or the catalog) are reloaded - see CatalogUpdatedEvent.
+ * It starts from the boot time, so epochs from before a restart are never reused.
+ * Cache entries store the epoch they were computed at and are ignored once it changes,
+ * so no explicit cache clearing is needed.
+ */
+@Service
+public class DataVersionService {
+    private final AtomicLong priceEpoch = new AtomicLong(System.currentTimeMillis());
+
+    @EventListener
+    public void onCatalogUpdated(CatalogUpdatedEvent event) {
+        priceEpoch.incrementAndGet();
+    }
+
+    /**
+     * Returns the current price epoch.
+     */
+    public long getPriceEpoch() {
+        return priceEpoch.get();
+    }
+}
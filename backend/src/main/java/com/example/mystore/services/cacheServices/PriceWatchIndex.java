@@ -0,0 +1,142 @@
+package com.example.mystore.services.cacheServices;
+
+import com.example.mystore.database.repositories.PriceWatchRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PriceWatchIndex maps every watched item to its watches, so a price change is matched
+ * only against the watches of its item - the cost depends on the number of changes, not on the number of watches.
+ *
+ * The index is loaded from PRICE_WATCH on first use and kept up to date by PriceWatchService.
+ * The watch list of an item is immutable and replaced on every change (copy on write).
+ */
+@Component
+public class PriceWatchIndex {
+    private final PriceWatchRepository priceWatchRepository;
+
+    private final Map<String, List<Watch>> byItem = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public PriceWatchIndex(PriceWatchRepository priceWatchRepository) {
+        this.priceWatchRepository = priceWatchRepository;
+    }
+
+    /**
+     * One watch, as needed to evaluate a price change.
+     */
+    public static class Watch {
+        private final Long watchId;
+        private final Long userId;
+        private final String itemId;
+        private final Double targetPrice;
+        private final Set<Long> storeIds;
+
+        public Watch(Long watchId, Long userId, String itemId, Double targetPrice, Set<Long> storeIds) {
+            this.watchId = watchId;
+            this.userId = userId;
+            this.itemId = itemId;
+            this.targetPrice = targetPrice;
+            this.storeIds = Set.copyOf(storeIds);
+        }
+
+        /**
+         * Tells whether a price change should alert this watch: the price dropped,
+         * in one of the watched stores (any store if none were chosen), to the target price or below (if set).
+         */
+        public boolean matches(Long storeId, Double oldPrice, Double newPrice) {
+            if (oldPrice == null || newPrice == null || newPrice >= oldPrice) {
+                return false;
+            }
+            if (!storeIds.isEmpty() && !storeIds.contains(storeId)) {
+                return false;
+            }
+            return targetPrice == null || newPrice <= targetPrice;
+        }
+
+        public Long getWatchId() {
+            return watchId;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getItemId() {
+            return itemId;
+        }
+    }
+
+    /**
+     * Returns the watches of an item.
+     *
+     * @param itemId the ID of the item
+     * @return the watches (empty if the item is not watched)
+     */
+    public List<Watch> findByItem(String itemId) {
+        ensureLoaded();
+        return byItem.getOrDefault(itemId, List.of());
+    }
+
+    /**
+     * Adds a watch (or replaces it, if a watch with the same ID is already indexed).
+     */
+    public void add(Watch watch) {
+        ensureLoaded();
+        byItem.compute(watch.itemId, (itemId, watches) -> {
+            List<Watch> result = new ArrayList<>();
+            if (watches != null) {
+                for (Watch existing : watches) {
+                    if (!existing.watchId.equals(watch.watchId)) {
+                        result.add(existing);
+                    }
+                }
+            }
+            result.add(watch);
+            return List.copyOf(result);
+        });
+    }
+
+    /**
+     * Removes a watch.
+     */
+    public void remove(Long watchId, String itemId) {
+        ensureLoaded();
+        byItem.computeIfPresent(itemId, (id, watches) -> {
+            List<Watch> result = new ArrayList<>();
+            for (Watch existing : watches) {
+                if (!existing.watchId.equals(watchId)) {
+                    result.add(existing);
+                }
+            }
+            return result.isEmpty() ? null : List.copyOf(result);
+        });
+    }
+
+    // Two queries for all watches and their stores, instead of loading the entities
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            Map<Long, Set<Long>> storesByWatch = new HashMap<>();
+            for (Object[] row : priceWatchRepository.findAllWatchStores()) {
+                storesByWatch.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+            }
+            Map<String, List<Watch>> watchesByItem = new HashMap<>();
+            for (Object[] row : priceWatchRepository.findAllWatchRows()) {
+                Long watchId = (Long) row[0];
+                Watch watch = new Watch(watchId, (Long) row[1], (String) row[2], (Double) row[3],
+                        storesByWatch.getOrDefault(watchId, Set.of()));
+                watchesByItem.computeIfAbsent(watch.itemId, id -> new ArrayList<>()).add(watch);
+            }
+            watchesByItem.forEach((itemId, watches) -> byItem.put(itemId, List.copyOf(watches)));
+            loaded = true;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.mystore.services.cacheServices;
+
+import com.example.mystore.database.entities.UserSession;
+import com.example.mystore.database.repositories.UserSessionRepository;
+import com.example.mystore.utils.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SessionStore keeps the login sessions in memory, so validating the session of a request
+ * does not touch the database.
+ *
+ * Every session expires after auth.session.ttl-minutes (default 7 days) without use - each successful
+ * validation moves the expiry forward (sliding expiry).
+ * Sessions are also written to USER_SESSION:
+ * - a session unknown to this node (another node created it, or this node restarted) is loaded from the table once;
+ *   IDs that are not session IDs (UUIDs) are rejected without a lookup, and IDs that were not found are remembered
+ *   for a short while (at most MAX_RECENT_MISSES of them), so forged or stale IDs do not cost a query per request;
+ * - the moved expiry is written in the background (auth.session.sync-interval-ms, default 60000),
+ *   only when it moved by more than a tenth of the TTL, so active users do not cause a write per request;
+ * - the same background run drops sessions that were logged out on another node and purges expired rows.
+ */
+@Component
+public class SessionStore {
+    private static final Logger logger = LoggerFactory.getLogger(SessionStore.class);
+    private static final int CHECK_BATCH_SIZE = 1000;
+    private static final int MAX_RECENT_MISSES = 10_000;
+    private static final long MISS_TTL_MILLIS = 30_000;
+
+    private final UserSessionRepository userSessionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMillis;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();  // sessionId -> session
+    private final Map<String, Long> recentMisses = new ConcurrentHashMap<>();  // sessionId -> epoch millis until it is looked up again
+
+    public SessionStore(UserSessionRepository userSessionRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${auth.session.ttl-minutes:10080}") long ttlMinutes) {
+        this.userSessionRepository = userSessionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttlMillis = ttlMinutes * 60_000;
+    }
+
+    private static class Session {
+        final String sessionId;
+        final Long userId;
+        volatile long expiresAt;           // Epoch millis
+        volatile long persistedExpiresAt;  // The expiry last written to USER_SESSION
+
+        Session(String sessionId, Long userId, long expiresAt) {
+            this.sessionId = sessionId;
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+            this.persistedExpiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Opens a new session for a user.
+     *
+     * @param userId the ID of the user
+     * @return the session ID
+     */
+    public String create(Long userId) {
+        long now = System.currentTimeMillis();
+        Session session = new Session(UUID.randomUUID().toString(), userId, now + ttlMillis);
+
+        UserSession row = new UserSession();
+        row.setSessionID(session.sessionId);
+        row.setUserID(userId);
+        row.setCreatedAt(toDateTime(now));
+        row.setExpiresAt(toDateTime(session.expiresAt));
+        userSessionRepository.save(row);
+
+        sessions.put(session.sessionId, session);
+        return session.sessionId;
+    }
+
+    /**
+     * Validates a session and extends its expiry.
+     *
+     * @param sessionId the session ID sent by the client
+     * @return the ID of the session's user, or empty if the session does not exist or expired
+     */
+    public Optional<Long> validate(String sessionId) {
+        if (sessionId == null || sessionId.isBlank()) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            if (!isSessionId(sessionId) || recentlyMissed(sessionId, now)) {
+                return Optional.empty();
+            }
+            session = load(sessionId, now);
+            if (session == null) {
+                return Optional.empty();
+            }
+        }
+        if (session.expiresAt <= now) {
+            sessions.remove(sessionId, session);
+            return Optional.empty();
+        }
+        session.expiresAt = now + ttlMillis;
+        return Optional.of(session.userId);
+    }
+
+    /**
+     * Ends a session.
+     *
+     * @param sessionId the session ID
+     * @return true if the session existed
+     */
+    public boolean invalidate(String sessionId) {
+        if (sessionId == null || sessionId.isBlank()) {
+            return false;
+        }
+        boolean inMemory = sessions.remove(sessionId) != null;
+        boolean stored = userSessionRepository.existsById(sessionId);
+        if (stored) {
+            userSessionRepository.deleteById(sessionId);
+        }
+        return inMemory || stored;
+    }
+
+    /**
+     * Writes the moved expiries, drops sessions logged out on another node and purges expired sessions.
+     */
+    @Scheduled(fixedDelayString = "${auth.session.sync-interval-ms:60000}")
+    public void sync() {
+        long now = System.currentTimeMillis();
+        long slack = ttlMillis / 10;
+        int expired = 0;
+        int extended = 0;
+
+        List<String> held = new ArrayList<>();
+        for (Session session : sessions.values()) {
+            if (session.expiresAt <= now) {
+                sessions.remove(session.sessionId, session);
+                expired++;
+                continue;
+            }
+            held.add(session.sessionId);
+            long expiresAt = session.expiresAt;
+            if (expiresAt - session.persistedExpiresAt > slack) {
+                transactionTemplate.executeWithoutResult(status ->
+                        userSessionRepository.extend(session.sessionId, toDateTime(expiresAt)));
+                session.persistedExpiresAt = expiresAt;
+                extended++;
+            }
+        }
+
+        int loggedOut = 0;
+        for (List<String> batch : CollectionUtils.partition(held, CHECK_BATCH_SIZE)) {
+            Set<String> existing = new HashSet<>(userSessionRepository.findExistingIds(batch));
+            for (String sessionId : batch) {
+                if (!existing.contains(sessionId) && sessions.remove(sessionId) != null) {
+                    loggedOut++;
+                }
+            }
+        }
+
+        recentMisses.values().removeIf(until -> until <= now);
+
+        Integer purged = transactionTemplate.execute(status -> userSessionRepository.deleteExpired(toDateTime(now)));
+        if (expired + extended + loggedOut > 0 || (purged != null && purged > 0)) {
+            logger.info("Sessions: {} held, {} expired, {} extended, {} logged out elsewhere, {} rows purged.",
+                    sessions.size(), expired, extended, loggedOut, purged);
+        }
+    }
+
+    // Recovers a session this node does not hold. Returns null (and remembers the miss) if it does not exist or expired.
+    private Session load(String sessionId, long now) {
+        Optional<UserSession> row = userSessionRepository.findById(sessionId);
+        if (row.isEmpty() || toMillis(row.get().getExpiresAt()) <= now) {
+            rememberMiss(sessionId, now);
+            return null;
+        }
+        long expiresAt = toMillis(row.get().getExpiresAt());
+        Session session = new Session(sessionId, row.get().getUserID(), expiresAt);
+        Session existing = sessions.putIfAbsent(sessionId, session);
+        return existing != null ? existing : session;
+    }
+
+    // Session IDs are created by UUID.randomUUID().toString() - anything else cannot be a session
+    private static boolean isSessionId(String sessionId) {
+        if (sessionId.length() != 36) {
+            return false;
+        }
+        try {
+            return UUID.fromString(sessionId).toString().equals(sessionId);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private boolean recentlyMissed(String sessionId, long now) {
+        Long until = recentMisses.get(sessionId);
+        if (until == null) {
+            return false;
+        }
+        if (until <= now) {
+            recentMisses.remove(sessionId, until);
+            return false;
+        }
+        return true;
+    }
+
+    private void rememberMiss(String sessionId, long now) {
+        if (recentMisses.size() >= MAX_RECENT_MISSES) {
+            recentMisses.values().removeIf(until -> until <= now);
+            if (recentMisses.size() >= MAX_RECENT_MISSES) {
+                recentMisses.clear();  // Flooded with distinct IDs - start over rather than grow
+            }
+        }
+        recentMisses.put(sessionId, now + MISS_TTL_MILLIS);
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,370 @@
+package com.example.mystore.services.cacheServices;
+
+import com.example.mystore.database.cleaning.CityNameCleaner;
+import com.example.mystore.database.entities.Store;
+import com.example.mystore.database.repositories.StoreRepository;
+import com.example.mystore.dto.api.response.NearbyStoreDTO;
+import com.example.mystore.dto.api.response.StoreDTO;
+import com.example.mystore.services.indexServices.CatalogIndex;
+import com.example.mystore.services.indexServices.CatalogSnapshot;
+import com.example.mystore.utils.GeoPoint;
+import com.example.mystore.utils.HebrewNormalizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * StoreDirectory holds the store list shown on SelectStoresPage in memory.
+ *
+ * The STORE table is a few thousand rows and only changes on ingest, so after every ingest
+ * (see CatalogIndexService) it is loaded once, MEGA stores and stores without a city are dropped,
+ * and the StoreDTOs - including the chain image URL - are built up front, sorted by store ID.
+ *
+ * City and chain filters use two inverted indexes: normalized city name -> stores and
+ * normalized chain name -> stores. Names are normalized with CityNameCleaner (so "ת"א" finds "תל אביב")
+ * and HebrewNormalizer, and a filter matches every indexed name that contains it.
+ * Filtering happens before paging, so every page is full.
+ *
+ * Stores with coordinates (see StoreUpdateService) are also placed on a grid of GRID_CELL_DEGREES cells,
+ * so a nearest-store search only measures the stores of the cells around the searched point.
+ */
+@Component
+public class StoreDirectory implements CatalogIndex {
+    // Stores of this chain are not offered for comparison
+    public static final long MEGA_CHAIN_ID = 7290055700007L;
+
+    private static final long SHUFERSAL_CHAIN_ID = 7290027600007L;
+    private static final long RAMI_LEVI_CHAIN_ID = 7290058140886L;
+    private static final long VICTORY_CHAIN_ID = 7290696200003L;
+    // About 5.5 km north-south (a bit less east-west in Israel)
+    private static final double GRID_CELL_DEGREES = 0.05;
+
+    @Value("${chain.image.url.shufersal}")
+    private String shufersalImage;
+
+    @Value("${chain.image.url.rami-levi}")
+    private String ramiLevyImage;
+
+    @Value("${chain.image.url.victory}")
+    private String victoryImage;
+
+    private final StoreRepository storeRepository;
+
+    private volatile State state;
+
+    public StoreDirectory(StoreRepository storeRepository) {
+        this.storeRepository = storeRepository;
+    }
+
+    private static class State {
+        final StoreDTO[] stores;             // Sorted by store ID
+        final Map<String, int[]> byCity;     // normalized city -> sorted positions in stores
+        final Map<String, int[]> byChain;    // normalized chain name -> sorted positions in stores
+        final double[] latitudes;            // By position, NaN if the store has no coordinates
+        final double[] longitudes;
+        final Map<Long, int[]> grid;         // grid cell -> positions of the stores in it
+
+        State(StoreDTO[] stores, Map<String, int[]> byCity, Map<String, int[]> byChain,
+              double[] latitudes, double[] longitudes, Map<Long, int[]> grid) {
+            this.stores = stores;
+            this.byCity = byCity;
+            this.byChain = byChain;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+            this.grid = grid;
+        }
+    }
+
+    // Stores are not part of the snapshot - it only tells that an ingest has finished
+    @Override
+    public void rebuild(CatalogSnapshot snapshot) {
+        List<Store> stores = storeRepository.findAllWithChainExcept(MEGA_CHAIN_ID);
+
+        List<StoreDTO> dtos = new ArrayList<>();
+        Map<String, List<Integer>> byCity = new HashMap<>();
+        Map<String, List<Integer>> byChain = new HashMap<>();
+        Map<Long, List<Integer>> grid = new HashMap<>();
+        double[] latitudes = new double[stores.size()];
+        double[] longitudes = new double[stores.size()];
+        for (Store store : stores) {
+            if (!hasCity(store.getStoreCity())) {
+                continue;
+            }
+            int position = dtos.size();
+            StoreDTO dto = toDTO(store);
+            dtos.add(dto);
+            byCity.computeIfAbsent(normalizeCity(dto.getStoreCity()), c -> new ArrayList<>()).add(position);
+            byChain.computeIfAbsent(HebrewNormalizer.normalize(dto.getChainName()), c -> new ArrayList<>()).add(position);
+
+            if (store.getLatitude() != null && store.getLongitude() != null) {
+                latitudes[position] = store.getLatitude();
+                longitudes[position] = store.getLongitude();
+                grid.computeIfAbsent(cellOf(store.getLatitude(), store.getLongitude()), c -> new ArrayList<>()).add(position);
+            } else {
+                latitudes[position] = Double.NaN;
+                longitudes[position] = Double.NaN;
+            }
+        }
+
+        state = new State(dtos.toArray(new StoreDTO[0]), freeze(byCity), freeze(byChain),
+                Arrays.copyOf(latitudes, dtos.size()), Arrays.copyOf(longitudes, dtos.size()), freeze(grid));
+    }
+
+    /**
+     * Converts a Store entity to a StoreDTO including image URL based on the chain ID.
+     *
+     * @param store the Store entity
+     * @return the corresponding StoreDTO
+     */
+    public StoreDTO toDTO(Store store) {
+        String imageUrl = resolveImageUrl(store.getChain().getChainKey().getChainID());
+        return new StoreDTO(
+                store.getStoreID(),
+                store.getChain().getChainName(),
+                store.getStoreName(),
+                store.getStoreNumber(),
+                store.getStoreCity(),
+                store.getStoreAddress(),
+                imageUrl
+        );
+    }
+
+    /**
+     * Returns one page of the stores matching the filters, ordered by store ID.
+     *
+     * @param city city filter (null or blank for all cities)
+     * @param chainName chain name filter (null or blank for all chains)
+     * @param page the page number
+     * @param size the number of stores per page
+     * @return the stores of the page, or empty if the directory is not loaded yet
+     */
+    public Optional<List<StoreDTO>> getPage(String city, String chainName, int page, int size) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        int[] positions = match(current, city, chainName);
+        return Optional.of(slice(current, positions, (long) page * size, size));
+    }
+
+    /**
+     * Returns up to `limit` stores matching the filters whose ID is greater than `afterStoreId` (keyset paging).
+     *
+     * @param city city filter (null or blank for all cities)
+     * @param chainName chain name filter (null or blank for all chains)
+     * @param afterStoreId the last store ID of the previous page (null for the first page)
+     * @param limit the maximum number of stores to return
+     * @return the stores, or empty if the directory is not loaded yet
+     */
+    public Optional<List<StoreDTO>> getAfter(String city, String chainName, Long afterStoreId, int limit) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        int[] positions = match(current, city, chainName);
+
+        int low = 0;
+        int high = positions.length;
+        while (afterStoreId != null && low < high) {
+            int mid = (low + high) >>> 1;
+            if (current.stores[positions[mid]].getStoreId() <= afterStoreId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return Optional.of(slice(current, positions, low, limit));
+    }
+
+    /**
+     * Finds the stores within `radiusKm` of a point, nearest first.
+     *
+     * @param latitude latitude of the point
+     * @param longitude longitude of the point
+     * @param radiusKm the search radius in kilometers
+     * @param limit the maximum number of stores to return
+     * @return the stores with their distances, or empty if the directory is not loaded yet
+     */
+    public Optional<List<NearbyStoreDTO>> findNearby(double latitude, double longitude, double radiusKm, int limit) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+
+        // Scan the grid cells of the bounding box of the circle
+        double latitudeSpan = radiusKm / 111.0;
+        double longitudeSpan = radiusKm / (111.32 * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+        int minLatCell = (int) Math.floor((latitude - latitudeSpan) / GRID_CELL_DEGREES);
+        int maxLatCell = (int) Math.floor((latitude + latitudeSpan) / GRID_CELL_DEGREES);
+        int minLonCell = (int) Math.floor((longitude - longitudeSpan) / GRID_CELL_DEGREES);
+        int maxLonCell = (int) Math.floor((longitude + longitudeSpan) / GRID_CELL_DEGREES);
+
+        List<NearbyStoreDTO> found = new ArrayList<>();
+        for (int latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+            for (int lonCell = minLonCell; lonCell <= maxLonCell; lonCell++) {
+                int[] positions = current.grid.get(cellKey(latCell, lonCell));
+                if (positions == null) {
+                    continue;
+                }
+                for (int position : positions) {
+                    double distance = GeoPoint.distanceKm(latitude, longitude, current.latitudes[position], current.longitudes[position]);
+                    if (distance <= radiusKm) {
+                        found.add(new NearbyStoreDTO(current.stores[position], distance));
+                    }
+                }
+            }
+        }
+        found.sort(Comparator.comparingDouble(NearbyStoreDTO::getDistanceKm)
+                .thenComparing(nearby -> nearby.getStore().getStoreId()));
+        return Optional.of(found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found);
+    }
+
+    /**
+     * Computes the distance from a point to each of the given stores.
+     * Stores that are not in the directory or have no coordinates are left out.
+     *
+     * @param latitude latitude of the point
+     * @param longitude longitude of the point
+     * @param storeIds the IDs of the stores
+     * @return store ID -> distance in kilometers, or empty if the directory is not loaded yet
+     */
+    public Optional<Map<Long, Double>> distancesKm(double latitude, double longitude, Collection<Long> storeIds) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        Map<Long, Double> distances = new HashMap<>();
+        for (Long storeId : storeIds) {
+            int position = positionOf(current, storeId);
+            if (position >= 0 && !Double.isNaN(current.latitudes[position])) {
+                distances.put(storeId, GeoPoint.distanceKm(latitude, longitude,
+                        current.latitudes[position], current.longitudes[position]));
+            }
+        }
+        return Optional.of(distances);
+    }
+
+    // Position of a store in the stores array (sorted by store ID), or -1 if it is not there
+    private static int positionOf(State current, Long storeId) {
+        if (storeId == null) {
+            return -1;
+        }
+        int low = 0;
+        int high = current.stores.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = current.stores[mid].getStoreId();
+            if (midId < storeId) {
+                low = mid + 1;
+            } else if (midId > storeId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // Sorted positions of the stores matching both filters
+    private static int[] match(State current, String city, String chainName) {
+        int[] result = null;  // null = no filter yet, all stores
+        if (city != null && !city.isBlank()) {
+            result = lookup(current.byCity, normalizeCity(city));
+        }
+        if (chainName != null && !chainName.isBlank()) {
+            int[] byChain = lookup(current.byChain, HebrewNormalizer.normalize(chainName));
+            result = result == null ? byChain : intersect(result, byChain);
+        }
+        if (result == null) {
+            result = new int[current.stores.length];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = i;
+            }
+        }
+        return result;
+    }
+
+    // Union of the positions of every indexed name containing the filter.
+    // There are only a few hundred distinct cities and a handful of chains, so the names are scanned.
+    private static int[] lookup(Map<String, int[]> index, String filter) {
+        BitSet positions = new BitSet();
+        index.forEach((name, list) -> {
+            if (name.contains(filter)) {
+                for (int position : list) {
+                    positions.set(position);
+                }
+            }
+        });
+        return positions.stream().toArray();
+    }
+
+    private static int[] intersect(int[] first, int[] second) {
+        int[] result = new int[Math.min(first.length, second.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] == second[j]) {
+                result[size++] = first[i];
+                i++;
+                j++;
+            } else if (first[i] < second[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static List<StoreDTO> slice(State current, int[] positions, long from, int limit) {
+        List<StoreDTO> stores = new ArrayList<>();
+        for (long i = from; i < positions.length && stores.size() < limit; i++) {
+            stores.add(current.stores[positions[(int) i]]);
+        }
+        return stores;
+    }
+
+    // Maps known variations ("ת"א", "תל-אביב") to the standard city name before the text normalization
+    private static String normalizeCity(String city) {
+        String standard = CityNameCleaner.cleanCityName(city);
+        return HebrewNormalizer.normalize(standard != null ? standard : city);
+    }
+
+    /**
+     * Tells whether a store city is usable (not empty and not the "0" placeholder).
+     */
+    public static boolean hasCity(String city) {
+        return city != null && !city.trim().isEmpty() && !city.trim().equals("0");
+    }
+
+    /**
+     * Resolves the image URL based on the chain ID.
+     *
+     * @param chainId the chain ID
+     * @return the image URL string, or null if not found
+     */
+    private String resolveImageUrl(Long chainId) {
+        if (chainId == null) return null;
+
+        if (chainId.equals(SHUFERSAL_CHAIN_ID)) return shufersalImage;
+        if (chainId.equals(RAMI_LEVI_CHAIN_ID)) return ramiLevyImage;
+        if (chainId.equals(VICTORY_CHAIN_ID)) return victoryImage;
+        return null;
+    }
+
+    private static long cellOf(double latitude, double longitude) {
+        return cellKey((int) Math.floor(latitude / GRID_CELL_DEGREES), (int) Math.floor(longitude / GRID_CELL_DEGREES));
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+
+    private static <K> Map<K, int[]> freeze(Map<K, List<Integer>> index) {
+        Map<K, int[]> frozen = new HashMap<>(index.size() * 2);
+        index.forEach((name, positions) -> frozen.put(name, positions.stream().mapToInt(Integer::intValue).toArray()));
+        return Collections.unmodifiableMap(frozen);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.mystore.services.events;
+
+/**
+ * Published whenever the item catalog or its prices were (re)loaded into the database -
+ * after the initial seeding/enrichment and after every scheduled price update.
+ *
+ * In-memory indexes listen to this event and rebuild themselves from the database.
+ */
+public class CatalogUpdatedEvent {
+    private final String source;  // Which process changed the catalog (for logging)
+
+    public CatalogUpdatedEvent(String source) {
+        this.source = source;
+    }
+
+    public String getSource() {
+        return source;
+    }
+}
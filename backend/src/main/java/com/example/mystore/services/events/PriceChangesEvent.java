@@ -0,0 +1,53 @@
+package com.example.mystore.services.events;
+
+import java.util.List;
+
+/**
+ * Published by the price ingest for every batch of prices it changed or inserted,
+ * right after the batch was saved. Only rows whose price actually changed are included;
+ * a new row (a store that did not sell the item before) has no old price.
+ */
+public class PriceChangesEvent {
+    private final List<PriceChange> changes;
+
+    public PriceChangesEvent(List<PriceChange> changes) {
+        this.changes = changes;
+    }
+
+    public List<PriceChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * One changed row of ITEM_PRICE.
+     */
+    public static class PriceChange {
+        private final String itemId;
+        private final Long storeId;
+        private final Double oldPrice;  // null for a new row
+        private final Double newPrice;
+
+        public PriceChange(String itemId, Long storeId, Double oldPrice, Double newPrice) {
+            this.itemId = itemId;
+            this.storeId = storeId;
+            this.oldPrice = oldPrice;
+            this.newPrice = newPrice;
+        }
+
+        public String getItemId() {
+            return itemId;
+        }
+
+        public Long getStoreId() {
+            return storeId;
+        }
+
+        public Double getOldPrice() {
+            return oldPrice;
+        }
+
+        public Double getNewPrice() {
+            return newPrice;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.mystore.services.indexServices;
+
+import com.example.mystore.database.entities.Item;
+import com.example.mystore.database.repositories.ItemPriceRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * AvailabilityIndex answers "which items does a store carry" from bitmaps instead of ITEM_PRICE lookups.
+ *
+ * Every store and every general, sub and specific category gets one bitmap (BitSet) of item ordinals.
+ * Questions about availability become bitmap operations:
+ * - items of category C carried by store S  -> C AND S
+ * - items carried by at least N of stores X -> count per ordinal over the bitmaps of X (OR for N = 1, AND for N = |X|)
+ *
+ * The bitmaps are built after every ingest from a single streamed pass over the key columns of ITEM_PRICE.
+ * Ordinals are dense (0..items-1), so a plain BitSet is already compact - about 1 bit per item per store.
+ */
+@Component
+public class AvailabilityIndex implements CatalogIndex {
+    private static final BitSet EMPTY = new BitSet();
+
+    private final ItemPriceRepository itemPriceRepository;
+
+    private volatile State state;
+
+    public AvailabilityIndex(ItemPriceRepository itemPriceRepository) {
+        this.itemPriceRepository = itemPriceRepository;
+    }
+
+    private static class State {
+        final CatalogSnapshot snapshot;
+        final Map<Long, BitSet> byStore;      // store ID -> ordinals of the items it carries
+        final Map<String, BitSet> general;    // category -> ordinals of its items
+        final Map<String, BitSet> sub;
+        final Map<String, BitSet> specific;
+
+        State(CatalogSnapshot snapshot, Map<Long, BitSet> byStore, Map<String, BitSet> general,
+              Map<String, BitSet> sub, Map<String, BitSet> specific) {
+            this.snapshot = snapshot;
+            this.byStore = byStore;
+            this.general = general;
+            this.sub = sub;
+            this.specific = specific;
+        }
+    }
+
+    @Override
+    @Transactional
+    public void rebuild(CatalogSnapshot snapshot) {
+        Map<String, BitSet> general = new HashMap<>();
+        Map<String, BitSet> sub = new HashMap<>();
+        Map<String, BitSet> specific = new HashMap<>();
+        for (int ordinal = 0; ordinal < snapshot.size(); ordinal++) {
+            Item item = snapshot.itemAt(ordinal);
+            set(general, item.getGeneralCategory(), ordinal);
+            set(sub, item.getSubCategory(), ordinal);
+            set(specific, item.getSpecificCategory(), ordinal);
+        }
+
+        Map<Long, BitSet> byStore = new HashMap<>();
+        try (Stream<Object[]> pairs = itemPriceRepository.streamStoreItemPairs()) {
+            pairs.forEach(pair -> {
+                int ordinal = snapshot.ordinalOf((String) pair[1]);
+                if (ordinal >= 0) {
+                    byStore.computeIfAbsent((Long) pair[0], id -> new BitSet(snapshot.size())).set(ordinal);
+                }
+            });
+        }
+
+        state = new State(snapshot, byStore, general, sub, specific);
+    }
+
+    /**
+     * Tells whether a store carries at least one item of a category.
+     *
+     * @param level category level ("General", "Sub", "Specific")
+     * @param category the name of the category
+     * @param storeId the ID of the store
+     * @return the answer, or empty if the index is not built yet
+     */
+    public Optional<Boolean> storeCarriesCategory(String level, String category, Long storeId) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        BitSet categoryItems = categoryLevel(current, level).getOrDefault(category, EMPTY);
+        BitSet storeItems = current.byStore.getOrDefault(storeId, EMPTY);
+        return Optional.of(categoryItems.intersects(storeItems));
+    }
+
+    /**
+     * Finds the items carried by at least `minStores` of the given stores, optionally limited to one category,
+     * ordered by item ID.
+     *
+     * @param level category level ("General", "Sub", "Specific"), or null for all items
+     * @param category the name of the category (ignored when level is null)
+     * @param storeIds the IDs of the stores
+     * @param minStores how many of the stores must carry an item (1 - any of them, storeIds.size() - all of them)
+     * @param page page number (starting from 0)
+     * @param size number of items per page
+     * @return the items of the page, or empty if the index is not built yet
+     */
+    public Optional<List<Item>> findCarriedByAtLeast(String level, String category, Collection<Long> storeIds,
+                                                     int minStores, int page, int size) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        BitSet matches = carriedByAtLeast(current, new LinkedHashSet<>(storeIds), minStores);
+        if (level != null) {
+            matches.and(categoryLevel(current, level).getOrDefault(category, EMPTY));
+        }
+
+        List<Item> items = new ArrayList<>();
+        long skip = (long) page * size;
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0 && items.size() < size; ordinal = matches.nextSetBit(ordinal + 1)) {
+            if (skip > 0) {
+                skip--;
+            } else {
+                items.add(current.snapshot.itemAt(ordinal));
+            }
+        }
+        return Optional.of(items);
+    }
+
+    // Builds a new bitmap - the stored bitmaps are never modified
+    private static BitSet carriedByAtLeast(State current, Set<Long> storeIds, int minStores) {
+        List<BitSet> bitmaps = new ArrayList<>(storeIds.size());
+        for (Long storeId : storeIds) {
+            bitmaps.add(current.byStore.getOrDefault(storeId, EMPTY));
+        }
+        if (minStores > bitmaps.size()) {
+            return new BitSet();
+        }
+
+        BitSet result = new BitSet(current.snapshot.size());
+        if (minStores <= 1) {
+            bitmaps.forEach(result::or);
+        } else if (minStores == bitmaps.size()) {
+            // Start from the smallest bitmap, so the intersection shrinks as fast as possible
+            bitmaps.sort(Comparator.comparingInt(BitSet::cardinality));
+            result.or(bitmaps.get(0));
+            for (int i = 1; i < bitmaps.size() && !result.isEmpty(); i++) {
+                result.and(bitmaps.get(i));
+            }
+        } else {
+            int[] counts = new int[current.snapshot.size()];
+            for (BitSet bitmap : bitmaps) {
+                for (int ordinal = bitmap.nextSetBit(0); ordinal >= 0; ordinal = bitmap.nextSetBit(ordinal + 1)) {
+                    if (++counts[ordinal] == minStores) {
+                        result.set(ordinal);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private Map<String, BitSet> categoryLevel(State current, String level) {
+        if ("General".equalsIgnoreCase(level)) {
+            return current.general;
+        } else if ("Sub".equalsIgnoreCase(level)) {
+            return current.sub;
+        } else if ("Specific".equalsIgnoreCase(level)) {
+            return current.specific;
+        }
+        throw new IllegalArgumentException("Invalid category level: " + level);
+    }
+
+    private static void set(Map<String, BitSet> byCategory, String category, int ordinal) {
+        if (category != null) {
+            byCategory.computeIfAbsent(category, c -> new BitSet()).set(ordinal);
+        }
+    }
+}
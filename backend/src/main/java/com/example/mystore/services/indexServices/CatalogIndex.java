@@ -0,0 +1,17 @@
+package com.example.mystore.services.indexServices;
+
+/**
+ * An in-memory index over the item catalog.
+ * Implementations are rebuilt by CatalogIndexService whenever the catalog changes.
+ * A rebuild must build the new structures aside and publish them with a single
+ * reference swap, so readers never see a half-built index.
+ */
+public interface CatalogIndex {
+
+    /**
+     * Rebuilds the index from the given snapshot.
+     *
+     * @param snapshot the current catalog
+     */
+    void rebuild(CatalogSnapshot snapshot);
+}
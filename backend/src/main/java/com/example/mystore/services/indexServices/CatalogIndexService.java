@@ -0,0 +1,99 @@
+package com.example.mystore.services.indexServices;
+
+import com.example.mystore.database.entities.Item;
+import com.example.mystore.database.repositories.ItemRepository;
+import com.example.mystore.services.events.CatalogUpdatedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * CatalogIndexService keeps all in-memory catalog indexes (CatalogIndex beans) up to date.
+ *
+ * On every CatalogUpdatedEvent it loads the ITEM table once, builds a CatalogSnapshot
+ * and hands it to every index. The rebuild runs on a single background thread, so
+ * requests keep being served by the previous indexes until the new ones are swapped in.
+ * Events that arrive while a rebuild is already queued are coalesced into it.
+ */
+@Service
+public class CatalogIndexService {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogIndexService.class);
+
+    private final ItemRepository itemRepository;
+    private final List<CatalogIndex> indexes;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildPending = new AtomicBoolean(false);
+
+    private volatile CatalogSnapshot snapshot;
+    private long nextVersion = 1;  // Only touched by the rebuild thread
+
+    public CatalogIndexService(ItemRepository itemRepository, List<CatalogIndex> indexes) {
+        this.itemRepository = itemRepository;
+        this.indexes = indexes;
+    }
+
+    @EventListener
+    public void onCatalogUpdated(CatalogUpdatedEvent event) {
+        logger.info("Catalog updated by {} - scheduling index rebuild.", event.getSource());
+        requestRebuild();
+    }
+
+    /**
+     * Schedules a rebuild of all catalog indexes, unless one is already waiting to run.
+     */
+    public void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.submit(this::rebuild);
+        }
+    }
+
+    /**
+     * Returns the snapshot the current indexes were built from.
+     *
+     * @return the current snapshot, or null if the indexes were not built yet
+     */
+    public CatalogSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    private void rebuild() {
+        rebuildPending.set(false);
+        long start = System.currentTimeMillis();
+        try {
+            List<Item> items = new ArrayList<>(itemRepository.findAll());
+            // Sorted in Java so the order matches String.compareTo regardless of the DB collation
+            items.sort(Comparator.comparing(Item::getItemID));
+            CatalogSnapshot newSnapshot = new CatalogSnapshot(nextVersion++, items);
+
+            for (CatalogIndex index : indexes) {
+                try {
+                    index.rebuild(newSnapshot);
+                } catch (Exception e) {
+                    logger.error("Failed to rebuild {}", index.getClass().getSimpleName(), e);
+                }
+            }
+            snapshot = newSnapshot;
+            logger.info("Catalog indexes rebuilt: {} items in {} ms.", newSnapshot.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Catalog index rebuild failed:", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
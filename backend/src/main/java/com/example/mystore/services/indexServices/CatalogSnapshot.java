@@ -0,0 +1,62 @@
+package com.example.mystore.services.indexServices;
+
+import com.example.mystore.database.entities.Item;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable, in-memory copy of the ITEM table, sorted by item ID.
+ *
+ * Every item gets an ordinal - its position in the sorted array.
+ * In-memory indexes store ordinals (plain ints) instead of item IDs or entities,
+ * so posting lists and bitmaps stay compact and can be resolved back with itemAt().
+ */
+public class CatalogSnapshot {
+    private final long version;      // Increases with every rebuild
+    private final String[] itemIds;  // Sorted ascending
+    private final Item[] items;      // items[i] has the ID itemIds[i]
+
+    public CatalogSnapshot(long version, List<Item> itemsSortedById) {
+        this.version = version;
+        this.items = itemsSortedById.toArray(new Item[0]);
+        this.itemIds = new String[items.length];
+        for (int i = 0; i < items.length; i++) {
+            itemIds[i] = items[i].getItemID();
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    public Item itemAt(int ordinal) {
+        return items[ordinal];
+    }
+
+    public String idAt(int ordinal) {
+        return itemIds[ordinal];
+    }
+
+    /**
+     * Finds the ordinal of an item by its ID (binary search).
+     *
+     * @param itemId the item ID
+     * @return the ordinal, or -1 if the item is not in the snapshot
+     */
+    public int ordinalOf(String itemId) {
+        int index = Arrays.binarySearch(itemIds, itemId);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Returns the sorted item IDs. The array is shared - callers must not modify it.
+     */
+    String[] sortedIds() {
+        return itemIds;
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.mystore.services.indexServices;
+
+import com.example.mystore.database.entities.Item;
+import com.example.mystore.dto.api.response.FacetCountsDTO;
+import com.example.mystore.dto.api.response.FacetValueDTO;
+import com.example.mystore.services.apiServices.ItemService;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * FacetIndex filters item listings by manufacturer, manufacture country and weighted flag,
+ * and counts the items of every filter value - without a GROUP BY over the ITEM table.
+ *
+ * After every catalog rebuild it precomputes:
+ * - a bitmap of item ordinals per manufacturer, per country and for weighted items (used to filter);
+ * - the manufacturer and country of every ordinal as a small int (used to count);
+ * - a bitmap per category of the items shown in the category listing (sold in at least ItemService.MIN_STORES stores).
+ * A request intersects the listing (a category, or the matches of ItemNameIndex) with the selected
+ * filters and counts in a single pass over the result, so the cost depends on the listing size only.
+ *
+ * Counts are disjunctive: every filter is counted with the other selected filters applied but not itself.
+ */
+@Component
+public class FacetIndex implements CatalogIndex {
+    public static final int MAX_FACET_VALUES = 50;
+    private static final BitSet EMPTY = new BitSet();
+    private static final int NONE = -1;  // The item has no value for the facet
+
+    private final ItemNameIndex itemNameIndex;
+
+    private volatile State state;
+
+    public FacetIndex(ItemNameIndex itemNameIndex) {
+        this.itemNameIndex = itemNameIndex;
+    }
+
+    // One facet: distinct values, the value of every ordinal and the ordinals of every value
+    private static class Facet {
+        final String[] values;
+        final int[] valueOf;          // By ordinal, index into values or NONE
+        final Map<String, BitSet> items;
+
+        Facet(String[] values, int[] valueOf, Map<String, BitSet> items) {
+            this.values = values;
+            this.valueOf = valueOf;
+            this.items = items;
+        }
+    }
+
+    private static class State {
+        final CatalogSnapshot snapshot;
+        final Facet manufacturers;
+        final Facet countries;
+        final BitSet weighted;
+        final Map<String, BitSet> general;   // category -> ordinals of its listing
+        final Map<String, BitSet> sub;
+        final Map<String, BitSet> specific;
+
+        State(CatalogSnapshot snapshot, Facet manufacturers, Facet countries, BitSet weighted,
+              Map<String, BitSet> general, Map<String, BitSet> sub, Map<String, BitSet> specific) {
+            this.snapshot = snapshot;
+            this.manufacturers = manufacturers;
+            this.countries = countries;
+            this.weighted = weighted;
+            this.general = general;
+            this.sub = sub;
+            this.specific = specific;
+        }
+    }
+
+    /**
+     * One filtered page of a listing with its facet counts.
+     */
+    public static class Result {
+        private final List<Item> items;
+        private final int total;
+        private final FacetCountsDTO facets;
+
+        Result(List<Item> items, int total, FacetCountsDTO facets) {
+            this.items = items;
+            this.total = total;
+            this.facets = facets;
+        }
+
+        public List<Item> getItems() {
+            return items;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public FacetCountsDTO getFacets() {
+            return facets;
+        }
+    }
+
+    @Override
+    public void rebuild(CatalogSnapshot snapshot) {
+        int size = snapshot.size();
+        BitSet weighted = new BitSet(size);
+        Map<String, BitSet> general = new HashMap<>();
+        Map<String, BitSet> sub = new HashMap<>();
+        Map<String, BitSet> specific = new HashMap<>();
+
+        String[] manufacturerOf = new String[size];
+        String[] countryOf = new String[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            Item item = snapshot.itemAt(ordinal);
+            manufacturerOf[ordinal] = item.getManufacturerName();
+            countryOf[ordinal] = item.getManufactureCountry();
+            if (Boolean.TRUE.equals(item.getBIsWeighted())) {
+                weighted.set(ordinal);
+            }
+            if (item.getStoreCount() != null && item.getStoreCount() >= ItemService.MIN_STORES) {
+                set(general, item.getGeneralCategory(), ordinal);
+                set(sub, item.getSubCategory(), ordinal);
+                set(specific, item.getSpecificCategory(), ordinal);
+            }
+        }
+
+        state = new State(snapshot, buildFacet(manufacturerOf), buildFacet(countryOf), weighted, general, sub, specific);
+    }
+
+    /**
+     * Filters a category listing and counts its facets.
+     *
+     * @param level category level ("General", "Sub", "Specific")
+     * @param category the name of the category
+     * @param manufacturer selected manufacturer (null for any)
+     * @param country selected manufacture country (null for any)
+     * @param weighted selected weighted flag (null for any)
+     * @param page page number (starting from 0)
+     * @param size number of items per page
+     * @return the page and the counts, or empty if the index is not built yet
+     */
+    public Optional<Result> browseCategory(String level, String category, String manufacturer, String country,
+                                           Boolean weighted, int page, int size) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        BitSet listing = categoryLevel(current, level).getOrDefault(category, EMPTY);
+        return Optional.of(filterAndCount(current, listing, manufacturer, country, weighted, page, size));
+    }
+
+    /**
+     * Filters the name search results and counts their facets.
+     *
+     * @param query the text typed by the user
+     * @param manufacturer selected manufacturer (null for any)
+     * @param country selected manufacture country (null for any)
+     * @param weighted selected weighted flag (null for any)
+     * @param page page number (starting from 0)
+     * @param size number of items per page
+     * @return the page and the counts, or empty if the indexes are not built (or not yet rebuilt from the same snapshot)
+     */
+    public Optional<Result> search(String query, String manufacturer, String country, Boolean weighted, int page, int size) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        return itemNameIndex.matchingOrdinals(query, current.snapshot)
+                .map(matches -> filterAndCount(current, matches, manufacturer, country, weighted, page, size));
+    }
+
+    private Result filterAndCount(State current, BitSet listing, String manufacturer, String country,
+                                  Boolean weighted, int page, int size) {
+        BitSet byManufacturer = manufacturer == null ? null : current.manufacturers.items.getOrDefault(manufacturer, EMPTY);
+        BitSet byCountry = country == null ? null : current.countries.items.getOrDefault(country, EMPTY);
+
+        // Every facet is counted over the listing filtered by the other two facets
+        BitSet forManufacturers = and(current, listing, null, byCountry, weighted);
+        BitSet forCountries = and(current, listing, byManufacturer, null, weighted);
+        BitSet forWeighted = and(current, listing, byManufacturer, byCountry, null);
+
+        int[] manufacturerCounts = count(current.manufacturers, forManufacturers);
+        int[] countryCounts = count(current.countries, forCountries);
+        int weightedCount = and(current, forWeighted, null, null, true).cardinality();
+        int notWeightedCount = forWeighted.cardinality() - weightedCount;
+
+        // The result itself has all three filters applied
+        BitSet result = and(current, forManufacturers, byManufacturer, null, null);
+        List<Item> items = new ArrayList<>();
+        long skip = (long) page * size;
+        for (int ordinal = result.nextSetBit(0); ordinal >= 0 && items.size() < size; ordinal = result.nextSetBit(ordinal + 1)) {
+            if (skip > 0) {
+                skip--;
+            } else {
+                items.add(current.snapshot.itemAt(ordinal));
+            }
+        }
+
+        FacetCountsDTO facets = new FacetCountsDTO(
+                topValues(current.manufacturers, manufacturerCounts),
+                topValues(current.countries, countryCounts),
+                weightedCount,
+                notWeightedCount);
+        return new Result(items, result.cardinality(), facets);
+    }
+
+    // Returns a new bitmap: listing AND each given filter (null filters are skipped)
+    private static BitSet and(State current, BitSet listing, BitSet byManufacturer, BitSet byCountry, Boolean weighted) {
+        BitSet result = (BitSet) listing.clone();
+        if (byManufacturer != null) {
+            result.and(byManufacturer);
+        }
+        if (byCountry != null) {
+            result.and(byCountry);
+        }
+        if (Boolean.TRUE.equals(weighted)) {
+            result.and(current.weighted);
+        } else if (Boolean.FALSE.equals(weighted)) {
+            result.andNot(current.weighted);
+        }
+        return result;
+    }
+
+    private static int[] count(Facet facet, BitSet ordinals) {
+        int[] counts = new int[facet.values.length];
+        for (int ordinal = ordinals.nextSetBit(0); ordinal >= 0; ordinal = ordinals.nextSetBit(ordinal + 1)) {
+            int value = facet.valueOf[ordinal];
+            if (value != NONE) {
+                counts[value]++;
+            }
+        }
+        return counts;
+    }
+
+    // The values with at least one item, most items first (ties by value), at most MAX_FACET_VALUES
+    private static List<FacetValueDTO> topValues(Facet facet, int[] counts) {
+        List<FacetValueDTO> values = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                values.add(new FacetValueDTO(facet.values[i], counts[i]));
+            }
+        }
+        values.sort(Comparator.comparingInt(FacetValueDTO::getCount).reversed().thenComparing(FacetValueDTO::getValue));
+        return values.size() > MAX_FACET_VALUES ? new ArrayList<>(values.subList(0, MAX_FACET_VALUES)) : values;
+    }
+
+    private static Facet buildFacet(String[] valueByOrdinal) {
+        Map<String, Integer> indexOfValue = new HashMap<>();
+        List<String> values = new ArrayList<>();
+        Map<String, BitSet> items = new HashMap<>();
+        int[] valueOf = new int[valueByOrdinal.length];
+
+        for (int ordinal = 0; ordinal < valueByOrdinal.length; ordinal++) {
+            String value = valueByOrdinal[ordinal];
+            if (value == null || value.isBlank()) {
+                valueOf[ordinal] = NONE;
+                continue;
+            }
+            Integer index = indexOfValue.get(value);
+            if (index == null) {
+                index = values.size();
+                indexOfValue.put(value, index);
+                values.add(value);
+            }
+            valueOf[ordinal] = index;
+            items.computeIfAbsent(value, v -> new BitSet()).set(ordinal);
+        }
+        return new Facet(values.toArray(new String[0]), valueOf, items);
+    }
+
+    private Map<String, BitSet> categoryLevel(State current, String level) {
+        if ("General".equalsIgnoreCase(level)) {
+            return current.general;
+        } else if ("Sub".equalsIgnoreCase(level)) {
+            return current.sub;
+        } else if ("Specific".equalsIgnoreCase(level)) {
+            return current.specific;
+        }
+        throw new IllegalArgumentException("Invalid category level: " + level);
+    }
+
+    private static void set(Map<String, BitSet> byCategory, String category, int ordinal) {
+        if (category != null) {
+            byCategory.computeIfAbsent(category, c -> new BitSet()).set(ordinal);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.mystore.services.indexServices;
+
+import com.example.mystore.database.entities.Item;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * ItemIdIndex answers barcode (item ID) prefix and suffix lookups from sorted arrays.
+ *
+ * - Prefix: the snapshot IDs are already sorted, so all IDs starting with a prefix form
+ *   one contiguous range, found with two binary searches.
+ * - Suffix: the same trick on a second array holding every ID reversed.
+ *
+ * Both lookups are O(log n) and the size of the range is the total number of matches,
+ * so paging needs no COUNT query.
+ */
+@Component
+public class ItemIdIndex implements CatalogIndex {
+
+    private volatile State state;
+
+    private static class State {
+        final CatalogSnapshot snapshot;
+        final String[] reversedIds;     // Sorted ascending
+        final int[] reversedOrdinals;   // reversedOrdinals[i] is the ordinal of reversedIds[i]
+
+        State(CatalogSnapshot snapshot, String[] reversedIds, int[] reversedOrdinals) {
+            this.snapshot = snapshot;
+            this.reversedIds = reversedIds;
+            this.reversedOrdinals = reversedOrdinals;
+        }
+    }
+
+    @Override
+    public void rebuild(CatalogSnapshot snapshot) {
+        int size = snapshot.size();
+        Integer[] order = new Integer[size];
+        String[] reversed = new String[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            order[ordinal] = ordinal;
+            reversed[ordinal] = new StringBuilder(snapshot.idAt(ordinal)).reverse().toString();
+        }
+        Arrays.sort(order, Comparator.comparing(ordinal -> reversed[ordinal]));
+
+        String[] reversedIds = new String[size];
+        int[] reversedOrdinals = new int[size];
+        for (int i = 0; i < size; i++) {
+            reversedIds[i] = reversed[order[i]];
+            reversedOrdinals[i] = order[i];
+        }
+        state = new State(snapshot, reversedIds, reversedOrdinals);
+    }
+
+    /**
+     * Finds items whose ID starts with the given prefix, ordered by item ID.
+     *
+     * @param prefix the typed digits
+     * @param pageable the requested page
+     * @return the page of matching items, or empty if the index is not built yet
+     */
+    public Optional<Page<Item>> findByPrefix(String prefix, Pageable pageable) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        String[] ids = current.snapshot.sortedIds();
+        int from = lowerBound(ids, prefix);
+        int to = upperBoundOfPrefix(ids, prefix, from);
+        return Optional.of(page(current, from, to, pageable, ordinal -> ordinal));
+    }
+
+    /**
+     * Finds items whose ID ends with the given suffix.
+     *
+     * @param suffix the typed digits
+     * @param pageable the requested page
+     * @return the page of matching items, or empty if the index is not built yet
+     */
+    public Optional<Page<Item>> findBySuffix(String suffix, Pageable pageable) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        String reversedSuffix = new StringBuilder(suffix).reverse().toString();
+        int from = lowerBound(current.reversedIds, reversedSuffix);
+        int to = upperBoundOfPrefix(current.reversedIds, reversedSuffix, from);
+        return Optional.of(page(current, from, to, pageable, position -> current.reversedOrdinals[position]));
+    }
+
+    /**
+     * Keyset variant of findByPrefix(): up to `limit` items after `afterItemId`, ordered by item ID.
+     *
+     * @param prefix the typed digits
+     * @param afterItemId the last item ID of the previous page (null for the first page)
+     * @param limit the maximum number of items to return
+     * @return the matching items, or empty if the index is not built yet
+     */
+    public Optional<List<Item>> findByPrefixAfter(String prefix, String afterItemId, int limit) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        String[] ids = current.snapshot.sortedIds();
+        int from = lowerBound(ids, prefix);
+        int to = upperBoundOfPrefix(ids, prefix, from);
+        if (afterItemId != null) {
+            from = Math.max(from, upperBound(ids, afterItemId));
+        }
+        return Optional.of(slice(current, from, to, limit, ordinal -> ordinal));
+    }
+
+    /**
+     * Keyset variant of findBySuffix(): up to `limit` items after `afterItemId`, ordered by item ID -
+     * the order of the database fallback, so a cursor stays valid whichever of the two serves the next page.
+     * The matches are one range of the reversed IDs; the `limit` lowest IDs after the cursor are picked from it
+     * with a bounded heap, without sorting the whole range.
+     *
+     * @param suffix the typed digits
+     * @param afterItemId the last item ID of the previous page (null for the first page)
+     * @param limit the maximum number of items to return
+     * @return the matching items, or empty if the index is not built yet
+     */
+    public Optional<List<Item>> findBySuffixAfter(String suffix, String afterItemId, int limit) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        String reversedSuffix = new StringBuilder(suffix).reverse().toString();
+        int from = lowerBound(current.reversedIds, reversedSuffix);
+        int to = upperBoundOfPrefix(current.reversedIds, reversedSuffix, from);
+        // Ordinals follow item ID order, so "after the cursor" is "ordinal >= firstOrdinal"
+        int firstOrdinal = afterItemId == null ? 0 : upperBound(current.snapshot.sortedIds(), afterItemId);
+
+        PriorityQueue<Integer> lowest = new PriorityQueue<>(Comparator.reverseOrder());  // Max-heap of the kept ordinals
+        for (int position = from; position < to; position++) {
+            int ordinal = current.reversedOrdinals[position];
+            if (ordinal < firstOrdinal) {
+                continue;
+            }
+            if (lowest.size() < limit) {
+                lowest.add(ordinal);
+            } else if (limit > 0 && ordinal < lowest.peek()) {
+                lowest.poll();
+                lowest.add(ordinal);
+            }
+        }
+        int[] ordinals = lowest.stream().mapToInt(Integer::intValue).sorted().toArray();
+        List<Item> content = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            content.add(current.snapshot.itemAt(ordinal));
+        }
+        return Optional.of(content);
+    }
+
+    private List<Item> slice(State current, int from, int to, int limit, IntUnaryOperator toOrdinal) {
+        List<Item> content = new ArrayList<>();
+        for (int position = from; position < to && content.size() < limit; position++) {
+            content.add(current.snapshot.itemAt(toOrdinal.applyAsInt(position)));
+        }
+        return content;
+    }
+
+    private Page<Item> page(State current, int from, int to, Pageable pageable, IntUnaryOperator toOrdinal) {
+        List<Item> content = new ArrayList<>();
+        long start = from + pageable.getOffset();
+        long end = Math.min(start + pageable.getPageSize(), to);
+        for (long position = start; position < end; position++) {
+            content.add(current.snapshot.itemAt(toOrdinal.applyAsInt((int) position)));
+        }
+        return new PageImpl<>(content, pageable, to - from);
+    }
+
+    // First position whose value is >= key
+    private static int lowerBound(String[] sorted, String key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First position whose value is > key
+    private static int upperBound(String[] sorted, String key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].compareTo(key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First position at or after `from` whose value does not start with the prefix
+    private static int upperBoundOfPrefix(String[] sorted, String prefix, int from) {
+        int low = from;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.mystore.services.indexServices;
+
+import com.example.mystore.database.entities.Item;
+import com.example.mystore.utils.HebrewNormalizer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * ItemNameIndex is an in-memory n-gram inverted index over normalized item names
+ * (see HebrewNormalizer). It replaces the `LIKE '%query%'` scan of the ITEM table.
+ *
+ * Every n-gram of length 1-3 of a name points to a sorted posting list of item ordinals.
+ * - A query of up to 3 characters is a single n-gram - its posting list is the exact answer.
+ * - A longer query is answered by intersecting the posting lists of its trigrams
+ *   (shortest list first) and verifying each candidate with a substring check.
+ *
+ * The work depends on the size of the posting lists, not on the size of the catalog,
+ * and the total is known after the intersection - so pages are built without a COUNT query.
+ */
+@Component
+public class ItemNameIndex implements CatalogIndex {
+    private static final int MAX_GRAM = 3;
+    private static final int[] EMPTY = new int[0];
+
+    private volatile State state;
+
+    // Everything a query needs, swapped as a single reference
+    private static class State {
+        final CatalogSnapshot snapshot;
+        final String[] normalizedNames;     // By ordinal
+        final Map<String, int[]> postings;  // n-gram -> sorted ordinals
+
+        State(CatalogSnapshot snapshot, String[] normalizedNames, Map<String, int[]> postings) {
+            this.snapshot = snapshot;
+            this.normalizedNames = normalizedNames;
+            this.postings = postings;
+        }
+    }
+
+    @Override
+    public void rebuild(CatalogSnapshot snapshot) {
+        String[] normalizedNames = new String[snapshot.size()];
+        Map<String, IntArrayBuilder> builders = new HashMap<>();
+        Set<String> gramsOfName = new HashSet<>();
+
+        for (int ordinal = 0; ordinal < snapshot.size(); ordinal++) {
+            String name = HebrewNormalizer.normalize(snapshot.itemAt(ordinal).getItemName());
+            normalizedNames[ordinal] = name;
+
+            gramsOfName.clear();
+            addGrams(name, gramsOfName);
+            for (String gram : gramsOfName) {
+                // Ordinals are visited in ascending order, so every posting list comes out sorted
+                builders.computeIfAbsent(gram, g -> new IntArrayBuilder()).add(ordinal);
+            }
+        }
+
+        Map<String, int[]> postings = new HashMap<>(builders.size() * 2);
+        builders.forEach((gram, builder) -> postings.put(gram, builder.toArray()));
+        state = new State(snapshot, normalizedNames, postings);
+    }
+
+    /**
+     * Returns true once the index was built at least once.
+     */
+    public boolean isReady() {
+        return state != null;
+    }
+
+    /**
+     * Searches items whose normalized name contains the normalized query.
+     * Results are ordered by item ID.
+     *
+     * @param query the text typed by the user
+     * @param pageable the requested page
+     * @return the page of matching items, or empty if the index is not built yet
+     */
+    public Optional<Page<Item>> search(String query, Pageable pageable) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+
+        int[] matches = findMatches(current, HebrewNormalizer.normalize(query));
+
+        List<Item> content = new ArrayList<>();
+        long from = pageable.getOffset();
+        long to = Math.min(from + pageable.getPageSize(), matches.length);
+        for (long i = from; i < to; i++) {
+            content.add(current.snapshot.itemAt(matches[(int) i]));
+        }
+        return Optional.of(new PageImpl<>(content, pageable, matches.length));
+    }
+
+    /**
+     * Keyset variant of search(): returns up to `limit` matching items whose ID is greater than `afterItemId`,
+     * ordered by item ID.
+     *
+     * @param query the text typed by the user
+     * @param afterItemId the last item ID of the previous page (null for the first page)
+     * @param limit the maximum number of items to return
+     * @return the matching items, or empty if the index is not built yet
+     */
+    public Optional<List<Item>> searchAfter(String query, String afterItemId, int limit) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+
+        int[] matches = findMatches(current, HebrewNormalizer.normalize(query));
+
+        // Ordinals follow item ID order, so the first match after the cursor is found by binary search
+        int low = 0;
+        int high = matches.length;
+        while (afterItemId != null && low < high) {
+            int mid = (low + high) >>> 1;
+            if (current.snapshot.idAt(matches[mid]).compareTo(afterItemId) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        List<Item> content = new ArrayList<>();
+        for (int i = low; i < matches.length && content.size() < limit; i++) {
+            content.add(current.snapshot.itemAt(matches[i]));
+        }
+        return Optional.of(content);
+    }
+
+    /**
+     * Returns the ordinals of all items matching the query as a bitmap, for combining with other indexes.
+     *
+     * @param query the text typed by the user
+     * @param snapshot the snapshot the caller's ordinals refer to
+     * @return the matching ordinals, or empty if the index is not built yet or was built from another snapshot
+     */
+    public Optional<BitSet> matchingOrdinals(String query, CatalogSnapshot snapshot) {
+        State current = state;
+        if (current == null || current.snapshot != snapshot) {
+            return Optional.empty();
+        }
+        BitSet matches = new BitSet(snapshot.size());
+        for (int ordinal : findMatches(current, HebrewNormalizer.normalize(query))) {
+            matches.set(ordinal);
+        }
+        return Optional.of(matches);
+    }
+
+    private int[] findMatches(State current, String query) {
+        if (query.isEmpty()) {
+            return EMPTY;
+        }
+        if (query.length() <= MAX_GRAM) {
+            return current.postings.getOrDefault(query, EMPTY);
+        }
+
+        // Collect the posting lists of all the query trigrams, shortest first
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + MAX_GRAM <= query.length(); i++) {
+            grams.add(query.substring(i, i + MAX_GRAM));
+        }
+        List<int[]> lists = new ArrayList<>();
+        for (String gram : grams) {
+            int[] list = current.postings.get(gram);
+            if (list == null) {
+                return EMPTY;  // One missing trigram means nothing can match
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length));
+
+        int[] candidates = lists.get(0);
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists.get(i));
+        }
+
+        // Having all trigrams does not guarantee they are adjacent - verify
+        IntArrayBuilder verified = new IntArrayBuilder();
+        for (int ordinal : candidates) {
+            if (current.normalizedNames[ordinal].contains(query)) {
+                verified.add(ordinal);
+            }
+        }
+        return verified.toArray();
+    }
+
+    // Intersects two sorted arrays, galloping through the longer one
+    private static int[] intersect(int[] shorter, int[] longer) {
+        IntArrayBuilder result = new IntArrayBuilder();
+        int from = 0;
+        for (int value : shorter) {
+            int index = Arrays.binarySearch(longer, from, longer.length, value);
+            if (index >= 0) {
+                result.add(value);
+                from = index + 1;
+            } else {
+                from = -index - 1;
+            }
+            if (from >= longer.length) {
+                break;
+            }
+        }
+        return result.toArray();
+    }
+
+    private static void addGrams(String name, Set<String> grams) {
+        for (int start = 0; start < name.length(); start++) {
+            for (int length = 1; length <= MAX_GRAM && start + length <= name.length(); length++) {
+                grams.add(name.substring(start, start + length));
+            }
+        }
+    }
+
+    // Minimal growable int array, avoids boxing while building posting lists
+    static class IntArrayBuilder {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
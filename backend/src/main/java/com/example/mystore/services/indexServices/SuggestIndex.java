@@ -0,0 +1,226 @@
+package com.example.mystore.services.indexServices;
+
+import com.example.mystore.database.entities.Item;
+import com.example.mystore.database.repositories.CartItemRepository;
+import com.example.mystore.dto.api.response.SuggestionDTO;
+import com.example.mystore.utils.HebrewNormalizer;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * SuggestIndex serves typeahead suggestions (item names and manufacturer names) from memory.
+ *
+ * Every word start of a normalized name becomes a key ("חלב תנובה 3%" -> "חלב תנובה 3", "תנובה 3", "3"),
+ * and all keys are kept in one sorted array, so the keys starting with a prefix form a contiguous range.
+ * - Short prefixes (up to PRECOMPUTED_PREFIX_LENGTH characters) match huge ranges, so their
+ *   top suggestions are computed once per rebuild.
+ * - Longer prefixes scan their (small) range and pick the top suggestions with a heap.
+ *
+ * Suggestions are ranked by popularity:
+ *   item score = number of stores selling the item (store_count) + CART_WEIGHT * number of carts containing it
+ *   manufacturer score = the score of its most popular item
+ */
+@Component
+public class SuggestIndex implements CatalogIndex {
+    public static final int MAX_SUGGESTIONS = 20;
+    private static final int PRECOMPUTED_PREFIX_LENGTH = 3;
+    private static final double CART_WEIGHT = 5.0;
+
+    private final CartItemRepository cartItemRepository;
+
+    private volatile State state;
+
+    public SuggestIndex(CartItemRepository cartItemRepository) {
+        this.cartItemRepository = cartItemRepository;
+    }
+
+    private static class State {
+        final SuggestionDTO[] suggestions;          // One per item / manufacturer
+        final String[] keys;                        // Sorted word-start keys
+        final int[] suggestionOfKey;                // keys[i] belongs to suggestions[suggestionOfKey[i]]
+        final Map<String, int[]> precomputedTopK;   // Short prefix -> suggestion indexes, best first
+
+        State(SuggestionDTO[] suggestions, String[] keys, int[] suggestionOfKey, Map<String, int[]> precomputedTopK) {
+            this.suggestions = suggestions;
+            this.keys = keys;
+            this.suggestionOfKey = suggestionOfKey;
+            this.precomputedTopK = precomputedTopK;
+        }
+    }
+
+    @Override
+    public void rebuild(CatalogSnapshot snapshot) {
+        Map<String, Long> cartCounts = loadCartCounts();
+
+        List<SuggestionDTO> suggestions = new ArrayList<>();
+        List<String> normalizedTexts = new ArrayList<>();
+        Map<String, Integer> manufacturerIndex = new HashMap<>();
+
+        for (int ordinal = 0; ordinal < snapshot.size(); ordinal++) {
+            Item item = snapshot.itemAt(ordinal);
+            double score = (item.getStoreCount() == null ? 0 : item.getStoreCount())
+                    + CART_WEIGHT * cartCounts.getOrDefault(item.getItemID(), 0L);
+
+            String name = HebrewNormalizer.normalize(item.getItemName());
+            if (!name.isEmpty()) {
+                suggestions.add(new SuggestionDTO(item.getItemName(), "ITEM", item.getItemID(), item.getImageUrl(), score));
+                normalizedTexts.add(name);
+            }
+
+            String manufacturer = HebrewNormalizer.normalize(item.getManufacturerName());
+            if (!manufacturer.isEmpty()) {
+                Integer index = manufacturerIndex.get(manufacturer);
+                if (index == null) {
+                    manufacturerIndex.put(manufacturer, suggestions.size());
+                    suggestions.add(new SuggestionDTO(item.getManufacturerName().trim(), "MANUFACTURER", null, null, score));
+                    normalizedTexts.add(manufacturer);
+                } else if (suggestions.get(index).getScore() < score) {
+                    suggestions.get(index).setScore(score);
+                }
+            }
+        }
+
+        // Word-start keys, sorted
+        List<String> keyList = new ArrayList<>();
+        List<Integer> ownerList = new ArrayList<>();
+        for (int i = 0; i < normalizedTexts.size(); i++) {
+            for (String key : wordStarts(normalizedTexts.get(i))) {
+                keyList.add(key);
+                ownerList.add(i);
+            }
+        }
+        Integer[] order = new Integer[keyList.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(keyList::get));
+        String[] keys = new String[order.length];
+        int[] suggestionOfKey = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            keys[i] = keyList.get(order[i]);
+            suggestionOfKey[i] = ownerList.get(order[i]);
+        }
+
+        SuggestionDTO[] suggestionArray = suggestions.toArray(new SuggestionDTO[0]);
+        state = new State(suggestionArray, keys, suggestionOfKey,
+                precomputeShortPrefixes(suggestionArray, normalizedTexts));
+    }
+
+    /**
+     * Returns the most popular suggestions whose text has a word starting with the prefix.
+     *
+     * @param prefix the text typed so far
+     * @param limit the maximum number of suggestions (capped at MAX_SUGGESTIONS)
+     * @return suggestions ordered by popularity (empty if the index is not built yet)
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        State current = state;
+        String normalized = HebrewNormalizer.normalize(prefix);
+        int k = Math.min(Math.max(limit, 1), MAX_SUGGESTIONS);
+        if (current == null || normalized.isEmpty()) {
+            return List.of();
+        }
+
+        int[] top;
+        if (normalized.length() <= PRECOMPUTED_PREFIX_LENGTH) {
+            top = current.precomputedTopK.getOrDefault(normalized, new int[0]);
+        } else {
+            top = scanRange(current, normalized, k);
+        }
+
+        List<SuggestionDTO> result = new ArrayList<>();
+        for (int i = 0; i < top.length && i < k; i++) {
+            result.add(current.suggestions[top[i]]);
+        }
+        return result;
+    }
+
+    // Picks the top k distinct suggestions among the keys starting with the prefix
+    private int[] scanRange(State current, String prefix, int k) {
+        int from = lowerBound(current.keys, prefix);
+        Set<Integer> seen = new HashSet<>();
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Comparator.comparingDouble(i -> current.suggestions[i].getScore()));
+
+        for (int position = from; position < current.keys.length && current.keys[position].startsWith(prefix); position++) {
+            int suggestion = current.suggestionOfKey[position];
+            if (seen.add(suggestion)) {
+                heap.offer(suggestion);
+                if (heap.size() > k) {
+                    heap.poll();
+                }
+            }
+        }
+        return drainBestFirst(heap);
+    }
+
+    // Computes the top MAX_SUGGESTIONS for every prefix of up to PRECOMPUTED_PREFIX_LENGTH characters
+    private Map<String, int[]> precomputeShortPrefixes(SuggestionDTO[] suggestions, List<String> normalizedTexts) {
+        Map<String, PriorityQueue<Integer>> heaps = new HashMap<>();
+        Comparator<Integer> byScore = Comparator.comparingDouble(i -> suggestions[i].getScore());
+        Set<String> prefixesOfText = new HashSet<>();
+
+        for (int i = 0; i < normalizedTexts.size(); i++) {
+            prefixesOfText.clear();
+            for (String key : wordStarts(normalizedTexts.get(i))) {
+                for (int length = 1; length <= PRECOMPUTED_PREFIX_LENGTH && length <= key.length(); length++) {
+                    prefixesOfText.add(key.substring(0, length));
+                }
+            }
+            for (String prefix : prefixesOfText) {
+                PriorityQueue<Integer> heap = heaps.computeIfAbsent(prefix, p -> new PriorityQueue<>(byScore));
+                heap.offer(i);
+                if (heap.size() > MAX_SUGGESTIONS) {
+                    heap.poll();
+                }
+            }
+        }
+
+        Map<String, int[]> topK = new HashMap<>(heaps.size() * 2);
+        heaps.forEach((prefix, heap) -> topK.put(prefix, drainBestFirst(heap)));
+        return topK;
+    }
+
+    private Map<String, Long> loadCartCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : cartItemRepository.countCartsPerItem()) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    // The heap keeps the worst on top - drain it and reverse to get the best first
+    private static int[] drainBestFirst(PriorityQueue<Integer> heap) {
+        int[] result = new int[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = heap.poll();
+        }
+        return result;
+    }
+
+    private static List<String> wordStarts(String normalized) {
+        List<String> starts = new ArrayList<>();
+        starts.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            if (i + 1 < normalized.length()) {
+                starts.add(normalized.substring(i + 1));
+            }
+        }
+        return starts;
+    }
+
+    // First position whose value is >= key
+    private static int lowerBound(String[] sorted, String key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
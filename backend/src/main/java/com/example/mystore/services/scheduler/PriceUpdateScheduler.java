@@ -3,10 +3,13 @@ import com.example.mystore.database.entities.ProcessName;
 import com.example.mystore.downloader.engine.PriceFileDownloader;
 import com.example.mystore.downloader.model.FileType;
 import com.example.mystore.maintenance.ItemPriceUpdater;
+import com.example.mystore.services.IngestMetrics;
 import com.example.mystore.services.ProcessTrackerService;
+import com.example.mystore.services.events.CatalogUpdatedEvent;
 import com.example.mystore.services.updateServices.ItemUpdateService;
 import com.example.mystore.utils.DirectoryUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
@@ -31,12 +34,16 @@ public class PriceUpdateScheduler {
     private final ItemUpdateService itemUpdateService;
     private final ProcessTrackerService processTrackerService;
     private final PriceFileDownloader priceFileDownloader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IngestMetrics ingestMetrics;
 
-    public PriceUpdateScheduler(ItemPriceUpdater itemPriceUpdater, ItemUpdateService itemUpdateService, ProcessTrackerService processTrackerService, PriceFileDownloader priceFileDownloader) {
+    public PriceUpdateScheduler(ItemPriceUpdater itemPriceUpdater, ItemUpdateService itemUpdateService, ProcessTrackerService processTrackerService, PriceFileDownloader priceFileDownloader, ApplicationEventPublisher eventPublisher, IngestMetrics ingestMetrics) {
         this.itemPriceUpdater = itemPriceUpdater;
         this.itemUpdateService = itemUpdateService;
         this.processTrackerService = processTrackerService;
         this.priceFileDownloader = priceFileDownloader;
+        this.eventPublisher = eventPublisher;
+        this.ingestMetrics = ingestMetrics;
     }
 
 
@@ -46,6 +53,8 @@ public class PriceUpdateScheduler {
     @Scheduled(cron = "00 00 02 * * *")
     public void scheduledPriceUpdate() {
         logger.info("Starting daily price update...");
+        ingestMetrics.startRun(ProcessName.PRICE_UPDATE);
+        boolean success = false;
         try {
             // Download the latest Price files from the last 24 hours.
             logger.info("Downloading Price files...");
@@ -62,10 +71,17 @@ public class PriceUpdateScheduler {
             logger.info("Item Price Ranges updated successfully.");
 
             processTrackerService.markProcessCompleted(ProcessName.PRICE_UPDATE);
+
+            // Refresh the in-memory indexes with the new prices
+            eventPublisher.publishEvent(new CatalogUpdatedEvent(ProcessName.PRICE_UPDATE.name()));
+            success = true;
         } catch (Exception e) {
             logger.error("Error during scheduled price update:", e);
             // Mark the process as uncompleted if an error occurs
             processTrackerService.markProcessUnCompleted(ProcessName.PRICE_UPDATE); //To track price updates
+        } finally {
+            // Write the run report (files, rows, flush times and freshness per chain)
+            ingestMetrics.finishRun(success);
         }
         // Clear the directory after processing all files
         DirectoryUtils.clearDirectory(pricesFilesDirectory, logger);
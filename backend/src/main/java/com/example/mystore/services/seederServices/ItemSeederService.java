@@ -1,7 +1,9 @@
 package com.example.mystore.services.seederServices;
 
 import com.example.mystore.database.cleaning.ItemCleaner;
+import com.example.mystore.database.cleaning.UnitPriceCalculator;
 import com.example.mystore.database.entities.Item;
+import com.example.mystore.database.repositories.ItemPriceRepository;
 import com.example.mystore.database.repositories.ItemRepository;
 import com.example.mystore.dto.xml.ItemXmlDTO;
 import jakarta.transaction.Transactional;
@@ -19,11 +21,13 @@ public class ItemSeederService {
 
     private static final int BATCH_SIZE = 300;
     private final ItemRepository itemRepository;
+    private final ItemPriceRepository itemPriceRepository;
     private final ItemCleaner itemCleaner;
 
 
-    public ItemSeederService(ItemRepository itemRepository, ItemCleaner itemCleaner) {
+    public ItemSeederService(ItemRepository itemRepository, ItemPriceRepository itemPriceRepository, ItemCleaner itemCleaner) {
         this.itemRepository = itemRepository;
+        this.itemPriceRepository = itemPriceRepository;
         this.itemCleaner = itemCleaner;
     }
     /**
@@ -45,6 +49,8 @@ public class ItemSeederService {
     /**
      * Saves only new items to the database, ignoring duplicates.
      * Performs insertion in batches for better performance.
+     * Existing items that are not comparable by unit price get the basis calculated from the raw unit quantity
+     * of the incoming item, if it is comparable (items whose raw unit could not be recovered by the backfill).
      *
      * @param items the list of Item entities to save
      * @return the number of items successfully inserted
@@ -63,6 +69,7 @@ public class ItemSeederService {
         //Checking whether the identifier already exists
         //Contacting DB in batches
         Set<String> existingIds = new HashSet<>();
+        Map<String, Item> notComparable = new HashMap<>();
         List<List<String>> idBatches = partition(new ArrayList<>(allUniqueIds), BATCH_SIZE);
 
 
@@ -71,8 +78,12 @@ public class ItemSeederService {
             List<Item> existing = itemRepository.findAllById(batch);
             for (Item item : existing) {
                 existingIds.add(item.getItemID());
+                if (UnitPriceCalculator.NOT_COMPARABLE.equals(item.getUnitPriceBasis())) {
+                    notComparable.put(item.getItemID(), item);
+                }
             }
         }
+        recalculateUnitPrices(items, notComparable);
 
         Set<String> seenIds = new HashSet<>();
         //List of items we will go to insert to DB
@@ -95,6 +106,30 @@ public class ItemSeederService {
         }
         return toInsert.size();
     }
+
+    // Copies the unit price basis of incoming items onto the stored not-comparable ones, and reprices their price rows
+    private void recalculateUnitPrices(List<Item> incoming, Map<String, Item> notComparable) {
+        List<Item> recalculated = new ArrayList<>();
+        for (Item item : incoming) {
+            Item stored = notComparable.remove(item.getItemID());
+            if (stored != null && item.getUnitPriceFactor() != null) {
+                stored.setUnitPriceBasis(item.getUnitPriceBasis());
+                stored.setUnitPriceFactor(item.getUnitPriceFactor());
+                recalculated.add(stored);
+            }
+        }
+        if (recalculated.isEmpty()) {
+            return;
+        }
+        itemRepository.saveAll(recalculated);
+        Set<String> itemIds = new HashSet<>();
+        for (Item item : recalculated) {
+            itemIds.add(item.getItemID());
+        }
+        itemPriceRepository.updateUnitPrices(itemIds);
+        itemRepository.updateLowestUnitPrices(itemIds);
+        logger.info("Recalculated the unit price basis of {} items from their raw unit quantity", recalculated.size());
+    }
     /**
      * Retrieves items that are available in at least a specified number of different stores.
      *
@@ -1,6 +1,7 @@
 package com.example.mystore.services.updateServices;
 
 import static com.example.mystore.utils.CollectionUtils.partition;
+import com.example.mystore.database.cleaning.UnitPriceCalculator;
 import com.example.mystore.database.entities.Item;
 import com.example.mystore.database.entities.ItemPrice;
 import com.example.mystore.database.entities.ItemPriceKey;
@@ -8,6 +9,9 @@ import com.example.mystore.database.entities.Store;
 import com.example.mystore.database.repositories.ItemPriceRepository;
 import com.example.mystore.database.repositories.ItemRepository;
 import com.example.mystore.dto.xml.ItemPriceXmlDTO;
+import com.example.mystore.services.events.PriceChangesEvent;
+import com.example.mystore.services.events.PriceChangesEvent.PriceChange;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -17,12 +21,14 @@ import java.util.*;
 public class ItemPriceUpdateService {
     private final ItemPriceRepository itemPriceRepository;
     private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private static final int BATCH_SIZE = 300;
 
 
-    public ItemPriceUpdateService(ItemPriceRepository itemPriceRepository, ItemRepository itemRepository) {
+    public ItemPriceUpdateService(ItemPriceRepository itemPriceRepository, ItemRepository itemRepository, ApplicationEventPublisher eventPublisher) {
         this.itemPriceRepository = itemPriceRepository;
         this.itemRepository = itemRepository;
+        this.eventPublisher = eventPublisher;
     }
     /**
      * Maps a list of ItemPriceXmlDTO objects to ItemPrice entities for a specific store.
@@ -43,6 +49,7 @@ public class ItemPriceUpdateService {
             }
             Item item = optionalItem.get();
             ItemPrice itemPrice = new ItemPrice(item, store, dto.getStatus(), dto.getPrice(), dto.getPriceDate());
+            itemPrice.setUnitPrice(UnitPriceCalculator.unitPrice(item, dto.getPrice()));
             itemPrices.add(itemPrice);
         }
         return itemPrices;
@@ -50,6 +57,7 @@ public class ItemPriceUpdateService {
     }
     /**
      * Inserts new ItemPrice entities into the database if they do not already exist.
+     * The inserted rows are published per batch as a PriceChangesEvent (without an old price).
      *
      * @param itemPrices the list of ItemPrice entities
      * @return the number of inserted entities
@@ -97,12 +105,27 @@ public class ItemPriceUpdateService {
         //Perform a single batch insert if there are any new entities
         if (!toInsert.isEmpty()) {
             itemPriceRepository.saveAll(toInsert);
+
+            // New (item, store) rows change the store coverage of their items - refresh only those items
+            Set<String> affectedItemIds = new HashSet<>();
+            for (ItemPrice inserted : toInsert) {
+                affectedItemIds.add(inserted.getItemPriceKey().getItemID());
+            }
+            itemRepository.updateStoreCounts(affectedItemIds);
+
+            List<PriceChange> changes = new ArrayList<>();
+            for (ItemPrice inserted : toInsert) {
+                changes.add(new PriceChange(inserted.getItemPriceKey().getItemID(), inserted.getItemPriceKey().getStoreID(),
+                        null, inserted.getPrice()));
+            }
+            eventPublisher.publishEvent(new PriceChangesEvent(changes));
         }
         return toInsert.size();
     }
 
     /**
      * Updates existing ItemPrice entities in the database with newer prices if needed.
+     * The rows whose price changed are published per batch as a PriceChangesEvent.
      *
      * @param itemPrices the list of ItemPrice entities
      * @return the number of updated entities
@@ -139,6 +162,7 @@ public class ItemPriceUpdateService {
 
 
         List<ItemPrice> toUpdate = new ArrayList<>();
+        List<PriceChange> changes = new ArrayList<>();
         for (ItemPrice incoming : itemPrices) {
             ItemPriceKey key = incoming.getItemPriceKey();
             if (key == null || key.getItemID() == null) {
@@ -148,18 +172,23 @@ public class ItemPriceUpdateService {
             ItemPrice entity = existingMap.get(key);
 
             if (entity != null) {
+                Double oldPrice = entity.getPrice();
                 if (entity.getPriceDate() == null) {
                     // Always update if existing entity has no price date
                     entity.setPrice(incoming.getPrice());
+                    entity.setUnitPrice(incoming.getUnitPrice());
                     entity.setStatus(incoming.getStatus());
                     entity.setPriceDate(incoming.getPriceDate());
                     toUpdate.add(entity);
+                    addChange(changes, key, oldPrice, incoming.getPrice());
                 } else if (incoming.getPriceDate() != null && incoming.getPriceDate().isAfter(entity.getPriceDate())) {
                     // Update only if incoming price is newer
                     entity.setPrice(incoming.getPrice());
+                    entity.setUnitPrice(incoming.getUnitPrice());
                     entity.setStatus(incoming.getStatus());
                     entity.setPriceDate(incoming.getPriceDate());
                     toUpdate.add(entity);
+                    addChange(changes, key, oldPrice, incoming.getPrice());
                 }
             }
 
@@ -169,9 +198,19 @@ public class ItemPriceUpdateService {
         if (!toUpdate.isEmpty()) {
             itemPriceRepository.saveAll(toUpdate);
         }
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new PriceChangesEvent(changes));
+        }
         return toUpdate.size();
     }
 
+    // Records a row whose price really changed (a newer price date with the same price is not a change)
+    private static void addChange(List<PriceChange> changes, ItemPriceKey key, Double oldPrice, Double newPrice) {
+        if (!Objects.equals(oldPrice, newPrice)) {
+            changes.add(new PriceChange(key.getItemID(), key.getStoreID(), oldPrice, newPrice));
+        }
+    }
+
 
     /**
      * Extracts all valid composite keys (item_id + store_id) from a list of ItemPrice entities.
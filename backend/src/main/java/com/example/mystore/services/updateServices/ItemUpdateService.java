@@ -1,18 +1,25 @@
 package com.example.mystore.services.updateServices;
 
+import com.example.mystore.database.cleaning.ItemCleaner;
+import com.example.mystore.database.cleaning.UnitPriceCalculator;
 import com.example.mystore.database.entities.Item;
+import com.example.mystore.database.repositories.ItemPriceRepository;
 import com.example.mystore.database.repositories.ItemRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
 
+import static com.example.mystore.utils.CollectionUtils.partition;
+
 @Service
 public class ItemUpdateService {
 
     private final ItemRepository itemRepository;
+    private final ItemPriceRepository itemPriceRepository;
 
-    public ItemUpdateService(ItemRepository itemRepository) {
+    public ItemUpdateService(ItemRepository itemRepository, ItemPriceRepository itemPriceRepository) {
         this.itemRepository = itemRepository;
+        this.itemPriceRepository = itemPriceRepository;
     }
 
     // Find all items
@@ -31,6 +38,68 @@ public class ItemUpdateService {
     public void updateItemPriceRange() {
         itemRepository.updateMinAndMaxPrices();
     }
+    /**
+     * Recalculates the store coverage (`store_count`) of every item.
+     *
+     * @return the number of updated items
+     */
+    public int updateAllStoreCounts() {
+        return itemRepository.updateAllStoreCounts();
+    }
+
+    /**
+     * Recalculates the store coverage of all items, but only if some item was never calculated
+     * (e.g. a database that was loaded before `store_count` existed).
+     *
+     * @return true if a recalculation was needed
+     */
+    public boolean backfillStoreCountsIfMissing() {
+        if (!itemRepository.existsByStoreCountIsNull()) {
+            return false;
+        }
+        itemRepository.updateAllStoreCounts();
+        return true;
+    }
+    /**
+     * Calculates unit prices for data that was loaded before unit prices existed:
+     * sets the unit price basis of items that have none, recalculates the unit price
+     * of every price row and then the lowest unit price of every item.
+     * Only the cleaned unit quantity is stored, so the raw unit is recovered first (ItemCleaner.toRawUnitQty).
+     * Items whose raw unit cannot be recovered are set to not comparable - the next item ingest
+     * recalculates them from the raw value (see ItemSeederService.saveNewItems).
+     *
+     * @return true if a calculation was needed
+     */
+    public boolean backfillUnitPricesIfMissing() {
+        if (!itemRepository.existsByUnitPriceBasisIsNull()) {
+            return false;
+        }
+        List<Item> items = itemRepository.findByUnitPriceBasisIsNull();
+        for (Item item : items) {
+            applyUnitPrice(item);
+        }
+        for (List<Item> batch : partition(items, 1000)) {
+            itemRepository.saveAll(batch);
+        }
+        itemPriceRepository.updateAllUnitPrices();
+        itemRepository.updateMinAndMaxPrices();
+        return true;
+    }
+
+    // Sets the unit price basis of a stored item from its recovered raw unit quantity
+    private static void applyUnitPrice(Item item) {
+        if (Boolean.TRUE.equals(item.getBIsWeighted())) {
+            UnitPriceCalculator.apply(item);  // Decided by the unit of measure, which is not renamed
+            return;
+        }
+        String rawUnitQty = ItemCleaner.toRawUnitQty(item.getUnitQty());
+        if (rawUnitQty == null) {
+            item.setUnitPriceBasis(UnitPriceCalculator.NOT_COMPARABLE);
+            item.setUnitPriceFactor(null);
+        } else {
+            UnitPriceCalculator.apply(item, rawUnitQty);
+        }
+    }
     /**
      * Retrieves a list of items that do not have an associated image.
      *
@@ -0,0 +1,63 @@
+package com.example.mystore.services.updateServices;
+
+import com.example.mystore.database.entities.Store;
+import com.example.mystore.database.repositories.StoreRepository;
+import com.example.mystore.utils.GeoPoint;
+import com.example.mystore.utils.LocalityGazetteer;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class StoreUpdateService {
+
+    private final StoreRepository storeRepository;
+    private final LocalityGazetteer localityGazetteer;
+
+    public StoreUpdateService(StoreRepository storeRepository, LocalityGazetteer localityGazetteer) {
+        this.storeRepository = storeRepository;
+        this.localityGazetteer = localityGazetteer;
+    }
+
+    /**
+     * Resolves the coordinates of every store from its city, using the bundled gazetteer.
+     * Stores whose city is unknown keep null coordinates.
+     *
+     * @return the number of stores that got coordinates
+     */
+    public int geocodeStores() {
+        return geocode(storeRepository.findAll());
+    }
+
+    /**
+     * Geocodes the stores that never went through geocoding - e.g. of a database that was loaded
+     * before store coordinates existed. Stores of cities the gazetteer does not know are marked as attempted,
+     * so they are not checked again on every startup.
+     *
+     * @return true if geocoding was needed
+     */
+    public boolean geocodeStoresIfMissing() {
+        List<Store> stores = storeRepository.findNotGeocoded();
+        if (stores.isEmpty()) {
+            return false;
+        }
+        geocode(stores);
+        return true;
+    }
+
+    private int geocode(List<Store> stores) {
+        int located = 0;
+        for (Store store : stores) {
+            Optional<GeoPoint> point = localityGazetteer.locate(store.getStoreCity());
+            if (point.isPresent()) {
+                store.setLatitude(point.get().getLatitude());
+                store.setLongitude(point.get().getLongitude());
+                located++;
+            }
+            store.setGeocodeAttempted(true);
+        }
+        storeRepository.saveAll(stores);
+        return located;
+    }
+}
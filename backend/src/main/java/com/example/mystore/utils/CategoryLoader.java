@@ -16,25 +16,57 @@ import java.util.*;
  *
  * The CSV is expected to have three columns:
  * GeneralCategory, SubCategory, SpecificCategory
+ *
+ * The file is checked for changes with reloadIfChanged (see CategoryService).
  */
 @Component
 public class CategoryLoader {
-    private final Map<String, Map<String, List<String>>> categoriesMap = new LinkedHashMap<>();
+    private static final String CATEGORIES_FILE = "data/Categories.csv";
+
+    // Replaced as a whole on reload, never modified after it was published
+    private volatile Map<String, Map<String, List<String>>> categoriesMap = new LinkedHashMap<>();
+    private long lastModified = -1;  // Modification time of the loaded file
 
     public CategoryLoader() {
-        loadCategoriesFromCSV("data/Categories.csv");
+        reloadIfChanged();
     }
+
     /**
-     * Loads categories from a CSV file into a nested Map structure.
-     * Each general category maps to subcategories, which in turn map to lists of specific categories.
+     * Loads the category CSV again if the file changed since it was last loaded.
+     * On a read error the current categories are kept.
      *
-     * @param fileName the CSV file path relative to the classpath
+     * @return true if the categories were reloaded
      */
-    private void loadCategoriesFromCSV(String fileName) {
+    public synchronized boolean reloadIfChanged() {
+        ClassPathResource resource = new ClassPathResource(CATEGORIES_FILE);
+        long modified;
         try {
-            ClassPathResource resource = new ClassPathResource(fileName);
-            CSVReader reader = new CSVReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
+            modified = resource.lastModified();
+        } catch (IOException e) {
+            modified = 0;  // Unknown - load once
+        }
+        if (modified == lastModified) {
+            return false;
+        }
+        Map<String, Map<String, List<String>>> loaded = loadCategoriesFromCSV(resource);
+        if (loaded == null) {
+            return false;
+        }
+        categoriesMap = loaded;
+        lastModified = modified;
+        return true;
+    }
 
+    /**
+     * Loads categories from a CSV file into a nested Map structure.
+     * Each general category maps to subcategories, which in turn map to lists of specific categories.
+     *
+     * @param resource the CSV file on the classpath
+     * @return the categories, or null if the file could not be read
+     */
+    private Map<String, Map<String, List<String>>> loadCategoriesFromCSV(ClassPathResource resource) {
+        Map<String, Map<String, List<String>>> categories = new LinkedHashMap<>();
+        try (CSVReader reader = new CSVReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
             String[] line;
             reader.readNext();// Skip header
 
@@ -46,7 +78,7 @@ public class CategoryLoader {
                 String subCategory = line[1].trim();
                 String specificCategory = line[2].trim();
 
-                categoriesMap
+                categories
                         .computeIfAbsent(generalCategory, k -> new LinkedHashMap<>())
                         .computeIfAbsent(subCategory, k -> new ArrayList<>())
                         .add(specificCategory);
@@ -54,7 +86,9 @@ public class CategoryLoader {
 
         } catch (IOException | CsvValidationException e) {
             e.printStackTrace();
+            return null;
         }
+        return categories;
     }
     /**
      * Returns the entire nested category map.
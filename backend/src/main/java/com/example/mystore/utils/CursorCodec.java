@@ -0,0 +1,68 @@
+package com.example.mystore.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque continuation tokens used by keyset (cursor) pagination.
+ *
+ * A token holds the sort key of the last row of the previous page. Clients must treat it
+ * as an opaque string and send it back unchanged to get the next page.
+ * An absent or empty token means "first page".
+ */
+public class CursorCodec {
+    private static final String VERSION = "k1:";
+
+    /**
+     * Encodes the sort key of the last row into a token.
+     *
+     * @param lastKey the sort key of the last returned row
+     * @return the URL-safe token
+     */
+    public static String encode(String lastKey) {
+        byte[] bytes = (VERSION + lastKey).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Decodes a token back into the sort key it was created from.
+     *
+     * @param cursor the token sent by the client
+     * @return the sort key, or null if the token is empty (first page)
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static String decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!decoded.startsWith(VERSION)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return decoded.substring(VERSION.length());
+    }
+
+    /**
+     * Decodes a token that was created from a numeric key.
+     *
+     * @param cursor the token sent by the client
+     * @return the key, or null if the token is empty (first page)
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static Long decodeLong(String cursor) {
+        String key = decode(cursor);
+        if (key == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.mystore.utils;
+
+/**
+ * A point on the map (WGS84 latitude / longitude in degrees).
+ */
+public class GeoPoint {
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final double latitude;
+    private final double longitude;
+
+    public GeoPoint(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Great-circle (haversine) distance to another point.
+     *
+     * @param other the other point
+     * @return the distance in kilometers
+     */
+    public double distanceKm(GeoPoint other) {
+        return distanceKm(latitude, longitude, other.latitude, other.longitude);
+    }
+
+    /**
+     * Great-circle (haversine) distance between two points given in degrees.
+     *
+     * @return the distance in kilometers
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
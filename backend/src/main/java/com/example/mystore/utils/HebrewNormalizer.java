@@ -0,0 +1,74 @@
+package com.example.mystore.utils;
+
+/**
+ * Normalizes Hebrew (and mixed Hebrew/Latin) text for in-memory search.
+ *
+ * - Removes niqqud and cantillation marks (U+0591-U+05C7).
+ * - Removes geresh / gershayim, both the Hebrew signs (׳ ״) and the ASCII quotes
+ *   usually typed instead of them, so "ש\"ח" and "שח" match.
+ * - Maps final letters to their regular form (ך→כ, ם→מ, ן→נ, ף→פ, ץ→צ),
+ *   so a prefix typed mid-word matches the word ending.
+ * - Lower-cases Latin letters, turns any other character into a space
+ *   and collapses repeated spaces.
+ */
+public class HebrewNormalizer {
+
+    /**
+     * Normalizes the given text.
+     *
+     * @param text the text to normalize (may be null)
+     * @return the normalized text, or an empty string for null input
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean lastWasSpace = true;  // Also trims leading spaces
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (isNiqqud(c) || isGeresh(c)) {
+                continue;
+            }
+            c = toRegularLetter(c);
+
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+                lastWasSpace = false;
+            } else if (!lastWasSpace) {
+                sb.append(' ');
+                lastWasSpace = true;
+            }
+        }
+
+        int length = sb.length();
+        if (length > 0 && sb.charAt(length - 1) == ' ') {
+            sb.setLength(length - 1);
+        }
+        return sb.toString();
+    }
+
+    // Hebrew points and cantillation marks
+    private static boolean isNiqqud(char c) {
+        // U+05BE (maqaf), U+05C0 (paseq), U+05C3 (sof pasuq) and U+05C6 (nun hafukha) are punctuation, not marks
+        return c >= '\u0591' && c <= '\u05C7' && c != '\u05BE' && c != '\u05C0' && c != '\u05C3' && c != '\u05C6';
+    }
+
+    // Geresh, gershayim and the ASCII characters typed in their place
+    private static boolean isGeresh(char c) {
+        return c == '\u05F3' || c == '\u05F4' || c == '\'' || c == '"' || c == '`' || c == '\u2019';
+    }
+
+    private static char toRegularLetter(char c) {
+        switch (c) {
+            case 'ך': return 'כ';
+            case 'ם': return 'מ';
+            case 'ן': return 'נ';
+            case 'ף': return 'פ';
+            case 'ץ': return 'צ';
+            default: return c;
+        }
+    }
+}
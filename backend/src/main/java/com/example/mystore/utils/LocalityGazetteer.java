@@ -0,0 +1,93 @@
+package com.example.mystore.utils;
+
+import com.example.mystore.database.cleaning.CityNameCleaner;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Offline gazetteer that resolves a locality name to coordinates, from a CSV bundled with the application.
+ *
+ * The CSV is expected to have three columns:
+ * Locality, Latitude, Longitude
+ * Localities use the standard names produced by CityNameCleaner, and lookups go through the same
+ * cleaning plus HebrewNormalizer, so spelling variations resolve to the same point.
+ * Coordinates are of the locality center - no external geocoding service is called.
+ */
+@Component
+public class LocalityGazetteer {
+    private static final Logger logger = LoggerFactory.getLogger(LocalityGazetteer.class);
+
+    private final Map<String, GeoPoint> localities = new HashMap<>();
+
+    public LocalityGazetteer() {
+        loadLocalitiesFromCSV("data/localities.csv");
+    }
+
+    /**
+     * Loads the localities from a CSV file.
+     * A missing, unreadable or empty file stops the application: without localities every radius
+     * feature would silently find nothing.
+     *
+     * @param fileName the CSV file path relative to the classpath
+     */
+    private void loadLocalitiesFromCSV(String fileName) {
+        ClassPathResource resource = new ClassPathResource(fileName);
+        int skipped = 0;
+        try (CSVReader reader = new CSVReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String[] line;
+            reader.readNext();// Skip header
+
+            while ((line = reader.readNext()) != null) {
+                if (line.length < 3) {
+                    skipped++;
+                    continue;
+                }
+                try {
+                    GeoPoint point = new GeoPoint(Double.parseDouble(line[1].trim()), Double.parseDouble(line[2].trim()));
+                    localities.put(key(line[0]), point);
+                } catch (NumberFormatException e) {
+                    skipped++;
+                }
+            }
+        } catch (IOException | CsvValidationException e) {
+            throw new IllegalStateException("Could not load the locality gazetteer from " + fileName, e);
+        }
+
+        if (localities.isEmpty()) {
+            throw new IllegalStateException("The locality gazetteer " + fileName + " has no localities");
+        }
+        if (skipped > 0) {
+            logger.warn("Skipped {} malformed rows in {}.", skipped, fileName);
+        }
+        logger.info("Loaded {} localities from {}.", localities.size(), fileName);
+    }
+
+    /**
+     * Resolves a city name to the coordinates of the locality.
+     *
+     * @param city the city name (as stored on a store, or typed by a user)
+     * @return the coordinates, or empty if the locality is unknown
+     */
+    public Optional<GeoPoint> locate(String city) {
+        if (city == null || city.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(localities.get(key(city)));
+    }
+
+    private static String key(String city) {
+        String standard = CityNameCleaner.cleanCityName(city);
+        return HebrewNormalizer.normalize(standard != null ? standard : city);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.mystore.config;
+
+import com.example.mystore.services.cacheServices.DataEpoch;
+import com.example.mystore.services.cacheServices.DataEpochs;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EpochCacheFilterTests {
+    private static final String CURRENT_TAG = "\"catalog" + Long.toString(1000, 36) + ".prices" + Long.toString(2000, 36) + "\"";
+
+    private DataEpochs dataEpochs;
+    private EpochCacheFilter filter;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        dataEpochs = mock(DataEpochs.class);
+        when(dataEpochs.get(DataEpoch.CATALOG)).thenReturn(1000L);
+        when(dataEpochs.get(DataEpoch.PRICES)).thenReturn(2000L);
+        EpochCached cached = Resource.class.getMethod("get").getAnnotation(EpochCached.class);
+        filter = new EpochCacheFilter(dataEpochs, cached);
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnswered304() {
+        ContainerRequestContext request = request("GET", CURRENT_TAG);
+
+        filter.filter(request);
+
+        ArgumentCaptor<Response> aborted = ArgumentCaptor.forClass(Response.class);
+        verify(request).abortWith(aborted.capture());
+        assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), aborted.getValue().getStatus());
+        assertEquals(new EntityTag(CURRENT_TAG.replace("\"", "")), aborted.getValue().getEntityTag());
+        assertEquals("public, max-age=60", aborted.getValue().getHeaderString(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void staleIfNoneMatchGetsTheResponseWithTheCurrentTag() {
+        ContainerRequestContext request = request("GET", "\"catalog1.prices1\"");
+
+        filter.filter(request);
+        verify(request, never()).abortWith(any());
+
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        filter.filter(request, response(200, headers));
+        assertEquals(new EntityTag(CURRENT_TAG.replace("\"", "")), headers.getFirst(HttpHeaders.ETAG));
+        assertEquals("public, max-age=60", headers.getFirst(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void nothingIsAddedWhileAnEpochIsUnknown() {
+        when(dataEpochs.get(DataEpoch.PRICES)).thenReturn(0L);
+        ContainerRequestContext request = request("GET", CURRENT_TAG);
+
+        filter.filter(request);
+        verify(request, never()).abortWith(any());
+
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        filter.filter(request, response(200, headers));
+        assertTrue(headers.isEmpty());
+    }
+
+    @Test
+    void errorsAndOtherMethodsAreNotTagged() {
+        ContainerRequestContext post = request("POST", CURRENT_TAG);
+        filter.filter(post);
+        verify(post, never()).abortWith(any());
+
+        ContainerRequestContext get = request("GET", null);
+        filter.filter(get);
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        filter.filter(get, response(404, headers));
+        assertTrue(headers.isEmpty());
+    }
+
+    // A request context backed by a real Jersey request, so preconditions are evaluated as in production
+    private static ContainerRequestContext request(String method, String ifNoneMatch) {
+        ContainerRequest jerseyRequest = new ContainerRequest(URI.create("http://localhost/api/"),
+                URI.create("http://localhost/api/items"), method, null, new MapPropertiesDelegate(), null);
+        if (ifNoneMatch != null) {
+            jerseyRequest.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        ContainerRequestContext context = mock(ContainerRequestContext.class);
+        when(context.getMethod()).thenReturn(method);
+        when(context.getRequest()).thenReturn(jerseyRequest);
+        doAnswer(invocation -> {
+            jerseyRequest.setProperty(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(context).setProperty(anyString(), any());
+        when(context.getProperty(anyString())).thenAnswer(invocation -> jerseyRequest.getProperty(invocation.getArgument(0)));
+        return context;
+    }
+
+    private static ContainerResponseContext response(int status, MultivaluedMap<String, Object> headers) {
+        ContainerResponseContext response = mock(ContainerResponseContext.class);
+        when(response.getStatus()).thenReturn(status);
+        when(response.getHeaders()).thenReturn(headers);
+        return response;
+    }
+
+    static class Resource {
+        @EpochCached(value = {DataEpoch.CATALOG, DataEpoch.PRICES}, maxAge = 60)
+        public void get() {
+        }
+    }
+}
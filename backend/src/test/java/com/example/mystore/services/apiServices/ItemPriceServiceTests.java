@@ -0,0 +1,64 @@
+package com.example.mystore.services.apiServices;
+
+import com.example.mystore.database.repositories.ItemPriceRepository;
+import com.example.mystore.database.repositories.StoreRepository;
+import com.example.mystore.database.repositories.UserRepository;
+import com.example.mystore.dto.api.response.CartItemDTO;
+import com.example.mystore.dto.api.response.ComparisonResultDTO;
+import com.example.mystore.dto.api.response.StoreDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ItemPriceServiceTests {
+    private ItemPriceRepository itemPriceRepository;
+    private ItemPriceService itemPriceService;
+
+    @BeforeEach
+    void setUp() {
+        itemPriceRepository = mock(ItemPriceRepository.class);
+        itemPriceService = new ItemPriceService(itemPriceRepository, mock(UserRepository.class), mock(StoreRepository.class),
+                mock(ItemService.class), mock(StoreService.class), mock(CartItemsService.class), 2);
+    }
+
+    @Test
+    void failedStoreIsStreamedWithAnError() {
+        List<Object[]> prices = new ArrayList<>();
+        prices.add(new Object[]{"A", 5.0});
+        when(itemPriceRepository.findPricesInStore(eq(1L), anyCollection())).thenReturn(prices);
+        when(itemPriceRepository.findPricesInStore(eq(2L), anyCollection())).thenThrow(new RuntimeException("query timeout"));
+        CartItemDTO cartLine = mock(CartItemDTO.class);
+        when(cartLine.getItemId()).thenReturn("A");
+        when(cartLine.getQuantity()).thenReturn(2);
+
+        List<ComparisonResultDTO> results = Collections.synchronizedList(new ArrayList<>());
+        itemPriceService.streamCartComparison(List.of(store(1L), store(2L)), List.of(cartLine), results::add);
+
+        Map<Long, ComparisonResultDTO> byStore = new HashMap<>();
+        for (ComparisonResultDTO result : results) {
+            byStore.put(result.getStore().getStoreId(), result);
+        }
+        assertEquals(2, byStore.size());
+
+        assertNull(byStore.get(1L).getError());
+        assertEquals(10.0, byStore.get(1L).getCartPrice());
+
+        ComparisonResultDTO failed = byStore.get(2L);
+        assertNotNull(failed.getError());
+        assertTrue(failed.getItems().isEmpty());
+        assertNull(failed.getCartPrice());
+    }
+
+    private static StoreDTO store(Long storeId) {
+        return new StoreDTO(storeId, "chain", "store " + storeId, storeId, "city", "address", null);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.mystore.services.apiServices;
+
+import com.example.mystore.database.repositories.CartItemRepository;
+import com.example.mystore.database.repositories.ShoppingCartRepository;
+import com.example.mystore.database.repositories.UserRepository;
+import com.example.mystore.dto.api.response.CartDto;
+import com.example.mystore.dto.api.response.CursorPageDTO;
+import com.example.mystore.services.CartStatus;
+import com.example.mystore.services.cacheServices.ActiveCartStore;
+import com.example.mystore.utils.CursorCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ShoppingCartServiceTests {
+    private static final Long USER_ID = 1L;
+
+    private ShoppingCartRepository shoppingCartRepository;
+    private ShoppingCartService shoppingCartService;
+
+    @BeforeEach
+    void setUp() {
+        shoppingCartRepository = mock(ShoppingCartRepository.class);
+        shoppingCartService = new ShoppingCartService(shoppingCartRepository, mock(UserRepository.class),
+                mock(CartItemRepository.class), mock(ActiveCartStore.class));
+    }
+
+    @Test
+    void archivedCartsCursorRoundTrips() {
+        // Two carts share an updatedAt - the cart ID breaks the tie
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123456000);
+        List<CartDto> firstPage = List.of(
+                new CartDto(9L, "c9", updatedAt.plusDays(1)),
+                new CartDto(8L, "c8", updatedAt),
+                new CartDto(7L, "c7", updatedAt));
+        when(shoppingCartRepository.findCartDtos(USER_ID, CartStatus.ARCHIVED, PageRequest.of(0, 3))).thenReturn(firstPage);
+
+        CursorPageDTO<CartDto> page = shoppingCartService.getArchivedCartsPage(USER_ID, null, 2);
+        assertEquals(List.of(9L, 8L), ids(page.getContent()));
+        assertTrue(page.isHasNext());
+
+        when(shoppingCartRepository.findCartDtosAfter(USER_ID, CartStatus.ARCHIVED, updatedAt, 8L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(new CartDto(7L, "c7", updatedAt)));
+
+        CursorPageDTO<CartDto> next = shoppingCartService.getArchivedCartsPage(USER_ID, page.getNextCursor(), 2);
+        assertEquals(List.of(7L), ids(next.getContent()));
+        assertFalse(next.isHasNext());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void wholeSecondsSurviveTheCursor() {
+        // LocalDateTime.toString drops zero seconds ("2024-05-01T10:15") - parse must still read it back
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 10, 15);
+        when(shoppingCartRepository.findCartDtos(eq(USER_ID), eq(CartStatus.ARCHIVED), any()))
+                .thenReturn(List.of(new CartDto(5L, "c5", updatedAt), new CartDto(4L, "c4", updatedAt)));
+
+        String cursor = shoppingCartService.getArchivedCartsPage(USER_ID, "", 1).getNextCursor();
+        shoppingCartService.getArchivedCartsPage(USER_ID, cursor, 1);
+
+        verify(shoppingCartRepository).findCartDtosAfter(eq(USER_ID), eq(CartStatus.ARCHIVED), eq(updatedAt), eq(5L), any());
+    }
+
+    @Test
+    void malformedCartCursorIsRejected() {
+        for (String key : new String[]{"no-separator", "yesterday|5", "2024-05-01T10:15|five"}) {
+            String cursor = CursorCodec.encode(key);
+            assertThrows(IllegalArgumentException.class, () -> shoppingCartService.getArchivedCartsPage(USER_ID, cursor, 2), key);
+        }
+        assertThrows(IllegalArgumentException.class, () -> shoppingCartService.getArchivedCartsPage(USER_ID, null, 0));
+    }
+
+    private static List<Long> ids(List<CartDto> carts) {
+        List<Long> ids = new ArrayList<>();
+        for (CartDto cart : carts) {
+            ids.add(cart.getId());
+        }
+        return ids;
+    }
+}
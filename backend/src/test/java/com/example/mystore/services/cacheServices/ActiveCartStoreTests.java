@@ -0,0 +1,215 @@
+package com.example.mystore.services.cacheServices;
+
+import com.example.mystore.database.entities.CartItem;
+import com.example.mystore.database.entities.CartItemKey;
+import com.example.mystore.database.entities.ShoppingCart;
+import com.example.mystore.database.entities.User;
+import com.example.mystore.database.repositories.CartItemRepository;
+import com.example.mystore.database.repositories.ShoppingCartRepository;
+import com.example.mystore.services.CartStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ActiveCartStoreTests {
+    private static final Long CART_ID = 10L;
+    private static final Long USER_ID = 1L;
+
+    private ShoppingCartRepository shoppingCartRepository;
+    private CartItemRepository cartItemRepository;
+    private ActiveCartStore store;
+
+    @BeforeEach
+    void setUp() {
+        shoppingCartRepository = mock(ShoppingCartRepository.class);
+        cartItemRepository = mock(CartItemRepository.class);
+        store = new ActiveCartStore(shoppingCartRepository, cartItemRepository, mock(PlatformTransactionManager.class), 30, 3);
+
+        when(shoppingCartRepository.findById(CART_ID)).thenReturn(Optional.of(cart(CART_ID, CartStatus.ACTIVE)));
+        when(shoppingCartRepository.existsByCartIDAndStatus(CART_ID, CartStatus.ACTIVE)).thenReturn(true);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{"A", 2});
+        when(cartItemRepository.findQuantitiesByCartId(CART_ID)).thenReturn(rows);
+    }
+
+    @Test
+    void applyChangesQuantitiesInMemory() {
+        ActiveCartStore.CartView cart = store.apply(CART_ID, Map.of("A", 1, "B", 3)).orElseThrow();
+        assertEquals(Map.of("A", 3, "B", 3), cart.getQuantities());
+
+        cart = store.apply(CART_ID, Map.of("A", -3, "C", -1)).orElseThrow();
+        assertEquals(Map.of("B", 3), cart.getQuantities());  // A dropped to 0, the change for the missing C is ignored
+        assertEquals(Set.of(CART_ID), store.findCartsContaining(List.of("B")));
+        assertTrue(store.findCartsContaining(List.of("A", "C")).isEmpty());
+
+        // The cart was read once, the changes were not written yet
+        verify(cartItemRepository, times(1)).findQuantitiesByCartId(CART_ID);
+        verify(cartItemRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void versionGrowsOnEveryChange() {
+        assertEquals(0, store.findByCart(CART_ID).orElseThrow().getVersion());
+        assertEquals(1, store.apply(CART_ID, Map.of("A", 1)).orElseThrow().getVersion());
+        assertEquals(2, store.apply(CART_ID, Map.of("B", 1)).orElseThrow().getVersion());
+        assertEquals(2, store.peek(CART_ID).orElseThrow().getVersion());
+    }
+
+    @Test
+    void applyToInactiveCartChangesNothing() {
+        when(shoppingCartRepository.findById(11L)).thenReturn(Optional.of(cart(11L, CartStatus.ARCHIVED)));
+
+        assertTrue(store.apply(11L, Map.of("A", 1)).isEmpty());
+        assertTrue(store.peek(11L).isEmpty());
+    }
+
+    @Test
+    void newCartIsNotReadFromTheDatabase() {
+        store.registerNewCart(12L, 2L);
+
+        ActiveCartStore.CartView cart = store.apply(12L, Map.of("A", 1)).orElseThrow();
+        assertEquals(Map.of("A", 1), cart.getQuantities());
+        assertEquals(2L, cart.getUserId());
+        verify(shoppingCartRepository, never()).findById(12L);
+        verify(cartItemRepository, never()).findQuantitiesByCartId(12L);
+    }
+
+    @Test
+    void flushWritesOnlyTheChangedRows() {
+        store.apply(CART_ID, Map.of("A", 1, "B", 3));
+        store.apply(CART_ID, Map.of("B", 1));
+        when(cartItemRepository.findById_CartIDAndId_ItemIDIn(eq(CART_ID), anyCollection()))
+                .thenReturn(List.of(cartItem("A", 2)));
+
+        store.flushAll();
+
+        verify(cartItemRepository).findById_CartIDAndId_ItemIDIn(CART_ID, Set.of("A", "B"));
+        verify(cartItemRepository).saveAll(argThat(rows -> quantities(rows).equals(Map.of("A", 3, "B", 4))));
+        verify(cartItemRepository).deleteAllInBatch(argThat(rows -> !rows.iterator().hasNext()));
+
+        // Nothing changed since - nothing to write
+        store.flushAll();
+        verify(cartItemRepository, times(1)).saveAll(any());
+    }
+
+    @Test
+    void flushDeletesRemovedItems() {
+        store.apply(CART_ID, Map.of("A", -2));
+        when(cartItemRepository.findById_CartIDAndId_ItemIDIn(eq(CART_ID), anyCollection()))
+                .thenReturn(List.of(cartItem("A", 2)));
+
+        store.flushAll();
+
+        verify(cartItemRepository).deleteAllInBatch(argThat(rows -> quantities(rows).equals(Map.of("A", 2))));
+        verify(cartItemRepository).saveAll(argThat(rows -> !rows.iterator().hasNext()));
+    }
+
+    @Test
+    void failedFlushKeepsTheChanges() {
+        store.apply(CART_ID, Map.of("B", 1));
+        when(cartItemRepository.findById_CartIDAndId_ItemIDIn(eq(CART_ID), anyCollection()))
+                .thenThrow(new RuntimeException("database down"))
+                .thenReturn(List.of());
+
+        store.flushAll();
+        store.flushAll();
+
+        verify(cartItemRepository, times(1)).saveAll(argThat(rows -> quantities(rows).equals(Map.of("B", 1))));
+    }
+
+    @Test
+    void cartIsDroppedAfterTooManyFailedWrites() {
+        store.apply(CART_ID, Map.of("B", 1));
+        when(cartItemRepository.findById_CartIDAndId_ItemIDIn(eq(CART_ID), anyCollection()))
+                .thenThrow(new RuntimeException("constraint violation"));
+
+        store.flushAll();
+        store.flushAll();
+        assertTrue(store.peek(CART_ID).isPresent());  // Still retried
+
+        store.flushAll();
+        assertTrue(store.peek(CART_ID).isEmpty());
+        assertTrue(store.findCartsContaining(List.of("A", "B")).isEmpty());
+
+        store.flushAll();
+        verify(cartItemRepository, times(3)).findById_CartIDAndId_ItemIDIn(eq(CART_ID), anyCollection());
+    }
+
+    @Test
+    void successfulWriteResetsTheFailures() {
+        store.apply(CART_ID, Map.of("B", 1));
+        when(cartItemRepository.findById_CartIDAndId_ItemIDIn(eq(CART_ID), anyCollection()))
+                .thenThrow(new RuntimeException("database down"))
+                .thenThrow(new RuntimeException("database down"))
+                .thenReturn(List.of())
+                .thenThrow(new RuntimeException("database down"));
+
+        store.flushAll();
+        store.flushAll();
+        store.flushAll();
+        store.apply(CART_ID, Map.of("B", 1));
+        store.flushAll();
+
+        assertTrue(store.peek(CART_ID).isPresent());
+    }
+
+    @Test
+    void deletedCartIsNotWritten() {
+        // The cart is loaded and changed while it is being deleted
+        store.apply(CART_ID, Map.of("B", 1));
+        when(shoppingCartRepository.existsByCartIDAndStatus(CART_ID, CartStatus.ACTIVE)).thenReturn(false);
+
+        store.flushAll();
+
+        verify(cartItemRepository, never()).saveAll(any());
+        assertTrue(store.peek(CART_ID).isEmpty());
+    }
+
+    @Test
+    void flushAndRemoveWritesAndDropsTheCart() {
+        store.apply(CART_ID, Map.of("B", 1));
+        when(cartItemRepository.findById_CartIDAndId_ItemIDIn(eq(CART_ID), anyCollection())).thenReturn(List.of());
+
+        store.flushAndRemove(CART_ID);
+
+        verify(cartItemRepository).saveAll(argThat(rows -> quantities(rows).equals(Map.of("B", 1))));
+        assertTrue(store.peek(CART_ID).isEmpty());
+        assertTrue(store.findCartsContaining(List.of("A", "B")).isEmpty());
+    }
+
+    private static ShoppingCart cart(Long cartId, CartStatus status) {
+        User user = new User();
+        user.setUserID(USER_ID);
+        ShoppingCart cart = new ShoppingCart();
+        cart.setCartID(cartId);
+        cart.setUser(user);
+        cart.setStatus(status);
+        return cart;
+    }
+
+    private static CartItem cartItem(String itemId, int quantity) {
+        CartItem cartItem = new CartItem();
+        cartItem.setId(new CartItemKey(CART_ID, itemId));
+        cartItem.setQuantity(quantity);
+        return cartItem;
+    }
+
+    private static Map<String, Integer> quantities(Iterable<CartItem> rows) {
+        Map<String, Integer> quantities = new HashMap<>();
+        for (CartItem row : rows) {
+            quantities.put(row.getId().getItemID(), row.getQuantity());
+        }
+        return quantities;
+    }
+}
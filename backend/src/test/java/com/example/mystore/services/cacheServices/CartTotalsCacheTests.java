@@ -0,0 +1,96 @@
+package com.example.mystore.services.cacheServices;
+
+import com.example.mystore.database.entities.Item;
+import com.example.mystore.dto.api.response.CartItemDTO;
+import com.example.mystore.services.cacheServices.ActiveCartStore.CartView;
+import com.example.mystore.services.events.PriceChangesEvent;
+import com.example.mystore.services.events.PriceChangesEvent.PriceChange;
+import com.example.mystore.services.indexServices.CatalogSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CartTotalsCacheTests {
+    private static final CartView CART_AB = new CartView(10L, 1L, 3, new TreeMap<>(Map.of("A", 2, "B", 1)));
+    private static final CartView CART_C = new CartView(11L, 2L, 5, Map.of("C", 1));
+
+    private ActiveCartStore activeCartStore;
+    private CartTotalsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        activeCartStore = mock(ActiveCartStore.class);
+        when(activeCartStore.peek(10L)).thenReturn(Optional.of(CART_AB));
+        when(activeCartStore.peek(11L)).thenReturn(Optional.of(CART_C));
+        when(activeCartStore.findCartsContaining(anyCollection())).thenReturn(Set.of());
+        when(activeCartStore.findCartsContaining(argThat(ids -> ids.contains("A")))).thenReturn(Set.of(10L));
+
+        cache = new CartTotalsCache(activeCartStore);
+        CatalogSnapshot first = snapshot(1, 5.0);
+        cache.rebuild(first);
+        cache.put(CART_AB, 1, lines(first, CART_AB));
+        cache.put(CART_C, 1, lines(first, CART_C));
+    }
+
+    @Test
+    void onlyCartsWithChangedItemsAreRepriced() {
+        cache.onPriceChanges(new PriceChangesEvent(List.of(new PriceChange("A", 7L, 5.0, 4.0))));
+
+        cache.rebuild(snapshot(2, 4.0));
+
+        assertEquals(8.0, cache.get(CART_AB).orElseThrow().get(0).getTotalMinPrice());  // 2 x 4.0
+        assertEquals(1, cache.get(CART_C).orElseThrow().size());  // Carried over to the new snapshot
+        verify(activeCartStore).findCartsContaining(Set.of("A"));
+    }
+
+    @Test
+    void withoutPriceChangesNothingIsRepriced() {
+        cache.rebuild(snapshot(2, 5.0));
+
+        verify(activeCartStore, never()).findCartsContaining(any());
+        assertTrue(cache.get(CART_AB).isPresent());
+        assertTrue(cache.get(CART_C).isPresent());
+    }
+
+    @Test
+    void changedItemsAreRepricedOnTheFollowingRebuildToo() {
+        cache.onPriceChanges(new PriceChangesEvent(List.of(new PriceChange("A", 7L, 5.0, 4.0))));
+        // The change was saved while this snapshot was being loaded - it still has the old price
+        cache.rebuild(snapshot(2, 5.0));
+
+        cache.rebuild(snapshot(3, 4.0));
+
+        assertEquals(8.0, cache.get(CART_AB).orElseThrow().get(0).getTotalMinPrice());
+    }
+
+    // Items A, B and C; A has the given price, B and C cost 1.0
+    private static CatalogSnapshot snapshot(long version, double priceOfA) {
+        return new CatalogSnapshot(version, List.of(item("A", priceOfA), item("B", 1.0), item("C", 1.0)));
+    }
+
+    private static Item item(String itemId, double price) {
+        Item item = new Item();
+        item.setItemID(itemId);
+        item.setItemName(itemId);
+        item.setLowestPrice(price);
+        item.setHighestPrice(price);
+        return item;
+    }
+
+    private static List<CartItemDTO> lines(CatalogSnapshot snapshot, CartView cart) {
+        List<CartItemDTO> lines = new ArrayList<>();
+        cart.getQuantities().forEach((itemId, quantity) ->
+                lines.add(CartTotalsCache.toLine(snapshot.itemAt(snapshot.ordinalOf(itemId)), quantity)));
+        return lines;
+    }
+}
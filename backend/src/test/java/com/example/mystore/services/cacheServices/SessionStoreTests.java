@@ -0,0 +1,159 @@
+package com.example.mystore.services.cacheServices;
+
+import com.example.mystore.database.entities.UserSession;
+import com.example.mystore.database.repositories.UserSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SessionStoreTests {
+    private static final long TTL_MINUTES = 60;
+    private static final String OLD = "00000000-0000-4000-8000-000000000001";
+    private static final String OTHER_NODE = "00000000-0000-4000-8000-000000000002";
+    private static final String STORED = "00000000-0000-4000-8000-000000000003";
+    private static final String MISSING = "00000000-0000-4000-8000-000000000004";
+
+    private UserSessionRepository userSessionRepository;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        userSessionRepository = mock(UserSessionRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(userSessionRepository.findById(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void createdSessionIsValidatedFromMemory() {
+        SessionStore store = store(TTL_MINUTES);
+        String sessionId = store.create(7L);
+
+        assertEquals(Optional.of(7L), store.validate(sessionId));
+        verify(userSessionRepository).save(argThat(row -> row.getSessionID().equals(sessionId) && row.getUserID() == 7L));
+        verify(userSessionRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void unknownOrBlankSessionIsRejected() {
+        SessionStore store = store(TTL_MINUTES);
+
+        assertTrue(store.validate(null).isEmpty());
+        assertTrue(store.validate(" ").isEmpty());
+        assertTrue(store.validate(MISSING).isEmpty());
+    }
+
+    @Test
+    void malformedSessionIsRejectedWithoutALookup() {
+        SessionStore store = store(TTL_MINUTES);
+
+        for (String sessionId : new String[]{"missing", "' OR 1=1 --", "ABCDEF00-0000-4000-8000-000000000004", MISSING + "0", "0-0-0-0-0"}) {
+            assertTrue(store.validate(sessionId).isEmpty(), sessionId);
+        }
+        verify(userSessionRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void missedSessionIsNotLookedUpAgainRightAway() {
+        SessionStore store = store(TTL_MINUTES);
+
+        assertTrue(store.validate(MISSING).isEmpty());
+        assertTrue(store.validate(MISSING).isEmpty());
+        verify(userSessionRepository, times(1)).findById(MISSING);
+    }
+
+    @Test
+    void expiredSessionIsRejected() {
+        SessionStore store = store(0);  // Every session expires as soon as it is created
+        String sessionId = store.create(7L);
+
+        assertTrue(store.validate(sessionId).isEmpty());
+    }
+
+    @Test
+    void expiredStoredSessionIsNotLoaded() {
+        SessionStore store = store(TTL_MINUTES);
+        when(userSessionRepository.findById(OLD)).thenReturn(Optional.of(row(OLD, 7L, LocalDateTime.now().minusMinutes(1))));
+
+        assertTrue(store.validate(OLD).isEmpty());
+    }
+
+    @Test
+    void storedSessionIsLoadedOnce() {
+        SessionStore store = store(TTL_MINUTES);
+        when(userSessionRepository.findById(OTHER_NODE)).thenReturn(Optional.of(row(OTHER_NODE, 7L, LocalDateTime.now().plusMinutes(5))));
+
+        assertEquals(Optional.of(7L), store.validate(OTHER_NODE));
+        assertEquals(Optional.of(7L), store.validate(OTHER_NODE));
+        verify(userSessionRepository, times(1)).findById(OTHER_NODE);
+    }
+
+    @Test
+    void syncWritesTheRefreshedExpiry() {
+        SessionStore store = store(TTL_MINUTES);
+        when(userSessionRepository.findById(STORED)).thenReturn(Optional.of(row(STORED, 7L, LocalDateTime.now().plusMinutes(5))));
+        when(userSessionRepository.findExistingIds(anyCollection())).thenReturn(List.of(STORED));
+
+        LocalDateTime before = LocalDateTime.now();
+        store.validate(STORED);  // Moves the expiry from 5 minutes to the full TTL
+        store.sync();
+
+        verify(userSessionRepository).extend(eq(STORED), argThat(expiresAt -> expiresAt.isAfter(before.plusMinutes(TTL_MINUTES - 1))));
+        assertEquals(Optional.of(7L), store.validate(STORED));
+    }
+
+    @Test
+    void syncSkipsSmallRefreshes() {
+        SessionStore store = store(TTL_MINUTES);
+        String sessionId = store.create(7L);
+        when(userSessionRepository.findExistingIds(anyCollection())).thenReturn(List.of(sessionId));
+
+        store.validate(sessionId);  // Moves the expiry by far less than a tenth of the TTL
+        store.sync();
+
+        verify(userSessionRepository, never()).extend(anyString(), any());
+    }
+
+    @Test
+    void syncDropsSessionsLoggedOutElsewhere() {
+        SessionStore store = store(TTL_MINUTES);
+        String sessionId = store.create(7L);
+        when(userSessionRepository.findExistingIds(anyCollection())).thenReturn(List.of());
+
+        store.sync();
+
+        assertTrue(store.validate(sessionId).isEmpty());
+        verify(userSessionRepository).findById(sessionId);
+    }
+
+    @Test
+    void invalidatedSessionIsRejected() {
+        SessionStore store = store(TTL_MINUTES);
+        String sessionId = store.create(7L);
+        when(userSessionRepository.existsById(sessionId)).thenReturn(true);
+
+        assertTrue(store.invalidate(sessionId));
+        assertTrue(store.validate(sessionId).isEmpty());
+        verify(userSessionRepository).deleteById(sessionId);
+    }
+
+    private SessionStore store(long ttlMinutes) {
+        return new SessionStore(userSessionRepository, transactionManager, ttlMinutes);
+    }
+
+    private static UserSession row(String sessionId, Long userId, LocalDateTime expiresAt) {
+        UserSession row = new UserSession();
+        row.setSessionID(sessionId);
+        row.setUserID(userId);
+        row.setCreatedAt(expiresAt.minusMinutes(TTL_MINUTES));
+        row.setExpiresAt(expiresAt);
+        return row;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.mystore.services.indexServices;
+
+import com.example.mystore.database.entities.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemNameIndexTests {
+    // Plain names (letters, digits and single spaces), where the index must answer exactly like
+    // `LOWER(item_name) LIKE '%' || LOWER(query) || '%' ORDER BY item_id`
+    private static final String[] NAMES = {
+            "Milk 3", "Chocolate Milk", "Soy milk drink", "Cottage cheese 5", "Cheese slices",
+            "חלב תנובה 3", "שוקו חלב", "גבינה לבנה 5", "לחמניה מתוקה", "abc bcd", "Abcd bar", "Dark chocolate 70",
+    };
+    private static final String[] QUERIES = {
+            "m", "mi", "mil", "milk", "MILK", "ilk d", "cheese", "ches", "5", "70", "חל", "חלב", "חלב ת", "לבנה",
+            "abcd", "bcd", "c bc", "chocolate", "choco milk", "zzz",
+    };
+
+    private CatalogSnapshot snapshot;
+    private ItemNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < NAMES.length; i++) {
+            items.add(item(String.format("%04d", i), NAMES[i]));
+        }
+        snapshot = new CatalogSnapshot(1, items);
+        index = new ItemNameIndex();
+        index.rebuild(snapshot);
+    }
+
+    @Test
+    void searchMatchesLike() {
+        for (String query : QUERIES) {
+            Page<Item> page = index.search(query, PageRequest.of(0, 100)).orElseThrow();
+            assertEquals(like(query), ids(page.getContent()), query);
+            assertEquals(like(query).size(), page.getTotalElements(), query);
+        }
+    }
+
+    @Test
+    void trigramsThatAreNotAdjacentDoNotMatch() {
+        // "abc bcd" has both trigrams of "abcd" - only "Abcd bar" contains it
+        assertEquals(List.of("0010"), ids(index.search("abcd", PageRequest.of(0, 10)).orElseThrow().getContent()));
+    }
+
+    @Test
+    void pagesFollowItemIdOrder() {
+        List<String> expected = like("e");
+        List<String> paged = new ArrayList<>();
+        for (int page = 0; page * 3 < expected.size(); page++) {
+            Page<Item> result = index.search("e", PageRequest.of(page, 3)).orElseThrow();
+            assertEquals(expected.size(), result.getTotalElements());
+            paged.addAll(ids(result.getContent()));
+        }
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    void searchAfterWalksAllMatches() {
+        for (String query : QUERIES) {
+            List<String> walked = new ArrayList<>();
+            String after = null;
+            while (true) {
+                List<Item> page = index.searchAfter(query, after, 2).orElseThrow();
+                if (page.isEmpty()) {
+                    break;
+                }
+                walked.addAll(ids(page));
+                after = page.get(page.size() - 1).getItemID();
+            }
+            assertEquals(like(query), walked, query);
+        }
+    }
+
+    @Test
+    void matchingOrdinalsMatchLike() {
+        BitSet matches = index.matchingOrdinals("milk", snapshot).orElseThrow();
+        List<String> ids = new ArrayList<>();
+        matches.stream().forEach(ordinal -> ids.add(snapshot.idAt(ordinal)));
+        assertEquals(like("milk"), ids);
+
+        assertTrue(index.matchingOrdinals("milk", new CatalogSnapshot(2, List.of())).isEmpty());
+    }
+
+    @Test
+    void normalizationFindsMoreThanLike() {
+        // Final letters and geresh are normalized, so these match where LIKE would not
+        Item item = item("9000", "שמן זית");
+        ItemNameIndex normalized = new ItemNameIndex();
+        normalized.rebuild(new CatalogSnapshot(1, List.of(item)));
+
+        assertEquals(1, normalized.search("שמנ", PageRequest.of(0, 10)).orElseThrow().getTotalElements());
+        assertEquals(1, normalized.search("ש\"מן", PageRequest.of(0, 10)).orElseThrow().getTotalElements());
+    }
+
+    @Test
+    void emptyBeforeTheFirstBuild() {
+        ItemNameIndex empty = new ItemNameIndex();
+
+        assertFalse(empty.isReady());
+        assertTrue(empty.search("milk", PageRequest.of(0, 10)).isEmpty());
+        assertTrue(empty.searchAfter("milk", null, 10).isEmpty());
+    }
+
+    // The IDs of the items whose name contains the query, case-insensitively, in item ID order
+    private static List<String> like(String query) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT))) {
+                ids.add(String.format("%04d", i));
+            }
+        }
+        return ids;
+    }
+
+    private static List<String> ids(List<Item> items) {
+        List<String> ids = new ArrayList<>();
+        for (Item item : items) {
+            ids.add(item.getItemID());
+        }
+        return ids;
+    }
+
+    static Item item(String itemId, String name) {
+        Item item = new Item();
+        item.setItemID(itemId);
+        item.setItemName(name);
+        return item;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.mystore.services.indexServices;
+
+import com.example.mystore.database.entities.Item;
+import com.example.mystore.database.repositories.CartItemRepository;
+import com.example.mystore.dto.api.response.SuggestionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SuggestIndexTests {
+    // Plain names, where the suggestions must be exactly the texts matching
+    // `LOWER(text) LIKE LOWER(prefix) || '%' OR LOWER(text) LIKE '% ' || LOWER(prefix) || '%'`
+    private static final String[][] ITEMS = {
+            // itemId, name, manufacturer, storeCount
+            {"0001", "חלב תנובה 3", "תנובה", "10"},
+            {"0002", "שוקו תנובה", "תנובה", "4"},
+            {"0003", "חלב טרה", "טרה", "8"},
+            {"0004", "Milk chocolate", "Elite", "2"},
+            {"0005", "Cottage cheese", "Tnuva", "1"},
+            {"0006", "Chocolate chip cookies", "Elite", "6"},
+    };
+    private static final String[] PREFIXES = {
+            "ח", "חל", "חלב", "חלב ת", "תנוב", "ט", "m", "mi", "milk c", "ch", "choc", "chocolate c", "t", "3", "e", "zz",
+    };
+
+    private SuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        CartItemRepository cartItemRepository = mock(CartItemRepository.class);
+        List<Object[]> cartCounts = new ArrayList<>();
+        cartCounts.add(new Object[]{"0002", 3L});
+        when(cartItemRepository.countCartsPerItem()).thenReturn(cartCounts);
+
+        List<Item> items = new ArrayList<>();
+        for (String[] row : ITEMS) {
+            Item item = new Item();
+            item.setItemID(row[0]);
+            item.setItemName(row[1]);
+            item.setManufacturerName(row[2]);
+            item.setStoreCount(Integer.parseInt(row[3]));
+            items.add(item);
+        }
+        index = new SuggestIndex(cartItemRepository);
+        index.rebuild(new CatalogSnapshot(1, items));
+    }
+
+    @Test
+    void suggestionsMatchLikeOnWordStarts() {
+        for (String prefix : PREFIXES) {
+            List<SuggestionDTO> suggestions = index.suggest(prefix, SuggestIndex.MAX_SUGGESTIONS);
+            Set<String> texts = new HashSet<>();
+            for (SuggestionDTO suggestion : suggestions) {
+                texts.add(suggestion.getText());
+            }
+            assertEquals(suggestions.size(), texts.size(), prefix);  // No duplicates
+            assertEquals(like(prefix), texts, prefix);
+        }
+    }
+
+    @Test
+    void suggestionsAreOrderedByPopularity() {
+        for (String prefix : PREFIXES) {
+            List<SuggestionDTO> suggestions = index.suggest(prefix, SuggestIndex.MAX_SUGGESTIONS);
+            for (int i = 1; i < suggestions.size(); i++) {
+                assertTrue(suggestions.get(i - 1).getScore() >= suggestions.get(i).getScore(), prefix);
+            }
+        }
+    }
+
+    @Test
+    void cartsRaiseTheScore() {
+        // שוקו תנובה: 4 stores + 5 * 3 carts = 19, חלב תנובה 3: 10 stores
+        List<String> texts = new ArrayList<>();
+        for (SuggestionDTO suggestion : index.suggest("תנובה", SuggestIndex.MAX_SUGGESTIONS)) {
+            texts.add(suggestion.getText());
+        }
+        assertTrue(texts.indexOf("שוקו תנובה") < texts.indexOf("חלב תנובה 3"));
+    }
+
+    @Test
+    void manufacturerTakesTheScoreOfItsMostPopularItem() {
+        SuggestionDTO manufacturer = index.suggest("תנובה", SuggestIndex.MAX_SUGGESTIONS).stream()
+                .filter(suggestion -> suggestion.getType().equals("MANUFACTURER"))
+                .findFirst().orElseThrow();
+        assertEquals(19.0, manufacturer.getScore());
+    }
+
+    @Test
+    void limitIsApplied() {
+        assertEquals(1, index.suggest("ח", 1).size());
+        assertEquals(1, index.suggest("chocolate", 1).size());
+        assertTrue(index.suggest(" ", 10).isEmpty());
+    }
+
+    // The texts (item names and manufacturers) with a word starting with the prefix, case-insensitively
+    private static Set<String> like(String prefix) {
+        String wordStart = " " + prefix.toLowerCase(Locale.ROOT);
+        Set<String> texts = new HashSet<>();
+        for (String[] row : ITEMS) {
+            for (String text : new String[]{row[1], row[2]}) {
+                if ((" " + text.toLowerCase(Locale.ROOT)).contains(wordStart)) {
+                    texts.add(text);
+                }
+            }
+        }
+        return texts;
+    }
+}
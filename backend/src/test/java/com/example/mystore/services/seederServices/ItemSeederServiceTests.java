@@ -0,0 +1,72 @@
+package com.example.mystore.services.seederServices;
+
+import com.example.mystore.database.cleaning.ItemCleaner;
+import com.example.mystore.database.cleaning.UnitPriceCalculator;
+import com.example.mystore.database.entities.Item;
+import com.example.mystore.database.repositories.ItemPriceRepository;
+import com.example.mystore.database.repositories.ItemRepository;
+import com.example.mystore.dto.xml.ItemXmlDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ItemSeederServiceTests {
+    private ItemRepository itemRepository;
+    private ItemPriceRepository itemPriceRepository;
+    private ItemSeederService itemSeederService;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        itemPriceRepository = mock(ItemPriceRepository.class);
+        itemSeederService = new ItemSeederService(itemRepository, itemPriceRepository, new ItemCleaner());
+    }
+
+    @Test
+    void ingestRecalculatesItemsTheBackfillCouldNotRecover() {
+        // Stored by the backfill as not comparable: "ליטר" may be a raw "יחידה"
+        Item stored = new Item();
+        stored.setItemID("1");
+        stored.setUnitQty("ליטר");
+        stored.setUnitPriceBasis(UnitPriceCalculator.NOT_COMPARABLE);
+        when(itemRepository.findAllById(anyIterable())).thenReturn(List.of(stored));
+
+        List<Item> incoming = itemSeederService.createCleanItems(List.of(dto("1", "יחידה", 4.0)));
+        assertEquals(0, itemSeederService.saveNewItems(incoming));
+
+        assertEquals(UnitPriceCalculator.PER_UNIT, stored.getUnitPriceBasis());
+        assertEquals(0.25, stored.getUnitPriceFactor());
+        verify(itemRepository).saveAll(List.of(stored));
+        verify(itemPriceRepository).updateUnitPrices(Set.of("1"));
+        verify(itemRepository).updateLowestUnitPrices(Set.of("1"));
+    }
+
+    @Test
+    void comparableItemsAreLeftAlone() {
+        Item stored = new Item();
+        stored.setItemID("1");
+        stored.setUnitPriceBasis(UnitPriceCalculator.PER_100_GRAM);
+        stored.setUnitPriceFactor(0.5);
+        when(itemRepository.findAllById(anyIterable())).thenReturn(List.of(stored));
+
+        itemSeederService.saveNewItems(itemSeederService.createCleanItems(List.of(dto("1", "יחידה", 4.0))));
+
+        assertEquals(UnitPriceCalculator.PER_100_GRAM, stored.getUnitPriceBasis());
+        verify(itemPriceRepository, never()).updateUnitPrices(any());
+    }
+
+    private static ItemXmlDTO dto(String itemId, String unitQty, Double quantity) {
+        ItemXmlDTO dto = new ItemXmlDTO();
+        dto.setItemID(itemId);
+        dto.setUnitQty(unitQty);
+        dto.setQuantity(quantity);
+        dto.setWeighted(false);
+        return dto;
+    }
+}
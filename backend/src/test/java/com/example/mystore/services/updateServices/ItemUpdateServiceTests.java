@@ -0,0 +1,92 @@
+package com.example.mystore.services.updateServices;
+
+import com.example.mystore.database.cleaning.UnitPriceCalculator;
+import com.example.mystore.database.entities.Item;
+import com.example.mystore.database.repositories.ItemPriceRepository;
+import com.example.mystore.database.repositories.ItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ItemUpdateServiceTests {
+    private ItemRepository itemRepository;
+    private ItemPriceRepository itemPriceRepository;
+    private ItemUpdateService itemUpdateService;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        itemPriceRepository = mock(ItemPriceRepository.class);
+        itemUpdateService = new ItemUpdateService(itemRepository, itemPriceRepository);
+        when(itemRepository.existsByUnitPriceBasisIsNull()).thenReturn(true);
+    }
+
+    @Test
+    void renamedUnitIsNotTakenAtFaceValue() {
+        // ItemCleaner stores a raw "יחידה" as "ליטר" - it must not become a per-100-ml price
+        Item item = item("ליטר", 6.0, false);
+        when(itemRepository.findByUnitPriceBasisIsNull()).thenReturn(List.of(item));
+
+        assertTrue(itemUpdateService.backfillUnitPricesIfMissing());
+
+        assertEquals(UnitPriceCalculator.NOT_COMPARABLE, item.getUnitPriceBasis());
+        assertNull(item.getUnitPriceFactor());
+        verify(itemRepository).saveAll(List.of(item));
+        verify(itemPriceRepository).updateAllUnitPrices();
+    }
+
+    @Test
+    void recoverableUnitsGetTheirBasis() {
+        Item grams = item("גרם", 200.0, false);              // Raw "גרם" or "גרמים"
+        Item kilograms = item("ק\"ג", 2.0, false);           // Raw "ק\"ג", "ק\"\"ג" or "קילוגרמים"
+        Item units = item("יחידות", 4.0, false);             // Not renamed by ItemCleaner
+        Item weighted = item("יחידה", 1.0, true);            // Weighted - decided by the unit of measure
+        weighted.setUnitOfMeasure("ק\"ג");
+        when(itemRepository.findByUnitPriceBasisIsNull()).thenReturn(List.of(grams, kilograms, units, weighted));
+
+        itemUpdateService.backfillUnitPricesIfMissing();
+
+        assertEquals(UnitPriceCalculator.PER_100_GRAM, grams.getUnitPriceBasis());
+        assertEquals(0.5, grams.getUnitPriceFactor());
+        assertEquals(UnitPriceCalculator.PER_100_GRAM, kilograms.getUnitPriceBasis());
+        assertEquals(0.05, kilograms.getUnitPriceFactor(), 1e-9);
+        assertEquals(UnitPriceCalculator.PER_UNIT, units.getUnitPriceBasis());
+        assertEquals(0.25, units.getUnitPriceFactor());
+        assertEquals(UnitPriceCalculator.PER_100_GRAM, weighted.getUnitPriceBasis());
+        assertEquals(0.1, weighted.getUnitPriceFactor());
+    }
+
+    @Test
+    void ambiguousUnitsAreNotComparable() {
+        List<Item> items = List.of(item("יחידה", 1.0, false), item("מ\"ל", 500.0, false), item("מטר", 1.0, false));
+        when(itemRepository.findByUnitPriceBasisIsNull()).thenReturn(items);
+
+        itemUpdateService.backfillUnitPricesIfMissing();
+
+        for (Item item : items) {
+            assertEquals(UnitPriceCalculator.NOT_COMPARABLE, item.getUnitPriceBasis(), item.getUnitQty());
+            assertNull(item.getUnitPriceFactor(), item.getUnitQty());
+        }
+    }
+
+    @Test
+    void nothingToDoOnceCalculated() {
+        when(itemRepository.existsByUnitPriceBasisIsNull()).thenReturn(false);
+
+        assertFalse(itemUpdateService.backfillUnitPricesIfMissing());
+        verify(itemPriceRepository, never()).updateAllUnitPrices();
+    }
+
+    private static Item item(String cleanedUnitQty, Double quantity, boolean weighted) {
+        Item item = new Item();
+        item.setItemID(cleanedUnitQty + quantity);
+        item.setUnitQty(cleanedUnitQty);
+        item.setQuantity(quantity);
+        item.setBIsWeighted(weighted);
+        return item;
+    }
+}
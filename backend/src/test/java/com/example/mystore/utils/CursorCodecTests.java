@@ -0,0 +1,44 @@
+package com.example.mystore.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTests {
+
+    @Test
+    void keysRoundTrip() {
+        for (String key : new String[]{"", "7290000000015", "חלב|3", "2024-05-01T10:15:30.123456|42", "a/b+c=d"}) {
+            String cursor = CursorCodec.encode(key);
+            assertTrue(cursor.matches("[A-Za-z0-9_-]*"), cursor);  // URL-safe, no padding
+            assertEquals(key, CursorCodec.decode(cursor));
+        }
+    }
+
+    @Test
+    void numericKeysRoundTrip() {
+        for (long key : new long[]{0, 1, 42, Long.MAX_VALUE}) {
+            assertEquals(key, CursorCodec.decodeLong(CursorCodec.encode(String.valueOf(key))));
+        }
+    }
+
+    @Test
+    void emptyCursorIsTheFirstPage() {
+        assertNull(CursorCodec.decode(null));
+        assertNull(CursorCodec.decode(""));
+        assertNull(CursorCodec.decode("  "));
+        assertNull(CursorCodec.decodeLong(null));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        String unversioned = Base64.getUrlEncoder().withoutPadding().encodeToString("42".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(unversioned));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decodeLong(CursorCodec.encode("abc")));
+    }
+}
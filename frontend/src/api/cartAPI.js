@@ -1,3 +1,4 @@
+import { sessionFetch, sessionHeaders } from "./userAPI";
 const BASE_URL = "http://localhost:8080/api/shopping-carts";
 
 //maybe delete - I create automatically  activate cart (if not exists one) through getActiveCartId
@@ -20,7 +21,7 @@ const BASE_URL = "http://localhost:8080/api/shopping-carts";
  * @throws {Error}                   If the request fails.
  */
 export const getActiveCartId = async (userId) => {
-  const response = await fetch(`${BASE_URL}/active/${userId}`);
+  const response = await sessionFetch(`${BASE_URL}/active/${userId}`, { headers: sessionHeaders() });
   if (!response.ok) throw new Error("Failed to fetch active cart ID");
   return await response.json();
 };
@@ -37,8 +38,9 @@ export const archiveCart = async (cartId, cartName) => {
     cartId: cartId,
     cartName: cartName ?? ""
   });
-  const response = await fetch(`${BASE_URL}/archive?${params.toString()}`, {
+  const response = await sessionFetch(`${BASE_URL}/archive?${params.toString()}`, {
     method: "PUT",
+    headers: sessionHeaders(),
   });
   if (!response.ok) throw new Error("Failed to archive cart");
   return await response.json();
@@ -52,8 +54,9 @@ export const archiveCart = async (cartId, cartName) => {
  */
 
 export const activateCart = async (cartId) => {
-  const response = await fetch(`${BASE_URL}/${cartId}/activate`, {
+  const response = await sessionFetch(`${BASE_URL}/${cartId}/activate`, {
     method: "PUT",
+    headers: sessionHeaders(),
   });
   if (!response.ok) throw new Error("Failed to activate cart");
 };
@@ -65,8 +68,9 @@ export const activateCart = async (cartId) => {
  * @throws {Error}                If deletion fails.
  */
 export const deleteCart = async (cartId) => {
-  const response = await fetch(`${BASE_URL}/${cartId}`, {
+  const response = await sessionFetch(`${BASE_URL}/${cartId}`, {
     method: "DELETE",
+    headers: sessionHeaders(),
   });
   if (!response.ok) throw new Error("Failed to delete cart");
 };
@@ -78,7 +82,22 @@ export const deleteCart = async (cartId) => {
  * @throws {Error}                If fetching the history fails.
  */
 export const getCartHistory = async (userId) => {
-  const response = await fetch(`${BASE_URL}/history/${userId}`);
+  const response = await sessionFetch(`${BASE_URL}/history/${userId}`, { headers: sessionHeaders() });
   if (!response.ok) throw new Error("Failed to fetch cart history");
   return await response.json();
-};
\ No newline at end of file
+};
+/**
+ * Retrieve one page of the user’s past carts, newest first.
+ *
+ * @param {string|number} userId  Identifier of the user.
+ * @param {string}        cursor  nextCursor of the previous page ("" for the first page).
+ * @param {number}        size    Number of carts per page.
+ * @returns {Promise<{content: Array, nextCursor: string|null, hasNext: boolean}>}
+ * @throws {Error}                If fetching the history fails.
+ */
+export const getCartHistoryPage = async (userId, cursor = "", size = 20) => {
+  const params = new URLSearchParams({ cursor, size });
+  const response = await sessionFetch(`${BASE_URL}/history/${userId}?${params}`, { headers: sessionHeaders() });
+  if (!response.ok) throw new Error("Failed to fetch cart history");
+  return await response.json();
+};
@@ -1,3 +1,4 @@
+import { sessionFetch, sessionHeaders } from "./userAPI";
 const BASE_URL = "http://localhost:8080/api/cart-items";
 /**
  * Fetch active cart items for the specified user.
@@ -7,7 +8,7 @@ const BASE_URL = "http://localhost:8080/api/cart-items";
  * @throws {Error}                If fetching the active cart items fails.
  */
 export const getActiveCartItems = async (userId) => {
-  const response = await fetch(`${BASE_URL}/user/${userId}`);
+  const response = await sessionFetch(`${BASE_URL}/user/${userId}`, { headers: sessionHeaders() });
   if (!response.ok) throw new Error("Failed to fetch active cart items");
   return await response.json();
 };
@@ -20,7 +21,7 @@ export const getActiveCartItems = async (userId) => {
  * @throws {Error}                If fetching the archived cart items fails.
  */
 export const getArchivedCartItems = async (cartId) => {
-  const response = await fetch(`${BASE_URL}/cart/${cartId}`);
+  const response = await sessionFetch(`${BASE_URL}/cart/${cartId}`, { headers: sessionHeaders() });
   if (!response.ok) throw new Error("Failed to fetch active cart items");
   return await response.json();
 };
@@ -36,7 +37,7 @@ export const getArchivedCartItems = async (cartId) => {
 
 export const addItemToCart = async (cartId, itemId, quantity) => {
   const url = `${BASE_URL}/${cartId}/items/${itemId}?quantity=${quantity}`;
-  const response = await fetch(url, { method: "POST" });
+  const response = await sessionFetch(url, { method: "POST", headers: sessionHeaders() });
   if (!response.ok) throw new Error("Failed to add item to cart");
   return ;
 };
@@ -51,6 +52,25 @@ export const addItemToCart = async (cartId, itemId, quantity) => {
  */
 export const removeItemFromCart = async (cartId, itemId, quantity) => {
   const url = `${BASE_URL}/${cartId}/items/${itemId}?quantity=${quantity}`;
-  const response = await fetch(url, { method: "DELETE" });
+  const response = await sessionFetch(url, { method: "DELETE", headers: sessionHeaders() });
   if (!response.ok) throw new Error("Failed to remove item from cart");
-};
\ No newline at end of file
+};
+
+/**
+ * Apply several quantity changes to a cart in one request.
+ *
+ * @param {string|number} cartId      Identifier of the cart.
+ * @param {Array<{itemId: string, delta: number}>} operations
+ *                                    Quantity changes (negative delta removes).
+ * @returns {Promise<Array>}          Resolves with the cart items after the changes.
+ * @throws {Error}                    If updating the cart fails.
+ */
+export const applyCartOperations = async (cartId, operations) => {
+  const response = await sessionFetch(`${BASE_URL}/${cartId}/batch`, {
+    method: "POST",
+    headers: { "Content-Type": "application/json", ...sessionHeaders() },
+    body: JSON.stringify(operations),
+  });
+  if (!response.ok) throw new Error("Failed to update cart");
+  return await response.json();
+};
@@ -17,6 +17,51 @@ export const sendComparisonRequest = async (payload) => {
     throw error;
   }
 };
+/**
+ * Send a comparison request and receive the results progressively.
+ * The backend answers with NDJSON - one store result per line, in the
+ * order the stores finish - and every parsed result is passed to onResult.
+ *
+ * @param {Object} payload    Contains comparison parameters
+ *                            (e.g. selected stores, items).
+ * @param {Function} onResult Called with each store result as it arrives.
+ * @returns {Promise<void>}   Resolves when the stream is complete.
+ */
+export const streamComparisonRequest = async (payload, onResult) => {
+  const response = await fetch(`${BASE_URL}/compare/stream`, {
+    method: "POST",
+    headers: {
+      "Content-Type": "application/json",
+      Accept: "application/x-ndjson",
+    },
+    body: JSON.stringify(payload),
+  });
+
+  if (!response.ok || !response.body) {
+    const message = await response.text();
+    throw new Error(message || "Streaming comparison failed");
+  }
+
+  const reader = response.body.getReader();
+  const decoder = new TextDecoder();
+  let buffer = "";
+
+  while (true) {
+    const { value, done } = await reader.read();
+    if (done) break;
+    buffer += decoder.decode(value, { stream: true });
+
+    let newlineIndex;
+    while ((newlineIndex = buffer.indexOf("\n")) >= 0) {
+      const line = buffer.slice(0, newlineIndex).trim();
+      buffer = buffer.slice(newlineIndex + 1);
+      if (line) onResult(JSON.parse(line));
+    }
+  }
+
+  const rest = buffer.trim();
+  if (rest) onResult(JSON.parse(rest));
+};
 /**
  * Fetch alternative items for a given store and item.
  * 
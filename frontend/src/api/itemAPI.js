@@ -21,6 +21,21 @@ export const searchItems = async (query, page = 0, size = 30) => {
   return response.data.content ?? response.data;
 };
 
+/**
+ * Get typeahead suggestions (item and manufacturer names) for partial input.
+ * Cheap enough to call on every keystroke.
+ *
+ * @param {string} prefix  Text typed so far.
+ * @param {number} limit   Maximum number of suggestions.
+ * @returns {Promise<Array>}  Suggestions, most popular first.
+ */
+export const suggestItems = async (prefix, limit = 10) => {
+  const response = await axios.get(`${BASE_URL}/suggest`, {
+    params: { prefix, limit }
+  });
+  return response.data;
+};
+
 //Products by general category
 export const getItemsByGeneralCategory = async (category, page = 0, size = 30) => {
   const response = await axios.get(`${BASE_URL}/by-general-category`, {
@@ -1,4 +1,33 @@
 const BASE_URL = "http://localhost:8080/api/users";
+/**
+ * Headers that identify the logged-in user's session.
+ * Required by the cart and watch endpoints.
+ *
+ * @returns {Object}  The X-Session-Id header, or no headers when nobody is logged in.
+ */
+export const sessionHeaders = () => {
+  const storedUser = JSON.parse(localStorage.getItem("user"));
+  return storedUser?.sessionNumber ? { "X-Session-Id": storedUser.sessionNumber } : {};
+};
+/**
+ * fetch() for endpoints that require a session.
+ *
+ * A 401 means the stored session is no longer valid (expired, logged out elsewhere,
+ * or created before sessions moved to the server's session store), so the stored user
+ * is cleared and the browser is sent to the login page.
+ *
+ * @param {string} url       The request URL.
+ * @param {Object} options   fetch() options (headers should include sessionHeaders()).
+ * @returns {Promise<Response>}  The fetch response.
+ */
+export const sessionFetch = async (url, options = {}) => {
+  const response = await fetch(url, options);
+  if (response.status === 401) {
+    localStorage.removeItem("user");
+    window.location.assign("/login");
+  }
+  return response;
+};
 /**
  * Attempt to authenticate a user with email and password.
  *
@@ -12,6 +12,7 @@ import ItemModal from "./ItemModal";
  * @param {Object} props.storeResult           Comparison data for this store.
  * @param {Object} props.storeResult.store     Store metadata (chainName, storeName, address, city).
  * @param {Object[]} props.storeResult.items   List of cart items with price info.
+ * @param {string} [props.storeResult.error]   Set when the store could not be priced - shown as unavailable.
  * @returns {JSX.Element}
  */
 
@@ -67,6 +68,22 @@ const ComparisonCard = ({ storeResult }) => {
   };
 
   const { store } = storeResult;
+
+  // The store could not be priced - show it without items and totals
+  if (storeResult.error) {
+    return (
+      <div className="bg-white rounded-2xl shadow-lg p-6 border border-gray-200 flex flex-col h-full opacity-75">
+        <h3 className="text-lg font-bold text-blue-800">
+          {store.chainName} - {store.storeName}
+        </h3>
+        <p className="text-sm text-gray-600">
+          {store.storeAddress}, {store.storeCity}
+        </p>
+        <p className="text-red-500 mt-4">המחירים בסניף זה אינם זמינים כרגע.</p>
+      </div>
+    );
+  }
+
   const missingItems = storeItems.filter((item) => item.price === null);
   const hasMissing = missingItems.length > 0;
 
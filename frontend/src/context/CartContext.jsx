@@ -1,4 +1,4 @@
-import React, { createContext, useState, useContext, useEffect } from "react";
+import React, { createContext, useState, useContext, useEffect, useRef } from "react";
 import { useUser } from "./UserContext";
 import {
   deleteCart,
@@ -8,8 +8,7 @@ import {
   getActiveCartId,
 } from "../api/cartAPI";
 import {
-  addItemToCart,
-  removeItemFromCart,
+  applyCartOperations,
   getActiveCartItems,
   getArchivedCartItems
 } from "../api/cartItemsAPI";
@@ -17,6 +16,9 @@ import {
 
 const CartContext = createContext();
 
+//Quick clicks on +/- are collected for this long and sent to the server as one batch request
+const CART_FLUSH_DELAY_MS = 300;
+
 export const CartProvider = ({ children }) => {
   const {currentUser} = useUser();
   const [cartItems, setCartItems] = useState([]);
@@ -25,6 +27,9 @@ export const CartProvider = ({ children }) => {
   const [savedCarts, setSavedCarts] = useState([]);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState(null);
+  const pendingOperations = useRef(new Map()); //itemId -> summed quantity change not sent yet
+  const pendingCallbacks = useRef([]); //resolvers of addToCart/removeFromCart calls waiting for the batch
+  const flushTimer = useRef(null);
 
   useEffect(() => {
     if (currentUser) {
@@ -101,30 +106,74 @@ export const CartProvider = ({ children }) => {
     }
   };
 
-  //Adding items to cart
-  //If there is no active cart, a new one will be created
-  const addToCart = async (itemId, quantity) => {
+  //Updates the quantity of an item that is already shown in the cart, before the server answers.
+  //New items are shown only after the batch returns (their details come from the server).
+  const applyLocally = (itemId, delta) => {
+    const update = (items) =>
+      items
+        .map((item) => {
+          if (item.itemId !== itemId) return item;
+          const quantity = item.quantity + delta;
+          return {
+            ...item,
+            quantity,
+            totalMinPrice: item.minPrice != null ? quantity * item.minPrice : item.totalMinPrice,
+            totalMaxPrice: item.maxPrice != null ? quantity * item.maxPrice : item.totalMaxPrice,
+          };
+        })
+        .filter((item) => item.quantity > 0);
+    setCartItems(update);
+    setActiveCartItems(update);
+  };
+
+  //Sends all the collected quantity changes in one request and replaces the cart with the server state.
+  const flushCartOperations = async () => {
+    flushTimer.current = null;
+    const operations = Array.from(pendingOperations.current, ([itemId, delta]) => ({ itemId, delta }));
+    const callbacks = pendingCallbacks.current;
+    pendingOperations.current = new Map();
+    pendingCallbacks.current = [];
+    if (operations.length === 0) {
+      callbacks.forEach((resolve) => resolve());
+      return;
+    }
+
     try {
       let cartId = await getOrFetchActiveCartId(currentUser.userId); //get active cart by user id - if exists - else create new.
-      await addItemToCart(cartId, itemId, quantity); // add items to the active cart
-      await fetchActiveCartItems();
-      console.log("Add item to cart");
+      const items = await applyCartOperations(cartId, operations); //one API request for all the changes
+      const sortedItems = items.sort((a, b) => a.itemId.localeCompare(b.itemId));
+      setCartItems(sortedItems);
+      setActiveCartItems(sortedItems);
     } catch (err) {
-      setError("Error adding item to cart");
-      console.error("Error adding item to cart", err);
+      setError("Error updating cart");
+      console.error("Error updating cart", err);
+      await fetchActiveCartItems(); //undo the local changes
+    } finally {
+      callbacks.forEach((resolve) => resolve());
     }
   };
 
+  //Queues a quantity change of an item. Changes of the same item are summed,
+  //and the timer restarts on every change - so a burst of clicks becomes one request.
+  const queueCartOperation = (itemId, delta) => {
+    pendingOperations.current.set(itemId, (pendingOperations.current.get(itemId) || 0) + delta);
+    applyLocally(itemId, delta);
+    if (flushTimer.current) clearTimeout(flushTimer.current);
+    flushTimer.current = setTimeout(flushCartOperations, CART_FLUSH_DELAY_MS);
+    return new Promise((resolve) => pendingCallbacks.current.push(resolve));
+  };
+
+  //Adding items to cart
+  //If there is no active cart, a new one will be created
+  //Resolves after the change was saved on the server.
+  const addToCart = async (itemId, quantity) => {
+    await queueCartOperation(itemId, quantity);
+  };
+
   //Removing items from active cart
   //Note : Active cart definitely exists - because removing items is only done through the cart page.
   const removeFromCart = async (itemId, quantity) => {
-    let cartId = await getOrFetchActiveCartId(currentUser.userId); //get active cart by user id - if exists - else create new.
-    try {
-      await removeItemFromCart(cartId, itemId, quantity); //API request to remove an item to the cart in the DB
-      await fetchActiveCartItems();
-    } catch (err) {
-      setError("Error removing item from cart");
-    }
+    await queueCartOperation(itemId, -quantity);
   };
 
 
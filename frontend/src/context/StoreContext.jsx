@@ -9,7 +9,7 @@ import { getAllStores } from "../api/storeAPI";
 import { useNavigate } from "react-router-dom";
 import { useUser } from "../context/UserContext";
 import { useCart } from "../context/CartContext";
-import { sendComparisonRequest } from "../api/comparisonAPI";
+import { sendComparisonRequest, streamComparisonRequest } from "../api/comparisonAPI";
 
 const StoreContext = createContext();
 /**
@@ -30,6 +30,7 @@ export const StoreProvider = ({ children }) => {
   const [page, setPage] = useState(0);
   const [hasMore, setHasMore] = useState(true);
   const [loading, setLoading] = useState(false);
+  const [comparisonLoading, setComparisonLoading] = useState(false);
 
   // Initialize comparison results from sessionStorage
   const [comparisonResults, setComparisonResults] = useState(() => {
@@ -115,17 +116,35 @@ export const StoreProvider = ({ children }) => {
       console.warn("Missing required info for comparison.");
       return;
     }
+    const payload = {
+      userId: currentUser.id,
+      cartId: activeCartId,
+      storeIds: selectedStores,
+    };
+
+    // Results are streamed - show the page right away and add each store as it arrives
+    setComparisonResults([]);
+    setComparisonLoading(true);
+    navigate("/compare-results");
+    let received = 0;
     try {
-      const response = await sendComparisonRequest({
-        userId: currentUser.id,
-        cartId: activeCartId,
-        storeIds: selectedStores,
+      await streamComparisonRequest(payload, (result) => {
+        received++;
+        setComparisonResults((prev) => [...prev, result]);
       });
-      setComparisonResults(response); 
-      navigate("/compare-results");
-      console.log("Comparison successful:", response);
-    } catch (error) {
-      console.error("Comparison failed:", error);
+      console.log("Comparison successful:", received, "stores");
+    } catch (streamError) {
+      console.warn("Streaming comparison failed, falling back:", streamError);
+      if (received === 0) {
+        try {
+          const response = await sendComparisonRequest(payload);
+          setComparisonResults(response);
+        } catch (error) {
+          console.error("Comparison failed:", error);
+        }
+      }
+    } finally {
+      setComparisonLoading(false);
     }
   };
 /**
@@ -154,6 +173,7 @@ export const StoreProvider = ({ children }) => {
         hasMore,
         comparisonResults,
         setComparisonResults,
+        comparisonLoading,
         compareSelectedStores,
       }}
     >
@@ -3,7 +3,7 @@ import { useStore } from "../context/StoreContext";
 
 const CompareResultsPage = () => {
     // Retrieve the array of comparison results from the global store context
-  const { comparisonResults } = useStore();
+  const { comparisonResults, comparisonLoading } = useStore();
 
   return (
     <div className="p-6 max-w-7xl mx-auto bg-white rounded-xl shadow space-y-6">
@@ -12,8 +12,16 @@ const CompareResultsPage = () => {
         תוצאות השוואת מחירים 🧾
       </h2>
 
+      {comparisonLoading && (
+        <p className="text-center text-gray-500">
+          טוען תוצאות... ({comparisonResults.length} סניפים התקבלו)
+        </p>
+      )}
+
       {comparisonResults.length === 0 ? (
-        <p className="text-center text-gray-600">לא נמצאו תוצאות השוואה.</p>
+        !comparisonLoading && (
+          <p className="text-center text-gray-600">לא נמצאו תוצאות השוואה.</p>
+        )
       ) : (
         <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-6">
           {comparisonResults.map((result) => (
@@ -3,7 +3,8 @@ import {
   getItemsByGeneralCategory,
   getItemsBySubCategory,
   getItemsBySpecificCategory,
-  searchItems
+  searchItems,
+  suggestItems
 } from "../api/itemAPI";
 import ItemCard from "../components/ItemCard";
 import HoverTopCategoryBar from "../components/HoverTopCategoryBar";
@@ -19,6 +20,7 @@ const ItemsPage = () => {
   const [page, setPage] = useState(0);
   const [hasMore, setHasMore] = useState(true);
   const [searching, setSearching] = useState(false);
+  const [suggestions, setSuggestions] = useState([]);
   
   // Initialize selected category when categories are first loaded
   const handleCategoriesLoaded = (categories) => {
@@ -39,6 +41,24 @@ const ItemsPage = () => {
     return () => clearTimeout(timeout);
   }, [searchQuery]);
 
+  // Typeahead suggestions
+  // Suggestions are served from memory on the server, so a much shorter delay than the full search is fine.
+  useEffect(() => {
+    if (!searchQuery.trim()) {
+      setSuggestions([]);
+      return;
+    }
+    const timeout = setTimeout(async () => {
+      try {
+        setSuggestions(await suggestItems(searchQuery));
+      } catch (err) {
+        console.error(" Error fetching suggestions:", err);
+        setSuggestions([]);
+      }
+    }, 150);
+    return () => clearTimeout(timeout);
+  }, [searchQuery]);
+
   //search text
   //This effect runs whenever debouncedSearchQuery changes.
   useEffect(() => {
@@ -172,8 +192,17 @@ const ItemsPage = () => {
             placeholder="חיפוש לפי שם מוצר או ברקוד"
             value={searchQuery}
             onChange={handleSearchChange}
+            list="item-suggestions"
             className="w-full outline-none bg-transparent text-gray-800 placeholder-gray-400"
           />
+          <datalist id="item-suggestions">
+            {suggestions.map((suggestion) => (
+              <option
+                key={`${suggestion.type}-${suggestion.itemId ?? suggestion.text}`}
+                value={suggestion.text}
+              />
+            ))}
+          </datalist>
         </div>
 
         {/* Category filter bar */}
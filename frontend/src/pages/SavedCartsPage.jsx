@@ -1,6 +1,6 @@
 import React, { useEffect, useState } from "react";
 import { FiArchive, FiShoppingCart } from "react-icons/fi";
-import { getCartHistory } from "../api/cartAPI";
+import { getCartHistoryPage } from "../api/cartAPI";
 import { useCart } from "../context/CartContext";
 import { useUser } from "../context/UserContext";
 import { useNavigate } from "react-router-dom";
@@ -9,18 +9,32 @@ import SavedCartCard from "../components/SavedCartCard";
 const SavedCartsPage = () => {
    // State for storing the list of saved carts
   const [saved, setSaved] = useState([]);
+  // Token of the next page of carts (null when all carts were loaded)
+  const [nextCursor, setNextCursor] = useState(null);
     // Get currentUser and loading flag from UserContext
   const { currentUser, loading } = useUser();
   const navigate = useNavigate();
 
   // Function to fetch saved (archived) carts from the server
   // Can be called internally or passed down as a prop for child components
+  // Loads the first page again (the server returns the carts newest first)
   const fetchSavedCarts = async () => {
     try {
-      const carts = await getCartHistory(currentUser.id);
-            // Call API to fetch the current user's cart history
-      carts.sort((a, b) => new Date(b.updatedAt) - new Date(a.updatedAt));
-      setSaved(carts);
+      const page = await getCartHistoryPage(currentUser.id);
+      setSaved(page.content);
+      setNextCursor(page.hasNext ? page.nextCursor : null);
+    } catch (err) {
+      console.error("Error loading saved carts:", err);
+    }
+  };
+
+  // Appends the next page of carts
+  const fetchMoreSavedCarts = async () => {
+    if (!nextCursor) return;
+    try {
+      const page = await getCartHistoryPage(currentUser.id, nextCursor);
+      setSaved((prev) => [...prev, ...page.content]);
+      setNextCursor(page.hasNext ? page.nextCursor : null);
     } catch (err) {
       console.error("Error loading saved carts:", err);
     }
@@ -56,6 +70,16 @@ const SavedCartsPage = () => {
           {saved.map((cart) => (
             <SavedCartCard key={cart.id} cart={cart} onRefresh={fetchSavedCarts} />
           ))}
+          {nextCursor && (
+            <div className="text-center">
+              <button
+                onClick={fetchMoreSavedCarts}
+                className="px-6 py-2 bg-blue-600 text-white rounded-lg hover:bg-blue-700"
+              >
+                טען עגלות נוספות
+              </button>
+            </div>
+          )}
         </div>
       )}
     </div>